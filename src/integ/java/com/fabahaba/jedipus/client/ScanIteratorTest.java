@@ -0,0 +1,84 @@
+package com.fabahaba.jedipus.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import com.fabahaba.jedipus.client.ScanIterator.ZScanPage;
+import com.fabahaba.jedipus.cmds.Cmds;
+import com.fabahaba.jedipus.cmds.RESP;
+
+public class ScanIteratorTest extends BaseRedisClientTest {
+
+  private static final int NUM_ELEMENTS = 1000;
+
+  @Test
+  public void scanPages() {
+    IntStream.range(0, NUM_ELEMENTS).forEach(i -> {
+      client.sendCmd(Cmds.HSET.prim(), "hash", "f" + i, "v" + i);
+      client.sendCmd(Cmds.SADD.prim(), "set", "m" + i);
+      client.sendCmd(Cmds.ZADD.prim(), "zset", String.valueOf(i), "m" + i);
+    });
+
+    final ScanIterator.Builder builder =
+        ScanIterator.startBuilding().withInitialCount(10).withMaxCount(50);
+
+    final Map<String, String> hash = new HashMap<>();
+    try (final ScanIterator<Object[]> pages = builder.createHScan(client, "hash")) {
+      while (pages.hasNext()) {
+        final Object[] page = pages.next();
+        for (int i = 0; i < page.length; i += 2) {
+          hash.put(RESP.toString(page[i]), RESP.toString(page[i + 1]));
+        }
+      }
+      assertTrue(pages.getCount() >= 10 && pages.getCount() <= 50);
+    }
+    assertEquals(NUM_ELEMENTS, hash.size());
+    assertEquals("v7", hash.get("f7"));
+
+    final Set<String> set = new HashSet<>();
+    try (final ScanIterator<Object[]> pages =
+        ScanIterator.startBuilding().withPattern("m1*").createSScan(client, "set")) {
+      pages.forEachRemaining(page -> {
+        for (final Object member : page) {
+          set.add(RESP.toString(member));
+        }
+      });
+    }
+    assertEquals(111, set.size());
+
+    double scoreSum = 0;
+    try (final ScanIterator<ZScanPage> pages = builder.createZScan(client, "zset")) {
+      while (pages.hasNext()) {
+        final ZScanPage page = pages.next();
+        assertEquals(page.size(), page.getScores().length);
+        for (final double score : page.getScores()) {
+          scoreSum += score;
+        }
+      }
+    }
+    assertEquals(NUM_ELEMENTS * (NUM_ELEMENTS - 1) / 2, scoreSum, 0);
+  }
+
+  @Test
+  public void closeDrainsPrefetchedPage() {
+    IntStream.range(0, NUM_ELEMENTS).forEach(i -> client.sendCmd(Cmds.SADD.prim(), "set", "m" + i));
+
+    try (final ScanIterator<Object[]> pages =
+        ScanIterator.startBuilding().withInitialCount(10).createSScan(client, "set")) {
+      pages.next();
+      assertTrue(pages.hasNext());
+    }
+
+    assertEquals(NUM_ELEMENTS, client.sendCmd(Cmds.SCARD.prim(), "set"));
+    assertFalse(client.isBroken());
+  }
+}
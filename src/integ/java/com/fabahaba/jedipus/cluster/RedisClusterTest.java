@@ -6,6 +6,7 @@ import com.fabahaba.jedipus.client.FutureReply;
 import com.fabahaba.jedipus.client.HostPort;
 import com.fabahaba.jedipus.client.RedisClient;
 import com.fabahaba.jedipus.client.SerializableFunction;
+import com.fabahaba.jedipus.cluster.RedisClusterExecutor.NodeSelector;
 import com.fabahaba.jedipus.cluster.RedisClusterExecutor.ReadMode;
 import com.fabahaba.jedipus.cmds.Cmd;
 import com.fabahaba.jedipus.cmds.Cmds;
@@ -15,6 +16,7 @@ import com.fabahaba.jedipus.exceptions.RedisClusterDownException;
 import com.fabahaba.jedipus.exceptions.RedisUnhandledException;
 import com.fabahaba.jedipus.exceptions.SlotMovedException;
 import com.fabahaba.jedipus.exceptions.UnhandledAskNodeException;
+import com.fabahaba.jedipus.params.ScanParams;
 import com.fabahaba.jedipus.pool.ClientPool;
 import com.fabahaba.jedipus.primitive.RedisClientFactory;
 
@@ -27,6 +29,7 @@ import org.junit.Test;
 import java.time.Duration;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -35,12 +38,14 @@ import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static org.junit.Assert.assertEquals;
@@ -276,6 +281,111 @@ public class RedisClusterTest extends BaseRedisClientTest {
     }
   }
 
+  @Test
+  public void testMapReduceNodes() {
+    try (final RedisClient client = RedisClientFactory.startBuilding().create(masters[0])) {
+      setUpSlaves(client.getClusterNodeMap());
+    }
+
+    try (final RedisClusterExecutor rce =
+        RedisClusterExecutor.startBuilding(discoveryNodes).withReadMode(ReadMode.MIXED)
+            .withFanOutParallelism(2).create()) {
+
+      IntStream.range(0, 100).forEach(key -> rce.accept(String.valueOf(key),
+          jedis -> jedis.sendCmd(Cmds.SET, String.valueOf(key), "val")));
+
+      assertEquals(NUM_MASTERS, rce.mapReduceNodes(NodeSelector.MASTERS, master -> 1, Integer::sum)
+          .intValue());
+      assertEquals(100, rce.sumNodes(NodeSelector.MASTERS, master -> master.sendCmd(Cmds.DBSIZE)
+          .longValue()));
+      assertEquals(NUM_MASTERS + NUM_SLAVES, rce.mapReduceNodes(NodeSelector.ALL, node -> 1,
+          Integer::sum, Duration.ofSeconds(5)).intValue());
+    }
+  }
+
+  @Test
+  public void testScanKeys() throws InterruptedException, ExecutionException {
+    try (final RedisClusterExecutor rce =
+        RedisClusterExecutor.startBuilding(discoveryNodes).withFanOutParallelism(2).create()) {
+
+      IntStream.range(0, 100).forEach(key -> rce.accept(String.valueOf(key),
+          jedis -> jedis.sendCmd(Cmds.SET, String.valueOf(key), "val")));
+      rce.accept("list", jedis -> jedis.sendCmd(Cmds.LPUSH, "list", "val"));
+
+      final byte[][] options = ScanParams.createScanOptions("*", 10, "string");
+      final Set<String> keys = rce.scanKeys(ReadMode.MASTER, options).map(RESP::toString)
+          .collect(Collectors.toSet());
+      assertEquals(100, keys.size());
+      assertFalse(keys.contains("list"));
+
+      final Set<String> asyncKeys = ConcurrentHashMap.newKeySet();
+      rce.scanKeysAsync(batch -> {
+        for (final Object key : batch) {
+          asyncKeys.add(RESP.toString(key));
+        }
+      }, options).get();
+      assertEquals(keys, asyncKeys);
+    }
+  }
+
+  @Test
+  public void testBulkKeyJob() throws InterruptedException, ExecutionException {
+    try (final RedisClusterExecutor rce =
+        RedisClusterExecutor.startBuilding(discoveryNodes).withFanOutParallelism(2).create()) {
+
+      IntStream.range(0, 100).forEach(key -> rce.accept(String.valueOf(key),
+          jedis -> jedis.sendCmd(Cmds.SET, String.valueOf(key), "val")));
+      rce.accept("keep", jedis -> jedis.sendCmd(Cmds.SET, "keep", "val"));
+
+      final BulkKeyJob expireJob = rce.expireKeys(Duration.ofMinutes(1), 0,
+          ScanParams.createScanOptions("*", 10, null));
+      expireJob.getCompletion().get();
+      assertEquals(101, expireJob.getProcessedKeys());
+      assertEquals(expireJob.getNumShards(), expireJob.getCompletedShards());
+      assertTrue(rce.apply("keep", jedis -> jedis.sendCmd(Cmds.PTTL.prim(), "keep")) > 0);
+
+      final BulkKeyJob unlinkJob =
+          rce.unlinkKeys(1000, ScanParams.createScanOptions("[0-9]*", 10, null));
+      unlinkJob.getCompletion().get();
+      assertEquals(100, unlinkJob.getProcessedKeys());
+      assertEquals(1, rce.sumNodes(NodeSelector.MASTERS, master -> master.sendCmd(Cmds.DBSIZE)
+          .longValue()));
+    }
+  }
+
+  @Test
+  public void testReshard() throws InterruptedException, ExecutionException {
+    final int slot = CRC16.getSlot("reshard");
+    final int targetSlot = rotateSlotNode(slot);
+
+    try (final RedisClusterExecutor rce =
+        RedisClusterExecutor.startBuilding(discoveryNodes).withFanOutParallelism(2).create()) {
+
+      final Node source = rce.apply(slot, RedisClient::getNode);
+      final Node target = rce.apply(targetSlot, RedisClient::getNode);
+      final String hashTag = "{reshard}";
+      IntStream.range(0, 250).forEach(key -> rce.accept(slot,
+          jedis -> jedis.sendCmd(Cmds.SET, hashTag + key, "val")));
+
+      final ReshardPlan plan =
+          ReshardPlan.create(Arrays.asList(new ReshardPlan.SlotMove(slot, source, target)));
+
+      final ReshardJob job = rce.startReshard(plan, 100, 0, Duration.ofSeconds(5), false);
+      job.getCompletion().get();
+      assertEquals(1, job.getMovedSlots());
+      assertEquals(250, job.getMigratedKeys());
+
+      assertEquals(target, rce.apply(slot, RedisClient::getNode));
+      assertEquals("val", rce.apply(slot, jedis -> jedis.sendCmd(Cmds.GET, hashTag + 42)));
+
+      // Executing the plan again skips slots that already moved.
+      final ReshardJob resumed = rce.startReshard(plan, 0);
+      resumed.getCompletion().get();
+      assertEquals(1, resumed.getMovedSlots());
+      assertEquals(0, resumed.getMigratedKeys());
+    }
+  }
+
   @Test
   public void testReadonly() {
     try (final RedisClient client = RedisClientFactory.startBuilding().create(masters[0])) {
@@ -501,6 +611,51 @@ public class RedisClusterTest extends BaseRedisClientTest {
     }
   }
 
+  @Test
+  public void testClusterPipelineMovedKey() {
+    final String movedKey = "42";
+    final int movedSlot = CRC16.getSlot(movedKey);
+    final int importingNodeSlot = rotateSlotNode(movedSlot);
+    final int numKeys = 1000;
+
+    try (final RedisClusterExecutor rce = RedisClusterExecutor.startBuilding(discoveryNodes)
+        .withPartitionedStrategy(PartitionedStrategyConfig.Strategy.TOP.create()).create()) {
+
+      rce.acceptClusterPipeline(pipeline -> {
+        for (int i = 0; i < numKeys; i++) {
+          final String key = String.valueOf(i);
+          // The exporting node refuses to give up a slot that still holds keys.
+          if (CRC16.getSlot(key) != movedSlot) {
+            pipeline.sendCmd(Cmds.SET, key, key);
+          }
+        }
+        pipeline.syncThrow();
+      });
+
+      final String importing = rce.apply(importingNodeSlot, RedisClient::getNodeId);
+      for (final RedisClient client : masterClients) {
+        client.clusterSetSlotNode(movedSlot, importing);
+      }
+
+      final List<FutureReply<String>> replies = new ArrayList<>(numKeys);
+      rce.acceptClusterPipeline(pipeline -> {
+        for (int i = 0; i < numKeys; i++) {
+          replies.add(pipeline.sendCmd(Cmds.GET, String.valueOf(i)));
+        }
+        pipeline.sync();
+      });
+
+      for (int i = 0; i < numKeys; i++) {
+        final String key = String.valueOf(i);
+        if (CRC16.getSlot(key) == movedSlot) {
+          assertEquals(null, replies.get(i).get());
+          continue;
+        }
+        assertEquals(key, replies.get(i).get());
+      }
+    }
+  }
+
   @Test(expected = RedisUnhandledException.class)
   public void testRedisClusterMaxRedirections() {
     final byte[] key = RESP.toBytes("42");
@@ -0,0 +1,63 @@
+package com.fabahaba.jedipus.cluster;
+
+import com.fabahaba.jedipus.cmds.RESP;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares slot hashing of String and byte[] keys against encoding the String first.
+ *
+ * <p>Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CRC16Benchmark {
+
+  @Param({"8", "32", "256"})
+  private int keyLength;
+
+  private String key;
+  private byte[] keyBytes;
+
+  @Setup
+  public void setup() {
+    final StringBuilder builder = new StringBuilder("user:");
+    while (builder.length() < keyLength) {
+      builder.append(builder.length() % 10);
+    }
+    builder.setLength(keyLength);
+    key = builder.toString();
+    keyBytes = RESP.toBytes(key);
+  }
+
+  @Benchmark
+  public int stringKey() {
+    return CRC16.getSlot(key);
+  }
+
+  @Benchmark
+  public int encodedStringKey() {
+    return CRC16.getSlot(RESP.toBytes(key));
+  }
+
+  @Benchmark
+  public int byteKey() {
+    return CRC16.getSlot(keyBytes);
+  }
+}
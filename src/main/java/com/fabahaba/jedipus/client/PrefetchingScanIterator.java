@@ -0,0 +1,138 @@
+package com.fabahaba.jedipus.client;
+
+import com.fabahaba.jedipus.cmds.Cmd;
+import com.fabahaba.jedipus.cmds.Cmds;
+import com.fabahaba.jedipus.cmds.RESP;
+import com.fabahaba.jedipus.params.ScanParams;
+
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+final class PrefetchingScanIterator<P> implements ScanIterator<P> {
+
+  private static final byte[] SCAN_START = RESP.toBytes(ScanParams.SCAN_SENTINEL);
+
+  private final RedisClient client;
+  private final RedisPipeline pipeline;
+  private final Cmd<Object[]> cmd;
+  // [key,] cursor, COUNT, count [, MATCH, pattern] [, TYPE, type]
+  private final byte[][] args;
+  private final int cursorIndex;
+  private final Function<Object[], P> pageParser;
+  private final int minCount;
+  private final int maxCount;
+  private final int maxPageElements;
+  private final long maxPageWaitNanos;
+
+  private int count;
+  private FutureReply<Object[]> pendingPage;
+
+  PrefetchingScanIterator(final RedisClient client, final Cmd<Object[]> cmd, final byte[] key,
+      final byte[] pattern, final byte[] type, final Function<Object[], P> pageParser,
+      final int count, final int minCount, final int maxCount, final int maxPageElements,
+      final long maxPageWaitNanos) {
+
+    this.client = client;
+    this.pipeline = client.pipeline();
+    this.cmd = cmd;
+    this.pageParser = pageParser;
+    this.count = count;
+    this.minCount = minCount;
+    this.maxCount = maxCount;
+    this.maxPageElements = maxPageElements;
+    this.maxPageWaitNanos = maxPageWaitNanos;
+
+    this.cursorIndex = key == null ? 0 : 1;
+    this.args = new byte[cursorIndex + 3 + (pattern == null ? 0 : 2) + (type == null ? 0 : 2)][];
+    int index = 0;
+    if (key != null) {
+      args[index++] = key;
+    }
+    args[index++] = SCAN_START;
+    args[index++] = Cmds.COUNT.getCmdBytes();
+    index++;
+    if (pattern != null) {
+      args[index++] = Cmds.MATCH.getCmdBytes();
+      args[index++] = pattern;
+    }
+    if (type != null) {
+      args[index++] = Cmds.TYPE.getCmdBytes();
+      args[index++] = type;
+    }
+
+    requestPage(SCAN_START);
+  }
+
+  private void requestPage(final byte[] cursor) {
+    args[cursorIndex] = cursor;
+    args[cursorIndex + 2] = RESP.toBytes(count);
+    pendingPage = pipeline.sendCmd(cmd, args);
+    client.flush();
+  }
+
+  @Override
+  public boolean hasNext() {
+    return pendingPage != null;
+  }
+
+  @Override
+  public P next() {
+    if (pendingPage == null) {
+      throw new NoSuchElementException();
+    }
+
+    final long waitStart = System.nanoTime();
+    final Object[] reply;
+    try {
+      pipeline.sync();
+      reply = pendingPage.get();
+    } finally {
+      pendingPage = null;
+    }
+    final long waitNanos = System.nanoTime() - waitStart;
+
+    final byte[] cursor = (byte[]) reply[0];
+    final Object[] elements = (Object[]) reply[1];
+    count = adaptCount(count, elements.length, waitNanos);
+
+    if (!isSentinel(cursor)) {
+      requestPage(cursor);
+    }
+
+    return pageParser.apply(elements);
+  }
+
+  int adaptCount(final int count, final int numElements, final long waitNanos) {
+    if (numElements > maxPageElements) {
+      return Math.max(minCount, count >>> 1);
+    }
+    if (waitNanos > maxPageWaitNanos) {
+      // Processing outpaced the prefetch, fewer round trips of larger pages keep up better.
+      return (int) Math.min(maxCount, count * 2L);
+    }
+    return count;
+  }
+
+  private static boolean isSentinel(final byte[] cursor) {
+    return cursor.length == 1 && cursor[0] == '0';
+  }
+
+  @Override
+  public int getCount() {
+    return count;
+  }
+
+  @Override
+  public void close() {
+    if (pendingPage != null) {
+      pendingPage = null;
+      pipeline.sync();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new StringBuilder("PrefetchingScanIterator [cmd=").append(cmd).append(", count=")
+        .append(count).append(", pending=").append(pendingPage != null).append("]").toString();
+  }
+}
@@ -2,6 +2,7 @@ package com.fabahaba.jedipus.client;
 
 import com.fabahaba.jedipus.cmds.Cmds;
 import com.fabahaba.jedipus.cmds.RESP;
+import com.fabahaba.jedipus.cmds.RedisKey;
 
 public interface RedisClient extends Cmds, AutoCloseable {
 
@@ -56,6 +57,10 @@ public interface RedisClient extends Cmds, AutoCloseable {
     return watch(RESP.toBytes(key));
   }
 
+  default String watch(final RedisKey key) {
+    return watch(key.getBytes());
+  }
+
   String watch(final String... keys);
 
   String watch(final byte[] key);
@@ -0,0 +1,209 @@
+package com.fabahaba.jedipus.client;
+
+import com.fabahaba.jedipus.cmds.Cmd;
+import com.fabahaba.jedipus.cmds.Cmds;
+import com.fabahaba.jedipus.cmds.RESP;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.function.Function;
+
+/**
+ * Iterates the pages of a SCAN, HSCAN, SSCAN or ZSCAN cursor. The request for the next page is
+ * pipelined as soon as a page is returned, so the round trip overlaps with processing the page.
+ * The client is used exclusively until the iterator is closed or exhausted. Pages may be empty.
+ */
+public interface ScanIterator<P> extends Iterator<P>, AutoCloseable {
+
+  public static Builder startBuilding() {
+    return new Builder();
+  }
+
+  /**
+   * @return The COUNT hint used for the next page request.
+   */
+  int getCount();
+
+  /**
+   * Reads any prefetched page that was not consumed, leaving the client ready for other commands.
+   */
+  @Override
+  void close();
+
+  public static final class ZScanPage {
+
+    private final byte[][] members;
+    private final double[] scores;
+
+    ZScanPage(final byte[][] members, final double[] scores) {
+      this.members = members;
+      this.scores = scores;
+    }
+
+    // [member, score, member, score, ...]
+    static ZScanPage create(final Object[] reply) {
+      final int size = reply.length / 2;
+      final byte[][] members = new byte[size][];
+      final double[] scores = new double[size];
+      for (int i = 0, j = 0; i < size; i++) {
+        members[i] = (byte[]) reply[j++];
+        scores[i] = RESP.toDouble((byte[]) reply[j++]);
+      }
+      return new ZScanPage(members, scores);
+    }
+
+    public int size() {
+      return members.length;
+    }
+
+    public byte[][] getMembers() {
+      return members;
+    }
+
+    public double[] getScores() {
+      return scores;
+    }
+  }
+
+  public static final class Builder {
+
+    private byte[] pattern;
+    private byte[] type;
+    private int initialCount = 100;
+    private int minCount = 10;
+    private int maxCount = 10_000;
+    private int maxPageElements = 10_000;
+    private Duration maxPageWait = Duration.ofMillis(1);
+
+    private Builder() {}
+
+    public ScanIterator<Object[]> createScan(final RedisClient client) {
+      return create(client, Cmds.SCAN, null, reply -> reply);
+    }
+
+    /**
+     * @return Pages of alternating fields and values.
+     */
+    public ScanIterator<Object[]> createHScan(final RedisClient client, final byte[] key) {
+      return create(client, Cmds.HSCAN, key, reply -> reply);
+    }
+
+    public ScanIterator<Object[]> createSScan(final RedisClient client, final byte[] key) {
+      return create(client, Cmds.SSCAN, key, reply -> reply);
+    }
+
+    public ScanIterator<ZScanPage> createZScan(final RedisClient client, final byte[] key) {
+      return create(client, Cmds.ZSCAN, key, ZScanPage::create);
+    }
+
+    public ScanIterator<Object[]> createHScan(final RedisClient client, final String key) {
+      return createHScan(client, RESP.toBytes(key));
+    }
+
+    public ScanIterator<Object[]> createSScan(final RedisClient client, final String key) {
+      return createSScan(client, RESP.toBytes(key));
+    }
+
+    public ScanIterator<ZScanPage> createZScan(final RedisClient client, final String key) {
+      return createZScan(client, RESP.toBytes(key));
+    }
+
+    private <P> ScanIterator<P> create(final RedisClient client, final Cmd<Object[]> cmd,
+        final byte[] key, final Function<Object[], P> pageParser) {
+
+      final int count = Math.max(minCount, Math.min(maxCount, initialCount));
+      return new PrefetchingScanIterator<>(client, cmd, key, pattern,
+          type == null || key != null ? null : type, pageParser, count, minCount, maxCount,
+          maxPageElements, maxPageWait.toNanos());
+    }
+
+    public byte[] getPattern() {
+      return pattern;
+    }
+
+    public Builder withPattern(final byte[] pattern) {
+      this.pattern = pattern;
+      return this;
+    }
+
+    public Builder withPattern(final String pattern) {
+      return withPattern(pattern == null ? null : RESP.toBytes(pattern));
+    }
+
+    public byte[] getType() {
+      return type;
+    }
+
+    /**
+     * @param type Only applies to SCAN, supported since Redis 6.0.
+     * @return this Builder.
+     */
+    public Builder withType(final String type) {
+      this.type = type == null ? null : RESP.toBytes(type);
+      return this;
+    }
+
+    public int getInitialCount() {
+      return initialCount;
+    }
+
+    public Builder withInitialCount(final int initialCount) {
+      this.initialCount = initialCount;
+      return this;
+    }
+
+    public int getMinCount() {
+      return minCount;
+    }
+
+    public Builder withMinCount(final int minCount) {
+      this.minCount = minCount;
+      return this;
+    }
+
+    public int getMaxCount() {
+      return maxCount;
+    }
+
+    public Builder withMaxCount(final int maxCount) {
+      this.maxCount = maxCount;
+      return this;
+    }
+
+    public int getMaxPageElements() {
+      return maxPageElements;
+    }
+
+    /**
+     * @param maxPageElements COUNT is halved after a page with more elements than this.
+     * @return this Builder.
+     */
+    public Builder withMaxPageElements(final int maxPageElements) {
+      this.maxPageElements = maxPageElements;
+      return this;
+    }
+
+    public Duration getMaxPageWait() {
+      return maxPageWait;
+    }
+
+    /**
+     * @param maxPageWait COUNT is doubled after waiting longer than this for a prefetched page,
+     *        as processing is then faster than the round trip.
+     * @return this Builder.
+     */
+    public Builder withMaxPageWait(final Duration maxPageWait) {
+      this.maxPageWait = maxPageWait;
+      return this;
+    }
+
+    @Override
+    public String toString() {
+      return new StringBuilder("ScanIterator.Builder [pattern=").append(RESP.toString(pattern))
+          .append(", type=").append(RESP.toString(type)).append(", initialCount=")
+          .append(initialCount).append(", minCount=").append(minCount).append(", maxCount=")
+          .append(maxCount).append(", maxPageElements=").append(maxPageElements)
+          .append(", maxPageWait=").append(maxPageWait).append("]").toString();
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package com.fabahaba.jedipus.cluster;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A running job that scans the keys of every master in parallel and applies a mutation to each
+ * key. Mutations are pipelined with CLIENT REPLY OFF, so their replies, including errors, are not
+ * read. After each SCAN page a CLIENT REPLY ON checkpoint confirms that the page's mutations have
+ * been processed before the shard's cursor advances. Each shard stays on its master, as a cursor
+ * is only valid on the node that issued it. Reconnects resume from the last checkpoint, so some
+ * keys may be mutated more than once, while a master that fails over or leaves the cluster fails
+ * the job.
+ */
+public interface BulkKeyJob {
+
+  /**
+   * @return Completes once every shard has been scanned or the job has been cancelled, or
+   *         completes exceptionally with the first shard failure.
+   */
+  CompletableFuture<Void> getCompletion();
+
+  /**
+   * Stops each shard after its current checkpoint.
+   */
+  void cancel();
+
+  boolean isCancelled();
+
+  int getNumShards();
+
+  int getCompletedShards();
+
+  /**
+   * @return Keys passed to the mutation and confirmed by a checkpoint.
+   */
+  long getProcessedKeys();
+
+  long getCheckpoints();
+
+  Duration getElapsed();
+
+  default double getKeysPerSecond() {
+    final long elapsedNanos = getElapsed().toNanos();
+    return elapsedNanos == 0 ? 0 : getProcessedKeys() * 1_000_000_000.0 / elapsedNanos;
+  }
+}
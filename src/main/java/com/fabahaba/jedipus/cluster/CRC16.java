@@ -3,8 +3,6 @@ package com.fabahaba.jedipus.cluster;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
-import com.fabahaba.jedipus.cmds.RESP;
-
 public final class CRC16 {
 
   private CRC16() {}
@@ -37,6 +35,23 @@ public final class CRC16 {
       0x1ce0, 0x0cc1, 0xef1f, 0xff3e, 0xcf5d, 0xdf7c, 0xaf9b, 0xbfba, 0x8fd9, 0x9ff8, 0x6e17,
       0x7e36, 0x4e55, 0x5e74, 0x2e93, 0x3eb2, 0x0ed1, 0x1ef0};
 
+  // SLICE_TABLES[k << 8 | b] is the CRC of byte b followed by k zero bytes, which lets eight
+  // input bytes be folded into the CRC with independent table lookups.
+  private static final int SLICE = 8;
+  private static final char[] SLICE_TABLES = new char[SLICE << 8];
+
+  static {
+    for (int b = 0; b < 256; b++) {
+      SLICE_TABLES[b] = (char) CRC16_TABLE[b];
+    }
+    for (int k = 1; k < SLICE; k++) {
+      for (int b = 0; b < 256; b++) {
+        final int prev = SLICE_TABLES[(k - 1) << 8 | b];
+        SLICE_TABLES[k << 8 | b] = (char) ((prev << 8) ^ CRC16_TABLE[prev >>> 8]);
+      }
+    }
+  }
+
   public static int getRandomSlot() {
     return ThreadLocalRandom.current().nextInt(NUM_SLOTS);
   }
@@ -53,49 +68,140 @@ public final class CRC16 {
     return params.length == 0 ? getRandomSlot() : CRC16.getSlot(params[0]);
   }
 
+  // Hash tags follow Redis: the bytes between the first '{' and the first '}' after it, unless
+  // that is empty.
   public static int getSlot(final String key) {
     final int s = key.indexOf('{');
     if (s > -1) {
-      final int e = key.indexOf('}', s + 2);
-      if (e > -1) {
-        return getCRC16(key.substring(s + 1, e)) & MAX_SLOT;
+      final int e = key.indexOf('}', s + 1);
+      if (e > s + 1) {
+        return getCRC16(key, s + 1, e) & MAX_SLOT;
       }
     }
-    return getCRC16(key) & MAX_SLOT;
+    return getCRC16(key, 0, key.length()) & MAX_SLOT;
+  }
+
+  public static int getSlot(final CharSequence key) {
+    final int length = key.length();
+    for (int s = 0; s < length; s++) {
+      if (key.charAt(s) == '{') {
+        for (int e = s + 1; e < length; e++) {
+          if (key.charAt(e) == '}') {
+            if (e > s + 1) {
+              return getCRC16(key, s + 1, e) & MAX_SLOT;
+            }
+            break;
+          }
+        }
+        break;
+      }
+    }
+    return getCRC16(key, 0, length) & MAX_SLOT;
   }
 
   public static int getSlot(final byte[] key) {
-    for (int i = 0, end = key.length - 2; i < end;) {
-      if (key[i++] == '{') {
-        for (final int s = ++i; i < key.length; i++) {
-          if (key[i] == '}') {
-            return getCRC16(key, s, i) & MAX_SLOT;
+    for (int s = 0; s < key.length; s++) {
+      if (key[s] == '{') {
+        for (int e = s + 1; e < key.length; e++) {
+          if (key[e] == '}') {
+            if (e > s + 1) {
+              return getCRC16(key, s + 1, e) & MAX_SLOT;
+            }
+            break;
           }
         }
         break;
       }
     }
-    return getCRC16(key) & MAX_SLOT;
+    return getCRC16(key, 0, key.length) & MAX_SLOT;
   }
 
   public static int getCRC16(final byte[] bytes) {
+    return getCRC16(bytes, 0, bytes.length);
+  }
+
+  public static int getCRC16(final byte[] bytes, final int inclusive, final int exclusive) {
+    final char[] tables = SLICE_TABLES;
     int crc = 0x0000;
-    for (final byte bite : bytes) {
-      crc = (crc << 8) ^ CRC16_TABLE[((crc >>> 8) ^ bite) & 0xFF];
+    int i = inclusive;
+
+    for (final int end = exclusive - SLICE; i <= end; i += SLICE) {
+      crc = tables[7 << 8 | ((crc >>> 8) ^ bytes[i]) & 0xFF]
+          ^ tables[6 << 8 | (crc ^ bytes[i + 1]) & 0xFF]
+          ^ tables[5 << 8 | bytes[i + 2] & 0xFF]
+          ^ tables[4 << 8 | bytes[i + 3] & 0xFF]
+          ^ tables[3 << 8 | bytes[i + 4] & 0xFF]
+          ^ tables[2 << 8 | bytes[i + 5] & 0xFF]
+          ^ tables[1 << 8 | bytes[i + 6] & 0xFF]
+          ^ tables[bytes[i + 7] & 0xFF];
+    }
+
+    for (; i < exclusive; i++) {
+      crc = (crc << 8 & 0xFFFF) ^ tables[((crc >>> 8) ^ bytes[i]) & 0xFF];
     }
     return crc;
   }
 
-  public static int getCRC16(final byte[] bytes, final int inclusive, final int exclusive) {
+  public static int getCRC16(final String key) {
+    return getCRC16(key, 0, key.length());
+  }
+
+  /**
+   * Computes the CRC16 of the UTF-8 encoding of chars [inclusive, exclusive) without encoding
+   * them to a byte[]. Unpaired surrogates are hashed as '?', as {@link String#getBytes} encodes
+   * them.
+   *
+   * @param key The chars to hash.
+   * @param inclusive The first char.
+   * @param exclusive The end of the range.
+   * @return The CRC16 of the encoded range.
+   */
+  public static int getCRC16(final CharSequence key, final int inclusive, final int exclusive) {
+    final char[] tables = SLICE_TABLES;
     int crc = 0x0000;
-    for (int i = inclusive; i < exclusive; i++) {
-      crc = (crc << 8) ^ CRC16_TABLE[((crc >>> 8) ^ bytes[i]) & 0xFF];
+
+    for (int i = inclusive; i < exclusive;) {
+      if (i <= exclusive - SLICE) {
+        final char c0 = key.charAt(i);
+        final char c1 = key.charAt(i + 1);
+        final char c2 = key.charAt(i + 2);
+        final char c3 = key.charAt(i + 3);
+        final char c4 = key.charAt(i + 4);
+        final char c5 = key.charAt(i + 5);
+        final char c6 = key.charAt(i + 6);
+        final char c7 = key.charAt(i + 7);
+
+        if ((c0 | c1 | c2 | c3 | c4 | c5 | c6 | c7) < 0x80) {
+          crc = tables[7 << 8 | (crc >>> 8) ^ c0] ^ tables[6 << 8 | (crc & 0xFF) ^ c1]
+              ^ tables[5 << 8 | c2] ^ tables[4 << 8 | c3] ^ tables[3 << 8 | c4]
+              ^ tables[2 << 8 | c5] ^ tables[1 << 8 | c6] ^ tables[c7];
+          i += SLICE;
+          continue;
+        }
+      }
+
+      final char c = key.charAt(i++);
+      if (c < 0x80) {
+        crc = update(crc, c);
+      } else if (c < 0x800) {
+        crc = update(update(crc, 0xC0 | c >>> 6), 0x80 | c & 0x3F);
+      } else if (!Character.isSurrogate(c)) {
+        crc = update(update(update(crc, 0xE0 | c >>> 12), 0x80 | c >>> 6 & 0x3F), 0x80 | c & 0x3F);
+      } else if (Character.isHighSurrogate(c) && i < exclusive
+          && Character.isLowSurrogate(key.charAt(i))) {
+        final int codePoint = Character.toCodePoint(c, key.charAt(i++));
+        crc = update(update(update(update(crc, 0xF0 | codePoint >>> 18),
+            0x80 | codePoint >>> 12 & 0x3F), 0x80 | codePoint >>> 6 & 0x3F),
+            0x80 | codePoint & 0x3F);
+      } else {
+        crc = update(crc, '?');
+      }
     }
     return crc;
   }
 
-  public static int getCRC16(final String key) {
-    return getCRC16(RESP.toBytes(key));
+  private static int update(final int crc, final int bite) {
+    return (crc << 8 & 0xFFFF) ^ SLICE_TABLES[((crc >>> 8) ^ bite) & 0xFF];
   }
 
   public static String createHashTag(final int key) {
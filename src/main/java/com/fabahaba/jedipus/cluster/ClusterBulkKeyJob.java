@@ -0,0 +1,201 @@
+package com.fabahaba.jedipus.cluster;
+
+import com.fabahaba.jedipus.client.FutureReply;
+import com.fabahaba.jedipus.client.RedisClient;
+import com.fabahaba.jedipus.client.RedisPipeline;
+import com.fabahaba.jedipus.cluster.RedisClusterExecutor.ReadMode;
+import com.fabahaba.jedipus.cmds.Cmds;
+import com.fabahaba.jedipus.cmds.RESP;
+import com.fabahaba.jedipus.exceptions.RedisUnhandledException;
+import com.fabahaba.jedipus.params.ScanParams;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+final class ClusterBulkKeyJob implements BulkKeyJob {
+
+  private static final byte[] SCAN_START = RESP.toBytes(ScanParams.SCAN_SENTINEL);
+
+  private final RedisClusterExecutor executor;
+  private final BiConsumer<RedisPipeline, byte[]> keyMutation;
+  private final OpsRateLimiter rateLimiter;
+  private final int maxRetries;
+  private final byte[][] scanOptions;
+  private final int numShards;
+  private final AtomicInteger completedShards = new AtomicInteger();
+  private final LongAdder processedKeys = new LongAdder();
+  private final LongAdder checkpoints = new LongAdder();
+  private final CompletableFuture<Void> completion = new CompletableFuture<>();
+  private final long startNanos = System.nanoTime();
+  private volatile long endNanos = 0;
+  private volatile boolean cancelled = false;
+
+  private ClusterBulkKeyJob(final RedisClusterExecutor executor,
+      final BiConsumer<RedisPipeline, byte[]> keyMutation, final long maxOpsPerSecond,
+      final int maxRetries, final byte[][] scanOptions, final int numShards) {
+
+    this.executor = executor;
+    this.keyMutation = keyMutation;
+    this.rateLimiter = new OpsRateLimiter(maxOpsPerSecond);
+    this.maxRetries = maxRetries;
+    this.scanOptions = scanOptions;
+    this.numShards = numShards;
+  }
+
+  static ClusterBulkKeyJob start(final RedisClusterExecutor executor,
+      final BiConsumer<RedisPipeline, byte[]> keyMutation, final long maxOpsPerSecond,
+      final int maxRetries, final byte[][] scanOptions, final int[] shardSlots,
+      final ExecutorService shardExecutor) {
+
+    final ClusterBulkKeyJob job = new ClusterBulkKeyJob(executor, keyMutation, maxOpsPerSecond,
+        maxRetries, scanOptions, shardSlots.length);
+
+    final CompletableFuture<?>[] shards = new CompletableFuture<?>[shardSlots.length];
+    for (int i = 0; i < shardSlots.length; i++) {
+      final int shardSlot = shardSlots[i];
+      shards[i] = CompletableFuture.runAsync(() -> job.runShard(shardSlot), shardExecutor);
+    }
+
+    CompletableFuture.allOf(shards).whenComplete((ignored, cause) -> {
+      job.endNanos = System.nanoTime();
+      if (cause == null) {
+        job.completion.complete(null);
+      } else {
+        job.cancelled = true;
+        job.completion.completeExceptionally(cause);
+      }
+    });
+    return job;
+  }
+
+  private void runShard(final int shardSlot) {
+    // A cursor is only valid on the node that issued it, so the shard stays on its master.
+    final Node node = executor.apply(ReadMode.MASTER, shardSlot, RedisClient::getNode, maxRetries);
+    // The cursor of the last checkpoint, null until the first one, retries resume from it.
+    final byte[][] cursor = new byte[1][];
+    final Boolean mutated = executor.applyIfPresent(node, client -> {
+      mutateShard(client, cursor);
+      return Boolean.TRUE;
+    }, maxRetries);
+    if (mutated == null) {
+      throw new RedisUnhandledException(node,
+          "Shard master left the cluster, its SCAN cursor can not be resumed elsewhere.");
+    }
+    if (cursor[0] != null && isSentinel(cursor[0])) {
+      completedShards.incrementAndGet();
+    }
+  }
+
+  private void mutateShard(final RedisClient client, final byte[][] cursor) {
+
+    if (cancelled || cursor[0] != null && isSentinel(cursor[0])) {
+      return;
+    }
+
+    final byte[][] args = new byte[1 + scanOptions.length][];
+    System.arraycopy(scanOptions, 0, args, 1, scanOptions.length);
+    args[0] = cursor[0] == null ? SCAN_START : cursor[0];
+
+    final RedisPipeline pipeline = client.pipeline();
+    Object[] page = client.sendCmd(Cmds.SCAN, args);
+
+    for (;;) {
+      final byte[] nextCursor = (byte[]) page[0];
+      final Object[] keys = (Object[]) page[1];
+
+      FutureReply<String> checkpoint = null;
+      FutureReply<Object[]> role = null;
+      if (keys.length > 0) {
+        // Replies to writes are off, so a demoted master would otherwise go unnoticed.
+        role = pipeline.sendCmd(Cmds.ROLE);
+        rateLimiter.acquire(keys.length);
+        pipeline.replyOff();
+        for (final Object key : keys) {
+          keyMutation.accept(pipeline, (byte[]) key);
+        }
+        checkpoint = pipeline.replyOn();
+      }
+
+      final boolean done = isSentinel(nextCursor) || cancelled;
+      FutureReply<Object[]> nextPage = null;
+      if (!done) {
+        args[0] = nextCursor;
+        nextPage = pipeline.sendCmd(Cmds.SCAN, args);
+      }
+
+      pipeline.sync();
+      if (role != null && !"master".equals(RESP.toString(role.get()[0]))) {
+        throw new RedisUnhandledException(client.getNode(),
+            "Shard master was demoted, its SCAN cursor can not be resumed elsewhere.");
+      }
+      if (checkpoint != null) {
+        checkpoint.get();
+        checkpoints.increment();
+        processedKeys.add(keys.length);
+      }
+      cursor[0] = nextCursor;
+
+      if (done) {
+        return;
+      }
+      page = nextPage.get();
+    }
+  }
+
+  private static boolean isSentinel(final byte[] cursor) {
+    return cursor.length == 1 && cursor[0] == '0';
+  }
+
+  @Override
+  public CompletableFuture<Void> getCompletion() {
+    return completion;
+  }
+
+  @Override
+  public void cancel() {
+    cancelled = true;
+  }
+
+  @Override
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  @Override
+  public int getNumShards() {
+    return numShards;
+  }
+
+  @Override
+  public int getCompletedShards() {
+    return completedShards.get();
+  }
+
+  @Override
+  public long getProcessedKeys() {
+    return processedKeys.sum();
+  }
+
+  @Override
+  public long getCheckpoints() {
+    return checkpoints.sum();
+  }
+
+  @Override
+  public Duration getElapsed() {
+    final long end = endNanos;
+    return Duration.ofNanos((end == 0 ? System.nanoTime() : end) - startNanos);
+  }
+
+  @Override
+  public String toString() {
+    return new StringBuilder("ClusterBulkKeyJob [completedShards=").append(completedShards)
+        .append("/").append(numShards).append(", processedKeys=").append(processedKeys)
+        .append(", checkpoints=").append(checkpoints).append(", elapsed=").append(getElapsed())
+        .append(", cancelled=").append(cancelled).append("]").toString();
+  }
+}
@@ -11,6 +11,7 @@ import com.fabahaba.jedipus.pool.EvictionStrategy;
 import com.fabahaba.jedipus.primitive.RedisClientFactory;
 
 import java.io.Serializable;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.Collection;
 
@@ -33,6 +34,11 @@ public final class ClusterExecutorBuilder implements Serializable {
   // are available.
   private static final Duration DEFAULT_MAX_AWAIT_CACHE_REFRESH = Duration.ofNanos(0);
 
+  private static final long DEFAULT_MAX_REPLICA_LAG_BYTES = 1024 * 1024;
+
+  private static final int DEFAULT_DISCOVERY_PARALLELISM = 8;
+  private static final int DEFAULT_FAN_OUT_PARALLELISM = 8;
+
   private static final ClientPool.Builder DEFAULT_POOL_BUILDER =
       ClientPool.startBuilding().withMaxIdle(8).withMinIdle(2).withMaxTotal(8)
           .withDurationBetweenEvictionRuns(Duration.ofSeconds(15)).withTestWhileIdle(true)
@@ -127,6 +133,19 @@ public final class ClusterExecutorBuilder implements Serializable {
   // 0 blocks forever, timed out requests will retry or throw a RedisConnectionException if no
   // pools are available.
   private Duration maxAwaitCacheRefresh = DEFAULT_MAX_AWAIT_CACHE_REFRESH;
+  // Null disables replica lag sampling.
+  private Duration replicaLagSampleInterval = null;
+  private long maxReplicaLagBytes = DEFAULT_MAX_REPLICA_LAG_BYTES;
+  // Null disables CLUSTER NODES failure detection.
+  private Duration clusterNodesSampleInterval = null;
+  // Null disables hedged reads, applyHedged then behaves like apply.
+  private HedgePolicy hedgePolicy = null;
+  // Null disables persisting the slot topology between processes.
+  private String topologySnapshotFile = null;
+  // 0 crawls CLUSTER SLOTS from every known master.
+  private int discoverySampleSize = 0;
+  private int discoveryParallelism = DEFAULT_DISCOVERY_PARALLELISM;
+  private int fanOutParallelism = DEFAULT_FAN_OUT_PARALLELISM;
 
   ClusterExecutorBuilder(final SerializableSupplier<Collection<Node>> discoveryNodes) {
     this.discoveryNodes = discoveryNodes;
@@ -137,7 +156,10 @@ public final class ClusterExecutorBuilder implements Serializable {
         maxRedirections, maxRetries, refreshSlotCacheEvery, clusterNodeRetryDelay,
         retryUnhandledRetryableExceptions, optimisticReads, durationBetweenCacheRefresh,
         maxAwaitCacheRefresh, masterPoolFactory, slavePoolFactory, nodeUnknownFactory,
-        slavePools -> lbFactory.apply(defaultReadMode, slavePools));
+        slavePools -> lbFactory.apply(defaultReadMode, slavePools), replicaLagSampleInterval,
+        maxReplicaLagBytes, clusterNodesSampleInterval, hedgePolicy,
+        topologySnapshotFile == null ? null : Paths.get(topologySnapshotFile),
+        discoverySampleSize, discoveryParallelism, fanOutParallelism);
   }
 
   public ReadMode getReadMode() {
@@ -297,6 +319,101 @@ public final class ClusterExecutorBuilder implements Serializable {
     return this;
   }
 
+  public Duration getReplicaLagSampleInterval() {
+    return replicaLagSampleInterval;
+  }
+
+  public ClusterExecutorBuilder withReplicaLagSampleInterval(
+      final Duration replicaLagSampleInterval) {
+    this.replicaLagSampleInterval = replicaLagSampleInterval;
+    return this;
+  }
+
+  public long getMaxReplicaLagBytes() {
+    return maxReplicaLagBytes;
+  }
+
+  public ClusterExecutorBuilder withMaxReplicaLagBytes(final long maxReplicaLagBytes) {
+    this.maxReplicaLagBytes = maxReplicaLagBytes;
+    return this;
+  }
+
+  public Duration getClusterNodesSampleInterval() {
+    return clusterNodesSampleInterval;
+  }
+
+  public ClusterExecutorBuilder withClusterNodesSampleInterval(
+      final Duration clusterNodesSampleInterval) {
+    this.clusterNodesSampleInterval = clusterNodesSampleInterval;
+    return this;
+  }
+
+  public HedgePolicy getHedgePolicy() {
+    return hedgePolicy;
+  }
+
+  public ClusterExecutorBuilder withHedgePolicy(final HedgePolicy hedgePolicy) {
+    this.hedgePolicy = hedgePolicy;
+    return this;
+  }
+
+  public String getTopologySnapshotFile() {
+    return topologySnapshotFile;
+  }
+
+  /**
+   * Persists the cached slot topology to topologySnapshotFile whenever it changes. Executors
+   * created with a readable snapshot start routing from it without waiting on discovery and
+   * validate it against the cluster in the background.
+   *
+   * @param topologySnapshotFile The snapshot path, or null to disable snapshots.
+   * @return this builder.
+   */
+  public ClusterExecutorBuilder withTopologySnapshotFile(final String topologySnapshotFile) {
+    this.topologySnapshotFile = topologySnapshotFile;
+    return this;
+  }
+
+  public int getDiscoverySampleSize() {
+    return discoverySampleSize;
+  }
+
+  /**
+   * Bounds slot discovery on large clusters. Instead of crawling CLUSTER SLOTS from every known
+   * master, each discovery asks a random sample of known nodes and, for the TOP and simple
+   * MAJORITY strategies, stops as soon as one view has a majority of the sample.
+   *
+   * @param discoverySampleSize Nodes to sample per discovery, or 0 to crawl every master.
+   * @return this builder.
+   */
+  public ClusterExecutorBuilder withDiscoverySampleSize(final int discoverySampleSize) {
+    this.discoverySampleSize = discoverySampleSize;
+    return this;
+  }
+
+  public int getDiscoveryParallelism() {
+    return discoveryParallelism;
+  }
+
+  public ClusterExecutorBuilder withDiscoveryParallelism(final int discoveryParallelism) {
+    this.discoveryParallelism = discoveryParallelism;
+    return this;
+  }
+
+  public int getFanOutParallelism() {
+    return fanOutParallelism;
+  }
+
+  /**
+   * @param fanOutParallelism Maximum nodes called concurrently by mapReduceNodes, and separately
+   *        the maximum shards or node pairs worked on concurrently by scan, bulk and reshard jobs.
+   * @return this builder.
+   */
+  public ClusterExecutorBuilder withFanOutParallelism(final int fanOutParallelism) {
+    this.fanOutParallelism = fanOutParallelism;
+    return this;
+  }
+
   @Override
   public String toString() {
     return new StringBuilder("ClusterExecutorBuilder [defaultReadMode=").append(defaultReadMode)
@@ -307,6 +424,14 @@ public final class ClusterExecutorBuilder implements Serializable {
         .append(", retryUnhandledRetryableExceptions=").append(retryUnhandledRetryableExceptions)
         .append(", optimisticReads=").append(optimisticReads)
         .append(", durationBetweenCacheRefresh=").append(durationBetweenCacheRefresh)
-        .append(", maxAwaitCacheRefresh=").append(maxAwaitCacheRefresh).append("]").toString();
+        .append(", maxAwaitCacheRefresh=").append(maxAwaitCacheRefresh)
+        .append(", replicaLagSampleInterval=").append(replicaLagSampleInterval)
+        .append(", maxReplicaLagBytes=").append(maxReplicaLagBytes)
+        .append(", clusterNodesSampleInterval=").append(clusterNodesSampleInterval)
+        .append(", hedgePolicy=").append(hedgePolicy)
+        .append(", topologySnapshotFile=").append(topologySnapshotFile)
+        .append(", discoverySampleSize=").append(discoverySampleSize)
+        .append(", discoveryParallelism=").append(discoveryParallelism)
+        .append(", fanOutParallelism=").append(fanOutParallelism).append("]").toString();
   }
 }
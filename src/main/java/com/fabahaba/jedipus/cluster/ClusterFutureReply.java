@@ -0,0 +1,57 @@
+package com.fabahaba.jedipus.cluster;
+
+import com.fabahaba.jedipus.client.FutureLongReply;
+import com.fabahaba.jedipus.client.FutureReply;
+import com.fabahaba.jedipus.exceptions.RedisUnhandledException;
+
+final class ClusterFutureReply<T> implements FutureReply<T>, FutureLongReply {
+
+  private FutureReply<T> reply;
+  private FutureLongReply longReply;
+  private RuntimeException exception;
+
+  void setReply(final FutureReply<T> reply) {
+    this.reply = reply;
+    this.exception = null;
+  }
+
+  void setLongReply(final FutureLongReply longReply) {
+    this.longReply = longReply;
+    this.exception = null;
+  }
+
+  void setException(final RuntimeException exception) {
+    this.exception = exception;
+  }
+
+  @Override
+  public ClusterFutureReply<T> checkReply() {
+    if (exception != null) {
+      throw exception;
+    }
+
+    if (reply != null) {
+      reply.checkReply();
+      return this;
+    }
+
+    if (longReply != null) {
+      longReply.checkReply();
+      return this;
+    }
+
+    throw new RedisUnhandledException(null, "Sync your pipeline.");
+  }
+
+  @Override
+  public T get() {
+    checkReply();
+    return reply == null ? null : reply.get();
+  }
+
+  @Override
+  public long getAsLong() {
+    checkReply();
+    return longReply == null ? Long.MIN_VALUE : longReply.getAsLong();
+  }
+}
@@ -0,0 +1,225 @@
+package com.fabahaba.jedipus.cluster;
+
+import com.fabahaba.jedipus.client.NodeMapper;
+import com.fabahaba.jedipus.client.RedisClient;
+import com.fabahaba.jedipus.cmds.RESP;
+import com.fabahaba.jedipus.pool.ClientPool;
+import com.fabahaba.jedipus.pool.RedisClientPool;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Periodically reads CLUSTER NODES from a known master so that nodes flagged fail or noaddr are
+ * known to be down before our own connections to them time out. A single master's pfail is only
+ * its own suspicion, so pfail nodes are considered down once flagged for several samples in a
+ * row. Idle clients to newly down nodes
+ * are cleared, and the slot cache is refreshed as soon as a failover changes the set of masters
+ * or their config epochs.
+ */
+final class ClusterNodesMonitor implements AutoCloseable {
+
+  private static final int MAX_SOURCES_PER_SAMPLE = 2;
+  private static final int PFAIL_DOWN_SAMPLES = 3;
+
+  private final Supplier<Map<Node, ClientPool<RedisClient>>> masterPools;
+  private final Function<Node, ClientPool<RedisClient>> poolLookup;
+  private final Runnable refreshSlotCache;
+  private final NodeMapper nodeMapper;
+  private final ScheduledExecutorService scheduler;
+
+  private volatile Set<Node> downNodes = Collections.emptySet();
+  private Map<Node, Long> masterEpochs = null;
+  private Map<Node, Integer> pfailSamples = Collections.emptyMap();
+
+  ClusterNodesMonitor(final Supplier<Map<Node, ClientPool<RedisClient>>> masterPools,
+      final Function<Node, ClientPool<RedisClient>> poolLookup, final Runnable refreshSlotCache,
+      final NodeMapper nodeMapper, final Duration sampleInterval) {
+
+    this.masterPools = masterPools;
+    this.poolLookup = poolLookup;
+    this.refreshSlotCache = refreshSlotCache;
+    this.nodeMapper = nodeMapper;
+
+    final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+      final Thread thread = new Thread(runnable, "jedipus-cluster-nodes-monitor");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    this.scheduler = scheduler;
+
+    final long intervalNanos = sampleInterval.toNanos();
+    scheduler.scheduleWithFixedDelay(this::sample, intervalNanos, intervalNanos,
+        TimeUnit.NANOSECONDS);
+  }
+
+  Set<Node> getDownNodes() {
+    return downNodes;
+  }
+
+  void sample() {
+    try {
+      final String clusterNodes = readClusterNodes();
+      if (clusterNodes != null) {
+        sample(clusterNodes);
+      }
+    } catch (final RuntimeException ex) {
+      // Throwing would cancel the fixed delay schedule, try again on the next sample.
+    }
+  }
+
+  void sample(final String clusterNodes) {
+    final List<NodeState> nodeStates = parseClusterNodes(clusterNodes, nodeMapper);
+    final Set<Node> down = new HashSet<>();
+    final Map<Node, Long> epochs = new HashMap<>();
+    final Map<Node, Integer> pfailed = new HashMap<>();
+
+    for (final NodeState nodeState : nodeStates) {
+      if (nodeState.isPFail()) {
+        final int numSamples = pfailSamples.getOrDefault(nodeState.getNode(), 0) + 1;
+        pfailed.put(nodeState.getNode(), numSamples);
+        if (numSamples >= PFAIL_DOWN_SAMPLES) {
+          down.add(nodeState.getNode());
+          continue;
+        }
+      }
+
+      if (nodeState.isDown()) {
+        down.add(nodeState.getNode());
+      } else if (nodeState.isMaster()) {
+        epochs.put(nodeState.getNode(), nodeState.getConfigEpoch());
+      }
+    }
+
+    final Set<Node> previouslyDown = downNodes;
+    for (final Node node : down) {
+      if (!previouslyDown.contains(node)) {
+        final ClientPool<RedisClient> pool = poolLookup.apply(node);
+        if (pool != null) {
+          // Idle connections to a failed node would only cost a timeout each.
+          pool.clear();
+        }
+      }
+    }
+    downNodes = down.isEmpty() ? Collections.emptySet() : down;
+    pfailSamples = pfailed;
+
+    final Map<Node, Long> previousEpochs = masterEpochs;
+    if (previousEpochs != null && !previousEpochs.equals(epochs)) {
+      refreshSlotCache.run();
+    }
+    // Only recorded once refreshed so that a failed refresh is retried on the next sample.
+    masterEpochs = epochs;
+  }
+
+  private String readClusterNodes() {
+    int attempts = 0;
+    for (final Map.Entry<Node, ClientPool<RedisClient>> masterPool : masterPools.get()
+        .entrySet()) {
+      if (downNodes.contains(masterPool.getKey())) {
+        continue;
+      }
+
+      final ClientPool<RedisClient> pool = masterPool.getValue();
+      RedisClient client = null;
+      try {
+        client = RedisClientPool.borrowClient(pool);
+        return client.clusterNodes();
+      } catch (final RuntimeException ex) {
+        if (++attempts == MAX_SOURCES_PER_SAMPLE) {
+          return null;
+        }
+      } finally {
+        RedisClientPool.returnClient(pool, client);
+      }
+    }
+    return null;
+  }
+
+  // <id> <ip:port@cport> <flags> <master> <ping-sent> <pong-recv> <config-epoch> <link-state> ...
+  static List<NodeState> parseClusterNodes(final String clusterNodes,
+      final NodeMapper nodeMapper) {
+
+    final String[] lines = clusterNodes.split(RESP.CRLF_REGEX);
+    final List<NodeState> nodeStates = new ArrayList<>(lines.length);
+
+    for (final String line : lines) {
+      final String[] fields = line.split(" ");
+      if (fields.length < 8) {
+        continue;
+      }
+
+      final int busPort = fields[1].indexOf('@');
+      final String address = busPort < 0 ? fields[1] : fields[1].substring(0, busPort);
+      final int startPort = address.lastIndexOf(':');
+      if (startPort <= 0) {
+        // noaddr nodes have no usable address.
+        continue;
+      }
+
+      final Node node = nodeMapper.apply(
+          Node.create(address.substring(0, startPort), address.substring(startPort + 1)));
+      final Set<String> flags = new HashSet<>(Arrays.asList(fields[2].split(",")));
+      nodeStates.add(new NodeState(node, flags, Long.parseLong(fields[6])));
+    }
+
+    return nodeStates;
+  }
+
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+  }
+
+  @Override
+  public String toString() {
+    return new StringBuilder("ClusterNodesMonitor [downNodes=").append(downNodes).append("]")
+        .toString();
+  }
+
+  static final class NodeState {
+
+    private final Node node;
+    private final Set<String> flags;
+    private final long configEpoch;
+
+    NodeState(final Node node, final Set<String> flags, final long configEpoch) {
+      this.node = node;
+      this.flags = flags;
+      this.configEpoch = configEpoch;
+    }
+
+    Node getNode() {
+      return node;
+    }
+
+    long getConfigEpoch() {
+      return configEpoch;
+    }
+
+    boolean isMaster() {
+      return flags.contains("master");
+    }
+
+    boolean isDown() {
+      return flags.contains("fail") || flags.contains("noaddr");
+    }
+
+    boolean isPFail() {
+      return flags.contains("fail?");
+    }
+  }
+}
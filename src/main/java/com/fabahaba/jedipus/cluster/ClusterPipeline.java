@@ -0,0 +1,100 @@
+package com.fabahaba.jedipus.cluster;
+
+import com.fabahaba.jedipus.client.FutureLongReply;
+import com.fabahaba.jedipus.client.FutureReply;
+import com.fabahaba.jedipus.cmds.Cmd;
+import com.fabahaba.jedipus.cmds.PrimCmd;
+import com.fabahaba.jedipus.cmds.RESP;
+import com.fabahaba.jedipus.cmds.RedisKey;
+
+/**
+ * A pipeline spanning the whole cluster. Commands are queued locally, grouped by the node serving
+ * their slot when synced, and written to each node in a single pipelined round trip. MOVED and ASK
+ * replies are retried for only the affected commands. Replies are exposed in submission order
+ * through the returned futures.
+ */
+public interface ClusterPipeline extends AutoCloseable {
+
+  <T> FutureReply<T> sendCmd(final int slot, final Cmd<T> cmd, final byte[]... args);
+
+  FutureLongReply sendCmd(final int slot, final PrimCmd cmd, final byte[]... args);
+
+  default <T> FutureReply<T> sendCmd(final Cmd<T> cmd, final byte[] key) {
+    return sendCmd(CRC16.getSlot(key), cmd, key);
+  }
+
+  default <T> FutureReply<T> sendCmd(final Cmd<T> cmd, final byte[] key, final byte[]... args) {
+    final byte[][] keyArgs = new byte[args.length + 1][];
+    keyArgs[0] = key;
+    System.arraycopy(args, 0, keyArgs, 1, args.length);
+    return sendCmd(CRC16.getSlot(key), cmd, keyArgs);
+  }
+
+  default <T> FutureReply<T> sendCmd(final Cmd<T> cmd, final RedisKey key) {
+    return sendCmd(key.getSlot(), cmd, key.getBytes());
+  }
+
+  default <T> FutureReply<T> sendCmd(final Cmd<T> cmd, final RedisKey key, final byte[]... args) {
+    return sendCmd(key.getSlot(), cmd, key.withArgs(args));
+  }
+
+  default <T> FutureReply<T> sendCmd(final Cmd<T> cmd, final String key) {
+    return sendCmd(cmd, RESP.toBytes(key));
+  }
+
+  default <T> FutureReply<T> sendCmd(final Cmd<T> cmd, final String key, final String... args) {
+    final byte[][] keyArgs = new byte[args.length + 1][];
+    keyArgs[0] = RESP.toBytes(key);
+    for (int i = 0; i < args.length; i++) {
+      keyArgs[i + 1] = RESP.toBytes(args[i]);
+    }
+    return sendCmd(CRC16.getSlot(keyArgs[0]), cmd, keyArgs);
+  }
+
+  default FutureLongReply sendCmd(final PrimCmd cmd, final byte[] key) {
+    return sendCmd(CRC16.getSlot(key), cmd, key);
+  }
+
+  default FutureLongReply sendCmd(final PrimCmd cmd, final byte[] key, final byte[]... args) {
+    final byte[][] keyArgs = new byte[args.length + 1][];
+    keyArgs[0] = key;
+    System.arraycopy(args, 0, keyArgs, 1, args.length);
+    return sendCmd(CRC16.getSlot(key), cmd, keyArgs);
+  }
+
+  default FutureLongReply sendCmd(final PrimCmd cmd, final RedisKey key) {
+    return sendCmd(key.getSlot(), cmd, key.getBytes());
+  }
+
+  default FutureLongReply sendCmd(final PrimCmd cmd, final RedisKey key, final byte[]... args) {
+    return sendCmd(key.getSlot(), cmd, key.withArgs(args));
+  }
+
+  default FutureLongReply sendCmd(final PrimCmd cmd, final String key) {
+    return sendCmd(cmd, RESP.toBytes(key));
+  }
+
+  default FutureLongReply sendCmd(final PrimCmd cmd, final String key, final String... args) {
+    final byte[][] keyArgs = new byte[args.length + 1][];
+    keyArgs[0] = RESP.toBytes(key);
+    for (int i = 0; i < args.length; i++) {
+      keyArgs[i + 1] = RESP.toBytes(args[i]);
+    }
+    return sendCmd(CRC16.getSlot(keyArgs[0]), cmd, keyArgs);
+  }
+
+  int getNumQueued();
+
+  default void syncThrow() {
+    sync(true);
+  }
+
+  default void sync() {
+    sync(false);
+  }
+
+  void sync(final boolean throwUnhandled);
+
+  @Override
+  void close();
+}
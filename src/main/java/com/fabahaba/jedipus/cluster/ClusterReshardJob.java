@@ -0,0 +1,223 @@
+package com.fabahaba.jedipus.cluster;
+
+import com.fabahaba.jedipus.client.FutureReply;
+import com.fabahaba.jedipus.client.RedisClient;
+import com.fabahaba.jedipus.client.RedisPipeline;
+import com.fabahaba.jedipus.cluster.ReshardPlan.SlotMove;
+import com.fabahaba.jedipus.cluster.data.SlotNodes;
+import com.fabahaba.jedipus.cmds.ClusterCmds;
+import com.fabahaba.jedipus.cmds.Cmd;
+import com.fabahaba.jedipus.cmds.Cmds;
+import com.fabahaba.jedipus.cmds.RESP;
+
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+final class ClusterReshardJob implements ReshardJob {
+
+  private static final Cmd<Object> GETKEYSINSLOT = ClusterCmds.GETKEYSINSLOT.raw();
+  private static final byte[] NO_KEY = new byte[0];
+  private static final byte[] DB = RESP.toBytes(0);
+  private static final byte[] REPLACE = RESP.toBytes("REPLACE");
+  private static final byte[] KEYS = RESP.toBytes("KEYS");
+
+  private final RedisClusterExecutor executor;
+  private final ReshardPlan plan;
+  private final int keysPerMigrate;
+  private final byte[] keysPerMigrateBytes;
+  private final byte[] migrateTimeoutMillis;
+  private final boolean replace;
+  private final OpsRateLimiter rateLimiter;
+  private final int maxRetries;
+  private final AtomicInteger movedSlots = new AtomicInteger();
+  private final LongAdder migratedKeys = new LongAdder();
+  private final CompletableFuture<Void> completion = new CompletableFuture<>();
+  private final long startNanos = System.nanoTime();
+  private volatile long endNanos = 0;
+  private volatile boolean cancelled = false;
+
+  private ClusterReshardJob(final RedisClusterExecutor executor, final ReshardPlan plan,
+      final int keysPerMigrate, final long maxKeysPerSecond, final Duration migrateTimeout,
+      final boolean replace, final int maxRetries) {
+
+    this.executor = executor;
+    this.plan = plan;
+    this.keysPerMigrate = keysPerMigrate;
+    this.keysPerMigrateBytes = RESP.toBytes(keysPerMigrate);
+    this.migrateTimeoutMillis = RESP.toBytes(migrateTimeout.toMillis());
+    this.replace = replace;
+    this.rateLimiter = new OpsRateLimiter(maxKeysPerSecond);
+    this.maxRetries = maxRetries;
+  }
+
+  static ClusterReshardJob start(final RedisClusterExecutor executor, final ReshardPlan plan,
+      final int keysPerMigrate, final long maxKeysPerSecond, final Duration migrateTimeout,
+      final boolean replace, final int maxRetries, final ExecutorService pairExecutor) {
+
+    final ClusterReshardJob job = new ClusterReshardJob(executor, plan, keysPerMigrate,
+        maxKeysPerSecond, migrateTimeout, replace, maxRetries);
+
+    final Collection<List<SlotMove>> pairs = plan.getMovesByNodePair();
+    final CompletableFuture<?>[] pairFutures = new CompletableFuture<?>[pairs.size()];
+    int index = 0;
+    for (final List<SlotMove> pair : pairs) {
+      pairFutures[index++] = CompletableFuture.runAsync(() -> job.movePair(pair), pairExecutor);
+    }
+
+    CompletableFuture.allOf(pairFutures).whenComplete((ignored, cause) -> {
+      job.endNanos = System.nanoTime();
+      try {
+        executor.refreshSlotCache();
+      } finally {
+        if (cause == null) {
+          job.completion.complete(null);
+        } else {
+          job.cancelled = true;
+          job.completion.completeExceptionally(cause);
+        }
+      }
+    });
+    return job;
+  }
+
+  private void movePair(final List<SlotMove> pair) {
+    final Node source = pair.get(0).getSource();
+    final Node target = pair.get(0).getTarget();
+
+    final BitSet countedSlots = new BitSet(CRC16.NUM_SLOTS);
+
+    // Retries start over on new connections, skipping the slots that already moved.
+    executor.applyUnknown(source, sourceClient -> executor.applyUnknown(target, targetClient -> {
+      final BitSet targetSlots = getMasterSlots(targetClient);
+      final String sourceId = sourceClient.getNodeId();
+      final String targetId = targetClient.getNodeId();
+
+      for (final SlotMove move : pair) {
+        if (cancelled) {
+          return null;
+        }
+        if (!targetSlots.get(move.getSlot())) {
+          moveSlot(move.getSlot(), sourceClient, sourceId, targetClient, targetId);
+          targetSlots.set(move.getSlot());
+        }
+        if (!countedSlots.get(move.getSlot())) {
+          countedSlots.set(move.getSlot());
+          movedSlots.incrementAndGet();
+        }
+      }
+      return null;
+    }, maxRetries), maxRetries);
+  }
+
+  private static BitSet getMasterSlots(final RedisClient client) {
+    final BitSet slots = new BitSet(CRC16.NUM_SLOTS);
+    final Node node = client.getNode();
+    for (final SlotNodes slotNodes : client.clusterSlots().getClusterSlots()) {
+      if (node.getHostPort().equals(slotNodes.getMaster().getHostPort())) {
+        slots.set(slotNodes.getSlotBegin(), slotNodes.getSlotEndExclusive());
+      }
+    }
+    return slots;
+  }
+
+  // The same steps as redis-trib: mark both sides, move every key, then assign the slot.
+  private void moveSlot(final int slot, final RedisClient source, final String sourceId,
+      final RedisClient target, final String targetId) {
+
+    target.clusterSetSlotImporting(slot, sourceId);
+    source.clusterSetSlotMigrating(slot, targetId);
+
+    final byte[] slotBytes = RESP.toBytes(slot);
+    final RedisPipeline pipeline = source.pipeline();
+    Object[] keys = (Object[]) source.sendCmd(ClusterCmds.CLUSTER, GETKEYSINSLOT, slotBytes,
+        keysPerMigrateBytes);
+
+    while (keys.length > 0) {
+      rateLimiter.acquire(keys.length);
+      // The next batch is requested behind the MIGRATE, saving a round trip per batch.
+      final FutureReply<String> migrateReply =
+          pipeline.sendCmd(Cmds.MIGRATE, createMigrateArgs(target.getNode(), keys));
+      final FutureReply<Object> nextKeys = keys.length < keysPerMigrate ? null
+          : pipeline.sendCmd(ClusterCmds.CLUSTER, GETKEYSINSLOT, slotBytes, keysPerMigrateBytes);
+      pipeline.sync();
+
+      migrateReply.get();
+      migratedKeys.add(keys.length);
+      if (nextKeys == null) {
+        break;
+      }
+      keys = (Object[]) nextKeys.get();
+    }
+
+    target.clusterSetSlotNode(slot, targetId);
+    source.clusterSetSlotNode(slot, targetId);
+  }
+
+  // MIGRATE host port "" db timeout [REPLACE] KEYS key [key ...]
+  private byte[][] createMigrateArgs(final Node target, final Object[] keys) {
+    final int numOptions = replace ? 7 : 6;
+    final byte[][] args = new byte[numOptions + keys.length][];
+    args[0] = RESP.toBytes(target.getHost());
+    args[1] = RESP.toBytes(target.getPort());
+    args[2] = NO_KEY;
+    args[3] = DB;
+    args[4] = migrateTimeoutMillis;
+    if (replace) {
+      args[5] = REPLACE;
+    }
+    args[numOptions - 1] = KEYS;
+    for (int i = 0; i < keys.length; i++) {
+      args[numOptions + i] = (byte[]) keys[i];
+    }
+    return args;
+  }
+
+  @Override
+  public ReshardPlan getPlan() {
+    return plan;
+  }
+
+  @Override
+  public CompletableFuture<Void> getCompletion() {
+    return completion;
+  }
+
+  @Override
+  public void cancel() {
+    cancelled = true;
+  }
+
+  @Override
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  @Override
+  public int getMovedSlots() {
+    return movedSlots.get();
+  }
+
+  @Override
+  public long getMigratedKeys() {
+    return migratedKeys.sum();
+  }
+
+  @Override
+  public Duration getElapsed() {
+    final long end = endNanos;
+    return Duration.ofNanos((end == 0 ? System.nanoTime() : end) - startNanos);
+  }
+
+  @Override
+  public String toString() {
+    return new StringBuilder("ClusterReshardJob [movedSlots=").append(movedSlots).append("/")
+        .append(plan.size()).append(", migratedKeys=").append(migratedKeys).append(", elapsed=")
+        .append(getElapsed()).append(", cancelled=").append(cancelled).append("]").toString();
+  }
+}
@@ -0,0 +1,165 @@
+package com.fabahaba.jedipus.cluster;
+
+import com.fabahaba.jedipus.cluster.RedisClusterExecutor.ReadMode;
+import com.fabahaba.jedipus.cmds.Cmds;
+import com.fabahaba.jedipus.cmds.RESP;
+import com.fabahaba.jedipus.params.ScanParams;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Iterates the keys of a cluster with one SCAN cursor per shard. Each shard is pinned to the node
+ * that served its first page, as a cursor is only meaningful to the node that issued it. If that
+ * node leaves the cluster the shard is scanned again from the start on whichever node serves it
+ * next. As with SCAN itself, keys may be returned more than once, and keys migrated between shards
+ * during the scan may be missed.
+ */
+final class ClusterScanSpliterator implements Spliterator<byte[]> {
+
+  private static final byte[] SCAN_START = RESP.toBytes(ScanParams.SCAN_SENTINEL);
+  private static final Object[] NO_KEYS = new Object[0];
+
+  private final RedisClusterExecutor executor;
+  private final ReadMode readMode;
+  private final int maxRetries;
+  private final byte[][] scanOptions;
+  private final int[] shardSlots;
+  private int shard;
+  private int shardsEnd;
+  // null until the first page of the current shard has been requested.
+  private ShardScan shardScan = null;
+  private Object[] keys = NO_KEYS;
+  private int keyIndex = 0;
+
+  ClusterScanSpliterator(final RedisClusterExecutor executor, final ReadMode readMode,
+      final int maxRetries, final byte[][] scanOptions, final int[] shardSlots) {
+    this(executor, readMode, maxRetries, scanOptions, shardSlots, 0, shardSlots.length);
+  }
+
+  private ClusterScanSpliterator(final RedisClusterExecutor executor, final ReadMode readMode,
+      final int maxRetries, final byte[][] scanOptions, final int[] shardSlots, final int shard,
+      final int shardsEnd) {
+    this.executor = executor;
+    this.readMode = readMode;
+    this.maxRetries = maxRetries;
+    this.scanOptions = scanOptions;
+    this.shardSlots = shardSlots;
+    this.shard = shard;
+    this.shardsEnd = shardsEnd;
+  }
+
+  @Override
+  public boolean tryAdvance(final Consumer<? super byte[]> action) {
+
+    while (keyIndex == keys.length) {
+      if (shardScan != null && shardScan.isDone()) {
+        shardScan = null;
+        shard++;
+      }
+
+      if (shard >= shardsEnd) {
+        return false;
+      }
+
+      if (shardScan == null) {
+        shardScan = new ShardScan(shardSlots[shard]);
+      }
+      keys = shardScan.nextPage(executor, readMode, scanOptions, maxRetries);
+      keyIndex = 0;
+    }
+
+    action.accept((byte[]) keys[keyIndex++]);
+    return true;
+  }
+
+  @Override
+  public Spliterator<byte[]> trySplit() {
+
+    // Only shards whose scan has not started can be handed off, the current one stays here.
+    final boolean started = shardScan != null;
+    final int firstUnstarted = started ? shard + 1 : shard;
+    final int numUnstarted = shardsEnd - firstUnstarted;
+    if (numUnstarted < (started ? 1 : 2)) {
+      return null;
+    }
+
+    final int mid = firstUnstarted + (numUnstarted >>> 1);
+    final ClusterScanSpliterator suffix = new ClusterScanSpliterator(executor, readMode,
+        maxRetries, scanOptions, shardSlots, mid, shardsEnd);
+    shardsEnd = mid;
+    return suffix;
+  }
+
+  @Override
+  public long estimateSize() {
+    return Long.MAX_VALUE;
+  }
+
+  @Override
+  public int characteristics() {
+    return NONNULL;
+  }
+
+  /**
+   * Scans a single shard to completion, passing each non-empty page of keys to batchConsumer.
+   */
+  static void scanShard(final RedisClusterExecutor executor, final ReadMode readMode,
+      final int shardSlot, final byte[][] scanOptions, final int maxRetries,
+      final Consumer<Object[]> batchConsumer) {
+
+    final ShardScan shardScan = new ShardScan(shardSlot);
+    do {
+      final Object[] keys = shardScan.nextPage(executor, readMode, scanOptions, maxRetries);
+      if (keys.length > 0) {
+        batchConsumer.accept(keys);
+      }
+    } while (!shardScan.isDone());
+  }
+
+  private static boolean isSentinel(final byte[] cursor) {
+    return cursor.length == 1 && cursor[0] == '0';
+  }
+
+  private static final class ShardScan {
+
+    private final int shardSlot;
+    // Both null until the first page pins the shard to the node that served it.
+    private Node node = null;
+    private byte[] cursor = null;
+
+    ShardScan(final int shardSlot) {
+      this.shardSlot = shardSlot;
+    }
+
+    Object[] nextPage(final RedisClusterExecutor executor, final ReadMode readMode,
+        final byte[][] scanOptions, final int maxRetries) {
+
+      final byte[][] args = new byte[1 + scanOptions.length][];
+      System.arraycopy(scanOptions, 0, args, 1, scanOptions.length);
+
+      if (node != null) {
+        args[0] = cursor;
+        final Object[] reply =
+            executor.applyIfPresent(node, client -> client.sendCmd(Cmds.SCAN, args), maxRetries);
+        if (reply != null) {
+          cursor = (byte[]) reply[0];
+          return (Object[]) reply[1];
+        }
+        // The node left the cluster, start over on the node now serving the shard.
+      }
+
+      args[0] = SCAN_START;
+      final Object[] reply = executor.apply(readMode, shardSlot, client -> {
+        node = client.getNode();
+        return client.sendCmd(Cmds.SCAN, args);
+      }, maxRetries);
+      cursor = (byte[]) reply[0];
+      return (Object[]) reply[1];
+    }
+
+    boolean isDone() {
+      return cursor != null && isSentinel(cursor);
+    }
+  }
+}
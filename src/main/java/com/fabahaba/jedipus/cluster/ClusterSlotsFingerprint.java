@@ -0,0 +1,41 @@
+package com.fabahaba.jedipus.cluster;
+
+import com.fabahaba.jedipus.cmds.RESP;
+
+/**
+ * Hashes a raw CLUSTER SLOTS reply in a single pass without allocating, so that views already
+ * voted for can be counted without being parsed again. Two replies that parse to equal
+ * {@link com.fabahaba.jedipus.cluster.data.ClusterSlotVotes} hash the same: only slot ranges and
+ * master addresses contribute, and ranges are combined independently of their order.
+ */
+final class ClusterSlotsFingerprint {
+
+  private ClusterSlotsFingerprint() {}
+
+  static long hash(final Object[] reply) {
+    long hash = reply.length;
+
+    for (final Object slotInfoObj : reply) {
+      final Object[] slotInfo = (Object[]) slotInfoObj;
+      long rangeHash = RESP.longToInt(slotInfo[0]) * 0x10001L + RESP.longToInt(slotInfo[1]);
+
+      if (slotInfo.length > 2) {
+        final Object[] master = (Object[]) slotInfo[2];
+        for (final byte bite : (byte[]) master[0]) {
+          rangeHash = rangeHash * 31 + bite;
+        }
+        rangeHash = mix(rangeHash) ^ RESP.longToInt(master[1]);
+      }
+
+      hash += mix(rangeHash);
+    }
+
+    return mix(hash);
+  }
+
+  private static long mix(long hash) {
+    hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+    hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    return hash ^ (hash >>> 33);
+  }
+}
@@ -0,0 +1,231 @@
+package com.fabahaba.jedipus.cluster;
+
+import com.fabahaba.jedipus.cmds.RESP;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Key positions and flags of each command as reported by COMMAND, used to route commands sent
+ * without an explicit slot. Positions count from the command name at 0. Commands missing from the
+ * table are assumed to take a key as their first argument, which at worst routes a keyless command
+ * to an arbitrary node.
+ */
+final class CommandTable {
+
+  static final int READONLY = 1;
+  static final int WRITE = 1 << 1;
+  static final int MOVABLE_KEYS = 1 << 2;
+
+  static final CommandTable EMPTY = new CommandTable(Collections.emptyMap(), 0);
+
+  // Read only commands defined in Cmds, used for commands missing from COMMAND.
+  private static final Set<String> READONLY_CMDS = withUpperCase(Arrays.asList("bitcount",
+      "bitpos", "dump", "exists", "geodist", "geohash", "get", "getbit", "getrange", "hexists",
+      "hget", "hgetall", "hkeys", "hlen", "hmget", "hscan", "hstrlen", "hvals", "keys", "lindex",
+      "llen", "lrange", "mget", "pttl", "randomkey", "scan", "scard", "sdiff", "sinter",
+      "sismember", "smembers", "srandmember", "sscan", "strlen", "sunion", "touch", "ttl", "type",
+      "zcard", "zcount", "zlexcount", "zrange", "zrangebylex", "zrangebyscore", "zrank",
+      "zrevrange", "zrevrangebylex", "zrevrangebyscore", "zrevrank", "zscan", "zscore"));
+
+  // Keyed by both the lower case names reported by COMMAND and the upper case names used by Cmds,
+  // so that lookups do not have to convert the case of every command sent.
+  private final Map<String, Spec> specs;
+  private final int numCommands;
+
+  private CommandTable(final Map<String, Spec> specs, final int numCommands) {
+    this.specs = specs;
+    this.numCommands = numCommands;
+  }
+
+  private static Set<String> withUpperCase(final Collection<String> names) {
+    final Set<String> bothCases = new HashSet<>(names.size() * 4);
+    for (final String name : names) {
+      bothCases.add(name);
+      bothCases.add(name.toUpperCase(Locale.ENGLISH));
+    }
+    return bothCases;
+  }
+
+  // [[name, arity, [flags...], firstKey, lastKey, step, ...], ...]
+  // Since 7.0 the tenth element lists sub commands, named "container|sub", in the same format.
+  static CommandTable create(final Object[] commandReply) {
+    final Map<String, Spec> specs = new HashMap<>(commandReply.length * 4);
+    return new CommandTable(specs, addSpecs(specs, commandReply));
+  }
+
+  private static int addSpecs(final Map<String, Spec> specs, final Object[] commands) {
+    int numCommands = 0;
+    for (final Object commandObj : commands) {
+      final Object[] command = (Object[]) commandObj;
+      if (command.length < 6) {
+        continue;
+      }
+
+      int flags = 0;
+      for (final Object flag : (Object[]) command[2]) {
+        switch (RESP.toString(flag)) {
+          case "readonly":
+            flags |= READONLY;
+            break;
+          case "write":
+            flags |= WRITE;
+            break;
+          case "movablekeys":
+            flags |= MOVABLE_KEYS;
+            break;
+          default:
+            break;
+        }
+      }
+
+      Map<String, Spec> subSpecs = Collections.emptyMap();
+      if (command.length > 9 && command[9] instanceof Object[]) {
+        subSpecs = new HashMap<>();
+        numCommands += addSpecs(subSpecs, (Object[]) command[9]);
+      }
+
+      final String name = RESP.toString(command[0]).toLowerCase(Locale.ENGLISH);
+      final Spec spec = new Spec(flags, RESP.longToInt(command[3]), RESP.longToInt(command[4]),
+          RESP.longToInt(command[5]), subSpecs);
+      // Sub commands are keyed by their name within the container.
+      final String specName = name.substring(name.indexOf('|') + 1);
+      specs.put(specName, spec);
+      specs.put(specName.toUpperCase(Locale.ENGLISH), spec);
+      numCommands++;
+    }
+    return numCommands;
+  }
+
+  Spec get(final String name) {
+    return get(specs, name);
+  }
+
+  // Only names in neither all lower nor all upper case need converting.
+  private static Spec get(final Map<String, Spec> specs, final String name) {
+    final Spec spec = specs.get(name);
+    return spec == null ? specs.get(name.toLowerCase(Locale.ENGLISH)) : spec;
+  }
+
+  Spec get(final String name, final String subCmd) {
+    final Spec spec = get(name);
+    if (spec == null) {
+      return null;
+    }
+    final Spec subSpec = get(spec.subSpecs, subCmd);
+    return subSpec == null ? spec : subSpec;
+  }
+
+  /**
+   * @param name The command name.
+   * @param subCmd The sub command name, or null.
+   * @return true if the command only reads and may be served by a replica.
+   */
+  boolean isReadOnly(final String name, final String subCmd) {
+    final Spec spec = subCmd == null ? get(name) : get(name, subCmd);
+    if (spec == null) {
+      return subCmd == null && (READONLY_CMDS.contains(name)
+          || READONLY_CMDS.contains(name.toLowerCase(Locale.ENGLISH)));
+    }
+    return spec.is(READONLY) && !spec.is(WRITE);
+  }
+
+  /**
+   * @param name The command name.
+   * @param subCmd The sub command name, or null.
+   * @param args The arguments following the command and sub command.
+   * @return The slot of the first key, or a random slot if the command has no keys.
+   */
+  int getSlot(final String name, final String subCmd, final byte[][] args) {
+    final int argOffset = subCmd == null ? 1 : 2;
+    final Spec spec = subCmd == null ? get(name) : get(name, subCmd);
+
+    if (spec == null) {
+      return args.length == 0 ? CRC16.getRandomSlot() : CRC16.getSlot(args[0]);
+    }
+
+    int keyPos = spec.firstKey;
+    if (keyPos == 0 && (spec.flags & MOVABLE_KEYS) != 0) {
+      keyPos = getScriptKeyPos(name, args, argOffset);
+    }
+
+    final int keyIndex = keyPos - argOffset;
+    return keyPos <= 0 || keyIndex < 0 || keyIndex >= args.length ? CRC16.getRandomSlot()
+        : CRC16.getSlot(args[keyIndex]);
+  }
+
+  // EVAL script numkeys key [key ...] arg [arg ...]
+  private static int getScriptKeyPos(final String name, final byte[][] args,
+      final int argOffset) {
+    if (!name.equalsIgnoreCase("eval") && !name.equalsIgnoreCase("evalsha")) {
+      return 0;
+    }
+
+    final int numKeysIndex = 2 - argOffset;
+    if (numKeysIndex < 0 || numKeysIndex >= args.length) {
+      return 0;
+    }
+    try {
+      return RESP.toLong(args[numKeysIndex]) > 0 ? 3 : 0;
+    } catch (final NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  int size() {
+    return numCommands;
+  }
+
+  static final class Spec {
+
+    private final int flags;
+    private final int firstKey;
+    private final int lastKey;
+    private final int step;
+    private final Map<String, Spec> subSpecs;
+
+    Spec(final int flags, final int firstKey, final int lastKey, final int step,
+        final Map<String, Spec> subSpecs) {
+      this.flags = flags;
+      this.firstKey = firstKey;
+      this.lastKey = lastKey;
+      this.step = step;
+      this.subSpecs = subSpecs;
+    }
+
+    boolean is(final int flag) {
+      return (flags & flag) != 0;
+    }
+
+    int getFirstKey() {
+      return firstKey;
+    }
+
+    int getLastKey() {
+      return lastKey;
+    }
+
+    int getStep() {
+      return step;
+    }
+
+    @Override
+    public String toString() {
+      return new StringBuilder("Spec [flags=").append(flags).append(", firstKey=")
+          .append(firstKey).append(", lastKey=").append(lastKey).append(", step=").append(step)
+          .append("]").toString();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new StringBuilder("CommandTable [numCommands=").append(numCommands).append("]")
+        .toString();
+  }
+}
@@ -0,0 +1,326 @@
+package com.fabahaba.jedipus.cluster;
+
+import com.fabahaba.jedipus.client.FutureLongReply;
+import com.fabahaba.jedipus.client.FutureReply;
+import com.fabahaba.jedipus.client.RedisClient;
+import com.fabahaba.jedipus.client.RedisPipeline;
+import com.fabahaba.jedipus.cluster.RedisClusterExecutor.ReadMode;
+import com.fabahaba.jedipus.cmds.Cmd;
+import com.fabahaba.jedipus.cmds.PrimCmd;
+import com.fabahaba.jedipus.exceptions.AskNodeException;
+import com.fabahaba.jedipus.exceptions.MaxRedirectsExceededException;
+import com.fabahaba.jedipus.exceptions.RedisConnectionException;
+import com.fabahaba.jedipus.exceptions.RedisRetryableUnhandledException;
+import com.fabahaba.jedipus.exceptions.RedisUnhandledException;
+import com.fabahaba.jedipus.exceptions.SlotMovedException;
+import com.fabahaba.jedipus.exceptions.SlotRedirectException;
+import com.fabahaba.jedipus.exceptions.UnhandledAskNodeException;
+import com.fabahaba.jedipus.pool.ClientPool;
+import com.fabahaba.jedipus.pool.RedisClientPool;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+final class FanOutClusterPipeline implements ClusterPipeline {
+
+  private final RedisClusterConnHandler connHandler;
+  private final ReadMode readMode;
+  private final int maxRedirections;
+  private final int maxRetries;
+  private final boolean retryUnhandledRetryableExceptions;
+  private final ExecutorService executor;
+
+  private List<QueuedCmd<?>> queued;
+
+  FanOutClusterPipeline(final RedisClusterConnHandler connHandler, final ReadMode readMode,
+      final int maxRedirections, final int maxRetries,
+      final boolean retryUnhandledRetryableExceptions, final ExecutorService executor) {
+
+    this.connHandler = connHandler;
+    this.readMode = readMode;
+    this.maxRedirections = maxRedirections;
+    this.maxRetries = maxRetries;
+    this.retryUnhandledRetryableExceptions = retryUnhandledRetryableExceptions;
+    this.executor = executor;
+    this.queued = new ArrayList<>();
+  }
+
+  @Override
+  public <T> FutureReply<T> sendCmd(final int slot, final Cmd<T> cmd, final byte[]... args) {
+    final QueuedCmd<T> queuedCmd = new QueuedCmd<>(slot, cmd, null, args);
+    queued.add(queuedCmd);
+    return queuedCmd.futureReply;
+  }
+
+  @Override
+  public FutureLongReply sendCmd(final int slot, final PrimCmd cmd, final byte[]... args) {
+    final QueuedCmd<Void> queuedCmd = new QueuedCmd<>(slot, null, cmd, args);
+    queued.add(queuedCmd);
+    return queuedCmd.futureReply;
+  }
+
+  @Override
+  public int getNumQueued() {
+    return queued.size();
+  }
+
+  @Override
+  public void sync(final boolean throwUnhandled) {
+    if (queued.isEmpty()) {
+      return;
+    }
+
+    final List<QueuedCmd<?>> submitted = queued;
+    queued = new ArrayList<>();
+
+    List<QueuedCmd<?>> pending = submitted;
+    for (int redirections = 0;;) {
+      final List<QueuedCmd<?>> redirected = syncNodes(pending);
+
+      if (redirected.isEmpty()) {
+        break;
+      }
+
+      if (++redirections > maxRedirections) {
+        for (final QueuedCmd<?> queuedCmd : redirected) {
+          queuedCmd.futureReply
+              .setException(new MaxRedirectsExceededException(queuedCmd.redirectEx));
+        }
+        break;
+      }
+
+      for (final QueuedCmd<?> queuedCmd : redirected) {
+        if (queuedCmd.redirectEx instanceof SlotMovedException) {
+          connHandler.refreshSlotCache((SlotMovedException) queuedCmd.redirectEx);
+          break;
+        }
+      }
+
+      pending = redirected;
+    }
+
+    if (throwUnhandled) {
+      for (final QueuedCmd<?> queuedCmd : submitted) {
+        queuedCmd.futureReply.checkReply();
+      }
+    }
+  }
+
+  private List<QueuedCmd<?>> syncNodes(final List<QueuedCmd<?>> pending) {
+    final Map<ClientPool<RedisClient>, NodeBatch> batches = new HashMap<>();
+    for (final QueuedCmd<?> queuedCmd : pending) {
+      final ClientPool<RedisClient> pool = queuedCmd.redirectEx instanceof AskNodeException
+          ? connHandler.getAskPool(queuedCmd.redirectEx.getTargetNode())
+          : connHandler.getSlotPool(readMode, queuedCmd.slot);
+      batches.computeIfAbsent(pool, NodeBatch::new).cmds.add(queuedCmd);
+    }
+
+    if (executor == null) {
+      // Write to every node before reading any replies so that nodes process their batches
+      // concurrently.
+      try {
+        for (final NodeBatch batch : batches.values()) {
+          batch.send();
+        }
+        for (final NodeBatch batch : batches.values()) {
+          batch.sync();
+        }
+        for (final NodeBatch batch : batches.values()) {
+          while (batch.failed) {
+            batch.send();
+            batch.sync();
+          }
+        }
+      } catch (final RuntimeException re) {
+        for (final NodeBatch batch : batches.values()) {
+          batch.discard();
+        }
+        throw re;
+      }
+    } else {
+      final List<CompletableFuture<Void>> futures = new ArrayList<>(batches.size());
+      for (final NodeBatch batch : batches.values()) {
+        futures.add(CompletableFuture.runAsync(() -> {
+          do {
+            batch.send();
+            batch.sync();
+          } while (batch.failed);
+        }, executor));
+      }
+
+      try {
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).join();
+      } catch (final CompletionException ce) {
+        if (ce.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) ce.getCause();
+        }
+        throw ce;
+      }
+    }
+
+    final List<QueuedCmd<?>> redirected = new ArrayList<>();
+    for (final NodeBatch batch : batches.values()) {
+      redirected.addAll(batch.redirected);
+    }
+    return redirected;
+  }
+
+  @Override
+  public void close() {
+    queued.clear();
+  }
+
+  @Override
+  public String toString() {
+    return new StringBuilder("FanOutClusterPipeline [readMode=").append(readMode)
+        .append(", numQueued=").append(queued.size()).append(", maxRedirections=")
+        .append(maxRedirections).append(", maxRetries=").append(maxRetries).append("]")
+        .toString();
+  }
+
+  private final class NodeBatch {
+
+    private final ClientPool<RedisClient> pool;
+    private final List<QueuedCmd<?>> cmds = new ArrayList<>();
+    private final List<QueuedCmd<?>> redirected = new ArrayList<>();
+
+    private RedisClient client;
+    private RedisPipeline pipeline;
+    private long retries;
+    private boolean failed;
+
+    NodeBatch(final ClientPool<RedisClient> pool) {
+      this.pool = pool;
+    }
+
+    void send() {
+      failed = false;
+      try {
+        connHandler.getClusterNodeRetryDelay().markAttempt(pool.getNode());
+        client = RedisClientPool.borrowClient(pool);
+        pipeline = client.pipeline();
+        for (final QueuedCmd<?> queuedCmd : cmds) {
+          queuedCmd.write(pipeline);
+        }
+        client.flush();
+      } catch (final RedisConnectionException | RedisRetryableUnhandledException ex) {
+        fail(ex);
+      } catch (final RuntimeException re) {
+        discard();
+        throw re;
+      }
+    }
+
+    void sync() {
+      if (failed) {
+        return;
+      }
+
+      try {
+        pipeline.sync();
+        connHandler.getClusterNodeRetryDelay().markSuccess(client.getNode());
+      } catch (final SlotRedirectException | UnhandledAskNodeException redirectEx) {
+        for (final QueuedCmd<?> queuedCmd : cmds) {
+          if (queuedCmd.checkRedirect()) {
+            redirected.add(queuedCmd);
+          }
+        }
+      } catch (final RedisConnectionException | RedisRetryableUnhandledException ex) {
+        fail(ex);
+        return;
+      } catch (final RuntimeException re) {
+        discard();
+        throw re;
+      }
+
+      release();
+    }
+
+    private void fail(final RedisUnhandledException ex) {
+      if (ex instanceof RedisRetryableUnhandledException && !retryUnhandledRetryableExceptions) {
+        discard();
+        throw ex;
+      }
+
+      final Node failedNode = client == null ? ex.getNode() : client.getNode();
+      discard();
+      retries = connHandler.getClusterNodeRetryDelay().markFailure(failedNode, maxRetries, ex,
+          retries);
+      failed = true;
+    }
+
+    private void release() {
+      pipeline = null;
+      try {
+        RedisClientPool.returnClient(pool, client);
+      } finally {
+        client = null;
+      }
+    }
+
+    // A client that failed mid batch may still have replies in flight, which draining can not
+    // account for, so it is destroyed rather than handed to the next borrower.
+    void discard() {
+      if (client == null) {
+        return;
+      }
+
+      pipeline = null;
+      try {
+        pool.invalidateClient(client);
+      } finally {
+        client = null;
+      }
+    }
+  }
+
+  private static final class QueuedCmd<T> {
+
+    private final int slot;
+    private final Cmd<T> cmd;
+    private final PrimCmd primCmd;
+    private final byte[][] args;
+    private final ClusterFutureReply<T> futureReply;
+
+    private SlotRedirectException redirectEx;
+
+    QueuedCmd(final int slot, final Cmd<T> cmd, final PrimCmd primCmd, final byte[][] args) {
+      this.slot = slot;
+      this.cmd = cmd;
+      this.primCmd = primCmd;
+      this.args = args;
+      this.futureReply = new ClusterFutureReply<>();
+    }
+
+    void write(final RedisPipeline pipeline) {
+      if (redirectEx instanceof AskNodeException) {
+        pipeline.skip().asking();
+      }
+
+      if (cmd == null) {
+        futureReply.setLongReply(pipeline.sendCmd(primCmd, args));
+        return;
+      }
+
+      futureReply.setReply(pipeline.sendCmd(cmd, args));
+    }
+
+    boolean checkRedirect() {
+      try {
+        futureReply.checkReply();
+        return false;
+      } catch (final SlotRedirectException slotRedirectEx) {
+        slotRedirectEx.setPrevious(redirectEx);
+        redirectEx = slotRedirectEx;
+        return true;
+      } catch (final RuntimeException re) {
+        return false;
+      }
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package com.fabahaba.jedipus.cluster;
+
+import java.io.Serializable;
+import java.time.Duration;
+
+/**
+ * Configures hedged reads: if a replica has not answered within the given percentile of recently
+ * observed read latencies, the same read is sent to a second pool and the first reply wins. At
+ * most maxHedgeRatio of requests, plus a small burst allowance, will be hedged.
+ */
+public final class HedgePolicy implements Serializable {
+
+  private static final long serialVersionUID = 4352906123071385716L;
+
+  public static final double DEFAULT_PERCENTILE = 0.95;
+  public static final Duration DEFAULT_MIN_DELAY = Duration.ofMillis(1);
+  public static final Duration DEFAULT_MAX_DELAY = Duration.ofMillis(100);
+  public static final double DEFAULT_MAX_HEDGE_RATIO = 0.05;
+  public static final int DEFAULT_MAX_HEDGE_BURST = 10;
+
+  private final double percentile;
+  private final Duration minDelay;
+  private final Duration maxDelay;
+  private final double maxHedgeRatio;
+  private final int maxHedgeBurst;
+
+  private HedgePolicy(final double percentile, final Duration minDelay, final Duration maxDelay,
+      final double maxHedgeRatio, final int maxHedgeBurst) {
+    this.percentile = percentile;
+    this.minDelay = minDelay;
+    this.maxDelay = maxDelay;
+    this.maxHedgeRatio = maxHedgeRatio;
+    this.maxHedgeBurst = maxHedgeBurst;
+  }
+
+  public static HedgePolicy create() {
+    return create(DEFAULT_PERCENTILE, DEFAULT_MIN_DELAY, DEFAULT_MAX_DELAY,
+        DEFAULT_MAX_HEDGE_RATIO, DEFAULT_MAX_HEDGE_BURST);
+  }
+
+  /**
+   * @param percentile Latency percentile, in (0, 1), to wait for before hedging.
+   * @param minDelay Lower bound on the hedge delay.
+   * @param maxDelay Upper bound on the hedge delay, also used until enough latencies are sampled.
+   * @param maxHedgeRatio Fraction of hedgeable requests allowed to send a second read.
+   * @param maxHedgeBurst Number of hedges that may be banked while latencies are normal.
+   * @return A new hedge policy.
+   */
+  public static HedgePolicy create(final double percentile, final Duration minDelay,
+      final Duration maxDelay, final double maxHedgeRatio, final int maxHedgeBurst) {
+    if (percentile <= 0 || percentile >= 1) {
+      throw new IllegalArgumentException("Percentile must be between 0 and 1, was " + percentile);
+    }
+    if (minDelay.compareTo(maxDelay) > 0) {
+      throw new IllegalArgumentException("minDelay must not exceed maxDelay.");
+    }
+    return new HedgePolicy(percentile, minDelay, maxDelay, maxHedgeRatio, maxHedgeBurst);
+  }
+
+  public double getPercentile() {
+    return percentile;
+  }
+
+  public Duration getMinDelay() {
+    return minDelay;
+  }
+
+  public Duration getMaxDelay() {
+    return maxDelay;
+  }
+
+  public double getMaxHedgeRatio() {
+    return maxHedgeRatio;
+  }
+
+  public int getMaxHedgeBurst() {
+    return maxHedgeBurst;
+  }
+
+  @Override
+  public String toString() {
+    return new StringBuilder("HedgePolicy [percentile=").append(percentile)
+        .append(", minDelay=").append(minDelay).append(", maxDelay=").append(maxDelay)
+        .append(", maxHedgeRatio=").append(maxHedgeRatio).append(", maxHedgeBurst=")
+        .append(maxHedgeBurst).append("]").toString();
+  }
+}
@@ -2,36 +2,66 @@ package com.fabahaba.jedipus.cluster;
 
 import com.fabahaba.jedipus.client.NodeMapper;
 import com.fabahaba.jedipus.client.RedisClient;
+import com.fabahaba.jedipus.client.RedisPipeline;
+import com.fabahaba.jedipus.cmds.Cmd;
+import com.fabahaba.jedipus.cmds.Cmds;
+import com.fabahaba.jedipus.cmds.PrimCmd;
+import com.fabahaba.jedipus.cmds.RedisKey;
 import com.fabahaba.jedipus.concurrent.ElementRetryDelay;
 import com.fabahaba.jedipus.concurrent.LoadBalancedPools;
+import com.fabahaba.jedipus.concurrent.RetryTimer;
 import com.fabahaba.jedipus.exceptions.AskNodeException;
 import com.fabahaba.jedipus.exceptions.MaxRedirectsExceededException;
 import com.fabahaba.jedipus.exceptions.RedisConnectionException;
+import com.fabahaba.jedipus.exceptions.RedisDeadlineExceededException;
 import com.fabahaba.jedipus.exceptions.RedisRetryableUnhandledException;
+import com.fabahaba.jedipus.exceptions.RedisUnhandledException;
 import com.fabahaba.jedipus.exceptions.SlotMovedException;
 import com.fabahaba.jedipus.exceptions.SlotRedirectException;
 import com.fabahaba.jedipus.pool.ClientPool;
 import com.fabahaba.jedipus.pool.RedisClientPool;
 
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.function.ToLongFunction;
 
 final class Jedipus implements RedisClusterExecutor {
 
+  private static final long FAN_OUT_THREAD_KEEP_ALIVE_SECONDS = 30;
+  private static final int FAN_OUT_MAX_QUEUED = 1024;
+
   private final int maxRedirections;
   private final int maxRetries;
   private final int refreshSlotCacheEvery;
   private final boolean retryUnhandledRetryableExceptions;
   private final RedisClusterConnHandler connHandler;
+  private final ReadHedger readHedger;
+  private final ExecutorService fanOutExecutor;
+  private final ExecutorService jobExecutor;
+  private volatile CommandTable commandTable = null;
 
   Jedipus(final ReadMode defaultReadMode, final Supplier<Collection<Node>> discoveryNodes,
       final PartitionedStrategyConfig partitionedStrategyConfig, final NodeMapper nodeMapper,
@@ -43,17 +73,45 @@ final class Jedipus implements RedisClusterExecutor {
       final Function<Node, ClientPool<RedisClient>> slavePoolFactory,
       final Function<Node, RedisClient> nodeUnknownFactory,
       final Function<ClientPool<RedisClient>[], LoadBalancedPools<RedisClient,
-          ReadMode>> lbFactory) {
+          ReadMode>> lbFactory,
+      final Duration replicaLagSampleInterval, final long maxReplicaLagBytes,
+      final Duration clusterNodesSampleInterval, final HedgePolicy hedgePolicy,
+      final Path topologySnapshotFile, final int discoverySampleSize,
+      final int discoveryParallelism, final int fanOutParallelism) {
 
     this.connHandler =
         new RedisClusterConnHandler(defaultReadMode, optimisticReads, durationBetweenCacheRefresh,
             maxAwaitCacheRefresh, discoveryNodes, partitionedStrategyConfig, nodeMapper,
             masterPoolFactory, slavePoolFactory, nodeUnknownFactory, lbFactory,
-            clusterNodeRetryDelay);
+            clusterNodeRetryDelay, replicaLagSampleInterval, maxReplicaLagBytes,
+            clusterNodesSampleInterval, topologySnapshotFile, discoverySampleSize,
+            discoveryParallelism);
     this.maxRedirections = maxRedirections;
     this.maxRetries = maxRetries;
     this.refreshSlotCacheEvery = refreshSlotCacheEvery;
     this.retryUnhandledRetryableExceptions = retryUnhandledRetryableExceptions;
+    this.readHedger = hedgePolicy == null ? null : new ReadHedger(hedgePolicy, connHandler);
+    // Long running scan, bulk and reshard jobs get their own threads so that they never hold up
+    // the node calls of mapReduceNodes past its deadline. Once the bounded queue of node calls is
+    // full, callers run them.
+    final ThreadPoolExecutor fanOutExecutor = createFanOutExecutor(fanOutParallelism,
+        "jedipus-fan-out", new ArrayBlockingQueue<>(FAN_OUT_MAX_QUEUED));
+    fanOutExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    this.fanOutExecutor = fanOutExecutor;
+    this.jobExecutor = createFanOutExecutor(fanOutParallelism, "jedipus-cluster-job",
+        new LinkedBlockingQueue<>());
+  }
+
+  private static ThreadPoolExecutor createFanOutExecutor(final int parallelism,
+      final String threadName, final BlockingQueue<Runnable> queue) {
+    final ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism,
+        FAN_OUT_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, queue, runnable -> {
+          final Thread thread = new Thread(runnable, threadName);
+          thread.setDaemon(true);
+          return thread;
+        });
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
   }
 
   @Override
@@ -74,284 +132,341 @@ final class Jedipus implements RedisClusterExecutor {
   @Override
   public long applyPrim(final ReadMode readMode, final int slot,
       final ToLongFunction<RedisClient> clientConsumer, final int maxRetries) {
+    return applySlot(readMode, slot, client -> Long.valueOf(clientConsumer.applyAsLong(client)),
+        maxRetries, 0, null).longValue();
+  }
 
-    SlotRedirectException previousRedirectEx = null;
-
-    long retries = 0;
-    int redirections = 0;
-
-    // Optimistic first try
-    ClientPool<RedisClient> pool = null;
-    RedisClient client = null;
-    try {
-      pool = connHandler.getSlotPool(readMode, slot);
-      client = RedisClientPool.borrowClient(pool);
-      final long result = clientConsumer.applyAsLong(client);
-      connHandler.getClusterNodeRetryDelay().markSuccess(client.getNode());
-      return result;
-    } catch (final RedisConnectionException rcex) {
-      RedisClientPool.returnClient(pool, client);
-      pool = null;
-      final Node failedNode = client == null ? rcex.getNode() : client.getNode();
-      client = null;
-
-      if (failedNode != null && refreshSlotCacheEvery > 0) {
-        retries = connHandler.getClusterNodeRetryDelay().getNumFailures(failedNode);
-        if (retries > 0 && retries % refreshSlotCacheEvery == 0) {
-          connHandler.refreshSlotCache();
-        }
-      }
-
-      retries =
-          connHandler.getClusterNodeRetryDelay().markFailure(failedNode, maxRetries, rcex, retries);
-    } catch (final AskNodeException askEx) {
-      if (maxRedirections == 0) {
-        throw new MaxRedirectsExceededException(askEx);
-      }
-
-      try {
-        RedisClientPool.returnClient(pool, client);
-      } finally {
-        client = null;
-      }
+  @Override
+  public <R> R apply(final ReadMode readMode, final int slot,
+      final Function<RedisClient, R> clientConsumer, final int maxRetries) {
+    return applySlot(readMode, slot, clientConsumer, maxRetries, 0, null);
+  }
 
-      previousRedirectEx = askEx;
-    } catch (final SlotMovedException moveEx) {
-      if (++redirections > maxRedirections) {
-        throw new MaxRedirectsExceededException(moveEx);
-      }
+  @Override
+  public <R> R apply(final ReadMode readMode, final int slot,
+      final Function<RedisClient, R> clientConsumer, final int maxRetries,
+      final Duration timeout) {
+    return applySlot(readMode, slot, clientConsumer, maxRetries,
+        System.nanoTime() + timeout.toNanos(), timeout);
+  }
 
-      connHandler.refreshSlotCache(moveEx);
-      previousRedirectEx = moveEx;
-    } catch (final RedisRetryableUnhandledException retryableEx) {
-      if (!retryUnhandledRetryableExceptions) {
-        throw retryableEx;
-      }
+  // The deadline only applies if a timeout is given.
+  private <R> R applySlot(final ReadMode readMode, final int slot,
+      final Function<RedisClient, R> clientConsumer, final int maxRetries,
+      final long deadlineNanos, final Duration timeout) {
 
-      RedisClientPool.returnClient(pool, client);
-      pool = null;
-      final Node failedNode = client == null ? retryableEx.getNode() : client.getNode();
-      client = null;
-      retries = connHandler.getClusterNodeRetryDelay()
-          .markFailure(failedNode, maxRetries, retryableEx, retries);
-    } finally {
-      RedisClientPool.returnClient(pool, client);
-      pool = null;
-      client = null;
-    }
+    final SlotRoute route = new SlotRoute(readMode, slot);
+    long retries = 0;
 
-    for (;;) {
+    for (boolean firstTry = true;; firstTry = false) {
+      ClientPool<RedisClient> pool = null;
+      RedisClient client = null;
       try {
-        if (previousRedirectEx == null || !(previousRedirectEx instanceof AskNodeException)) {
-          pool = connHandler.getSlotPool(readMode, slot);
-          client = RedisClientPool.borrowClient(pool);
-
-          final long result = clientConsumer.applyAsLong(client);
-          connHandler.getClusterNodeRetryDelay().markSuccess(client.getNode());
-          return result;
+        pool = route.getPool();
+        if (timeout == null) {
+          client = borrowClient(pool);
+        } else {
+          client = borrowClient(pool, deadlineNanos, timeout);
+          limitSoTimeout(client, deadlineNanos, timeout);
         }
 
-        final Node askNode = previousRedirectEx.getTargetNode();
-        pool = connHandler.getAskPool(askNode);
-        client = RedisClientPool.borrowClient(pool);
-        client.asking();
-        final long result = clientConsumer.applyAsLong(client);
+        if (route.isAsking()) {
+          client.asking();
+        }
+        final R result = clientConsumer.apply(client);
         connHandler.getClusterNodeRetryDelay().markSuccess(client.getNode());
         return result;
       } catch (final RedisConnectionException rce) {
-        RedisClientPool.returnClient(pool, client);
-        pool = null;
         final Node failedNode = client == null ? rce.getNode() : client.getNode();
-        client = null;
+        if (timeout != null) {
+          // A socket timeout caused by the deadline says nothing about the health of the node.
+          checkDeadline(deadlineNanos, timeout, failedNode, rce);
+        }
 
         if (failedNode != null && refreshSlotCacheEvery > 0) {
+          if (firstTry) {
+            retries = connHandler.getClusterNodeRetryDelay().getNumFailures(failedNode);
+          }
           if (retries > 0 && retries % refreshSlotCacheEvery == 0) {
             connHandler.refreshSlotCache();
           }
         }
 
-        retries = connHandler.getClusterNodeRetryDelay()
-            .markFailure(failedNode, maxRetries, rce, retries);
-        continue;
+        // Do not hold on to the client while backing off.
+        releaseClient(pool, client, timeout);
+        pool = null;
+        client = null;
+        retries = markFailure(failedNode, maxRetries, rce, retries, deadlineNanos, timeout);
       } catch (final AskNodeException askEx) {
-        askEx.setPrevious(previousRedirectEx);
-
-        try {
-          RedisClientPool.returnClient(pool, client);
-        } finally {
-          client = null;
-        }
-
-        previousRedirectEx = askEx;
-        continue;
+        route.redirect(askEx);
       } catch (final SlotMovedException moveEx) {
-        moveEx.setPrevious(previousRedirectEx);
-
-        if (++redirections > maxRedirections) {
-          throw new MaxRedirectsExceededException(moveEx);
-        }
-
-        connHandler.refreshSlotCache(moveEx);
-        previousRedirectEx = moveEx;
-        continue;
+        route.redirect(moveEx);
       } catch (final RedisRetryableUnhandledException retryableEx) {
         if (!retryUnhandledRetryableExceptions) {
           throw retryableEx;
         }
 
-        RedisClientPool.returnClient(pool, client);
-        pool = null;
         final Node failedNode = client == null ? retryableEx.getNode() : client.getNode();
-        client = null;
-        retries = connHandler.getClusterNodeRetryDelay()
-            .markFailure(failedNode, maxRetries, retryableEx, retries);
-      } finally {
-        RedisClientPool.returnClient(pool, client);
+        if (timeout != null) {
+          checkDeadline(deadlineNanos, timeout, failedNode, retryableEx);
+        }
+
+        releaseClient(pool, client, timeout);
         pool = null;
         client = null;
+        retries = markFailure(failedNode, maxRetries, retryableEx, retries, deadlineNanos,
+            timeout);
+      } finally {
+        releaseClient(pool, client, timeout);
+      }
+
+      if (timeout != null) {
+        final SlotRedirectException redirectEx = route.getPreviousRedirect();
+        checkDeadline(deadlineNanos, timeout,
+            redirectEx == null ? null : redirectEx.getTargetNode(), redirectEx);
       }
     }
   }
 
-  @Override
-  public <R> R apply(final ReadMode readMode, final int slot,
-      final Function<RedisClient, R> clientConsumer, final int maxRetries) {
+  private long markFailure(final Node failedNode, final int maxRetries,
+      final RuntimeException cause, final long retries, final long deadlineNanos,
+      final Duration timeout) {
+    return timeout == null
+        ? connHandler.getClusterNodeRetryDelay().markFailure(failedNode, maxRetries, cause,
+            retries)
+        : connHandler.getClusterNodeRetryDelay().markFailure(failedNode, maxRetries, cause,
+            retries, deadlineNanos);
+  }
 
-    SlotRedirectException previousRedirectEx = null;
+  // Follows the redirects of a single call to a slot across its attempts.
+  private final class SlotRoute {
 
-    long retries = 0;
-    int redirections = 0;
+    private ReadMode readMode;
+    private final int slot;
+    private SlotRedirectException previousRedirectEx = null;
+    private int redirections = 0;
 
-    // Optimistic first try
-    ClientPool<RedisClient> pool = null;
-    RedisClient client = null;
-    try {
-      pool = connHandler.getSlotPool(readMode, slot);
-      client = RedisClientPool.borrowClient(pool);
-      final R result = clientConsumer.apply(client);
-      connHandler.getClusterNodeRetryDelay().markSuccess(client.getNode());
-      return result;
-    } catch (final RedisConnectionException rcex) {
-      RedisClientPool.returnClient(pool, client);
-      pool = null;
-      final Node failedNode = client == null ? rcex.getNode() : client.getNode();
-      client = null;
-
-      if (failedNode != null && refreshSlotCacheEvery > 0) {
-        retries = connHandler.getClusterNodeRetryDelay().getNumFailures(failedNode);
-        if (retries > 0 && retries % refreshSlotCacheEvery == 0) {
-          connHandler.refreshSlotCache();
-        }
-      }
+    SlotRoute(final ReadMode readMode, final int slot) {
+      this.readMode = readMode;
+      this.slot = slot;
+    }
+
+    ClientPool<RedisClient> getPool() {
+      return isAsking() ? connHandler.getAskPool(previousRedirectEx.getTargetNode())
+          : connHandler.getSlotPool(readMode, slot);
+    }
+
+    boolean isAsking() {
+      return previousRedirectEx instanceof AskNodeException;
+    }
+
+    SlotRedirectException getPreviousRedirect() {
+      return previousRedirectEx;
+    }
 
-      retries =
-          connHandler.getClusterNodeRetryDelay().markFailure(failedNode, maxRetries, rcex, retries);
-    } catch (final AskNodeException askEx) {
+    void redirect(final AskNodeException askEx) {
       if (maxRedirections == 0) {
         throw new MaxRedirectsExceededException(askEx);
       }
 
-      try {
-        RedisClientPool.returnClient(pool, client);
-      } finally {
-        client = null;
+      askEx.setPrevious(previousRedirectEx);
+      previousRedirectEx = askEx;
+    }
+
+    void redirect(final SlotMovedException moveEx) {
+      if (isReplicaWrite(moveEx)) {
+        readMode = ReadMode.MASTER;
+        previousRedirectEx = null;
+        return;
       }
 
-      previousRedirectEx = askEx;
-    } catch (final SlotMovedException moveEx) {
+      moveEx.setPrevious(previousRedirectEx);
+
       if (++redirections > maxRedirections) {
         throw new MaxRedirectsExceededException(moveEx);
       }
 
       connHandler.refreshSlotCache(moveEx);
       previousRedirectEx = moveEx;
-    } catch (final RedisRetryableUnhandledException retryableEx) {
-      if (!retryUnhandledRetryableExceptions) {
-        throw retryableEx;
+    }
+
+    // Replicas answer writes with a MOVED to the master of the slot. Promote the consumer to the
+    // master instead of treating it as a slot migration.
+    private boolean isReplicaWrite(final SlotMovedException moveEx) {
+      if (readMode == ReadMode.MASTER || moveEx.getSlot() != slot) {
+        return false;
       }
+      final ClientPool<RedisClient> masterPool = connHandler.getSlotPool(ReadMode.MASTER, slot);
+      return masterPool != null && masterPool.getNode().equals(moveEx.getTargetNode());
+    }
+  }
 
+  private RedisClient borrowClient(final ClientPool<RedisClient> pool) {
+    connHandler.getClusterNodeRetryDelay().markAttempt(pool.getNode());
+    return RedisClientPool.borrowClient(pool);
+  }
+
+  private RedisClient borrowClient(final ClientPool<RedisClient> pool, final long deadlineNanos,
+      final Duration timeout) {
+
+    checkDeadline(deadlineNanos, timeout, pool.getNode(), null);
+    connHandler.getClusterNodeRetryDelay().markAttempt(pool.getNode());
+    try {
+      return pool.borrowClient(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    } catch (final NoSuchElementException nse) {
+      throw new RedisDeadlineExceededException(pool.getNode(),
+          "Timed out borrowing a client within " + timeout, nse);
+    }
+  }
+
+  private static void limitSoTimeout(final RedisClient client, final long deadlineNanos,
+      final Duration timeout) {
+
+    final long remainingNanos = deadlineNanos - System.nanoTime();
+    if (remainingNanos <= 0) {
+      throw new RedisDeadlineExceededException(client.getNode(), "Deadline of " + timeout
+          + " exceeded.");
+    }
+
+    // A zero socket timeout blocks forever.
+    final int remainingMillis = (int) Math.max(1,
+        Math.min(Integer.MAX_VALUE, TimeUnit.NANOSECONDS.toMillis(remainingNanos)));
+    final int soTimeout = client.getSoTimeout();
+    if (soTimeout == 0 || remainingMillis < soTimeout) {
+      client.setSoTimeout(remainingMillis);
+    }
+  }
+
+  private static void releaseClient(final ClientPool<RedisClient> pool, final RedisClient client,
+      final Duration timeout) {
+
+    if (timeout == null) {
       RedisClientPool.returnClient(pool, client);
-      pool = null;
-      final Node failedNode = client == null ? retryableEx.getNode() : client.getNode();
-      client = null;
-      retries = connHandler.getClusterNodeRetryDelay()
-          .markFailure(failedNode, maxRetries, retryableEx, retries);
-    } finally {
-      RedisClientPool.returnClient(pool, client);
-      pool = null;
-      client = null;
+      return;
     }
+    releaseClient(pool, client);
+  }
+
+  private static void releaseClient(final ClientPool<RedisClient> pool,
+      final RedisClient client) {
 
-    for (;;) {
+    if (client != null && !client.isBroken()) {
       try {
-        if (previousRedirectEx == null || !(previousRedirectEx instanceof AskNodeException)) {
-          pool = connHandler.getSlotPool(readMode, slot);
-          client = RedisClientPool.borrowClient(pool);
+        client.resetSoTimeout();
+      } catch (final RedisConnectionException rce) {
+        // Broken now, will be invalidated.
+      }
+    }
+
+    RedisClientPool.returnClient(pool, client);
+  }
+
+  private static void checkDeadline(final long deadlineNanos, final Duration timeout,
+      final Node node, final Throwable cause) {
+
+    if (System.nanoTime() - deadlineNanos >= 0) {
+      throw new RedisDeadlineExceededException(node, "Deadline of " + timeout + " exceeded.",
+          cause);
+    }
+  }
 
+  @Override
+  public <R> CompletableFuture<R> applyAsync(final ReadMode readMode, final int slot,
+      final Function<RedisClient, R> clientConsumer, final int maxRetries,
+      final ExecutorService executor) {
+    final AsyncApply<R> asyncApply =
+        new AsyncApply<>(readMode, slot, clientConsumer, maxRetries, executor);
+    RetryTimer.schedule(asyncApply, 0, executor, asyncApply.future);
+    return asyncApply.future;
+  }
+
+  private final class AsyncApply<R> implements Runnable {
+
+    private final SlotRoute route;
+    private final Function<RedisClient, R> clientConsumer;
+    private final int maxRetries;
+    private final ExecutorService executor;
+    private final CompletableFuture<R> future;
+
+    private boolean firstTry = true;
+    private long retries = 0;
+
+    AsyncApply(final ReadMode readMode, final int slot,
+        final Function<RedisClient, R> clientConsumer, final int maxRetries,
+        final ExecutorService executor) {
+      this.route = new SlotRoute(readMode, slot);
+      this.clientConsumer = clientConsumer;
+      this.maxRetries = maxRetries;
+      this.executor = executor;
+      this.future = new CompletableFuture<>();
+    }
+
+    @Override
+    public void run() {
+      long delayNanos = 0;
+      try {
+        ClientPool<RedisClient> pool = null;
+        RedisClient client = null;
+        try {
+          pool = route.getPool();
+          client = borrowClient(pool);
+
+          if (route.isAsking()) {
+            client.asking();
+          }
           final R result = clientConsumer.apply(client);
           connHandler.getClusterNodeRetryDelay().markSuccess(client.getNode());
-          return result;
-        }
-
-        final Node askNode = previousRedirectEx.getTargetNode();
-        pool = connHandler.getAskPool(askNode);
-        client = RedisClientPool.borrowClient(pool);
-        client.asking();
-        final R result = clientConsumer.apply(client);
-        connHandler.getClusterNodeRetryDelay().markSuccess(client.getNode());
-        return result;
-      } catch (final RedisConnectionException rce) {
-        RedisClientPool.returnClient(pool, client);
-        pool = null;
-        final Node failedNode = client == null ? rce.getNode() : client.getNode();
-        client = null;
+          future.complete(result);
+          return;
+        } catch (final RedisConnectionException rce) {
+          final Node failedNode = client == null ? rce.getNode() : client.getNode();
+
+          if (failedNode != null && refreshSlotCacheEvery > 0) {
+            if (firstTry) {
+              retries = connHandler.getClusterNodeRetryDelay().getNumFailures(failedNode);
+            }
+            if (retries > 0 && retries % refreshSlotCacheEvery == 0) {
+              connHandler.refreshSlotCache();
+            }
+          }
 
-        if (failedNode != null && refreshSlotCacheEvery > 0) {
-          if (retries > 0 && retries % refreshSlotCacheEvery == 0) {
-            connHandler.refreshSlotCache();
+          delayNanos = connHandler.getClusterNodeRetryDelay().markFailureDelay(failedNode,
+              maxRetries, rce, retries++);
+        } catch (final AskNodeException askEx) {
+          route.redirect(askEx);
+        } catch (final SlotMovedException moveEx) {
+          route.redirect(moveEx);
+        } catch (final RedisRetryableUnhandledException retryableEx) {
+          if (!retryUnhandledRetryableExceptions) {
+            throw retryableEx;
           }
-        }
 
-        retries = connHandler.getClusterNodeRetryDelay()
-            .markFailure(failedNode, maxRetries, rce, retries);
-        continue;
-      } catch (final AskNodeException askEx) {
-        askEx.setPrevious(previousRedirectEx);
-        try {
-          RedisClientPool.returnClient(pool, client);
+          final Node failedNode = client == null ? retryableEx.getNode() : client.getNode();
+          delayNanos = connHandler.getClusterNodeRetryDelay().markFailureDelay(failedNode,
+              maxRetries, retryableEx, retries++);
         } finally {
-          client = null;
+          firstTry = false;
+          RedisClientPool.returnClient(pool, client);
         }
+      } catch (final RuntimeException | Error ex) {
+        future.completeExceptionally(ex);
+        return;
+      }
 
-        previousRedirectEx = askEx;
-        continue;
-      } catch (final SlotMovedException moveEx) {
-        moveEx.setPrevious(previousRedirectEx);
-
-        if (++redirections > maxRedirections) {
-          throw new MaxRedirectsExceededException(moveEx);
-        }
+      RetryTimer.schedule(this, delayNanos, executor, future);
+    }
+  }
 
-        connHandler.refreshSlotCache(moveEx);
-        previousRedirectEx = moveEx;
-        continue;
-      } catch (final RedisRetryableUnhandledException retryableEx) {
-        if (!retryUnhandledRetryableExceptions) {
-          throw retryableEx;
-        }
+  @Override
+  public <R> R applyHedged(final ReadMode readMode, final int slot,
+      final Function<RedisClient, R> clientConsumer, final int maxRetries) {
 
-        RedisClientPool.returnClient(pool, client);
-        pool = null;
-        final Node failedNode = client == null ? retryableEx.getNode() : client.getNode();
-        client = null;
-        retries = connHandler.getClusterNodeRetryDelay()
-            .markFailure(failedNode, maxRetries, retryableEx, retries);
-      } finally {
-        RedisClientPool.returnClient(pool, client);
-        pool = null;
-        client = null;
-      }
+    if (readHedger == null || readMode == ReadMode.MASTER) {
+      return apply(readMode, slot, clientConsumer, maxRetries);
     }
+
+    return readHedger.apply(readMode, slot, clientConsumer,
+        () -> apply(readMode, slot, clientConsumer, maxRetries));
   }
 
   @Override
@@ -370,7 +485,7 @@ final class Jedipus implements RedisClusterExecutor {
 
       RedisClient client = null;
       try {
-        client = RedisClientPool.borrowClient(pool);
+        client = borrowClient(pool);
         final R result = clientConsumer.apply(client);
         connHandler.getClusterNodeRetryDelay().markSuccess(client.getNode());
         return result;
@@ -403,6 +518,7 @@ final class Jedipus implements RedisClusterExecutor {
       final int maxRetries) {
 
     for (long retries = 0;;) {
+      connHandler.getClusterNodeRetryDelay().markAttempt(node);
       try (final RedisClient client = connHandler.createUnknownNode(node)) {
         final R result = clientConsumer.apply(client);
         connHandler.getClusterNodeRetryDelay().markSuccess(node);
@@ -457,6 +573,151 @@ final class Jedipus implements RedisClusterExecutor {
     return futures;
   }
 
+  @Override
+  public <R> R mapReduceNodes(final NodeSelector selector, final Function<RedisClient, R> mapper,
+      final BinaryOperator<R> combiner, final int maxRetries, final Duration timeout) {
+
+    final Map<Node, ClientPool<RedisClient>> pools;
+    switch (selector) {
+      case MASTERS:
+        pools = connHandler.getMasterPools();
+        break;
+      case SLAVES:
+        pools = connHandler.getSlavePools();
+        break;
+      case ALL:
+      default:
+        pools = connHandler.getAllPools();
+        break;
+    }
+
+    if (pools.isEmpty()) {
+      return null;
+    }
+
+    final long deadlineNanos = timeout == null ? 0 : System.nanoTime() + timeout.toNanos();
+    final CompletionService<R> completionService =
+        new ExecutorCompletionService<>(fanOutExecutor);
+    final List<Future<R>> futures = new ArrayList<>(pools.size());
+    try {
+      for (final ClientPool<RedisClient> pool : pools.values()) {
+        futures.add(completionService.submit(() -> timeout == null
+            ? applyPooledClient(pool, mapper, maxRetries)
+            : applyPooledClient(pool, mapper, maxRetries, deadlineNanos, timeout)));
+      }
+
+      R result = null;
+      for (int remaining = futures.size(); remaining > 0; remaining--) {
+        final R nodeResult = getNodeResult(completionService, deadlineNanos, timeout);
+        if (nodeResult != null) {
+          result = result == null ? nodeResult : combiner.apply(result, nodeResult);
+        }
+      }
+      return result;
+    } finally {
+      for (final Future<R> future : futures) {
+        future.cancel(true);
+      }
+    }
+  }
+
+  @Override
+  public Spliterator<byte[]> scanKeySpliterator(final ReadMode readMode, final int maxRetries,
+      final byte[]... scanOptions) {
+    return new ClusterScanSpliterator(this, readMode, maxRetries, scanOptions,
+        connHandler.getShardSlots());
+  }
+
+  @Override
+  public CompletableFuture<Void> scanKeysAsync(final ReadMode readMode,
+      final Consumer<Object[]> batchConsumer, final int maxRetries, final byte[]... scanOptions) {
+
+    final int[] shardSlots = connHandler.getShardSlots();
+    final CompletableFuture<?>[] futures = new CompletableFuture<?>[shardSlots.length];
+    for (int i = 0; i < shardSlots.length; i++) {
+      final int shardSlot = shardSlots[i];
+      futures[i] = CompletableFuture.runAsync(() -> ClusterScanSpliterator.scanShard(this,
+          readMode, shardSlot, scanOptions, maxRetries, batchConsumer), jobExecutor);
+    }
+    return CompletableFuture.allOf(futures);
+  }
+
+  @Override
+  public BulkKeyJob startBulkKeyJob(final BiConsumer<RedisPipeline, byte[]> keyMutation,
+      final long maxOpsPerSecond, final int maxRetries, final byte[]... scanOptions) {
+    return ClusterBulkKeyJob.start(this, keyMutation, maxOpsPerSecond, maxRetries, scanOptions,
+        connHandler.getShardSlots(), jobExecutor);
+  }
+
+  @Override
+  public ReshardJob startReshard(final ReshardPlan plan, final int keysPerMigrate,
+      final long maxKeysPerSecond, final Duration migrateTimeout, final boolean replace) {
+    return ClusterReshardJob.start(this, plan, keysPerMigrate, maxKeysPerSecond, migrateTimeout,
+        replace, maxRetries, jobExecutor);
+  }
+
+  private static <R> R getNodeResult(final CompletionService<R> completionService,
+      final long deadlineNanos, final Duration timeout) {
+
+    try {
+      final Future<R> future;
+      if (timeout == null) {
+        future = completionService.take();
+      } else {
+        future = completionService.poll(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        if (future == null) {
+          throw new RedisDeadlineExceededException(null, "Deadline of " + timeout + " exceeded.");
+        }
+      }
+      return future.get();
+    } catch (final InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(ie);
+    } catch (final ExecutionException ee) {
+      throw ee.getCause() instanceof RuntimeException ? (RuntimeException) ee.getCause()
+          : new RuntimeException(ee.getCause());
+    }
+  }
+
+  private <R> R applyPooledClient(final ClientPool<RedisClient> pool,
+      final Function<RedisClient, R> clientConsumer, final int maxRetries,
+      final long deadlineNanos, final Duration timeout) {
+
+    for (long retries = 0;;) {
+      RedisClient client = null;
+      try {
+        client = borrowClient(pool, deadlineNanos, timeout);
+        limitSoTimeout(client, deadlineNanos, timeout);
+
+        final R result = clientConsumer.apply(client);
+        connHandler.getClusterNodeRetryDelay().markSuccess(client.getNode());
+        return result;
+      } catch (final RedisConnectionException rce) {
+        final Node failedNode = client == null ? rce.getNode() : client.getNode();
+        checkDeadline(deadlineNanos, timeout, failedNode, rce);
+
+        releaseClient(pool, client);
+        client = null;
+        retries = connHandler.getClusterNodeRetryDelay().markFailure(failedNode, maxRetries, rce,
+            retries, deadlineNanos);
+      } catch (final RedisRetryableUnhandledException retryableEx) {
+        if (!retryUnhandledRetryableExceptions) {
+          throw retryableEx;
+        }
+
+        final Node failedNode = client == null ? retryableEx.getNode() : client.getNode();
+        checkDeadline(deadlineNanos, timeout, failedNode, retryableEx);
+
+        releaseClient(pool, client);
+        client = null;
+        retries = connHandler.getClusterNodeRetryDelay().markFailure(failedNode, maxRetries,
+            retryableEx, retries, deadlineNanos);
+      } finally {
+        releaseClient(pool, client);
+      }
+    }
+  }
+
   private <R> R applyPooledClient(final ClientPool<RedisClient> pool,
       final Function<RedisClient, R> clientConsumer, final int
       maxRetries) {
@@ -464,7 +725,7 @@ final class Jedipus implements RedisClusterExecutor {
     for (long retries = 0;;) {
       RedisClient client = null;
       try {
-        client = RedisClientPool.borrowClient(pool);
+        client = borrowClient(pool);
 
         final R result = clientConsumer.apply(client);
         connHandler.getClusterNodeRetryDelay().markSuccess(client.getNode());
@@ -491,6 +752,74 @@ final class Jedipus implements RedisClusterExecutor {
     }
   }
 
+  @Override
+  public <T> T sendCmd(final Cmd<T> cmd, final byte[]... args) {
+    final CommandTable table = getCommandTable();
+    return apply(getReadMode(table, cmd.name(), null), table.getSlot(cmd.name(), null, args),
+        client -> client.sendCmd(cmd, args), maxRetries);
+  }
+
+  @Override
+  public <T> T sendCmd(final Cmd<T> cmd, final RedisKey key, final byte[]... args) {
+    return apply(getReadMode(getCommandTable(), cmd.name(), null), key.getSlot(),
+        client -> client.sendCmd(cmd, key.withArgs(args)), maxRetries);
+  }
+
+  @Override
+  public <T> T sendCmd(final Cmd<?> cmd, final Cmd<T> subCmd, final byte[]... args) {
+    final CommandTable table = getCommandTable();
+    return apply(getReadMode(table, cmd.name(), subCmd.name()),
+        table.getSlot(cmd.name(), subCmd.name(), args),
+        client -> client.sendCmd(cmd, subCmd, args), maxRetries);
+  }
+
+  @Override
+  public long sendCmd(final PrimCmd cmd, final byte[]... args) {
+    final CommandTable table = getCommandTable();
+    return applyPrim(getReadMode(table, cmd.name(), null), table.getSlot(cmd.name(), null, args),
+        client -> client.sendCmd(cmd, args), maxRetries);
+  }
+
+  @Override
+  public long sendCmd(final PrimCmd cmd, final RedisKey key, final byte[]... args) {
+    return applyPrim(getReadMode(getCommandTable(), cmd.name(), null), key.getSlot(),
+        client -> client.sendCmd(cmd, key.withArgs(args)), maxRetries);
+  }
+
+  private ReadMode getReadMode(final CommandTable table, final String name,
+      final String subCmd) {
+    return table.isReadOnly(name, subCmd) ? getDefaultReadMode() : ReadMode.MASTER;
+  }
+
+  CommandTable getCommandTable() {
+    final CommandTable table = commandTable;
+    return table == null ? loadCommandTable() : table;
+  }
+
+  private synchronized CommandTable loadCommandTable() {
+    if (commandTable == null) {
+      try {
+        commandTable = apply(ReadMode.MASTER, CRC16.getRandomSlot(),
+            client -> CommandTable.create(client.sendCmd(Cmds.COMMAND)), maxRetries);
+      } catch (final RedisUnhandledException rue) {
+        // COMMAND is only available from 2.8.13. Other failures leave the table to be loaded by
+        // the next call.
+        if (rue.getMessage() == null || !rue.getMessage().startsWith("ERR unknown command")) {
+          throw rue;
+        }
+        commandTable = CommandTable.EMPTY;
+      }
+    }
+    return commandTable;
+  }
+
+  @Override
+  public ClusterPipeline createClusterPipeline(final ReadMode readMode,
+      final ExecutorService executor) {
+    return new FanOutClusterPipeline(connHandler, readMode, maxRedirections, maxRetries,
+        retryUnhandledRetryableExceptions, executor);
+  }
+
   @Override
   public void refreshSlotCache() {
     connHandler.refreshSlotCache();
@@ -498,7 +827,15 @@ final class Jedipus implements RedisClusterExecutor {
 
   @Override
   public void close() {
-    connHandler.close();
+    try {
+      fanOutExecutor.shutdownNow();
+      jobExecutor.shutdownNow();
+      if (readHedger != null) {
+        readHedger.close();
+      }
+    } finally {
+      connHandler.close();
+    }
   }
 
   @Override
@@ -506,7 +843,7 @@ final class Jedipus implements RedisClusterExecutor {
     return new StringBuilder("Jedipus [maxRedirections=").append(maxRedirections)
         .append(", maxRetries=").append(maxRetries).append(", refreshSlotCacheEvery=")
         .append(refreshSlotCacheEvery).append(", retryUnhandledRetryableExceptions=")
-        .append(retryUnhandledRetryableExceptions).append(", connHandler=").append(connHandler)
-        .append("]").toString();
+        .append(retryUnhandledRetryableExceptions).append(", readHedger=").append(readHedger)
+        .append(", connHandler=").append(connHandler).append("]").toString();
   }
 }
@@ -0,0 +1,105 @@
+package com.fabahaba.jedipus.cluster;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fabahaba.jedipus.client.RedisClient;
+import com.fabahaba.jedipus.cluster.LatencyAwarePools.TrackedPool;
+import com.fabahaba.jedipus.cluster.RedisClusterExecutor.ReadMode;
+import com.fabahaba.jedipus.concurrent.LoadBalancedPools;
+import com.fabahaba.jedipus.pool.ClientPool;
+
+/**
+ * Balances reads across replicas by picking the cheaper of two randomly chosen pools, where cost
+ * is a decaying peak EWMA of borrow-to-return latency multiplied by the number of in-flight
+ * requests. Statistics are shared across all slot ranges served by the same pool.
+ */
+public final class LatencyAwareLBFactory implements LBPoolsFactory {
+
+  private static final long serialVersionUID = -2471163021431906118L;
+
+  public static final Duration DEFAULT_DECAY = Duration.ofSeconds(10);
+
+  private final Duration decay;
+  private transient PoolTracker<RedisClient> tracker;
+
+  private LatencyAwareLBFactory(final Duration decay) {
+    this.decay = decay;
+    this.tracker = new PoolTracker<>(decay.toNanos());
+  }
+
+  public static LatencyAwareLBFactory create() {
+    return create(DEFAULT_DECAY);
+  }
+
+  /**
+   * @param decay The time constant over which past latency samples lose their influence.
+   * @return A new factory with its own latency statistics.
+   */
+  public static LatencyAwareLBFactory create(final Duration decay) {
+    return new LatencyAwareLBFactory(decay);
+  }
+
+  public Duration getDecay() {
+    return decay;
+  }
+
+  @Override
+  public LoadBalancedPools<RedisClient, ReadMode> apply(final ReadMode defaultReadMode,
+      final ClientPool<RedisClient>[] slavePools) {
+
+    if (slavePools.length == 0) {
+      return (rm, def) -> def;
+    }
+
+    if (defaultReadMode == ReadMode.MASTER) {
+      return null;
+    }
+
+    tracker.purgeClosed();
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    final TrackedPool<RedisClient>[] trackedPools = new TrackedPool[slavePools.length];
+    for (int i = 0; i < slavePools.length; i++) {
+      trackedPools[i] = tracker.track(slavePools[i]);
+    }
+
+    return new LatencyAwarePools<>(trackedPools, tracker);
+  }
+
+  private Object readResolve() {
+    return new LatencyAwareLBFactory(decay);
+  }
+
+  @Override
+  public String toString() {
+    return new StringBuilder("LatencyAwareLBFactory [decay=").append(decay).append("]")
+        .toString();
+  }
+
+  static final class PoolTracker<T> {
+
+    private final long decayNanos;
+    private final ConcurrentHashMap<ClientPool<T>, TrackedPool<T>> trackedPools;
+
+    PoolTracker(final long decayNanos) {
+      this.decayNanos = decayNanos;
+      this.trackedPools = new ConcurrentHashMap<>();
+    }
+
+    TrackedPool<T> track(final ClientPool<T> pool) {
+      if (pool instanceof TrackedPool) {
+        return (TrackedPool<T>) pool;
+      }
+
+      final TrackedPool<T> trackedPool = trackedPools.get(pool);
+      return trackedPool == null
+          ? trackedPools.computeIfAbsent(pool, p -> new TrackedPool<>(p, decayNanos))
+          : trackedPool;
+    }
+
+    void purgeClosed() {
+      trackedPools.keySet().removeIf(ClientPool::isClosed);
+    }
+  }
+}
@@ -0,0 +1,196 @@
+package com.fabahaba.jedipus.cluster;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fabahaba.jedipus.cluster.RedisClusterExecutor.ReadMode;
+import com.fabahaba.jedipus.concurrent.LoadBalancedPools;
+import com.fabahaba.jedipus.pool.ClientPool;
+
+final class LatencyAwarePools<T> implements LoadBalancedPools<T, ReadMode> {
+
+  private final TrackedPool<T>[] pools;
+  private final LatencyAwareLBFactory.PoolTracker<T> tracker;
+
+  LatencyAwarePools(final TrackedPool<T>[] pools,
+      final LatencyAwareLBFactory.PoolTracker<T> tracker) {
+    this.pools = pools;
+    this.tracker = tracker;
+  }
+
+  @Override
+  public ClientPool<T> next(final ReadMode readMode, final ClientPool<T> defaultPool) {
+    switch (readMode) {
+      case MIXED:
+        if (defaultPool == null) {
+          return pickTwo(pools.length, null);
+        }
+        return pickTwo(pools.length + 1, tracker.track(defaultPool));
+      case MIXED_SLAVES:
+      case SLAVES:
+        return pickTwo(pools.length, null);
+      case MASTER:
+      default:
+        return defaultPool;
+    }
+  }
+
+  // Power of two choices: sample two distinct pools and take the cheaper one. Index
+  // pools.length refers to the extra pool, if any.
+  private ClientPool<T> pickTwo(final int numPools, final TrackedPool<T> extraPool) {
+    if (numPools == 1) {
+      return pools.length == 1 ? pools[0] : extraPool;
+    }
+
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    final int first = random.nextInt(numPools);
+    int second = random.nextInt(numPools - 1);
+    if (second >= first) {
+      second++;
+    }
+
+    final TrackedPool<T> firstPool = first == pools.length ? extraPool : pools[first];
+    final TrackedPool<T> secondPool = second == pools.length ? extraPool : pools[second];
+
+    final long now = System.nanoTime();
+    return firstPool.getCost(now) <= secondPool.getCost(now) ? firstPool : secondPool;
+  }
+
+  static final class TrackedPool<T> implements ClientPool<T> {
+
+    private final ClientPool<T> pool;
+    private final double decayNanos;
+    private final AtomicInteger inFlight;
+    private final ConcurrentHashMap<T, Long> borrowedAt;
+    // Racy updates may drop a sample now and then, which is fine for a load estimate.
+    private volatile double ewmaNanos;
+    private volatile long lastUpdate;
+
+    TrackedPool(final ClientPool<T> pool, final long decayNanos) {
+      this.pool = pool;
+      this.decayNanos = decayNanos;
+      this.inFlight = new AtomicInteger(0);
+      this.borrowedAt = new ConcurrentHashMap<>();
+      this.ewmaNanos = 0;
+      this.lastUpdate = System.nanoTime();
+    }
+
+    ClientPool<T> getPool() {
+      return pool;
+    }
+
+    int getInFlight() {
+      return inFlight.get();
+    }
+
+    // The EWMA decays towards zero while a pool sits idle so that a pool that was once slow gets
+    // probed again, and is weighted by the number of outstanding requests.
+    double getCost(final long now) {
+      final double decayed = ewmaNanos * Math.exp(-Math.max(0, now - lastUpdate) / decayNanos);
+      return decayed * (inFlight.get() + 1);
+    }
+
+    void recordLatency(final long latencyNanos, final long now) {
+      final double ewma = ewmaNanos;
+      if (latencyNanos > ewma) {
+        // Jump straight to latency spikes, decay slowly when things improve.
+        ewmaNanos = latencyNanos;
+      } else {
+        final double weight = Math.exp(-Math.max(0, now - lastUpdate) / decayNanos);
+        ewmaNanos = ewma * weight + latencyNanos * (1.0 - weight);
+      }
+      lastUpdate = now;
+    }
+
+    private T borrowed(final T client) {
+      if (client != null) {
+        inFlight.incrementAndGet();
+        borrowedAt.put(client, System.nanoTime());
+      }
+      return client;
+    }
+
+    private void completed(final T client) {
+      final Long start = client == null ? null : borrowedAt.remove(client);
+      if (start == null) {
+        return;
+      }
+
+      inFlight.decrementAndGet();
+      final long now = System.nanoTime();
+      recordLatency(now - start, now);
+    }
+
+    @Override
+    public Node getNode() {
+      return pool.getNode();
+    }
+
+    @Override
+    public T borrowClient() throws NoSuchElementException {
+      return borrowed(pool.borrowClient());
+    }
+
+    @Override
+    public T borrowClient(final long timeout, final TimeUnit unit) throws NoSuchElementException {
+      return borrowed(pool.borrowClient(timeout, unit));
+    }
+
+    @Override
+    public T borrowIfCapacity() {
+      return borrowed(pool.borrowIfCapacity());
+    }
+
+    @Override
+    public T borrowIfPresent() {
+      return borrowed(pool.borrowIfPresent());
+    }
+
+    @Override
+    public void returnClient(final T client) {
+      completed(client);
+      pool.returnClient(client);
+    }
+
+    @Override
+    public void invalidateClient(final T client) {
+      completed(client);
+      pool.invalidateClient(client);
+    }
+
+    @Override
+    public int getNumIdle() {
+      return pool.getNumIdle();
+    }
+
+    @Override
+    public int getNumActive() {
+      return pool.getNumActive();
+    }
+
+    @Override
+    public void clear() {
+      pool.clear();
+    }
+
+    @Override
+    public void close() {
+      pool.close();
+    }
+
+    @Override
+    public boolean isClosed() {
+      return pool.isClosed();
+    }
+
+    @Override
+    public String toString() {
+      return new StringBuilder("TrackedPool [pool=").append(pool).append(", inFlight=")
+          .append(inFlight.get()).append(", ewmaNanos=").append(ewmaNanos).append("]")
+          .toString();
+    }
+  }
+}
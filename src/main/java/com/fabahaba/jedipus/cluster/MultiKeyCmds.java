@@ -0,0 +1,141 @@
+package com.fabahaba.jedipus.cluster;
+
+import com.fabahaba.jedipus.client.FutureLongReply;
+import com.fabahaba.jedipus.client.FutureReply;
+import com.fabahaba.jedipus.cluster.RedisClusterExecutor.ReadMode;
+import com.fabahaba.jedipus.cmds.Cmd;
+import com.fabahaba.jedipus.cmds.Cmds;
+
+import java.util.Arrays;
+
+final class MultiKeyCmds {
+
+  private MultiKeyCmds() {}
+
+  static Object[] mget(final RedisClusterExecutor rce, final ReadMode readMode,
+      final byte[][] keys) {
+
+    final Object[] values = new Object[keys.length];
+    if (keys.length == 0) {
+      return values;
+    }
+
+    final long[] slotIndexes = sortBySlot(keys, 1);
+    final int[] runs = slotRuns(slotIndexes);
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    final FutureReply<Object[]>[] replies = new FutureReply[runs.length - 1];
+
+    rce.acceptClusterPipeline(readMode, pipeline -> {
+      for (int run = 0, from = 0; run < replies.length; from = runs[++run]) {
+        final int to = runs[run + 1];
+        final byte[][] args = new byte[to - from][];
+        for (int i = from; i < to; i++) {
+          args[i - from] = keys[(int) slotIndexes[i]];
+        }
+        replies[run] = pipeline.sendCmd(slot(slotIndexes[from]), Cmds.MGET, args);
+      }
+      pipeline.syncThrow();
+    });
+
+    for (int run = 0, from = 0; run < replies.length; from = runs[++run]) {
+      final Object[] reply = replies[run].get();
+      for (int i = from, to = runs[run + 1]; i < to; i++) {
+        values[(int) slotIndexes[i]] = reply[i - from];
+      }
+    }
+
+    return values;
+  }
+
+  static void mset(final RedisClusterExecutor rce, final byte[][] keyValues) {
+    if (keyValues.length == 0) {
+      return;
+    }
+
+    if ((keyValues.length & 1) != 0) {
+      throw new IllegalArgumentException("MSET requires an even number of keys and values.");
+    }
+
+    final long[] slotIndexes = sortBySlot(keyValues, 2);
+    final int[] runs = slotRuns(slotIndexes);
+
+    if (runs.length == 2) {
+      // Every key shares a slot, so a single MSET keeps it atomic.
+      rce.accept(ReadMode.MASTER, slot(slotIndexes[0]),
+          client -> client.sendCmd(Cmds.MSET, keyValues));
+      return;
+    }
+
+    rce.acceptClusterPipeline(ReadMode.MASTER, pipeline -> {
+      for (int run = 0, from = 0; run < runs.length - 1; from = runs[++run]) {
+        final int to = runs[run + 1];
+        final byte[][] args = new byte[(to - from) << 1][];
+        for (int i = from, arg = 0; i < to; i++) {
+          final int keyIndex = (int) slotIndexes[i];
+          args[arg++] = keyValues[keyIndex];
+          args[arg++] = keyValues[keyIndex + 1];
+        }
+        pipeline.sendCmd(slot(slotIndexes[from]), Cmds.MSET, args);
+      }
+      pipeline.syncThrow();
+    });
+  }
+
+  static long sum(final RedisClusterExecutor rce, final ReadMode readMode, final Cmd<Long> cmd,
+      final byte[][] keys) {
+
+    if (keys.length == 0) {
+      return 0;
+    }
+
+    final long[] slotIndexes = sortBySlot(keys, 1);
+    final int[] runs = slotRuns(slotIndexes);
+    final FutureLongReply[] replies = new FutureLongReply[runs.length - 1];
+
+    rce.acceptClusterPipeline(readMode, pipeline -> {
+      for (int run = 0, from = 0; run < replies.length; from = runs[++run]) {
+        final int to = runs[run + 1];
+        final byte[][] args = new byte[to - from][];
+        for (int i = from; i < to; i++) {
+          args[i - from] = keys[(int) slotIndexes[i]];
+        }
+        replies[run] = pipeline.sendCmd(slot(slotIndexes[from]), cmd.prim(), args);
+      }
+      pipeline.syncThrow();
+    });
+
+    long sum = 0;
+    for (final FutureLongReply reply : replies) {
+      sum += reply.getAsLong();
+    }
+    return sum;
+  }
+
+  // Packs each key's slot into the high bits and its index into the low bits so that a single
+  // primitive sort groups keys by slot while preserving their original order within a slot.
+  static long[] sortBySlot(final byte[][] keys, final int stride) {
+    final long[] slotIndexes = new long[keys.length / stride];
+    for (int i = 0, keyIndex = 0; i < slotIndexes.length; i++, keyIndex += stride) {
+      slotIndexes[i] = ((long) CRC16.getSlot(keys[keyIndex]) << 32) | keyIndex;
+    }
+    Arrays.sort(slotIndexes);
+    return slotIndexes;
+  }
+
+  // Returns the starting offset of each run of equal slots, terminated by slotIndexes.length.
+  static int[] slotRuns(final long[] slotIndexes) {
+    final int[] runs = new int[slotIndexes.length + 1];
+    int numRuns = 0;
+    for (int i = 0; i < slotIndexes.length; i++) {
+      if (i == 0 || slot(slotIndexes[i]) != slot(slotIndexes[i - 1])) {
+        runs[numRuns++] = i;
+      }
+    }
+    runs[numRuns++] = slotIndexes.length;
+    return Arrays.copyOf(runs, numRuns);
+  }
+
+  static int slot(final long slotIndex) {
+    return (int) (slotIndex >>> 32);
+  }
+}
@@ -0,0 +1,55 @@
+package com.fabahaba.jedipus.cluster;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paces operations shared by many threads to a maximum rate. Each caller reserves the time its
+ * operations take at the configured rate and waits until its reservation starts, so a batch is
+ * never delayed for its own size and the long run rate never exceeds the limit.
+ */
+final class OpsRateLimiter {
+
+  private final double nanosPerOp;
+  private long nextFreeNanos;
+
+  /**
+   * @param maxOpsPerSecond The rate limit, or a non-positive value for none.
+   */
+  OpsRateLimiter(final long maxOpsPerSecond) {
+    this.nanosPerOp =
+        maxOpsPerSecond <= 0 ? 0 : TimeUnit.SECONDS.toNanos(1) / (double) maxOpsPerSecond;
+    this.nextFreeNanos = System.nanoTime();
+  }
+
+  void acquire(final int numOps) {
+    if (nanosPerOp == 0) {
+      return;
+    }
+
+    final long startNanos = reserve(numOps, System.nanoTime());
+    try {
+      for (long waitNanos = startNanos - System.nanoTime(); waitNanos > 0;
+          waitNanos = startNanos - System.nanoTime()) {
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+      }
+    } catch (final InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(ie);
+    }
+  }
+
+  /**
+   * @return The time at which numOps may start.
+   */
+  synchronized long reserve(final int numOps, final long nowNanos) {
+    final long startNanos = nextFreeNanos - nowNanos > 0 ? nextFreeNanos : nowNanos;
+    nextFreeNanos = startNanos + (long) (numOps * nanosPerOp);
+    return startNanos;
+  }
+
+  @Override
+  public String toString() {
+    return new StringBuilder("OpsRateLimiter [nanosPerOp=").append(nanosPerOp).append("]")
+        .toString();
+  }
+}
@@ -10,6 +10,7 @@ import com.fabahaba.jedipus.pool.ClientPool;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -27,11 +28,14 @@ final class OptimisticRedisClusterSlotCache extends RedisClusterSlotCache {
       final Function<Node, ClientPool<RedisClient>> slavePoolFactory,
       final Function<Node, RedisClient> nodeUnknownFactory,
       final Function<ClientPool<RedisClient>[], LoadBalancedPools<RedisClient, ReadMode>> lbFactory,
-      final ElementRetryDelay<Node> clusterNodeRetryDelay) {
+      final ElementRetryDelay<Node> clusterNodeRetryDelay,
+      final TopologySnapshotFile topologySnapshot, final int discoverySampleSize,
+      final ExecutorService discoveryExecutor) {
 
     super(defaultReadMode, true, durationBetweenCacheRefresh, maxAwaitCacheRefresh, discoveryNodes,
         partitionedStrategyConfig, nodeMapper, masterPools, masterSlots, slavePools, slaveSlots,
-        masterPoolFactory, slavePoolFactory, nodeUnknownFactory, lbFactory, clusterNodeRetryDelay);
+        masterPoolFactory, slavePoolFactory, nodeUnknownFactory, lbFactory, clusterNodeRetryDelay,
+        topologySnapshot, discoverySampleSize, discoveryExecutor);
   }
 
   @Override
@@ -3,6 +3,7 @@ package com.fabahaba.jedipus.cluster;
 import com.fabahaba.jedipus.client.RedisClient;
 import com.fabahaba.jedipus.client.RedisPipeline;
 import com.fabahaba.jedipus.cluster.RedisClusterExecutor.ReadMode;
+import com.fabahaba.jedipus.cmds.RedisKey;
 
 import java.util.function.ToLongFunction;
 
@@ -41,6 +42,10 @@ public interface PrimClusterExecutor {
     return applyPrim(getDefaultReadMode(), CRC16.getSlot(slotKey), clientConsumer, getMaxRetries());
   }
 
+  default long applyPrim(final RedisKey slotKey, final ToLongFunction<RedisClient> clientConsumer) {
+    return applyPrim(getDefaultReadMode(), slotKey.getSlot(), clientConsumer, getMaxRetries());
+  }
+
   default long applyPrim(final ReadMode readMode, final String slotKey,
       final ToLongFunction<RedisClient> clientConsumer) {
     return applyPrim(readMode, CRC16.getSlot(slotKey), clientConsumer, getMaxRetries());
@@ -51,6 +56,11 @@ public interface PrimClusterExecutor {
     return applyPrim(readMode, CRC16.getSlot(slotKey), clientConsumer, getMaxRetries());
   }
 
+  default long applyPrim(final ReadMode readMode, final RedisKey slotKey,
+      final ToLongFunction<RedisClient> clientConsumer) {
+    return applyPrim(readMode, slotKey.getSlot(), clientConsumer, getMaxRetries());
+  }
+
   default long applyPrim(final int slot, final ToLongFunction<RedisClient> clientConsumer) {
     return applyPrim(getDefaultReadMode(), slot, clientConsumer, getMaxRetries());
   }
@@ -70,6 +80,11 @@ public interface PrimClusterExecutor {
     return applyPrim(getDefaultReadMode(), CRC16.getSlot(slotKey), clientConsumer, maxRetries);
   }
 
+  default long applyPrim(final RedisKey slotKey, final ToLongFunction<RedisClient> clientConsumer,
+      final int maxRetries) {
+    return applyPrim(getDefaultReadMode(), slotKey.getSlot(), clientConsumer, maxRetries);
+  }
+
   default long applyPrim(final ReadMode readMode, final String slotKey,
       final ToLongFunction<RedisClient> clientConsumer, final int maxRetries) {
     return applyPrim(readMode, CRC16.getSlot(slotKey), clientConsumer, maxRetries);
@@ -80,6 +95,11 @@ public interface PrimClusterExecutor {
     return applyPrim(readMode, CRC16.getSlot(slotKey), clientConsumer, maxRetries);
   }
 
+  default long applyPrim(final ReadMode readMode, final RedisKey slotKey,
+      final ToLongFunction<RedisClient> clientConsumer, final int maxRetries) {
+    return applyPrim(readMode, slotKey.getSlot(), clientConsumer, maxRetries);
+  }
+
   default long applyPrim(final int slot, final ToLongFunction<RedisClient> clientConsumer,
       final int maxRetries) {
     return applyPrim(getDefaultReadMode(), slot, clientConsumer, maxRetries);
@@ -118,6 +138,12 @@ public interface PrimClusterExecutor {
         getMaxRetries());
   }
 
+  default long applyPrimPipeline(final RedisKey slotKey,
+      final ToLongFunction<RedisPipeline> pipelineConsumer) {
+    return applyPrimPipeline(getDefaultReadMode(), slotKey.getSlot(), pipelineConsumer,
+        getMaxRetries());
+  }
+
   default long applyPrimPipeline(final ReadMode readMode, final String slotKey,
       final ToLongFunction<RedisPipeline> pipelineConsumer) {
     return applyPrimPipeline(readMode, CRC16.getSlot(slotKey), pipelineConsumer, getMaxRetries());
@@ -128,6 +154,11 @@ public interface PrimClusterExecutor {
     return applyPrimPipeline(readMode, CRC16.getSlot(slotKey), pipelineConsumer, getMaxRetries());
   }
 
+  default long applyPrimPipeline(final ReadMode readMode, final RedisKey slotKey,
+      final ToLongFunction<RedisPipeline> pipelineConsumer) {
+    return applyPrimPipeline(readMode, slotKey.getSlot(), pipelineConsumer, getMaxRetries());
+  }
+
   default long applyPrimPipeline(final int slot,
       final ToLongFunction<RedisPipeline> pipelineConsumer) {
     return applyPrimPipeline(getDefaultReadMode(), slot, pipelineConsumer, getMaxRetries());
@@ -150,6 +181,12 @@ public interface PrimClusterExecutor {
         maxRetries);
   }
 
+  default long applyPrimPipeline(final RedisKey slotKey,
+      final ToLongFunction<RedisPipeline> pipelineConsumer, final int maxRetries) {
+    return applyPrimPipeline(getDefaultReadMode(), slotKey.getSlot(), pipelineConsumer,
+        maxRetries);
+  }
+
   default long applyPrimPipeline(final ReadMode readMode, final String slotKey,
       final ToLongFunction<RedisPipeline> pipelineConsumer, final int maxRetries) {
     return applyPrimPipeline(readMode, CRC16.getSlot(slotKey), pipelineConsumer, maxRetries);
@@ -160,6 +197,11 @@ public interface PrimClusterExecutor {
     return applyPrimPipeline(readMode, CRC16.getSlot(slotKey), pipelineConsumer, maxRetries);
   }
 
+  default long applyPrimPipeline(final ReadMode readMode, final RedisKey slotKey,
+      final ToLongFunction<RedisPipeline> pipelineConsumer, final int maxRetries) {
+    return applyPrimPipeline(readMode, slotKey.getSlot(), pipelineConsumer, maxRetries);
+  }
+
   default long applyPrimPipeline(final int slot,
       final ToLongFunction<RedisPipeline> pipelineConsumer, final int maxRetries) {
     return applyPrimPipeline(getDefaultReadMode(), slot, pipelineConsumer, maxRetries);
@@ -209,6 +251,12 @@ public interface PrimClusterExecutor {
         pipelineConsumer, getMaxRetries());
   }
 
+  default long applyPrimPipelinedTransaction(final RedisKey slotKey,
+      final ToLongFunction<RedisPipeline> pipelineConsumer) {
+    return applyPrimPipelinedTransaction(getDefaultReadMode(), slotKey.getSlot(),
+        pipelineConsumer, getMaxRetries());
+  }
+
   default long applyPrimPipelinedTransaction(final ReadMode readMode, final String slotKey,
       final ToLongFunction<RedisPipeline> pipelineConsumer) {
     return applyPrimPipelinedTransaction(readMode, CRC16.getSlot(slotKey), pipelineConsumer,
@@ -221,6 +269,12 @@ public interface PrimClusterExecutor {
         getMaxRetries());
   }
 
+  default long applyPrimPipelinedTransaction(final ReadMode readMode, final RedisKey slotKey,
+      final ToLongFunction<RedisPipeline> pipelineConsumer) {
+    return applyPrimPipelinedTransaction(readMode, slotKey.getSlot(), pipelineConsumer,
+        getMaxRetries());
+  }
+
   default long applyPrimPipelinedTransaction(final int slot,
       final ToLongFunction<RedisPipeline> pipelineConsumer) {
     return applyPrimPipelinedTransaction(getDefaultReadMode(), slot, pipelineConsumer,
@@ -244,6 +298,12 @@ public interface PrimClusterExecutor {
         pipelineConsumer, maxRetries);
   }
 
+  default long applyPrimPipelinedTransaction(final RedisKey slotKey,
+      final ToLongFunction<RedisPipeline> pipelineConsumer, final int maxRetries) {
+    return applyPrimPipelinedTransaction(getDefaultReadMode(), slotKey.getSlot(),
+        pipelineConsumer, maxRetries);
+  }
+
   default long applyPrimPipelinedTransaction(final ReadMode readMode, final String slotKey,
       final ToLongFunction<RedisPipeline> pipelineConsumer, final int maxRetries) {
     return applyPrimPipelinedTransaction(readMode, CRC16.getSlot(slotKey), pipelineConsumer,
@@ -256,6 +316,12 @@ public interface PrimClusterExecutor {
         maxRetries);
   }
 
+  default long applyPrimPipelinedTransaction(final ReadMode readMode, final RedisKey slotKey,
+      final ToLongFunction<RedisPipeline> pipelineConsumer, final int maxRetries) {
+    return applyPrimPipelinedTransaction(readMode, slotKey.getSlot(), pipelineConsumer,
+        maxRetries);
+  }
+
   default long applyPrimPipelinedTransaction(final int slot,
       final ToLongFunction<RedisPipeline> pipelineConsumer, final int maxRetries) {
     return applyPrimPipelinedTransaction(getDefaultReadMode(), slot, pipelineConsumer, maxRetries);
@@ -0,0 +1,285 @@
+package com.fabahaba.jedipus.cluster;
+
+import com.fabahaba.jedipus.client.RedisClient;
+import com.fabahaba.jedipus.cluster.RedisClusterExecutor.ReadMode;
+import com.fabahaba.jedipus.concurrent.RetryTimer;
+import com.fabahaba.jedipus.exceptions.RedisConnectionException;
+import com.fabahaba.jedipus.exceptions.RedisRetryableUnhandledException;
+import com.fabahaba.jedipus.exceptions.SlotRedirectException;
+import com.fabahaba.jedipus.pool.ClientPool;
+import com.fabahaba.jedipus.pool.RedisClientPool;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs reads against a replica on the calling thread and, if no reply arrives within the policy's
+ * latency percentile, sends the same read to a second pool. The first reply wins and the
+ * connection still waiting on the slower node is closed, as it can not be reused until its reply
+ * is drained.
+ */
+final class ReadHedger implements AutoCloseable {
+
+  private static final int WINDOW_SIZE = 512;
+  private static final int MIN_SAMPLES = 64;
+  private static final int RECOMPUTE_EVERY = 64;
+  private static final int MAX_POOL_PICKS = 3;
+  // Hedge tokens are tracked in millionths so that small ratios accrue without rounding away.
+  private static final long TOKEN = 1_000_000;
+
+  private final HedgePolicy policy;
+  private final RedisClusterConnHandler connHandler;
+  private final long minDelayNanos;
+  private final long maxDelayNanos;
+  private final long tokensPerRequest;
+  private final long maxTokens;
+  private final AtomicLongArray latencies;
+  private final AtomicLong numSamples;
+  private final AtomicLong hedgeTokens;
+  private final ExecutorService executor;
+
+  private volatile long delayNanos;
+
+  ReadHedger(final HedgePolicy policy, final RedisClusterConnHandler connHandler) {
+    this.policy = policy;
+    this.connHandler = connHandler;
+    this.minDelayNanos = policy.getMinDelay().toNanos();
+    this.maxDelayNanos = policy.getMaxDelay().toNanos();
+    this.tokensPerRequest = (long) (policy.getMaxHedgeRatio() * TOKEN);
+    this.maxTokens = policy.getMaxHedgeBurst() * TOKEN;
+    this.latencies = new AtomicLongArray(WINDOW_SIZE);
+    this.numSamples = new AtomicLong(0);
+    this.hedgeTokens = new AtomicLong(maxTokens);
+    this.delayNanos = maxDelayNanos;
+
+    // Only hedges run on this pool, bounded by the burst allowance; rejected hedges are skipped.
+    this.executor = new ThreadPoolExecutor(0, Math.max(1, policy.getMaxHedgeBurst()), 60,
+        TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+          final Thread thread = new Thread(runnable, "jedipus-hedged-read");
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  <R> R apply(final ReadMode readMode, final int slot,
+      final Function<RedisClient, R> clientConsumer, final Supplier<R> fallback) {
+
+    addHedgeTokens();
+
+    final ClientPool<RedisClient> primaryPool;
+    try {
+      primaryPool = connHandler.getSlotPool(readMode, slot);
+    } catch (final RedisConnectionException rce) {
+      return fallback.get();
+    }
+
+    final CompletableFuture<R> reply = new CompletableFuture<>();
+    final AtomicInteger pending = new AtomicInteger(1);
+    final Attempt<R> primary = new Attempt<>(primaryPool, clientConsumer, reply, pending, null);
+    final AtomicReference<Attempt<R>> hedge = new AtomicReference<>();
+
+    // The hedge is only handed to the pool if the primary is still reading once the delay
+    // elapses, and it is skipped if the pool is saturated.
+    RetryTimer.schedule(() -> {
+      final ClientPool<RedisClient> hedgePool = pickHedgePool(readMode, slot, primaryPool);
+      if (hedgePool == null || reply.isDone() || !tryHedge()) {
+        return;
+      }
+      for (int numPending = pending.get(); numPending > 0; numPending = pending.get()) {
+        if (pending.compareAndSet(numPending, numPending + 1)) {
+          final Attempt<R> hedgeAttempt =
+              new Attempt<>(hedgePool, clientConsumer, reply, pending, primary);
+          hedge.set(hedgeAttempt);
+          hedgeAttempt.run();
+          return;
+        }
+      }
+    }, delayNanos, task -> {
+      if (!reply.isDone()) {
+        executor.execute(task);
+      }
+    }, new CompletableFuture<>());
+
+    try {
+      primary.run();
+      return reply.get();
+    } catch (final InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(ie);
+    } catch (final ExecutionException exEx) {
+      final Throwable cause = exEx.getCause();
+      if (cause instanceof RedisConnectionException || cause instanceof SlotRedirectException
+          || cause instanceof RedisRetryableUnhandledException) {
+        // Let the regular retry loop deal with failovers and slot migrations.
+        return fallback.get();
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new RuntimeException(cause);
+    } finally {
+      final Attempt<R> hedgeAttempt = hedge.get();
+      if (hedgeAttempt != null) {
+        hedgeAttempt.abandon();
+      }
+    }
+  }
+
+  private ClientPool<RedisClient> pickHedgePool(final ReadMode readMode, final int slot,
+      final ClientPool<RedisClient> primaryPool) {
+    try {
+      for (int i = 0; i < MAX_POOL_PICKS; i++) {
+        final ClientPool<RedisClient> pool = connHandler.getSlotPool(readMode, slot);
+        if (pool != primaryPool && pool != null && !pool.isClosed()) {
+          return pool;
+        }
+      }
+    } catch (final RuntimeException ex) {
+      // Not worth failing the primary read over.
+    }
+    return null;
+  }
+
+  long getDelayNanos() {
+    return delayNanos;
+  }
+
+  void recordLatency(final long latencyNanos) {
+    final long sample = numSamples.getAndIncrement();
+    latencies.lazySet((int) (sample % WINDOW_SIZE), latencyNanos);
+
+    final long numRecorded = sample + 1;
+    if (numRecorded >= MIN_SAMPLES && numRecorded % RECOMPUTE_EVERY == 0) {
+      final int windowSize = (int) Math.min(numRecorded, WINDOW_SIZE);
+      final long[] window = new long[windowSize];
+      for (int i = 0; i < windowSize; i++) {
+        window[i] = latencies.get(i);
+      }
+      Arrays.sort(window);
+      final int index = (int) Math.ceil(policy.getPercentile() * windowSize) - 1;
+      delayNanos = Math.min(maxDelayNanos, Math.max(minDelayNanos, window[Math.max(0, index)]));
+    }
+  }
+
+  void addHedgeTokens() {
+    for (;;) {
+      final long tokens = hedgeTokens.get();
+      if (tokens >= maxTokens
+          || hedgeTokens.compareAndSet(tokens, Math.min(maxTokens, tokens + tokensPerRequest))) {
+        return;
+      }
+    }
+  }
+
+  boolean tryHedge() {
+    for (;;) {
+      final long tokens = hedgeTokens.get();
+      if (tokens < TOKEN) {
+        return false;
+      }
+      if (hedgeTokens.compareAndSet(tokens, tokens - TOKEN)) {
+        return true;
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    executor.shutdown();
+  }
+
+  @Override
+  public String toString() {
+    return new StringBuilder("ReadHedger [policy=").append(policy).append(", delayNanos=")
+        .append(delayNanos).append("]").toString();
+  }
+
+  private final class Attempt<R> implements Runnable {
+
+    private final ClientPool<RedisClient> pool;
+    private final Function<RedisClient, R> clientConsumer;
+    private final CompletableFuture<R> reply;
+    private final AtomicInteger pending;
+    // The attempt to abandon once this one wins, null for the primary.
+    private final Attempt<R> other;
+
+    private RedisClient client;
+    private long startNanos;
+    private boolean abandoned;
+
+    Attempt(final ClientPool<RedisClient> pool, final Function<RedisClient, R> clientConsumer,
+        final CompletableFuture<R> reply, final AtomicInteger pending, final Attempt<R> other) {
+      this.pool = pool;
+      this.clientConsumer = clientConsumer;
+      this.reply = reply;
+      this.pending = pending;
+      this.other = other;
+    }
+
+    @Override
+    public void run() {
+      RedisClient borrowed = null;
+      try {
+        connHandler.getClusterNodeRetryDelay().markAttempt(pool.getNode());
+        borrowed = RedisClientPool.borrowClient(pool);
+        final long start = System.nanoTime();
+        synchronized (this) {
+          if (abandoned) {
+            return;
+          }
+          client = borrowed;
+          startNanos = start;
+        }
+
+        final R result = clientConsumer.apply(borrowed);
+        synchronized (this) {
+          // Done reading, never close this client from abandon.
+          client = null;
+        }
+        recordLatency(System.nanoTime() - start);
+        connHandler.getClusterNodeRetryDelay().markSuccess(borrowed.getNode());
+        if (reply.complete(result) && other != null) {
+          // Fails the calling thread out of its slower read.
+          other.abandon();
+        }
+      } catch (final RuntimeException | Error ex) {
+        if (pending.decrementAndGet() == 0) {
+          reply.completeExceptionally(ex);
+        }
+      } finally {
+        synchronized (this) {
+          client = null;
+        }
+        RedisClientPool.returnClient(pool, borrowed);
+      }
+    }
+
+    // Closing under the lock guarantees the client has not yet been handed back to its pool.
+    // The owning thread then fails out of its read and the broken client is invalidated.
+    synchronized void abandon() {
+      abandoned = true;
+      if (client == null) {
+        return;
+      }
+
+      // The abandoned read took at least this long; keep it in the window so hedging does not
+      // hide the tail it is meant to measure.
+      recordLatency(System.nanoTime() - startNanos);
+      client.close();
+    }
+  }
+}
@@ -9,6 +9,7 @@ import com.fabahaba.jedipus.exceptions.RedisUnhandledException;
 import com.fabahaba.jedipus.exceptions.SlotMovedException;
 import com.fabahaba.jedipus.pool.ClientPool;
 
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.Map;
@@ -18,6 +19,8 @@ import java.util.function.Supplier;
 final class RedisClusterConnHandler implements AutoCloseable {
 
   private final RedisClusterSlotCache slotPoolCache;
+  private final ReplicaLagMonitor replicaLagMonitor;
+  private final ClusterNodesMonitor clusterNodesMonitor;
 
   RedisClusterConnHandler(final ReadMode defaultReadMode, final boolean optimisticReads,
       final Duration durationBetweenCacheRefresh, final Duration maxAwaitCacheRefresh,
@@ -27,12 +30,35 @@ final class RedisClusterConnHandler implements AutoCloseable {
       final Function<Node, ClientPool<RedisClient>> slavePoolFactory,
       final Function<Node, RedisClient> nodeUnknownFactory,
       final Function<ClientPool<RedisClient>[], LoadBalancedPools<RedisClient, ReadMode>> lbFactory,
-      final ElementRetryDelay<Node> clusterNodeRetryDelay) {
+      final ElementRetryDelay<Node> clusterNodeRetryDelay,
+      final Duration replicaLagSampleInterval, final long maxReplicaLagBytes,
+      final Duration clusterNodesSampleInterval, final Path topologySnapshotFile,
+      final int discoverySampleSize, final int discoveryParallelism) {
 
     this.slotPoolCache = RedisClusterSlotCache.create(defaultReadMode, optimisticReads,
         durationBetweenCacheRefresh, maxAwaitCacheRefresh, discoveryNodes,
         partitionedStrategyConfig, nodeMapper, masterPoolFactory, slavePoolFactory,
-        nodeUnknownFactory, lbFactory, clusterNodeRetryDelay);
+        nodeUnknownFactory, lbFactory, clusterNodeRetryDelay,
+        topologySnapshotFile == null ? null : new TopologySnapshotFile(topologySnapshotFile),
+        discoverySampleSize, discoveryParallelism);
+
+    if (replicaLagSampleInterval == null || defaultReadMode == ReadMode.MASTER) {
+      this.replicaLagMonitor = null;
+    } else {
+      this.replicaLagMonitor = new ReplicaLagMonitor(slotPoolCache::getSlavePools,
+          slotPoolCache::getMasterPoolIfPresent, slotPoolCache.getNodeUnknownFactory(),
+          nodeMapper, replicaLagSampleInterval, maxReplicaLagBytes);
+      slotPoolCache.setReplicaLagMonitor(replicaLagMonitor);
+    }
+
+    if (clusterNodesSampleInterval == null) {
+      this.clusterNodesMonitor = null;
+    } else {
+      this.clusterNodesMonitor = new ClusterNodesMonitor(slotPoolCache::getMasterPools,
+          slotPoolCache::getPoolIfPresent, slotPoolCache::discoverClusterSlots, nodeMapper,
+          clusterNodesSampleInterval);
+      slotPoolCache.setClusterNodesMonitor(clusterNodesMonitor);
+    }
   }
 
   ReadMode getDefaultReadMode() {
@@ -63,6 +89,10 @@ final class RedisClusterConnHandler implements AutoCloseable {
     return slotPoolCache.getAskPool(askNode);
   }
 
+  int[] getShardSlots() {
+    return slotPoolCache.getShardSlots();
+  }
+
   Map<Node, ClientPool<RedisClient>> getMasterPools() {
     return slotPoolCache.getMasterPools();
   }
@@ -97,12 +127,19 @@ final class RedisClusterConnHandler implements AutoCloseable {
 
   @Override
   public void close() {
+    if (replicaLagMonitor != null) {
+      replicaLagMonitor.close();
+    }
+    if (clusterNodesMonitor != null) {
+      clusterNodesMonitor.close();
+    }
     slotPoolCache.close();
   }
 
   @Override
   public String toString() {
     return new StringBuilder("RedisClusterConnHandler [slotPoolCache=").append(slotPoolCache)
-        .append("]").toString();
+        .append(", replicaLagMonitor=").append(replicaLagMonitor)
+        .append(", clusterNodesMonitor=").append(clusterNodesMonitor).append("]").toString();
   }
 }
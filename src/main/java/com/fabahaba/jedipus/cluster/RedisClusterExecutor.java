@@ -3,14 +3,28 @@ package com.fabahaba.jedipus.cluster;
 import com.fabahaba.jedipus.client.RedisClient;
 import com.fabahaba.jedipus.client.RedisPipeline;
 import com.fabahaba.jedipus.client.SerializableSupplier;
-
+import com.fabahaba.jedipus.cluster.data.ClusterSlotVotes;
+import com.fabahaba.jedipus.cmds.Cmd;
+import com.fabahaba.jedipus.cmds.Cmds;
+import com.fabahaba.jedipus.cmds.PrimCmd;
+import com.fabahaba.jedipus.cmds.RESP;
+import com.fabahaba.jedipus.cmds.RedisKey;
+import com.fabahaba.jedipus.exceptions.RedisDeadlineExceededException;
+
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Spliterator;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable {
 
@@ -18,6 +32,10 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
     MASTER, SLAVES, MIXED, MIXED_SLAVES
   }
 
+  enum NodeSelector {
+    MASTERS, SLAVES, ALL
+  }
+
   static ClusterExecutorBuilder startBuilding() {
     return new ClusterExecutorBuilder(null);
   }
@@ -73,6 +91,10 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
     accept(getDefaultReadMode(), CRC16.getSlot(slotKey), clientConsumer, getMaxRetries());
   }
 
+  default void accept(final RedisKey slotKey, final Consumer<RedisClient> clientConsumer) {
+    accept(getDefaultReadMode(), slotKey.getSlot(), clientConsumer, getMaxRetries());
+  }
+
   default void accept(final ReadMode readMode, final String slotKey,
       final Consumer<RedisClient> clientConsumer) {
     accept(readMode, CRC16.getSlot(slotKey), clientConsumer, getMaxRetries());
@@ -83,6 +105,11 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
     accept(readMode, CRC16.getSlot(slotKey), clientConsumer, getMaxRetries());
   }
 
+  default void accept(final ReadMode readMode, final RedisKey slotKey,
+      final Consumer<RedisClient> clientConsumer) {
+    accept(readMode, slotKey.getSlot(), clientConsumer, getMaxRetries());
+  }
+
   default void accept(final int slot, final Consumer<RedisClient> clientConsumer) {
     accept(slot, clientConsumer, getMaxRetries());
   }
@@ -102,6 +129,11 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
     accept(getDefaultReadMode(), CRC16.getSlot(slotKey), clientConsumer, maxRetries);
   }
 
+  default void accept(final RedisKey slotKey, final Consumer<RedisClient> clientConsumer,
+      final int maxRetries) {
+    accept(getDefaultReadMode(), slotKey.getSlot(), clientConsumer, maxRetries);
+  }
+
   default void accept(final ReadMode readMode, final String slotKey,
       final Consumer<RedisClient> clientConsumer, final int maxRetries) {
     accept(readMode, CRC16.getSlot(slotKey), clientConsumer, maxRetries);
@@ -112,6 +144,11 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
     accept(readMode, CRC16.getSlot(slotKey), clientConsumer, maxRetries);
   }
 
+  default void accept(final ReadMode readMode, final RedisKey slotKey,
+      final Consumer<RedisClient> clientConsumer, final int maxRetries) {
+    accept(readMode, slotKey.getSlot(), clientConsumer, maxRetries);
+  }
+
   default void accept(final int slot, final Consumer<RedisClient> clientConsumer,
       final int maxRetries) {
     accept(getDefaultReadMode(), slot, clientConsumer, maxRetries);
@@ -150,6 +187,10 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
     return apply(getDefaultReadMode(), CRC16.getSlot(slotKey), clientConsumer, getMaxRetries());
   }
 
+  default <R> R apply(final RedisKey slotKey, final Function<RedisClient, R> clientConsumer) {
+    return apply(getDefaultReadMode(), slotKey.getSlot(), clientConsumer, getMaxRetries());
+  }
+
   default <R> R apply(final ReadMode readMode, final String slotKey,
       final Function<RedisClient, R> clientConsumer) {
     return apply(readMode, CRC16.getSlot(slotKey), clientConsumer, getMaxRetries());
@@ -160,6 +201,11 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
     return apply(readMode, CRC16.getSlot(slotKey), clientConsumer, getMaxRetries());
   }
 
+  default <R> R apply(final ReadMode readMode, final RedisKey slotKey,
+      final Function<RedisClient, R> clientConsumer) {
+    return apply(readMode, slotKey.getSlot(), clientConsumer, getMaxRetries());
+  }
+
   default <R> R apply(final int slot, final Function<RedisClient, R> clientConsumer) {
     return apply(getDefaultReadMode(), slot, clientConsumer, getMaxRetries());
   }
@@ -179,6 +225,11 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
     return apply(getDefaultReadMode(), CRC16.getSlot(slotKey), clientConsumer, maxRetries);
   }
 
+  default <R> R apply(final RedisKey slotKey, final Function<RedisClient, R> clientConsumer,
+      final int maxRetries) {
+    return apply(getDefaultReadMode(), slotKey.getSlot(), clientConsumer, maxRetries);
+  }
+
   default <R> R apply(final ReadMode readMode, final String slotKey,
       final Function<RedisClient, R> clientConsumer, final int maxRetries) {
     return apply(readMode, CRC16.getSlot(slotKey), clientConsumer, maxRetries);
@@ -189,11 +240,258 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
     return apply(readMode, CRC16.getSlot(slotKey), clientConsumer, maxRetries);
   }
 
+  default <R> R apply(final ReadMode readMode, final RedisKey slotKey,
+      final Function<RedisClient, R> clientConsumer, final int maxRetries) {
+    return apply(readMode, slotKey.getSlot(), clientConsumer, maxRetries);
+  }
+
   default <R> R apply(final int slot, final Function<RedisClient, R> clientConsumer,
       final int maxRetries) {
     return apply(getDefaultReadMode(), slot, clientConsumer, maxRetries);
   }
 
+  /**
+   * Applies an idempotent read, sending it to a second pool if the first has not replied within
+   * the configured {@link HedgePolicy} delay. Behaves like
+   * {@link #apply(ReadMode, int, Function, int)} if no hedge policy is configured or if the
+   * read mode is {@link ReadMode#MASTER}.
+   *
+   * @param readMode The read mode used to pick pools for the slot.
+   * @param slot The slot served by the candidate pools.
+   * @param clientConsumer A read only function, it may run twice concurrently.
+   * @param maxRetries Max retries if both hedged attempts fail and the read falls back to apply.
+   * @return The first successful reply.
+   */
+  <R> R applyHedged(final ReadMode readMode, final int slot,
+      final Function<RedisClient, R> clientConsumer, final int maxRetries);
+
+  default <R> R applyHedged(final ReadMode readMode, final int slot,
+      final Function<RedisClient, R> clientConsumer) {
+    return applyHedged(readMode, slot, clientConsumer, getMaxRetries());
+  }
+
+  default <R> R applyHedged(final ReadMode readMode, final String slotKey,
+      final Function<RedisClient, R> clientConsumer) {
+    return applyHedged(readMode, CRC16.getSlot(slotKey), clientConsumer, getMaxRetries());
+  }
+
+  default <R> R applyHedged(final ReadMode readMode, final byte[] slotKey,
+      final Function<RedisClient, R> clientConsumer) {
+    return applyHedged(readMode, CRC16.getSlot(slotKey), clientConsumer, getMaxRetries());
+  }
+
+  default <R> R applyHedged(final ReadMode readMode, final RedisKey slotKey,
+      final Function<RedisClient, R> clientConsumer) {
+    return applyHedged(readMode, slotKey.getSlot(), clientConsumer, getMaxRetries());
+  }
+
+  default <R> R applyHedged(final String slotKey, final Function<RedisClient, R> clientConsumer) {
+    return applyHedged(getDefaultReadMode(), CRC16.getSlot(slotKey), clientConsumer,
+        getMaxRetries());
+  }
+
+  default <R> R applyHedged(final byte[] slotKey, final Function<RedisClient, R> clientConsumer) {
+    return applyHedged(getDefaultReadMode(), CRC16.getSlot(slotKey), clientConsumer,
+        getMaxRetries());
+  }
+
+  default <R> R applyHedged(final RedisKey slotKey, final Function<RedisClient, R> clientConsumer) {
+    return applyHedged(getDefaultReadMode(), slotKey.getSlot(), clientConsumer,
+        getMaxRetries());
+  }
+
+  /**
+   * Runs each attempt on the given executor. Retry backoff is scheduled on a shared timer rather
+   * than sleeping, so no executor thread is held while waiting to retry.
+   *
+   * @param readMode The read mode used to pick pools for the slot.
+   * @param slot The slot to execute against.
+   * @param clientConsumer The function to apply.
+   * @param maxRetries The maximum number of retries on connection failures.
+   * @param executor Runs each attempt.
+   * @return A future completed with the result, or with the final failure.
+   */
+  <R> CompletableFuture<R> applyAsync(final ReadMode readMode, final int slot,
+      final Function<RedisClient, R> clientConsumer, final int maxRetries,
+      final ExecutorService executor);
+
+  default <R> CompletableFuture<R> applyAsync(final ReadMode readMode, final int slot,
+      final Function<RedisClient, R> clientConsumer, final ExecutorService executor) {
+    return applyAsync(readMode, slot, clientConsumer, getMaxRetries(), executor);
+  }
+
+  default <R> CompletableFuture<R> applyAsync(final ReadMode readMode, final String slotKey,
+      final Function<RedisClient, R> clientConsumer, final ExecutorService executor) {
+    return applyAsync(readMode, CRC16.getSlot(slotKey), clientConsumer, getMaxRetries(),
+        executor);
+  }
+
+  default <R> CompletableFuture<R> applyAsync(final ReadMode readMode, final byte[] slotKey,
+      final Function<RedisClient, R> clientConsumer, final ExecutorService executor) {
+    return applyAsync(readMode, CRC16.getSlot(slotKey), clientConsumer, getMaxRetries(),
+        executor);
+  }
+
+  default <R> CompletableFuture<R> applyAsync(final ReadMode readMode, final RedisKey slotKey,
+      final Function<RedisClient, R> clientConsumer, final ExecutorService executor) {
+    return applyAsync(readMode, slotKey.getSlot(), clientConsumer, getMaxRetries(),
+        executor);
+  }
+
+  default <R> CompletableFuture<R> applyAsync(final String slotKey,
+      final Function<RedisClient, R> clientConsumer, final ExecutorService executor) {
+    return applyAsync(getDefaultReadMode(), CRC16.getSlot(slotKey), clientConsumer,
+        getMaxRetries(), executor);
+  }
+
+  default <R> CompletableFuture<R> applyAsync(final byte[] slotKey,
+      final Function<RedisClient, R> clientConsumer, final ExecutorService executor) {
+    return applyAsync(getDefaultReadMode(), CRC16.getSlot(slotKey), clientConsumer,
+        getMaxRetries(), executor);
+  }
+
+  default <R> CompletableFuture<R> applyAsync(final RedisKey slotKey,
+      final Function<RedisClient, R> clientConsumer, final ExecutorService executor) {
+    return applyAsync(getDefaultReadMode(), slotKey.getSlot(), clientConsumer,
+        getMaxRetries(), executor);
+  }
+
+  default CompletableFuture<Void> acceptAsync(final ReadMode readMode, final int slot,
+      final Consumer<RedisClient> clientConsumer, final int maxRetries,
+      final ExecutorService executor) {
+    return applyAsync(readMode, slot, client -> {
+      clientConsumer.accept(client);
+      return null;
+    }, maxRetries, executor);
+  }
+
+  default CompletableFuture<Void> acceptAsync(final ReadMode readMode, final String slotKey,
+      final Consumer<RedisClient> clientConsumer, final ExecutorService executor) {
+    return acceptAsync(readMode, CRC16.getSlot(slotKey), clientConsumer, getMaxRetries(),
+        executor);
+  }
+
+  default CompletableFuture<Void> acceptAsync(final ReadMode readMode, final byte[] slotKey,
+      final Consumer<RedisClient> clientConsumer, final ExecutorService executor) {
+    return acceptAsync(readMode, CRC16.getSlot(slotKey), clientConsumer, getMaxRetries(),
+        executor);
+  }
+
+  default CompletableFuture<Void> acceptAsync(final ReadMode readMode, final RedisKey slotKey,
+      final Consumer<RedisClient> clientConsumer, final ExecutorService executor) {
+    return acceptAsync(readMode, slotKey.getSlot(), clientConsumer, getMaxRetries(),
+        executor);
+  }
+
+  default CompletableFuture<Void> acceptAsync(final String slotKey,
+      final Consumer<RedisClient> clientConsumer, final ExecutorService executor) {
+    return acceptAsync(getDefaultReadMode(), CRC16.getSlot(slotKey), clientConsumer,
+        getMaxRetries(), executor);
+  }
+
+  default CompletableFuture<Void> acceptAsync(final byte[] slotKey,
+      final Consumer<RedisClient> clientConsumer, final ExecutorService executor) {
+    return acceptAsync(getDefaultReadMode(), CRC16.getSlot(slotKey), clientConsumer,
+        getMaxRetries(), executor);
+  }
+
+  default CompletableFuture<Void> acceptAsync(final RedisKey slotKey,
+      final Consumer<RedisClient> clientConsumer, final ExecutorService executor) {
+    return acceptAsync(getDefaultReadMode(), slotKey.getSlot(), clientConsumer,
+        getMaxRetries(), executor);
+  }
+
+  /**
+   * Like {@link #apply(ReadMode, int, Function, int)}, but the whole call, including pool
+   * borrows, socket reads, retry backoff and redirects, must complete within the given timeout.
+   *
+   * @param readMode The read mode used to pick pools for the slot.
+   * @param slot The slot to execute against.
+   * @param clientConsumer The function to apply.
+   * @param maxRetries Max retries, if the timeout has not yet passed.
+   * @param timeout The total time budget for this call.
+   * @return The result of the clientConsumer.
+   * @throws RedisDeadlineExceededException once the time budget is spent.
+   */
+  <R> R apply(final ReadMode readMode, final int slot,
+      final Function<RedisClient, R> clientConsumer, final int maxRetries, final Duration timeout);
+
+  default <R> R apply(final ReadMode readMode, final int slot,
+      final Function<RedisClient, R> clientConsumer, final Duration timeout) {
+    return apply(readMode, slot, clientConsumer, getMaxRetries(), timeout);
+  }
+
+  default <R> R apply(final ReadMode readMode, final String slotKey,
+      final Function<RedisClient, R> clientConsumer, final Duration timeout) {
+    return apply(readMode, CRC16.getSlot(slotKey), clientConsumer, getMaxRetries(), timeout);
+  }
+
+  default <R> R apply(final ReadMode readMode, final byte[] slotKey,
+      final Function<RedisClient, R> clientConsumer, final Duration timeout) {
+    return apply(readMode, CRC16.getSlot(slotKey), clientConsumer, getMaxRetries(), timeout);
+  }
+
+  default <R> R apply(final ReadMode readMode, final RedisKey slotKey,
+      final Function<RedisClient, R> clientConsumer, final Duration timeout) {
+    return apply(readMode, slotKey.getSlot(), clientConsumer, getMaxRetries(), timeout);
+  }
+
+  default <R> R apply(final String slotKey, final Function<RedisClient, R> clientConsumer,
+      final Duration timeout) {
+    return apply(getDefaultReadMode(), CRC16.getSlot(slotKey), clientConsumer, getMaxRetries(),
+        timeout);
+  }
+
+  default <R> R apply(final byte[] slotKey, final Function<RedisClient, R> clientConsumer,
+      final Duration timeout) {
+    return apply(getDefaultReadMode(), CRC16.getSlot(slotKey), clientConsumer, getMaxRetries(),
+        timeout);
+  }
+
+  default <R> R apply(final RedisKey slotKey, final Function<RedisClient, R> clientConsumer,
+      final Duration timeout) {
+    return apply(getDefaultReadMode(), slotKey.getSlot(), clientConsumer, getMaxRetries(),
+        timeout);
+  }
+
+  default void accept(final ReadMode readMode, final String slotKey,
+      final Consumer<RedisClient> clientConsumer, final Duration timeout) {
+    accept(readMode, CRC16.getSlot(slotKey), clientConsumer, timeout);
+  }
+
+  default void accept(final ReadMode readMode, final byte[] slotKey,
+      final Consumer<RedisClient> clientConsumer, final Duration timeout) {
+    accept(readMode, CRC16.getSlot(slotKey), clientConsumer, timeout);
+  }
+
+  default void accept(final ReadMode readMode, final RedisKey slotKey,
+      final Consumer<RedisClient> clientConsumer, final Duration timeout) {
+    accept(readMode, slotKey.getSlot(), clientConsumer, timeout);
+  }
+
+  default void accept(final String slotKey, final Consumer<RedisClient> clientConsumer,
+      final Duration timeout) {
+    accept(getDefaultReadMode(), CRC16.getSlot(slotKey), clientConsumer, timeout);
+  }
+
+  default void accept(final byte[] slotKey, final Consumer<RedisClient> clientConsumer,
+      final Duration timeout) {
+    accept(getDefaultReadMode(), CRC16.getSlot(slotKey), clientConsumer, timeout);
+  }
+
+  default void accept(final RedisKey slotKey, final Consumer<RedisClient> clientConsumer,
+      final Duration timeout) {
+    accept(getDefaultReadMode(), slotKey.getSlot(), clientConsumer, timeout);
+  }
+
+  default void accept(final ReadMode readMode, final int slot,
+      final Consumer<RedisClient> clientConsumer, final Duration timeout) {
+    apply(readMode, slot, client -> {
+      clientConsumer.accept(client);
+      return null;
+    }, getMaxRetries(), timeout);
+  }
+
   default <R> R applyPipeline(final Function<RedisPipeline, R> pipelineConsumer) {
     return applyPipeline(getDefaultReadMode(), CRC16.getRandomSlot(), pipelineConsumer,
         getMaxRetries());
@@ -227,6 +525,12 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
         getMaxRetries());
   }
 
+  default <R> R applyPipeline(final RedisKey slotKey,
+      final Function<RedisPipeline, R> pipelineConsumer) {
+    return applyPipeline(getDefaultReadMode(), slotKey.getSlot(), pipelineConsumer,
+        getMaxRetries());
+  }
+
   default <R> R applyPipeline(final ReadMode readMode, final String slotKey,
       final Function<RedisPipeline, R> pipelineConsumer) {
     return applyPipeline(readMode, CRC16.getSlot(slotKey), pipelineConsumer, getMaxRetries());
@@ -237,6 +541,11 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
     return applyPipeline(readMode, CRC16.getSlot(slotKey), pipelineConsumer, getMaxRetries());
   }
 
+  default <R> R applyPipeline(final ReadMode readMode, final RedisKey slotKey,
+      final Function<RedisPipeline, R> pipelineConsumer) {
+    return applyPipeline(readMode, slotKey.getSlot(), pipelineConsumer, getMaxRetries());
+  }
+
   default <R> R applyPipeline(final int slot, final Function<RedisPipeline, R> pipelineConsumer) {
     return applyPipeline(getDefaultReadMode(), slot, pipelineConsumer, getMaxRetries());
   }
@@ -258,6 +567,12 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
         maxRetries);
   }
 
+  default <R> R applyPipeline(final RedisKey slotKey,
+      final Function<RedisPipeline, R> pipelineConsumer, final int maxRetries) {
+    return applyPipeline(getDefaultReadMode(), slotKey.getSlot(), pipelineConsumer,
+        maxRetries);
+  }
+
   default <R> R applyPipeline(final ReadMode readMode, final String slotKey,
       final Function<RedisPipeline, R> pipelineConsumer, final int maxRetries) {
     return applyPipeline(readMode, CRC16.getSlot(slotKey), pipelineConsumer, maxRetries);
@@ -268,6 +583,11 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
     return applyPipeline(readMode, CRC16.getSlot(slotKey), pipelineConsumer, maxRetries);
   }
 
+  default <R> R applyPipeline(final ReadMode readMode, final RedisKey slotKey,
+      final Function<RedisPipeline, R> pipelineConsumer, final int maxRetries) {
+    return applyPipeline(readMode, slotKey.getSlot(), pipelineConsumer, maxRetries);
+  }
+
   default <R> R applyPipeline(final int slot, final Function<RedisPipeline, R> pipelineConsumer,
       final int maxRetries) {
     return applyPipeline(getDefaultReadMode(), slot, pipelineConsumer, maxRetries);
@@ -311,6 +631,11 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
     acceptPipeline(getDefaultReadMode(), CRC16.getSlot(slotKey), pipelineConsumer, getMaxRetries());
   }
 
+  default void acceptPipeline(final RedisKey slotKey,
+      final Consumer<RedisPipeline> pipelineConsumer) {
+    acceptPipeline(getDefaultReadMode(), slotKey.getSlot(), pipelineConsumer, getMaxRetries());
+  }
+
   default void acceptPipeline(final ReadMode readMode, final String slotKey,
       final Consumer<RedisPipeline> pipelineConsumer) {
     acceptPipeline(readMode, CRC16.getSlot(slotKey), pipelineConsumer, getMaxRetries());
@@ -321,6 +646,11 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
     acceptPipeline(readMode, CRC16.getSlot(slotKey), pipelineConsumer, getMaxRetries());
   }
 
+  default void acceptPipeline(final ReadMode readMode, final RedisKey slotKey,
+      final Consumer<RedisPipeline> pipelineConsumer) {
+    acceptPipeline(readMode, slotKey.getSlot(), pipelineConsumer, getMaxRetries());
+  }
+
   default void acceptPipeline(final int slot, final Consumer<RedisPipeline> pipelineConsumer) {
     acceptPipeline(getDefaultReadMode(), slot, pipelineConsumer, getMaxRetries());
   }
@@ -340,6 +670,11 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
     acceptPipeline(getDefaultReadMode(), CRC16.getSlot(slotKey), pipelineConsumer, maxRetries);
   }
 
+  default void acceptPipeline(final RedisKey slotKey,
+      final Consumer<RedisPipeline> pipelineConsumer, final int maxRetries) {
+    acceptPipeline(getDefaultReadMode(), slotKey.getSlot(), pipelineConsumer, maxRetries);
+  }
+
   default void acceptPipeline(final ReadMode readMode, final String slotKey,
       final Consumer<RedisPipeline> pipelineConsumer, final int maxRetries) {
     acceptPipeline(readMode, CRC16.getSlot(slotKey), pipelineConsumer, maxRetries);
@@ -350,6 +685,11 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
     acceptPipeline(readMode, CRC16.getSlot(slotKey), pipelineConsumer, maxRetries);
   }
 
+  default void acceptPipeline(final ReadMode readMode, final RedisKey slotKey,
+      final Consumer<RedisPipeline> pipelineConsumer, final int maxRetries) {
+    acceptPipeline(readMode, slotKey.getSlot(), pipelineConsumer, maxRetries);
+  }
+
   default void acceptPipeline(final int slot, final Consumer<RedisPipeline> pipelineConsumer,
       final int maxRetries) {
     acceptPipeline(getDefaultReadMode(), slot, pipelineConsumer, maxRetries);
@@ -399,6 +739,12 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
         getMaxRetries());
   }
 
+  default <R> R applyPipelinedTransaction(final RedisKey slotKey,
+      final Function<RedisPipeline, R> pipelineConsumer) {
+    return applyPipelinedTransaction(getDefaultReadMode(), slotKey.getSlot(), pipelineConsumer,
+        getMaxRetries());
+  }
+
   default <R> R applyPipelinedTransaction(final ReadMode readMode, final String slotKey,
       final Function<RedisPipeline, R> pipelineConsumer) {
     return applyPipelinedTransaction(readMode, CRC16.getSlot(slotKey), pipelineConsumer,
@@ -411,6 +757,12 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
         getMaxRetries());
   }
 
+  default <R> R applyPipelinedTransaction(final ReadMode readMode, final RedisKey slotKey,
+      final Function<RedisPipeline, R> pipelineConsumer) {
+    return applyPipelinedTransaction(readMode, slotKey.getSlot(), pipelineConsumer,
+        getMaxRetries());
+  }
+
   default <R> R applyPipelinedTransaction(final int slot,
       final Function<RedisPipeline, R> pipelineConsumer) {
     return applyPipelinedTransaction(getDefaultReadMode(), slot, pipelineConsumer, getMaxRetries());
@@ -433,6 +785,12 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
         maxRetries);
   }
 
+  default <R> R applyPipelinedTransaction(final RedisKey slotKey,
+      final Function<RedisPipeline, R> pipelineConsumer, final int maxRetries) {
+    return applyPipelinedTransaction(getDefaultReadMode(), slotKey.getSlot(), pipelineConsumer,
+        maxRetries);
+  }
+
   default <R> R applyPipelinedTransaction(final ReadMode readMode, final String slotKey,
       final Function<RedisPipeline, R> pipelineConsumer, final int maxRetries) {
     return applyPipelinedTransaction(readMode, CRC16.getSlot(slotKey), pipelineConsumer,
@@ -445,6 +803,12 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
         maxRetries);
   }
 
+  default <R> R applyPipelinedTransaction(final ReadMode readMode, final RedisKey slotKey,
+      final Function<RedisPipeline, R> pipelineConsumer, final int maxRetries) {
+    return applyPipelinedTransaction(readMode, slotKey.getSlot(), pipelineConsumer,
+        maxRetries);
+  }
+
   default <R> R applyPipelinedTransaction(final int slot,
       final Function<RedisPipeline, R> pipelineConsumer, final int maxRetries) {
     return applyPipelinedTransaction(getDefaultReadMode(), slot, pipelineConsumer, maxRetries);
@@ -493,6 +857,12 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
         getMaxRetries());
   }
 
+  default void acceptPipelinedTransaction(final RedisKey slotKey,
+      final Consumer<RedisPipeline> pipelineConsumer) {
+    acceptPipelinedTransaction(getDefaultReadMode(), slotKey.getSlot(), pipelineConsumer,
+        getMaxRetries());
+  }
+
   default void acceptPipelinedTransaction(final ReadMode readMode, final String slotKey,
       final Consumer<RedisPipeline> pipelineConsumer) {
     acceptPipelinedTransaction(readMode, CRC16.getSlot(slotKey), pipelineConsumer, getMaxRetries());
@@ -503,6 +873,11 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
     acceptPipelinedTransaction(readMode, CRC16.getSlot(slotKey), pipelineConsumer, getMaxRetries());
   }
 
+  default void acceptPipelinedTransaction(final ReadMode readMode, final RedisKey slotKey,
+      final Consumer<RedisPipeline> pipelineConsumer) {
+    acceptPipelinedTransaction(readMode, slotKey.getSlot(), pipelineConsumer, getMaxRetries());
+  }
+
   default void acceptPipelinedTransaction(final int slot,
       final Consumer<RedisPipeline> pipelineConsumer) {
     acceptPipelinedTransaction(getDefaultReadMode(), slot, pipelineConsumer, getMaxRetries());
@@ -525,6 +900,12 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
         maxRetries);
   }
 
+  default void acceptPipelinedTransaction(final RedisKey slotKey,
+      final Consumer<RedisPipeline> pipelineConsumer, final int maxRetries) {
+    acceptPipelinedTransaction(getDefaultReadMode(), slotKey.getSlot(), pipelineConsumer,
+        maxRetries);
+  }
+
   default void acceptPipelinedTransaction(final ReadMode readMode, final String slotKey,
       final Consumer<RedisPipeline> pipelineConsumer, final int maxRetries) {
     acceptPipelinedTransaction(readMode, CRC16.getSlot(slotKey), pipelineConsumer, maxRetries);
@@ -535,6 +916,11 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
     acceptPipelinedTransaction(readMode, CRC16.getSlot(slotKey), pipelineConsumer, maxRetries);
   }
 
+  default void acceptPipelinedTransaction(final ReadMode readMode, final RedisKey slotKey,
+      final Consumer<RedisPipeline> pipelineConsumer, final int maxRetries) {
+    acceptPipelinedTransaction(readMode, slotKey.getSlot(), pipelineConsumer, maxRetries);
+  }
+
   default void acceptPipelinedTransaction(final int slot,
       final Consumer<RedisPipeline> pipelineConsumer, final int maxRetries) {
     acceptPipelinedTransaction(getDefaultReadMode(), slot, pipelineConsumer, maxRetries);
@@ -551,6 +937,142 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
     }, maxRetries);
   }
 
+  /**
+   * Applies mapper to every selected node in parallel, bounded by the executor's fan-out
+   * parallelism. Node results are folded with combiner on the calling thread as they complete.
+   * Null node results are skipped.
+   *
+   * @param selector The nodes to apply mapper to.
+   * @param mapper Applied once per node, retried on connection failures.
+   * @param combiner Folds two node results together.
+   * @param maxRetries Retries per node.
+   * @param timeout Deadline for the whole call, or null for none.
+   * @return The combined result, or null if no node returned a result.
+   */
+  <R> R mapReduceNodes(final NodeSelector selector, final Function<RedisClient, R> mapper,
+      final BinaryOperator<R> combiner, final int maxRetries, final Duration timeout);
+
+  default <R> R mapReduceNodes(final NodeSelector selector, final Function<RedisClient, R> mapper,
+      final BinaryOperator<R> combiner) {
+    return mapReduceNodes(selector, mapper, combiner, getMaxRetries(), null);
+  }
+
+  default <R> R mapReduceNodes(final NodeSelector selector, final Function<RedisClient, R> mapper,
+      final BinaryOperator<R> combiner, final Duration timeout) {
+    return mapReduceNodes(selector, mapper, combiner, getMaxRetries(), timeout);
+  }
+
+  default long sumNodes(final NodeSelector selector, final ToLongFunction<RedisClient> mapper) {
+    final Long sum = mapReduceNodes(selector, client -> Long.valueOf(mapper.applyAsLong(client)),
+        Long::sum);
+    return sum == null ? 0 : sum.longValue();
+  }
+
+  /**
+   * Iterates every key in the cluster with one SCAN cursor per shard. Splitting the returned
+   * spliterator hands off whole shards, so shards are scanned in parallel by parallel streams.
+   *
+   * @param readMode MASTER to scan masters, otherwise one node serving each shard as chosen by
+   *        the read mode.
+   * @param maxRetries Retries per SCAN page. Cursors stay on the node that served the first page
+   *        of their shard, a shard whose node leaves the cluster is scanned again from the start.
+   * @param scanOptions SCAN options following the cursor, see
+   *        {@link com.fabahaba.jedipus.params.ScanParams#createScanOptions}.
+   * @return Keys as byte[]; keys may be returned more than once.
+   */
+  Spliterator<byte[]> scanKeySpliterator(final ReadMode readMode, final int maxRetries,
+      final byte[]... scanOptions);
+
+  default Stream<byte[]> scanKeys(final ReadMode readMode, final byte[]... scanOptions) {
+    return StreamSupport.stream(scanKeySpliterator(readMode, getMaxRetries(), scanOptions), true);
+  }
+
+  default Stream<byte[]> scanKeys(final byte[]... scanOptions) {
+    return scanKeys(getDefaultReadMode(), scanOptions);
+  }
+
+  /**
+   * Scans every shard in parallel, bounded by the executor's fan-out parallelism.
+   *
+   * @param readMode MASTER to scan masters, otherwise one node serving each shard as chosen by
+   *        the read mode.
+   * @param batchConsumer Accepts each non-empty page of byte[] keys. Called concurrently for
+   *        different shards.
+   * @param maxRetries Retries per SCAN page.
+   * @param scanOptions SCAN options following the cursor.
+   * @return A future completed once every shard has been scanned, or completed exceptionally with
+   *         the first shard failure.
+   */
+  CompletableFuture<Void> scanKeysAsync(final ReadMode readMode,
+      final Consumer<Object[]> batchConsumer, final int maxRetries, final byte[]... scanOptions);
+
+  default CompletableFuture<Void> scanKeysAsync(final Consumer<Object[]> batchConsumer,
+      final byte[]... scanOptions) {
+    return scanKeysAsync(getDefaultReadMode(), batchConsumer, getMaxRetries(), scanOptions);
+  }
+
+  /**
+   * Starts a {@link BulkKeyJob} applying keyMutation to every key matched by scanOptions, scanning
+   * every master in parallel on the executor's job threads.
+   *
+   * @param keyMutation Pipelines the mutation of a key, e.g. an UNLINK. Replies are not read.
+   * @param maxOpsPerSecond Limit on keys mutated per second across the cluster, or a non-positive
+   *        value for none.
+   * @param maxRetries Retries per shard, each resuming from the shard's last checkpoint.
+   * @param scanOptions SCAN options following the cursor, see
+   *        {@link com.fabahaba.jedipus.params.ScanParams#createScanOptions}.
+   * @return The running job.
+   */
+  BulkKeyJob startBulkKeyJob(final BiConsumer<RedisPipeline, byte[]> keyMutation,
+      final long maxOpsPerSecond, final int maxRetries, final byte[]... scanOptions);
+
+  default BulkKeyJob startBulkKeyJob(final BiConsumer<RedisPipeline, byte[]> keyMutation,
+      final long maxOpsPerSecond, final byte[]... scanOptions) {
+    return startBulkKeyJob(keyMutation, maxOpsPerSecond, getMaxRetries(), scanOptions);
+  }
+
+  default BulkKeyJob unlinkKeys(final long maxOpsPerSecond, final byte[]... scanOptions) {
+    return startBulkKeyJob((pipeline, key) -> pipeline.sendCmd(Cmds.UNLINK.prim(), key),
+        maxOpsPerSecond, scanOptions);
+  }
+
+  default BulkKeyJob expireKeys(final Duration ttl, final long maxOpsPerSecond,
+      final byte[]... scanOptions) {
+    final byte[] ttlMillis = RESP.toBytes(ttl.toMillis());
+    return startBulkKeyJob((pipeline, key) -> pipeline.sendCmd(Cmds.PEXPIRE.prim(), key,
+        ttlMillis), maxOpsPerSecond, scanOptions);
+  }
+
+  /**
+   * @param masters The masters that should own slots, including new empty masters. Masters
+   *        currently serving slots but missing from this collection are drained.
+   * @return A plan balancing slots across masters, computed from the current CLUSTER SLOTS.
+   */
+  default ReshardPlan planBalancedReshard(final Collection<Node> masters) {
+    final ClusterSlotVotes clusterSlots = apply(ReadMode.MASTER, CRC16.getRandomSlot(),
+        RedisClient::clusterSlots, getMaxRetries());
+    return ReshardPlan.createBalanced(clusterSlots.getClusterSlots(), masters);
+  }
+
+  /**
+   * Starts executing plan, migrating the slots of different source and target pairs in parallel
+   * on the executor's job threads.
+   *
+   * @param plan The slot moves, executing a partially executed plan resumes it.
+   * @param keysPerMigrate Keys moved per MIGRATE call.
+   * @param maxKeysPerSecond Limit on keys migrated per second across all pairs, or a
+   *        non-positive value for none.
+   * @param migrateTimeout The MIGRATE timeout.
+   * @param replace Whether MIGRATE replaces keys already present on the target.
+   * @return The running job.
+   */
+  ReshardJob startReshard(final ReshardPlan plan, final int keysPerMigrate,
+      final long maxKeysPerSecond, final Duration migrateTimeout, final boolean replace);
+
+  default ReshardJob startReshard(final ReshardPlan plan, final long maxKeysPerSecond) {
+    return startReshard(plan, 100, maxKeysPerSecond, Duration.ofSeconds(60), false);
+  }
+
   default void acceptAllMasters(final Consumer<RedisClient> clientConsumer) {
     acceptAllMasters(clientConsumer, getMaxRetries(), null);
   }
@@ -931,5 +1453,161 @@ public interface RedisClusterExecutor extends PrimClusterExecutor, AutoCloseable
   <R> R applyUnknown(final Node node, final Function<RedisClient, R> clientConsumer,
       final int maxRetries);
 
+  default ClusterPipeline createClusterPipeline() {
+    return createClusterPipeline(getDefaultReadMode(), null);
+  }
+
+  default ClusterPipeline createClusterPipeline(final ReadMode readMode) {
+    return createClusterPipeline(readMode, null);
+  }
+
+  ClusterPipeline createClusterPipeline(final ReadMode readMode, final ExecutorService executor);
+
+  default <R> R applyClusterPipeline(final Function<ClusterPipeline, R> pipelineConsumer) {
+    return applyClusterPipeline(getDefaultReadMode(), pipelineConsumer);
+  }
+
+  default <R> R applyClusterPipeline(final ReadMode readMode,
+      final Function<ClusterPipeline, R> pipelineConsumer) {
+    try (final ClusterPipeline pipeline = createClusterPipeline(readMode)) {
+      return pipelineConsumer.apply(pipeline);
+    }
+  }
+
+  default void acceptClusterPipeline(final Consumer<ClusterPipeline> pipelineConsumer) {
+    acceptClusterPipeline(getDefaultReadMode(), pipelineConsumer);
+  }
+
+  default void acceptClusterPipeline(final ReadMode readMode,
+      final Consumer<ClusterPipeline> pipelineConsumer) {
+    try (final ClusterPipeline pipeline = createClusterPipeline(readMode)) {
+      pipelineConsumer.accept(pipeline);
+    }
+  }
+
+  /**
+   * Sends a single command to the slot of its first key. Key positions and flags are read from the
+   * COMMAND table, which is loaded from the cluster on first use. Read only commands use the
+   * default read mode and all others go to the master. Commands without keys are sent to a random
+   * slot.
+   *
+   * @param cmd The command to send.
+   * @param args The arguments following the command name.
+   * @return The command reply.
+   */
+  <T> T sendCmd(final Cmd<T> cmd, final byte[]... args);
+
+  default <T> T sendCmd(final Cmd<T> cmd) {
+    return sendCmd(cmd, new byte[0][]);
+  }
+
+  default <T> T sendCmd(final Cmd<T> cmd, final String... args) {
+    return sendCmd(cmd, RESP.toBytes(args));
+  }
+
+  default <T> T sendCmd(final Cmd<T> cmd, final RedisKey key, final byte[]... args) {
+    return apply(ReadMode.MASTER, key.getSlot(), client -> client.sendCmd(cmd, key.withArgs(args)),
+        getMaxRetries());
+  }
+
+  <T> T sendCmd(final Cmd<?> cmd, final Cmd<T> subCmd, final byte[]... args);
+
+  default <T> T sendCmd(final Cmd<?> cmd, final Cmd<T> subCmd) {
+    return sendCmd(cmd, subCmd, new byte[0][]);
+  }
+
+  default <T> T sendCmd(final Cmd<?> cmd, final Cmd<T> subCmd, final String... args) {
+    return sendCmd(cmd, subCmd, RESP.toBytes(args));
+  }
+
+  long sendCmd(final PrimCmd cmd, final byte[]... args);
+
+  default long sendCmd(final PrimCmd cmd) {
+    return sendCmd(cmd, new byte[0][]);
+  }
+
+  default long sendCmd(final PrimCmd cmd, final String... args) {
+    return sendCmd(cmd, RESP.toBytes(args));
+  }
+
+  default long sendCmd(final PrimCmd cmd, final RedisKey key, final byte[]... args) {
+    return applyPrim(ReadMode.MASTER, key.getSlot(),
+        client -> client.sendCmd(cmd, key.withArgs(args)), getMaxRetries());
+  }
+
+  default Object[] mget(final byte[]... keys) {
+    return mget(getDefaultReadMode(), keys);
+  }
+
+  default Object[] mget(final String... keys) {
+    return mget(getDefaultReadMode(), keys);
+  }
+
+  default Object[] mget(final ReadMode readMode, final String... keys) {
+    return mget(readMode, RESP.toBytes(keys));
+  }
+
+  default Object[] mget(final ReadMode readMode, final byte[]... keys) {
+    return MultiKeyCmds.mget(this, readMode, keys);
+  }
+
+  /**
+   * Sets the keys with one MSET per slot. The MSET is atomic only if every key hashes to the same
+   * slot; otherwise the keys of some slots may be set while others fail. Use a hash tag for keys
+   * that must be set together.
+   *
+   * @param keyValues Alternating keys and values.
+   */
+  default void mset(final String... keyValues) {
+    mset(RESP.toBytes(keyValues));
+  }
+
+  /**
+   * Sets the keys with one MSET per slot. The MSET is atomic only if every key hashes to the same
+   * slot; otherwise the keys of some slots may be set while others fail. Use a hash tag for keys
+   * that must be set together.
+   *
+   * @param keyValues Alternating keys and values.
+   */
+  default void mset(final byte[]... keyValues) {
+    MultiKeyCmds.mset(this, keyValues);
+  }
+
+  default long del(final String... keys) {
+    return del(RESP.toBytes(keys));
+  }
+
+  default long del(final byte[]... keys) {
+    return MultiKeyCmds.sum(this, ReadMode.MASTER, Cmds.DEL, keys);
+  }
+
+  default long unlink(final String... keys) {
+    return unlink(RESP.toBytes(keys));
+  }
+
+  default long unlink(final byte[]... keys) {
+    return MultiKeyCmds.sum(this, ReadMode.MASTER, Cmds.UNLINK, keys);
+  }
+
+  default long exists(final String... keys) {
+    return exists(getDefaultReadMode(), RESP.toBytes(keys));
+  }
+
+  default long exists(final byte[]... keys) {
+    return exists(getDefaultReadMode(), keys);
+  }
+
+  default long exists(final ReadMode readMode, final byte[]... keys) {
+    return MultiKeyCmds.sum(this, readMode, Cmds.EXISTS, keys);
+  }
+
+  default long touch(final String... keys) {
+    return touch(RESP.toBytes(keys));
+  }
+
+  default long touch(final byte[]... keys) {
+    return MultiKeyCmds.sum(this, ReadMode.MASTER, Cmds.TOUCH, keys);
+  }
+
   void refreshSlotCache();
 }
@@ -6,6 +6,7 @@ import com.fabahaba.jedipus.cluster.RedisClusterExecutor.ReadMode;
 import com.fabahaba.jedipus.cluster.data.ClusterSlotVotes;
 import com.fabahaba.jedipus.cluster.data.SlotNodes;
 import com.fabahaba.jedipus.concurrent.ElementRetryDelay;
+import com.fabahaba.jedipus.cmds.Cmds;
 import com.fabahaba.jedipus.concurrent.LoadBalancedPools;
 import com.fabahaba.jedipus.exceptions.RedisClusterPartitionedException;
 import com.fabahaba.jedipus.exceptions.RedisConnectionException;
@@ -15,11 +16,14 @@ import com.fabahaba.jedipus.pool.ClientPool;
 import com.fabahaba.jedipus.pool.RedisClientPool;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Queue;
@@ -27,7 +31,16 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.StampedLock;
@@ -36,6 +49,9 @@ import java.util.function.Supplier;
 
 class RedisClusterSlotCache implements AutoCloseable {
 
+  private static final int MAX_EPOCH_READ_ATTEMPTS = 2;
+  private static final long DISCOVERY_THREAD_KEEP_ALIVE_SECONDS = 30;
+
   private final ReadMode defaultReadMode;
 
   private volatile Supplier<Collection<Node>> discoveryNodeSupplier;
@@ -61,6 +77,14 @@ class RedisClusterSlotCache implements AutoCloseable {
   final Function<Node, RedisClient> nodeUnknownFactory;
 
   private final ElementRetryDelay<Node> clusterNodeRetryDelay;
+  // Null unless the topology is persisted between processes.
+  private final TopologySnapshotFile topologySnapshot;
+  // 0 crawls every known master, otherwise the number of nodes sampled per discovery.
+  private final int discoverySampleSize;
+  private final ExecutorService discoveryExecutor;
+
+  private volatile ReplicaLagMonitor replicaLagMonitor;
+  private volatile ClusterNodesMonitor clusterNodesMonitor;
 
   RedisClusterSlotCache(final ReadMode defaultReadMode,
       final boolean optimisticReads,
@@ -77,7 +101,9 @@ class RedisClusterSlotCache implements AutoCloseable {
       final Function<Node, ClientPool<RedisClient>> slavePoolFactory,
       final Function<Node, RedisClient> nodeUnknownFactory,
       final Function<ClientPool<RedisClient>[], LoadBalancedPools<RedisClient, ReadMode>> lbFactory,
-      final ElementRetryDelay<Node> clusterNodeRetryDelay) {
+      final ElementRetryDelay<Node> clusterNodeRetryDelay,
+      final TopologySnapshotFile topologySnapshot, final int discoverySampleSize,
+      final ExecutorService discoveryExecutor) {
 
     this.refreshStamp = System.currentTimeMillis();
 
@@ -103,6 +129,23 @@ class RedisClusterSlotCache implements AutoCloseable {
     this.lbFactory = lbFactory;
 
     this.clusterNodeRetryDelay = clusterNodeRetryDelay;
+    this.topologySnapshot = topologySnapshot;
+    this.discoverySampleSize = discoverySampleSize;
+    this.discoveryExecutor = discoveryExecutor;
+  }
+
+  // Only CLUSTER SLOTS requests and snapshot writes run on this executor. Refreshes that wait on
+  // them are started elsewhere so that they can never occupy every discovery thread.
+  private static ExecutorService createDiscoveryExecutor(final int parallelism) {
+    final ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism,
+        DISCOVERY_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+        runnable -> {
+          final Thread thread = new Thread(runnable, "jedipus-cluster-discovery");
+          thread.setDaemon(true);
+          return thread;
+        });
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
   }
 
   ReadMode getDefaultReadMode() {
@@ -113,6 +156,18 @@ class RedisClusterSlotCache implements AutoCloseable {
     return nodeUnknownFactory;
   }
 
+  NodeMapper getNodeMapper() {
+    return nodeMapper;
+  }
+
+  void setReplicaLagMonitor(final ReplicaLagMonitor replicaLagMonitor) {
+    this.replicaLagMonitor = replicaLagMonitor;
+  }
+
+  void setClusterNodesMonitor(final ClusterNodesMonitor clusterNodesMonitor) {
+    this.clusterNodesMonitor = clusterNodesMonitor;
+  }
+
   ElementRetryDelay<Node> getClusterNodeRetryDelay() {
     return clusterNodeRetryDelay;
   }
@@ -126,7 +181,9 @@ class RedisClusterSlotCache implements AutoCloseable {
       final Function<Node, ClientPool<RedisClient>> slavePoolFactory,
       final Function<Node, RedisClient> nodeUnknownFactory,
       final Function<ClientPool<RedisClient>[], LoadBalancedPools<RedisClient, ReadMode>> lbFactory,
-      final ElementRetryDelay<Node> clusterNodeRetryDelay) {
+      final ElementRetryDelay<Node> clusterNodeRetryDelay,
+      final TopologySnapshotFile topologySnapshot, final int discoverySampleSize,
+      final int discoveryParallelism) {
 
     final Map<Node, ClientPool<RedisClient>> masterPools =
         defaultReadMode == ReadMode.SLAVES ? Collections.emptyMap() : new ConcurrentHashMap<>();
@@ -142,7 +199,8 @@ class RedisClusterSlotCache implements AutoCloseable {
     return create(defaultReadMode, optimisticReads, durationBetweenCacheRefresh,
         maxAwaitCacheRefresh, discoveryNodes, partitionedStrategyConfig, nodeMapper,
         masterPoolFactory, slavePoolFactory, nodeUnknownFactory, lbFactory, masterPools,
-        masterSlots, slavePools, slaveSlots, clusterNodeRetryDelay);
+        masterSlots, slavePools, slaveSlots, clusterNodeRetryDelay, topologySnapshot,
+        discoverySampleSize, createDiscoveryExecutor(discoveryParallelism));
   }
 
   private static RedisClusterSlotCache create(final ReadMode defaultReadMode,
@@ -157,11 +215,38 @@ class RedisClusterSlotCache implements AutoCloseable {
       final ClientPool<RedisClient>[] masterSlots,
       final Map<Node, ClientPool<RedisClient>> slavePools,
       final LoadBalancedPools<RedisClient, ReadMode>[] slaveSlots,
-      final ElementRetryDelay<Node> clusterNodeRetryDelay) {
+      final ElementRetryDelay<Node> clusterNodeRetryDelay,
+      final TopologySnapshotFile topologySnapshot, final int discoverySampleSize,
+      final ExecutorService discoveryExecutor) {
+
+    final TopologySnapshotFile.Snapshot snapshot =
+        topologySnapshot == null ? null : topologySnapshot.load();
+
+    if (snapshot != null && snapshot.getClusterSlots().getClusterSlots().length > 0) {
+      // Route from the persisted view right away and validate it against the cluster afterwards.
+      initSlotCache(snapshot.getClusterSlots(), defaultReadMode, nodeMapper, masterPoolFactory,
+          slavePoolFactory, lbFactory, masterPools, masterSlots, slavePools, slaveSlots);
+
+      final RedisClusterSlotCache slotCache = newSlotCache(defaultReadMode, optimisticReads,
+          durationBetweenCacheRefresh, maxAwaitCacheRefresh, discoveryNodesSupplier,
+          partitionedStrategyConfig, nodeMapper, masterPoolFactory, slavePoolFactory,
+          nodeUnknownFactory, lbFactory, masterPools, masterSlots, slavePools, slaveSlots,
+          clusterNodeRetryDelay, topologySnapshot, discoverySampleSize, discoveryExecutor);
+
+      // Validation waits on discovery threads, so it must not take one of them.
+      final Thread validation =
+          new Thread(slotCache::validateSnapshot, "jedipus-snapshot-validation");
+      validation.setDaemon(true);
+      validation.start();
+      return slotCache;
+    }
 
     final Collection<Node> discoveryNodes = discoveryNodesSupplier.get();
-    final ClusterSlotVotes[] slotNodesCandidates = getSlotNodesVotes(discoveryNodes, nodeMapper,
-        nodeUnknownFactory, new AtomicInteger(partitionedStrategyConfig.getMaxVotes()));
+    final ClusterSlotVotes[] slotNodesCandidates = discoverySampleSize > 0
+        ? getSampledSlotNodesVotes(mapNodes(discoveryNodes, nodeMapper), discoverySampleSize,
+            partitionedStrategyConfig, nodeUnknownFactory, discoveryExecutor)
+        : getSlotNodesVotes(discoveryNodes, nodeMapper, nodeUnknownFactory,
+            new AtomicInteger(partitionedStrategyConfig.getMaxVotes()), discoveryExecutor);
 
     switch (partitionedStrategyConfig.getStrategy()) {
       case THROW:
@@ -207,17 +292,85 @@ class RedisClusterSlotCache implements AutoCloseable {
         break;
     }
 
+    final RedisClusterSlotCache slotCache = newSlotCache(defaultReadMode, optimisticReads,
+        durationBetweenCacheRefresh, maxAwaitCacheRefresh, discoveryNodesSupplier,
+        partitionedStrategyConfig, nodeMapper, masterPoolFactory, slavePoolFactory,
+        nodeUnknownFactory, lbFactory, masterPools, masterSlots, slavePools, slaveSlots,
+        clusterNodeRetryDelay, topologySnapshot, discoverySampleSize, discoveryExecutor);
+
+    if (slotNodesCandidates.length > 0) {
+      slotCache.persistTopology(slotNodesCandidates[0]);
+    }
+    return slotCache;
+  }
+
+  private static RedisClusterSlotCache newSlotCache(final ReadMode defaultReadMode,
+      final boolean optimisticReads, final Duration durationBetweenCacheRefresh,
+      final Duration maxAwaitCacheRefresh, final Supplier<Collection<Node>> discoveryNodesSupplier,
+      final PartitionedStrategyConfig partitionedStrategyConfig, final NodeMapper nodeMapper,
+      final Function<Node, ClientPool<RedisClient>> masterPoolFactory,
+      final Function<Node, ClientPool<RedisClient>> slavePoolFactory,
+      final Function<Node, RedisClient> nodeUnknownFactory,
+      final Function<ClientPool<RedisClient>[], LoadBalancedPools<RedisClient, ReadMode>> lbFactory,
+      final Map<Node, ClientPool<RedisClient>> masterPools,
+      final ClientPool<RedisClient>[] masterSlots,
+      final Map<Node, ClientPool<RedisClient>> slavePools,
+      final LoadBalancedPools<RedisClient, ReadMode>[] slaveSlots,
+      final ElementRetryDelay<Node> clusterNodeRetryDelay,
+      final TopologySnapshotFile topologySnapshot, final int discoverySampleSize,
+      final ExecutorService discoveryExecutor) {
+
     if (optimisticReads) {
       return new OptimisticRedisClusterSlotCache(defaultReadMode, durationBetweenCacheRefresh,
           maxAwaitCacheRefresh, discoveryNodesSupplier, partitionedStrategyConfig, nodeMapper,
           masterPools, masterSlots, slavePools, slaveSlots, masterPoolFactory, slavePoolFactory,
-          nodeUnknownFactory, lbFactory, clusterNodeRetryDelay);
+          nodeUnknownFactory, lbFactory, clusterNodeRetryDelay, topologySnapshot,
+          discoverySampleSize, discoveryExecutor);
     }
 
     return new RedisClusterSlotCache(defaultReadMode, false, durationBetweenCacheRefresh,
         maxAwaitCacheRefresh, discoveryNodesSupplier, partitionedStrategyConfig, nodeMapper,
         masterPools, masterSlots, slavePools, slaveSlots, masterPoolFactory, slavePoolFactory,
-        nodeUnknownFactory, lbFactory, clusterNodeRetryDelay);
+        nodeUnknownFactory, lbFactory, clusterNodeRetryDelay, topologySnapshot,
+        discoverySampleSize, discoveryExecutor);
+  }
+
+  private void validateSnapshot() {
+    try {
+      discoverClusterSlots();
+    } catch (final RuntimeException e) {
+      // Keep routing from the snapshot, redirects and connection failures will refresh it.
+    }
+  }
+
+  private void persistTopology(final ClusterSlotVotes clusterSlots) {
+    if (topologySnapshot == null) {
+      return;
+    }
+
+    try {
+      discoveryExecutor
+          .execute(() -> topologySnapshot.persist(clusterSlots, this::readCurrentEpoch));
+    } catch (final RejectedExecutionException e) {
+      // The next refresh will persist it.
+    }
+  }
+
+  private long readCurrentEpoch() {
+    final Set<Node> nodes = new HashSet<>(masterPools.keySet());
+    nodes.addAll(slavePools.keySet());
+
+    int attempts = 0;
+    for (final Node node : nodes) {
+      try (final RedisClient client = nodeUnknownFactory.apply(node)) {
+        return Long.parseLong(client.clusterInfo().getCurrentEpoch());
+      } catch (final RuntimeException e) {
+        if (++attempts == MAX_EPOCH_READ_ATTEMPTS) {
+          break;
+        }
+      }
+    }
+    return TopologySnapshotFile.UNKNOWN_EPOCH;
   }
 
   void discoverClusterSlots(final SlotMovedException moveEx) {
@@ -383,16 +536,30 @@ class RedisClusterSlotCache implements AutoCloseable {
   private ClusterSlotVotes[] getSlotNodesVotes() {
     slotCacheRefreshDelay();
 
+    if (discoverySampleSize > 0) {
+      final Set<Node> knownNodes = new HashSet<>(masterPools.keySet());
+      knownNodes.addAll(slavePools.keySet());
+
+      if (!knownNodes.isEmpty()) {
+        final ClusterSlotVotes[] sampledVotes = getSampledSlotNodesVotes(knownNodes,
+            discoverySampleSize, partitionedStrategyConfig, nodeUnknownFactory, discoveryExecutor);
+        if (sampledVotes.length > 0) {
+          return sampledVotes;
+        }
+      }
+
+      return getSampledSlotNodesVotes(mapNodes(discoveryNodeSupplier.get(), nodeMapper),
+          discoverySampleSize, partitionedStrategyConfig, nodeUnknownFactory, discoveryExecutor);
+    }
+
     final AtomicInteger maxVotes = new AtomicInteger(partitionedStrategyConfig.getMaxVotes());
 
     switch (defaultReadMode) {
       case MASTER:
       case MIXED:
       case MIXED_SLAVES:
-        final Map<ClusterSlotVotes, ClusterSlotVotes> clusterSlots = new
-            ConcurrentHashMap<>(4);
-        final Queue<ForkJoinTask<?>> voteFutures = new ConcurrentLinkedQueue<>();
-        final ForkJoinPool forkJoinPool = ForkJoinPool.commonPool();
+        final Map<Long, ClusterSlotVotes> clusterSlots = new ConcurrentHashMap<>(4);
+        final Queue<Future<?>> voteFutures = new ConcurrentLinkedQueue<>();
 
         final Set<Node> knownMasters =
             Collections.newSetFromMap(new ConcurrentHashMap<>(masterPools.size()));
@@ -405,11 +572,11 @@ class RedisClusterSlotCache implements AutoCloseable {
             }
 
             for (;;) {
-              final ForkJoinTask<?> voteFuture = voteFutures.poll();
+              final Future<?> voteFuture = voteFutures.poll();
               if (voteFuture == null) {
                 break;
               }
-              voteFuture.join();
+              awaitVote(voteFuture);
             }
 
             if (maxVotes.get() == 0) {
@@ -417,8 +584,9 @@ class RedisClusterSlotCache implements AutoCloseable {
             }
           }
 
-          voteFutures.add(forkJoinPool.submit(() -> getSlotNodesVotes(knownMasters, nodeMapper,
-              nodeUnknownFactory, clusterSlots, pool, voteFutures, maxVotes)));
+          voteFutures.add(discoveryExecutor.submit(() -> getSlotNodesVotes(knownMasters,
+              nodeMapper, nodeUnknownFactory, clusterSlots, pool, voteFutures, maxVotes,
+              discoveryExecutor)));
         }
 
         final ClusterSlotVotes[] sortedClusterNodes = awaitAndSortVotes(voteFutures,
@@ -432,12 +600,121 @@ class RedisClusterSlotCache implements AutoCloseable {
         break;
     }
 
-    return getSlotNodesVotes(discoveryNodeSupplier.get(), nodeMapper, nodeUnknownFactory, maxVotes);
+    return getSlotNodesVotes(discoveryNodeSupplier.get(), nodeMapper, nodeUnknownFactory, maxVotes,
+        discoveryExecutor);
+  }
+
+  private static Set<Node> mapNodes(final Collection<Node> nodes, final NodeMapper nodeMapper) {
+    final Set<Node> mapped = new HashSet<>(nodes.size());
+    for (final Node node : nodes) {
+      mapped.add(nodeMapper.apply(node));
+    }
+    return mapped;
+  }
+
+  // Asks a random sample of nodes for their view without crawling the masters they report. Nodes
+  // that fail are replaced by the next unsampled node. When the partitioned strategy allows it,
+  // the remaining replies are skipped once a view has a majority of the sample.
+  private static ClusterSlotVotes[] getSampledSlotNodesVotes(final Collection<Node> nodes,
+      final int sampleSize, final PartitionedStrategyConfig partitionedStrategyConfig,
+      final Function<Node, RedisClient> nodeUnknownFactory,
+      final ExecutorService discoveryExecutor) {
+
+    final List<Node> candidates = new ArrayList<>(nodes);
+    Collections.shuffle(candidates, ThreadLocalRandom.current());
+
+    final int numSamples =
+        Math.min(Math.min(sampleSize, partitionedStrategyConfig.getMaxVotes()), candidates.size());
+    final int quorum = numSamples / 2 + 1;
+    final PartitionedStrategyConfig.Strategy strategy = partitionedStrategyConfig.getStrategy();
+    final boolean stopAtQuorum = strategy == PartitionedStrategyConfig.Strategy.TOP
+        || (strategy == PartitionedStrategyConfig.Strategy.MAJORITY
+            && partitionedStrategyConfig.getMinMajorityPercentExclusive() <= .5);
+
+    final Map<Long, ClusterSlotVotes> clusterSlots = new ConcurrentHashMap<>(4);
+    final CompletionService<ClusterSlotVotes> completions =
+        new ExecutorCompletionService<>(discoveryExecutor);
+    final List<Future<ClusterSlotVotes>> voteFutures = new ArrayList<>(numSamples);
+
+    int next = 0;
+    for (; next < numSamples; next++) {
+      voteFutures.add(completions
+          .submit(sampleVote(candidates.get(next), nodeUnknownFactory, clusterSlots)));
+    }
+
+    try {
+      for (int pending = numSamples; pending > 0; pending--) {
+        final ClusterSlotVotes vote = completions.take().get();
+
+        if (vote == null) {
+          if (next < candidates.size()) {
+            voteFutures.add(completions
+                .submit(sampleVote(candidates.get(next++), nodeUnknownFactory, clusterSlots)));
+            pending++;
+          }
+          continue;
+        }
+
+        if (stopAtQuorum && vote.getNodeVotes().size() >= quorum) {
+          break;
+        }
+      }
+    } catch (final InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(ie);
+    } catch (final ExecutionException ee) {
+      throw ee.getCause() instanceof RuntimeException ? (RuntimeException) ee.getCause()
+          : new RuntimeException(ee.getCause());
+    } finally {
+      for (final Future<ClusterSlotVotes> voteFuture : voteFutures) {
+        voteFuture.cancel(false);
+      }
+    }
+
+    return sortVotes(clusterSlots);
+  }
+
+  // Returns null if the node could not be reached.
+  private static Callable<ClusterSlotVotes> sampleVote(final Node node,
+      final Function<Node, RedisClient> nodeUnknownFactory,
+      final Map<Long, ClusterSlotVotes> clusterSlots) {
+
+    return () -> {
+      try (final RedisClient client = nodeUnknownFactory.apply(node)) {
+        return addVote(clusterSlots, client);
+      } catch (final RedisConnectionException | RedisRetryableUnhandledException e) {
+        return null;
+      }
+    };
+  }
+
+  private static ClusterSlotVotes addVote(final Map<Long, ClusterSlotVotes> clusterSlots,
+      final RedisClient client) {
+
+    final Object[] reply = readClusterSlots(client);
+    final Long fingerprint = Long.valueOf(ClusterSlotsFingerprint.hash(reply));
+
+    ClusterSlotVotes votes = clusterSlots.get(fingerprint);
+    if (votes == null) {
+      final ClusterSlotVotes parsed = ClusterSlotVotes.create(reply);
+      votes = clusterSlots.putIfAbsent(fingerprint, parsed);
+      if (votes == null) {
+        votes = parsed;
+      }
+    }
+
+    return votes.addVote(client.getNode(),
+        () -> Collections.newSetFromMap(new ConcurrentHashMap<>()));
+  }
+
+  // The raw reply is hashed before it is parsed so that repeated views are only parsed once.
+  private static Object[] readClusterSlots(final RedisClient client) {
+    return (Object[]) client.sendCmd(Cmds.CLUSTER, Cmds.CLUSTER_SLOTS.raw());
   }
 
   private static ClusterSlotVotes[] getSlotNodesVotes(final Collection<Node> nodes,
       final NodeMapper nodeMapper, final Function<Node, RedisClient> nodeUnknownFactory,
-      final AtomicInteger maxVotes) {
+      final AtomicInteger maxVotes, final ExecutorService discoveryExecutor) {
 
     final Set<Node> discoveryNodes =
         Collections.newSetFromMap(new ConcurrentHashMap<>(nodes.size()));
@@ -445,9 +722,8 @@ class RedisClusterSlotCache implements AutoCloseable {
       discoveryNodes.add(nodeMapper.apply(node));
     }
 
-    final Map<ClusterSlotVotes, ClusterSlotVotes> clusterSlots = new ConcurrentHashMap<>(4);
-    final Queue<ForkJoinTask<?>> voteFutures = new ConcurrentLinkedQueue<>();
-    final ForkJoinPool forkJoinPool = ForkJoinPool.commonPool();
+    final Map<Long, ClusterSlotVotes> clusterSlots = new ConcurrentHashMap<>(4);
+    final Queue<Future<?>> voteFutures = new ConcurrentLinkedQueue<>();
 
     for (final Node node : discoveryNodes) {
       if (maxVotes.getAndUpdate(i -> --i < 0 ? 0 : i) == 0) {
@@ -456,11 +732,11 @@ class RedisClusterSlotCache implements AutoCloseable {
         }
 
         for (;;) {
-          final ForkJoinTask<?> voteFuture = voteFutures.poll();
+          final Future<?> voteFuture = voteFutures.poll();
           if (voteFuture == null) {
             break;
           }
-          voteFuture.join();
+          awaitVote(voteFuture);
         }
 
         if (maxVotes.get() == 0) {
@@ -468,11 +744,11 @@ class RedisClusterSlotCache implements AutoCloseable {
         }
       }
 
-      voteFutures.add(forkJoinPool.submit(() -> {
+      voteFutures.add(discoveryExecutor.submit(() -> {
         try (final RedisClient client = nodeUnknownFactory.apply(node)) {
           getSlotNodesVotes(discoveryNodes, nodeMapper, nodeUnknownFactory,
               clusterSlots, client,
-              voteFutures, maxVotes);
+              voteFutures, maxVotes, discoveryExecutor);
         } catch (final RedisConnectionException | RedisRetryableUnhandledException e) {
           maxVotes.incrementAndGet();
         }
@@ -482,26 +758,40 @@ class RedisClusterSlotCache implements AutoCloseable {
     return awaitAndSortVotes(voteFutures, clusterSlots);
   }
 
-  private static ClusterSlotVotes[] awaitAndSortVotes(final Queue<ForkJoinTask<?>> voteFutures,
-      final Map<ClusterSlotVotes, ClusterSlotVotes> clusterSlots) {
+  private static void awaitVote(final Future<?> voteFuture) {
+    try {
+      voteFuture.get();
+    } catch (final InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(ie);
+    } catch (final ExecutionException ee) {
+      throw ee.getCause() instanceof RuntimeException ? (RuntimeException) ee.getCause()
+          : new RuntimeException(ee.getCause());
+    }
+  }
+
+  private static ClusterSlotVotes[] awaitAndSortVotes(final Queue<Future<?>> voteFutures,
+      final Map<Long, ClusterSlotVotes> clusterSlots) {
 
     for (;;) {
-      final ForkJoinTask<?> voteFuture = voteFutures.poll();
+      final Future<?> voteFuture = voteFutures.poll();
       if (voteFuture == null) {
         break;
       }
-      voteFuture.join();
+      awaitVote(voteFuture);
     }
 
+    return sortVotes(clusterSlots);
+  }
+
+  private static ClusterSlotVotes[] sortVotes(final Map<Long, ClusterSlotVotes> clusterSlots) {
     if (clusterSlots.isEmpty()) {
       return new ClusterSlotVotes[0];
     }
 
-    final ClusterSlotVotes[] sortedClusterNodes = new ClusterSlotVotes[clusterSlots.size()];
-    int index = 0;
-    for (final ClusterSlotVotes votes : clusterSlots.values()) {
-      sortedClusterNodes[index++] = votes;
-    }
+    // Sampled votes may still be arriving, so copy the views before sizing the array.
+    final List<ClusterSlotVotes> views = new ArrayList<>(clusterSlots.values());
+    final ClusterSlotVotes[] sortedClusterNodes = views.toArray(new ClusterSlotVotes[views.size()]);
     Arrays.sort(sortedClusterNodes);
 
     return sortedClusterNodes;
@@ -509,9 +799,9 @@ class RedisClusterSlotCache implements AutoCloseable {
 
   private static void getSlotNodesVotes(final Set<Node> knownMasters, final NodeMapper nodeMapper,
       final Function<Node, RedisClient> nodeUnknownFactory,
-      final Map<ClusterSlotVotes, ClusterSlotVotes> clusterSlots,
-      final Entry<Node, ClientPool<RedisClient>> pool, final Queue<ForkJoinTask<?>> voteFutures,
-      final AtomicInteger maxVotes) {
+      final Map<Long, ClusterSlotVotes> clusterSlots,
+      final Entry<Node, ClientPool<RedisClient>> pool, final Queue<Future<?>> voteFutures,
+      final AtomicInteger maxVotes, final ExecutorService discoveryExecutor) {
 
     try {
       final RedisClient pooledClient = pool.getValue().borrowIfPresent();
@@ -519,12 +809,12 @@ class RedisClusterSlotCache implements AutoCloseable {
         try (final RedisClient client = nodeUnknownFactory.apply(pool.getKey())) {
           getSlotNodesVotes(knownMasters, nodeMapper, nodeUnknownFactory, clusterSlots,
               client,
-              voteFutures, maxVotes);
+              voteFutures, maxVotes, discoveryExecutor);
         }
       } else {
         try {
           getSlotNodesVotes(knownMasters, nodeMapper, nodeUnknownFactory, clusterSlots,
-              pooledClient, voteFutures, maxVotes);
+              pooledClient, voteFutures, maxVotes, discoveryExecutor);
         } finally {
           RedisClientPool.returnClient(pool.getValue(), pooledClient);
         }
@@ -536,12 +826,13 @@ class RedisClusterSlotCache implements AutoCloseable {
 
   private static void getSlotNodesVotes(final Set<Node> newMasters, final NodeMapper nodeMapper,
       final Function<Node, RedisClient> nodeUnknownFactory,
-      final Map<ClusterSlotVotes, ClusterSlotVotes> clusterSlotVotes, final RedisClient client,
-      final Queue<ForkJoinTask<?>> voteFutures, final AtomicInteger maxVotes) {
+      final Map<Long, ClusterSlotVotes> clusterSlotVotes, final RedisClient client,
+      final Queue<Future<?>> voteFutures, final AtomicInteger maxVotes,
+      final ExecutorService discoveryExecutor) {
 
-    final ClusterSlotVotes clusterSlots = client.clusterSlots();
-    final ClusterSlotVotes existingValue = clusterSlotVotes.putIfAbsent(clusterSlots,
-        clusterSlots);
+    final Object[] reply = readClusterSlots(client);
+    final Long fingerprint = Long.valueOf(ClusterSlotsFingerprint.hash(reply));
+    final ClusterSlotVotes existingValue = clusterSlotVotes.get(fingerprint);
 
     if (existingValue != null) {
       existingValue.addVote(client.getNode(),
@@ -549,6 +840,15 @@ class RedisClusterSlotCache implements AutoCloseable {
       return;
     }
 
+    final ClusterSlotVotes clusterSlots = ClusterSlotVotes.create(reply);
+    final ClusterSlotVotes racedValue = clusterSlotVotes.putIfAbsent(fingerprint, clusterSlots);
+
+    if (racedValue != null) {
+      racedValue.addVote(client.getNode(),
+          () -> Collections.newSetFromMap(new ConcurrentHashMap<>()));
+      return;
+    }
+
     clusterSlots.addVote(client.getNode(),
         () -> Collections.newSetFromMap(new ConcurrentHashMap<>()));
 
@@ -560,11 +860,11 @@ class RedisClusterSlotCache implements AutoCloseable {
 
       final Node masterNode = nodeMapper.apply(slotNodes.getMaster());
       if (newMasters.add(masterNode) && maxVotes.getAndUpdate(i -> --i < 0 ? 0 : i) > 0) {
-        voteFutures.add(ForkJoinPool.commonPool().submit(() -> {
+        voteFutures.add(discoveryExecutor.submit(() -> {
           try (final RedisClient newMasterClient = nodeUnknownFactory.apply(masterNode)) {
             getSlotNodesVotes(newMasters, nodeMapper, nodeUnknownFactory,
                 clusterSlotVotes,
-                newMasterClient, voteFutures, maxVotes);
+                newMasterClient, voteFutures, maxVotes, discoveryExecutor);
           } catch (final RedisConnectionException | RedisRetryableUnhandledException e) {
             maxVotes.incrementAndGet();
           }
@@ -635,6 +935,8 @@ class RedisClusterSlotCache implements AutoCloseable {
       Arrays.fill(slaveSlots, slotNodes.getSlotBegin(), slotNodes.getSlotEndExclusive(), lbPools);
     }
 
+    persistTopology(clusterSlots);
+
     for (final Node staleMasterNode : staleMasterPools) {
       clusterNodeRetryDelay.clear(staleMasterNode);
       final ClientPool<RedisClient> removedPool = masterPools.remove(staleMasterNode);
@@ -757,19 +1059,111 @@ class RedisClusterSlotCache implements AutoCloseable {
         if (lbSlaves == null) {
           return masterSlots[slot];
         }
-        final ClientPool<RedisClient> slavePool = lbSlaves.next(readMode, null);
+        final ClientPool<RedisClient> slavePool = nextUpToDateSlave(lbSlaves, readMode,
+            masterSlots[slot]);
         return slavePool == null ? masterSlots[slot] : slavePool;
       case SLAVES:
         lbSlaves = slaveSlots[slot];
         if (lbSlaves == null) {
           return masterSlots.length == 0 ? null : masterSlots[slot];
         }
-        return lbSlaves.next(readMode, null);
+        return nextUpToDateSlave(lbSlaves, readMode,
+            masterSlots.length == 0 ? null : masterSlots[slot]);
       default:
         return null;
     }
   }
 
+  private static final int MAX_LAGGING_SLAVE_SKIPS = 3;
+
+  private ClientPool<RedisClient> nextUpToDateSlave(
+      final LoadBalancedPools<RedisClient, ReadMode> lbSlaves, final ReadMode readMode,
+      final ClientPool<RedisClient> masterPool) {
+
+    final ClusterNodesMonitor nodesMonitor = clusterNodesMonitor;
+    final Set<Node> downNodes =
+        nodesMonitor == null ? Collections.emptySet() : nodesMonitor.getDownNodes();
+    final boolean masterDown = masterPool != null && downNodes.contains(masterPool.getNode());
+
+    // Keep reads off a failed master while its replicas wait to be promoted.
+    final ReadMode lbReadMode =
+        masterDown && readMode == ReadMode.MIXED ? ReadMode.MIXED_SLAVES : readMode;
+    final ClientPool<RedisClient> defaultPool =
+        readMode == ReadMode.SLAVES || masterDown ? null : masterPool;
+    ClientPool<RedisClient> slavePool = lbSlaves.next(lbReadMode, defaultPool);
+
+    final ReplicaLagMonitor lagMonitor = replicaLagMonitor;
+    if ((lagMonitor == null && downNodes.isEmpty()) || slavePool == null
+        || slavePool == masterPool) {
+      return slavePool;
+    }
+
+    final Set<Node> laggingSlaves =
+        lagMonitor == null ? Collections.emptySet() : lagMonitor.getLaggingSlaves();
+    if (laggingSlaves.isEmpty() && downNodes.isEmpty()) {
+      return slavePool;
+    }
+
+    for (int skips = 0; laggingSlaves.contains(slavePool.getNode())
+        || downNodes.contains(slavePool.getNode()); skips++) {
+      if (skips == MAX_LAGGING_SLAVE_SKIPS) {
+        // Every replica we tried is behind or down, read from the master if we can.
+        return masterPool == null || masterDown ? slavePool : masterPool;
+      }
+
+      slavePool = lbSlaves.next(lbReadMode, defaultPool);
+      if (slavePool == null || slavePool == masterPool) {
+        return slavePool;
+      }
+    }
+
+    return slavePool;
+  }
+
+  // The first slot of each shard, in slot order, so that shards can be addressed by slot and
+  // followed through failovers.
+  int[] getShardSlots() {
+
+    long readStamp = lock.tryOptimisticRead();
+    final int[] shardSlots = getShardSlots(masterSlots.length == 0 ? slaveSlots : masterSlots);
+
+    if (lock.validate(readStamp)) {
+      return shardSlots;
+    }
+
+    try {
+      readStamp = maxAwaitCacheRefreshNanos == 0 ? lock.readLock()
+          : lock.tryReadLock(maxAwaitCacheRefreshNanos, TimeUnit.NANOSECONDS);
+    } catch (final InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(ie);
+    }
+
+    try {
+      return getShardSlots(masterSlots.length == 0 ? slaveSlots : masterSlots);
+    } finally {
+      if (readStamp > 0) {
+        lock.unlockRead(readStamp);
+      }
+    }
+  }
+
+  private static int[] getShardSlots(final Object[] slotOwners) {
+
+    final Set<Object> shards = Collections.newSetFromMap(new IdentityHashMap<>());
+    final int[] shardSlots = new int[slotOwners.length];
+    int numShards = 0;
+
+    for (int slot = 0; slot < slotOwners.length; slot++) {
+      final Object owner = slotOwners[slot];
+      if (owner != null && shards.add(owner)) {
+        shardSlots[numShards++] = slot;
+      }
+    }
+
+    return Arrays.copyOf(shardSlots, numShards);
+  }
+
   Map<Node, ClientPool<RedisClient>> getMasterPools() {
 
     if (!lock.isWriteLocked()) {
@@ -952,6 +1346,7 @@ class RedisClusterSlotCache implements AutoCloseable {
 
     try {
       discoveryNodeSupplier = () -> Collections.emptySet();
+      discoveryExecutor.shutdownNow();
 
       masterPools.forEach((node, pool) -> {
         try {
@@ -0,0 +1,153 @@
+package com.fabahaba.jedipus.cluster;
+
+import com.fabahaba.jedipus.client.NodeMapper;
+import com.fabahaba.jedipus.client.RedisClient;
+import com.fabahaba.jedipus.cmds.Cmds;
+import com.fabahaba.jedipus.pool.ClientPool;
+import com.fabahaba.jedipus.pool.RedisClientPool;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Periodically samples INFO replication from every replica and its master, publishing the set of
+ * replicas which are disconnected, still syncing, or more than maxLagBytes behind their master.
+ */
+final class ReplicaLagMonitor implements AutoCloseable {
+
+  private final Supplier<Map<Node, ClientPool<RedisClient>>> slavePools;
+  private final Function<Node, ClientPool<RedisClient>> masterPoolLookup;
+  private final Function<Node, RedisClient> nodeUnknownFactory;
+  private final NodeMapper nodeMapper;
+  private final long maxLagBytes;
+  private final ScheduledExecutorService scheduler;
+
+  private volatile Set<Node> laggingSlaves = Collections.emptySet();
+
+  ReplicaLagMonitor(final Supplier<Map<Node, ClientPool<RedisClient>>> slavePools,
+      final Function<Node, ClientPool<RedisClient>> masterPoolLookup,
+      final Function<Node, RedisClient> nodeUnknownFactory, final NodeMapper nodeMapper,
+      final Duration sampleInterval, final long maxLagBytes) {
+
+    this.slavePools = slavePools;
+    this.masterPoolLookup = masterPoolLookup;
+    this.nodeUnknownFactory = nodeUnknownFactory;
+    this.nodeMapper = nodeMapper;
+    this.maxLagBytes = maxLagBytes;
+
+    final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+      final Thread thread = new Thread(runnable, "jedipus-replica-lag-monitor");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    this.scheduler = scheduler;
+
+    final long intervalNanos = sampleInterval.toNanos();
+    scheduler.scheduleWithFixedDelay(this::sample, intervalNanos, intervalNanos,
+        TimeUnit.NANOSECONDS);
+  }
+
+  Set<Node> getLaggingSlaves() {
+    return laggingSlaves;
+  }
+
+  void sample() {
+    final Map<Node, Long> masterOffsets = new HashMap<>();
+    final Set<Node> lagging = new HashSet<>();
+
+    for (final Entry<Node, ClientPool<RedisClient>> slavePool : slavePools.get().entrySet()) {
+      try {
+        final Map<String, String> info = info(slavePool.getValue(), slavePool.getKey());
+        final Node master = nodeMapper.apply(Node.create(info.getOrDefault("master_host", ""),
+            info.getOrDefault("master_port", "0")));
+
+        final Long masterOffset = masterOffsets.computeIfAbsent(master, this::getMasterOffset);
+        if (isLagging(info, masterOffset == null ? -1 : masterOffset, maxLagBytes)) {
+          lagging.add(slavePool.getKey());
+        }
+      } catch (final RuntimeException ex) {
+        lagging.add(slavePool.getKey());
+      }
+    }
+
+    laggingSlaves = lagging.isEmpty() ? Collections.emptySet() : lagging;
+  }
+
+  private Long getMasterOffset(final Node master) {
+    try {
+      return Long.valueOf(info(masterPoolLookup.apply(master), master)
+          .getOrDefault("master_repl_offset", "-1"));
+    } catch (final RuntimeException ex) {
+      return null;
+    }
+  }
+
+  private Map<String, String> info(final ClientPool<RedisClient> pool, final Node node) {
+    if (pool == null) {
+      try (final RedisClient client = nodeUnknownFactory.apply(node)) {
+        return parseInfo(client.sendCmd(Cmds.INFO, "replication"));
+      }
+    }
+
+    RedisClient client = null;
+    try {
+      client = RedisClientPool.borrowClient(pool);
+      return parseInfo(client.sendCmd(Cmds.INFO, "replication"));
+    } finally {
+      RedisClientPool.returnClient(pool, client);
+    }
+  }
+
+  static Map<String, String> parseInfo(final String info) {
+    final Map<String, String> fields = new HashMap<>();
+    for (final String line : info.split("\r\n")) {
+      final int colon = line.indexOf(':');
+      if (colon > 0) {
+        fields.put(line.substring(0, colon), line.substring(colon + 1));
+      }
+    }
+    return fields;
+  }
+
+  static boolean isLagging(final Map<String, String> slaveInfo, final long masterOffset,
+      final long maxLagBytes) {
+
+    if (!"up".equals(slaveInfo.get("master_link_status"))) {
+      return true;
+    }
+
+    if (!"0".equals(slaveInfo.getOrDefault("master_sync_in_progress", "0"))) {
+      return true;
+    }
+
+    if (masterOffset < 0) {
+      // Master unreachable, link status is the best signal we have.
+      return false;
+    }
+
+    final long slaveOffset = Long.parseLong(slaveInfo.getOrDefault("slave_repl_offset", "0"));
+    return masterOffset - slaveOffset > maxLagBytes;
+  }
+
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+  }
+
+  @Override
+  public String toString() {
+    return new StringBuilder("ReplicaLagMonitor [maxLagBytes=").append(maxLagBytes)
+        .append(", laggingSlaves=").append(laggingSlaves).append("]").toString();
+  }
+}
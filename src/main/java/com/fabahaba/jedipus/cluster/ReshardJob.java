@@ -0,0 +1,36 @@
+package com.fabahaba.jedipus.cluster;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A running {@link ReshardPlan}. Each source and target pair migrates its slots in order, and
+ * different pairs run in parallel. Keys are moved with pipelined MIGRATE ... KEYS batches.
+ */
+public interface ReshardJob {
+
+  ReshardPlan getPlan();
+
+  /**
+   * @return Completes once every slot has moved or the job has been cancelled, or completes
+   *         exceptionally with the first pair failure. Slots of a failed pair are resumed by
+   *         executing the same plan again.
+   */
+  CompletableFuture<Void> getCompletion();
+
+  /**
+   * Stops each pair once its current slot has moved.
+   */
+  void cancel();
+
+  boolean isCancelled();
+
+  /**
+   * @return Slots assigned to their target, including slots that had already moved.
+   */
+  int getMovedSlots();
+
+  long getMigratedKeys();
+
+  Duration getElapsed();
+}
@@ -0,0 +1,164 @@
+package com.fabahaba.jedipus.cluster;
+
+import com.fabahaba.jedipus.cluster.data.SlotNodes;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Slot moves between masters. A plan is inert, print it for a dry run or execute it with
+ * {@link RedisClusterExecutor#startReshard}. Executing the same plan again after a failure skips
+ * slots that already moved.
+ */
+public final class ReshardPlan {
+
+  private final List<SlotMove> moves;
+
+  private ReshardPlan(final List<SlotMove> moves) {
+    this.moves = moves;
+  }
+
+  public static ReshardPlan create(final List<SlotMove> moves) {
+    return new ReshardPlan(Collections.unmodifiableList(new ArrayList<>(moves)));
+  }
+
+  /**
+   * Plans the fewest moves that leave every master with an equal share of the assigned slots,
+   * give or take one. Masters keep their lowest slots and give up their highest.
+   *
+   * @param clusterSlots The current slot ranges, e.g. from CLUSTER SLOTS.
+   * @param masters The masters that should own slots, including new empty masters. Masters
+   *        currently serving slots but missing from this collection are drained.
+   * @return The plan.
+   */
+  public static ReshardPlan createBalanced(final SlotNodes[] clusterSlots,
+      final Collection<Node> masters) {
+
+    if (masters.isEmpty()) {
+      throw new IllegalArgumentException("At least one master must own slots.");
+    }
+
+    final Map<Node, List<Integer>> ownedSlots = new LinkedHashMap<>();
+    for (final Node master : masters) {
+      ownedSlots.put(master, new ArrayList<>());
+    }
+
+    int numSlots = 0;
+    for (final SlotNodes slotNodes : clusterSlots) {
+      final List<Integer> slots =
+          ownedSlots.computeIfAbsent(slotNodes.getMaster(), master -> new ArrayList<>());
+      for (int slot = slotNodes.getSlotBegin(); slot < slotNodes.getSlotEndExclusive(); slot++) {
+        slots.add(slot);
+      }
+      numSlots += slotNodes.getSlotEndExclusive() - slotNodes.getSlotBegin();
+    }
+    ownedSlots.values().forEach(Collections::sort);
+
+    // The masters already owning the most slots keep the remainder.
+    final List<Node> byOwnedSlots = new ArrayList<>(masters);
+    byOwnedSlots.sort(Comparator.comparingInt(master -> -ownedSlots.get(master).size()));
+    final Map<Node, Integer> targetSlots = new LinkedHashMap<>();
+    final int baseSlots = numSlots / masters.size();
+    int remainder = numSlots % masters.size();
+    for (final Node master : byOwnedSlots) {
+      targetSlots.put(master, remainder-- > 0 ? baseSlots + 1 : baseSlots);
+    }
+
+    final List<SlotMove> moves = new ArrayList<>();
+    final Iterator<Node> receivers = byOwnedSlots.iterator();
+    Node receiver = null;
+    int deficit = 0;
+
+    for (final Map.Entry<Node, List<Integer>> owner : ownedSlots.entrySet()) {
+      final List<Integer> slots = owner.getValue();
+      final int keep = targetSlots.getOrDefault(owner.getKey(), 0);
+
+      for (int i = keep; i < slots.size(); i++) {
+        while (deficit == 0) {
+          receiver = receivers.next();
+          deficit = targetSlots.get(receiver) - ownedSlots.get(receiver).size();
+          if (deficit < 0) {
+            deficit = 0;
+          }
+        }
+        moves.add(new SlotMove(slots.get(i), owner.getKey(), receiver));
+        deficit--;
+      }
+    }
+
+    return new ReshardPlan(Collections.unmodifiableList(moves));
+  }
+
+  public List<SlotMove> getMoves() {
+    return moves;
+  }
+
+  public int size() {
+    return moves.size();
+  }
+
+  /**
+   * @return Moves grouped by source and target pair, in plan order.
+   */
+  public Collection<List<SlotMove>> getMovesByNodePair() {
+    final Map<List<Node>, List<SlotMove>> pairs = new LinkedHashMap<>();
+    for (final SlotMove move : moves) {
+      final List<Node> pair = new ArrayList<>(2);
+      pair.add(move.getSource());
+      pair.add(move.getTarget());
+      pairs.computeIfAbsent(pair, p -> new ArrayList<>()).add(move);
+    }
+    return pairs.values();
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder plan =
+        new StringBuilder("ReshardPlan [numMoves=").append(moves.size()).append(", pairs={");
+    String delimiter = "";
+    for (final List<SlotMove> pair : getMovesByNodePair()) {
+      final SlotMove first = pair.get(0);
+      plan.append(delimiter).append(first.getSource()).append(" -> ").append(first.getTarget())
+          .append('=').append(pair.size());
+      delimiter = ", ";
+    }
+    return plan.append("}]").toString();
+  }
+
+  public static final class SlotMove {
+
+    private final int slot;
+    private final Node source;
+    private final Node target;
+
+    public SlotMove(final int slot, final Node source, final Node target) {
+      this.slot = slot;
+      this.source = source;
+      this.target = target;
+    }
+
+    public int getSlot() {
+      return slot;
+    }
+
+    public Node getSource() {
+      return source;
+    }
+
+    public Node getTarget() {
+      return target;
+    }
+
+    @Override
+    public String toString() {
+      return new StringBuilder("SlotMove [slot=").append(slot).append(", source=").append(source)
+          .append(", target=").append(target).append("]").toString();
+    }
+  }
+}
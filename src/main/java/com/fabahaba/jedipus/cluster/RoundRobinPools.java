@@ -20,8 +20,8 @@ class RoundRobinPools<T> implements LoadBalancedPools<T, ReadMode> {
   public ClientPool<T> next(final ReadMode readMode, final ClientPool<T> defaultPool) {
     switch (readMode) {
       case MIXED:
-        int index = roundRobinIndex
-            .getAndUpdate(previousIndex -> previousIndex == pools.length ? 0 : previousIndex + 1);
+        // A plain increment avoids the CAS retry loop of getAndUpdate under contention.
+        int index = Math.floorMod(roundRobinIndex.getAndIncrement(), pools.length + 1);
 
         if (index == pools.length) {
           return defaultPool;
@@ -30,8 +30,7 @@ class RoundRobinPools<T> implements LoadBalancedPools<T, ReadMode> {
         return pools[index];
       case MIXED_SLAVES:
       case SLAVES:
-        index = roundRobinIndex
-            .getAndUpdate(previousIndex -> ++previousIndex == pools.length ? 0 : previousIndex);
+        index = Math.floorMod(roundRobinIndex.getAndIncrement(), pools.length);
         return pools[index];
       case MASTER:
       default:
@@ -0,0 +1,286 @@
+package com.fabahaba.jedipus.cluster;
+
+import com.fabahaba.jedipus.cluster.data.ClusterSlotVotes;
+import com.fabahaba.jedipus.cluster.data.SlotNodes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.zip.CRC32;
+
+/**
+ * Persists the last cached CLUSTER SLOTS view so that new processes can route from it without
+ * waiting on discovery. The file is a small binary with a node table followed by slot ranges
+ * referencing it, and ends with a CRC32 of everything before it. Files that are missing,
+ * truncated or fail the checksum are ignored.
+ */
+final class TopologySnapshotFile {
+
+  static final long UNKNOWN_EPOCH = -1;
+
+  private static final int MAGIC = 0x4a545331; // JTS1
+  // magic, epoch, written at millis and topology length.
+  private static final int HEADER_BYTES = 4 + 8 + 8 + 4;
+  private static final int MAX_FILE_BYTES = 1 << 24;
+
+  private final Path file;
+  private byte[] persistedTopology = null;
+  private long persistedEpoch = UNKNOWN_EPOCH;
+
+  TopologySnapshotFile(final Path file) {
+    this.file = file;
+  }
+
+  Path getFile() {
+    return file;
+  }
+
+  /**
+   * @return The persisted snapshot, or null if there is no readable snapshot.
+   */
+  Snapshot load() {
+    try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      final long size = channel.size();
+      if (size < HEADER_BYTES + 4 || size > MAX_FILE_BYTES) {
+        return null;
+      }
+      final Snapshot snapshot = decode(channel.map(MapMode.READ_ONLY, 0, size));
+      if (snapshot != null) {
+        synchronized (this) {
+          persistedTopology = snapshot.topology;
+          persistedEpoch = snapshot.epoch;
+        }
+      }
+      return snapshot;
+    } catch (final NoSuchFileException noSnapshot) {
+      return null;
+    } catch (final IOException | RuntimeException corrupt) {
+      return null;
+    }
+  }
+
+  /**
+   * Writes clusterSlots unless it matches what was last loaded or written.
+   *
+   * @param clusterSlots The view to persist.
+   * @param currentEpoch Supplies the cluster's current epoch, or {@link #UNKNOWN_EPOCH}. Only
+   *        called if the view changed.
+   * @return true if the snapshot file was replaced.
+   */
+  synchronized boolean persist(final ClusterSlotVotes clusterSlots,
+      final LongSupplier currentEpoch) {
+
+    final byte[] topology = encodeTopology(clusterSlots);
+    if (Arrays.equals(topology, persistedTopology)) {
+      return false;
+    }
+
+    final long epoch = currentEpoch.getAsLong();
+    if (epoch != UNKNOWN_EPOCH && epoch < persistedEpoch) {
+      // Answered by a node that has not caught up with a view we already wrote.
+      return false;
+    }
+
+    try {
+      write(encode(epoch, System.currentTimeMillis(), topology));
+    } catch (final IOException | RuntimeException e) {
+      return false;
+    }
+
+    persistedTopology = topology;
+    if (epoch != UNKNOWN_EPOCH) {
+      persistedEpoch = epoch;
+    }
+    return true;
+  }
+
+  private void write(final byte[] snapshot) throws IOException {
+    final Path dir = file.toAbsolutePath().getParent();
+    Files.createDirectories(dir);
+
+    final Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+    try {
+      Files.write(tmp, snapshot);
+      try {
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING);
+      } catch (final AtomicMoveNotSupportedException e) {
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  static byte[] encode(final long epoch, final long writtenAtMillis, final byte[] topology) {
+    final ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + topology.length + 4);
+    buffer.putInt(MAGIC).putLong(epoch).putLong(writtenAtMillis).putInt(topology.length)
+        .put(topology);
+
+    final CRC32 crc = new CRC32();
+    crc.update(buffer.array(), 0, buffer.position());
+    buffer.putInt((int) crc.getValue());
+    return buffer.array();
+  }
+
+  static Snapshot decode(final ByteBuffer buffer) {
+    final int checksumOffset = buffer.limit() - 4;
+    final ByteBuffer checksummed = buffer.duplicate();
+    checksummed.position(0).limit(checksumOffset);
+    final CRC32 crc = new CRC32();
+    crc.update(checksummed);
+    if ((int) crc.getValue() != buffer.getInt(checksumOffset)) {
+      return null;
+    }
+
+    buffer.position(0);
+    if (buffer.getInt() != MAGIC) {
+      return null;
+    }
+
+    final long epoch = buffer.getLong();
+    final long writtenAtMillis = buffer.getLong();
+    final int topologyLength = buffer.getInt();
+    if (topologyLength != checksumOffset - HEADER_BYTES) {
+      return null;
+    }
+
+    final byte[] topology = new byte[topologyLength];
+    buffer.get(topology);
+    return new Snapshot(epoch, writtenAtMillis, topology,
+        decodeTopology(ByteBuffer.wrap(topology)));
+  }
+
+  static byte[] encodeTopology(final ClusterSlotVotes clusterSlots) {
+    final Map<Node, Integer> nodeIndexes = new HashMap<>();
+    final List<Node> nodes = new ArrayList<>();
+    for (final SlotNodes slotNodes : clusterSlots.getClusterSlots()) {
+      for (int i = 0; i < slotNodes.getNumNodesServingSlots(); i++) {
+        final Node node = slotNodes.getNode(i);
+        if (nodeIndexes.putIfAbsent(node, nodes.size()) == null) {
+          nodes.add(node);
+        }
+      }
+    }
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + nodes.size() * 64);
+    try (final DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeShort(nodes.size());
+      for (final Node node : nodes) {
+        writeString(out, node.getHost());
+        out.writeShort(node.getPort());
+        writeString(out, node.getId() == null ? "" : node.getId());
+      }
+
+      final SlotNodes[] slots = clusterSlots.getClusterSlots();
+      out.writeShort(slots.length);
+      for (final SlotNodes slotNodes : slots) {
+        out.writeShort(slotNodes.getSlotBegin());
+        out.writeShort(slotNodes.getSlotEndExclusive());
+        out.writeByte(slotNodes.getNumNodesServingSlots());
+        for (int i = 0; i < slotNodes.getNumNodesServingSlots(); i++) {
+          out.writeShort(nodeIndexes.get(slotNodes.getNode(i)).intValue());
+        }
+      }
+    } catch (final IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  static ClusterSlotVotes decodeTopology(final ByteBuffer buffer) {
+    final Node[] nodes = new Node[buffer.getChar()];
+    for (int i = 0; i < nodes.length; i++) {
+      final String host = readString(buffer);
+      final int port = buffer.getChar();
+      final String id = readString(buffer);
+      nodes[i] = id.isEmpty() ? Node.create(host, port) : Node.create(host, port, id);
+    }
+
+    final SlotNodes[] slots = new SlotNodes[buffer.getChar()];
+    for (int i = 0; i < slots.length; i++) {
+      final int slotBegin = buffer.getChar();
+      final int slotEndExclusive = buffer.getChar();
+      if (slotBegin >= slotEndExclusive || slotEndExclusive > CRC16.NUM_SLOTS) {
+        throw new IllegalArgumentException("Invalid slot range " + slotBegin + '-'
+            + slotEndExclusive);
+      }
+      final Node[] slotNodes = new Node[buffer.get() & 0xFF];
+      for (int n = 0; n < slotNodes.length; n++) {
+        slotNodes[n] = nodes[buffer.getChar()];
+      }
+      slots[i] = SlotNodes.create(slotBegin, slotEndExclusive, slotNodes);
+    }
+
+    return ClusterSlotVotes.create(slots);
+  }
+
+  private static void writeString(final DataOutputStream out, final String str)
+      throws IOException {
+    final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+    out.writeShort(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(final ByteBuffer buffer) {
+    final byte[] bytes = new byte[buffer.getChar()];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  static final class Snapshot {
+
+    private final long epoch;
+    private final long writtenAtMillis;
+    private final byte[] topology;
+    private final ClusterSlotVotes clusterSlots;
+
+    Snapshot(final long epoch, final long writtenAtMillis, final byte[] topology,
+        final ClusterSlotVotes clusterSlots) {
+      this.epoch = epoch;
+      this.writtenAtMillis = writtenAtMillis;
+      this.topology = topology;
+      this.clusterSlots = clusterSlots;
+    }
+
+    long getEpoch() {
+      return epoch;
+    }
+
+    long getWrittenAtMillis() {
+      return writtenAtMillis;
+    }
+
+    ClusterSlotVotes getClusterSlots() {
+      return clusterSlots;
+    }
+
+    @Override
+    public String toString() {
+      return new StringBuilder("Snapshot [epoch=").append(epoch).append(", writtenAtMillis=")
+          .append(writtenAtMillis).append(", clusterSlots=").append(clusterSlots).append("]")
+          .toString();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new StringBuilder("TopologySnapshotFile [file=").append(file).append("]").toString();
+  }
+}
@@ -0,0 +1,107 @@
+package com.fabahaba.jedipus.cluster;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fabahaba.jedipus.client.RedisClient;
+import com.fabahaba.jedipus.client.SerializableFunction;
+import com.fabahaba.jedipus.cluster.RedisClusterExecutor.ReadMode;
+import com.fabahaba.jedipus.concurrent.LoadBalancedPools;
+import com.fabahaba.jedipus.pool.ClientPool;
+
+/**
+ * Splits the pools serving a slot range into those in the local zone and those elsewhere, load
+ * balancing each group with the delegate factory. Reads stay in the local zone, including the
+ * master if it is local, and only spill over to other zones when the local pools are closed or
+ * have no idle clients left and at least saturatedActive clients in use.
+ */
+public final class ZoneAwareLBFactory implements LBPoolsFactory {
+
+  private static final long serialVersionUID = -6815224632164350117L;
+
+  private static final LBPoolsFactory ROUND_ROBIN_FACTORY =
+      (defaultReadMode, slavePools) -> new RoundRobinPools<>(slavePools);
+
+  private final String localZone;
+  private final SerializableFunction<Node, String> zoneMapper;
+  private final LBPoolsFactory delegate;
+  private final int saturatedActive;
+
+  private ZoneAwareLBFactory(final String localZone,
+      final SerializableFunction<Node, String> zoneMapper, final LBPoolsFactory delegate,
+      final int saturatedActive) {
+    this.localZone = localZone;
+    this.zoneMapper = zoneMapper;
+    this.delegate = delegate;
+    this.saturatedActive = saturatedActive;
+  }
+
+  public static ZoneAwareLBFactory create(final String localZone,
+      final SerializableFunction<Node, String> zoneMapper) {
+    return create(localZone, zoneMapper, ROUND_ROBIN_FACTORY, Integer.MAX_VALUE);
+  }
+
+  /**
+   * @param localZone The zone of this client.
+   * @param zoneMapper Maps a cluster node to its zone.
+   * @param delegate Used to load balance within the local group and within the remote group.
+   * @param saturatedActive Number of active clients, with none idle, at which a pool is
+   *        considered saturated. Should usually match the pool's max total.
+   * @return A new zone aware factory.
+   */
+  public static ZoneAwareLBFactory create(final String localZone,
+      final SerializableFunction<Node, String> zoneMapper, final LBPoolsFactory delegate,
+      final int saturatedActive) {
+    return new ZoneAwareLBFactory(localZone, zoneMapper, delegate, saturatedActive);
+  }
+
+  public String getLocalZone() {
+    return localZone;
+  }
+
+  boolean isLocal(final ClientPool<?> pool) {
+    return localZone.equals(zoneMapper.apply(pool.getNode()));
+  }
+
+  boolean isUsable(final ClientPool<?> pool) {
+    return pool != null && !pool.isClosed()
+        && (pool.getNumIdle() > 0 || pool.getNumActive() < saturatedActive);
+  }
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  @Override
+  public LoadBalancedPools<RedisClient, ReadMode> apply(final ReadMode defaultReadMode,
+      final ClientPool<RedisClient>[] slavePools) {
+
+    if (slavePools.length == 0) {
+      return (rm, def) -> def;
+    }
+
+    if (defaultReadMode == ReadMode.MASTER) {
+      return null;
+    }
+
+    final List<ClientPool<RedisClient>> localPools = new ArrayList<>(slavePools.length);
+    final List<ClientPool<RedisClient>> remotePools = new ArrayList<>(slavePools.length);
+    for (final ClientPool<RedisClient> pool : slavePools) {
+      if (isLocal(pool)) {
+        localPools.add(pool);
+      } else {
+        remotePools.add(pool);
+      }
+    }
+
+    return new ZoneAwarePools<>(this,
+        localPools.isEmpty() ? null
+            : delegate.apply(defaultReadMode, localPools.toArray(new ClientPool[0])),
+        remotePools.isEmpty() ? null
+            : delegate.apply(defaultReadMode, remotePools.toArray(new ClientPool[0])));
+  }
+
+  @Override
+  public String toString() {
+    return new StringBuilder("ZoneAwareLBFactory [localZone=").append(localZone)
+        .append(", delegate=").append(delegate).append(", saturatedActive=")
+        .append(saturatedActive).append("]").toString();
+  }
+}
@@ -0,0 +1,62 @@
+package com.fabahaba.jedipus.cluster;
+
+import com.fabahaba.jedipus.cluster.RedisClusterExecutor.ReadMode;
+import com.fabahaba.jedipus.concurrent.LoadBalancedPools;
+import com.fabahaba.jedipus.pool.ClientPool;
+
+final class ZoneAwarePools<T> implements LoadBalancedPools<T, ReadMode> {
+
+  private final ZoneAwareLBFactory zones;
+  private final LoadBalancedPools<T, ReadMode> localPools;
+  private final LoadBalancedPools<T, ReadMode> remotePools;
+
+  ZoneAwarePools(final ZoneAwareLBFactory zones, final LoadBalancedPools<T, ReadMode> localPools,
+      final LoadBalancedPools<T, ReadMode> remotePools) {
+    this.zones = zones;
+    this.localPools = localPools;
+    this.remotePools = remotePools;
+  }
+
+  @Override
+  public ClientPool<T> next(final ReadMode readMode, final ClientPool<T> defaultPool) {
+    switch (readMode) {
+      case MIXED:
+        final boolean localMaster = defaultPool != null && zones.isLocal(defaultPool);
+        if (localPools != null) {
+          // Only offer the master to the local group if it lives in our zone.
+          final ClientPool<T> pool = localMaster ? localPools.next(readMode, defaultPool)
+              : localPools.next(ReadMode.MIXED_SLAVES, null);
+          if (zones.isUsable(pool)) {
+            return pool;
+          }
+        } else if (localMaster && zones.isUsable(defaultPool)) {
+          return defaultPool;
+        }
+
+        return remotePools == null ? defaultPool : remotePools.next(readMode, defaultPool);
+      case MIXED_SLAVES:
+      case SLAVES:
+        ClientPool<T> pool = localPools == null ? null : localPools.next(readMode, null);
+        if (zones.isUsable(pool)) {
+          return pool;
+        }
+
+        if (readMode == ReadMode.MIXED_SLAVES && defaultPool != null && zones.isLocal(defaultPool)
+            && zones.isUsable(defaultPool)) {
+          return defaultPool;
+        }
+
+        if (remotePools != null) {
+          final ClientPool<T> remotePool = remotePools.next(readMode, null);
+          if (remotePool != null) {
+            return remotePool;
+          }
+        }
+
+        return pool;
+      case MASTER:
+      default:
+        return defaultPool;
+    }
+  }
+}
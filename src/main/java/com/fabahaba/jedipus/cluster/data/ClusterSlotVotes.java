@@ -44,6 +44,12 @@ public final class ClusterSlotVotes implements Comparable<ClusterSlotVotes>, Ser
     return new ClusterSlotVotes(clusterSlots);
   }
 
+  public static ClusterSlotVotes create(final SlotNodes[] clusterSlots) {
+    final SlotNodes[] sorted = clusterSlots.clone();
+    Arrays.sort(sorted);
+    return new ClusterSlotVotes(sorted);
+  }
+
   public SlotNodes[] getClusterSlots() {
     return clusterSlots;
   }
@@ -19,6 +19,11 @@ public final class SlotNodes implements Comparable<SlotNodes>, Serializable {
     this.nodes = nodes;
   }
 
+  public static SlotNodes create(final int slotBegin, final int slotEndExclusive,
+      final Node... nodes) {
+    return new SlotNodes(slotBegin, slotEndExclusive, nodes.clone());
+  }
+
   public int getSlotBegin() {
     return slotBegin;
   }
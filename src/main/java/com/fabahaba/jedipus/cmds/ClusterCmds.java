@@ -62,8 +62,7 @@ public interface ClusterCmds extends DirectCmds {
   }
 
   default Object[] clusterGetKeysInSlot(final int slot, final int count) {
-    return sendCmd(CLUSTER, GETKEYSINSLOT, RESP.toBytes(slot), NODE.getCmdBytes(),
-        RESP.toBytes(count));
+    return sendCmd(CLUSTER, GETKEYSINSLOT, RESP.toBytes(slot), RESP.toBytes(count));
   }
 
   default String clusterSetSlotNode(final int slot, final String nodeId) {
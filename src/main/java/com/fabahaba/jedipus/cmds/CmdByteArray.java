@@ -89,6 +89,12 @@ public class CmdByteArray<R> {
       return this;
     }
 
+    public Builder<R> addSlotKey(final RedisKey key) {
+      this.slot = key.getSlot();
+      addArg(key.getBytes());
+      return this;
+    }
+
     public Builder<R> setSlot(final int slot) {
       this.slot = slot;
       return this;
@@ -1,7 +1,8 @@
 package com.fabahaba.jedipus.cmds;
 
 public interface Cmds extends LCmds, SCmds, HCmds, ZCmds, PFCmds, GeoCmds, ClusterCmds,
-    ScriptingCmds, ServerCmds, PubSubCmds, ConnCmds, StringCmds, ModuleCmds, LatencyCmds {
+    ScriptingCmds, ServerCmds, PubSubCmds, ConnCmds, StringCmds, ModuleCmds, LatencyCmds,
+    SentinelCmds {
 
   // http://redis.io/commands#generic
   Cmd<Long> DEL = Cmd.createCast("DEL");
@@ -40,5 +41,6 @@ public interface Cmds extends LCmds, SCmds, HCmds, ZCmds, PFCmds, GeoCmds, Clust
   Cmd<Long> TTL = Cmd.createCast("TTL");
   Cmd<Long> TOUCH = Cmd.createCast("TOUCH");
   Cmd<String> TYPE = Cmd.createStringReply("TYPE");
+  Cmd<Long> UNLINK = Cmd.createCast("UNLINK");
   Cmd<Long> WAIT = Cmd.createCast("WAIT");
 }
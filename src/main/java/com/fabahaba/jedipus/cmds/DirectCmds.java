@@ -34,6 +34,18 @@ public interface DirectCmds extends DirectPrimCmds {
     return sendCmd(cmd, RESP.toBytes(arg1), RESP.toBytes(arg2));
   }
 
+  default <T> T sendCmd(final Cmd<T> cmd, final RedisKey key) {
+    return sendCmd(cmd, key.getBytes());
+  }
+
+  default <T> T sendCmd(final Cmd<T> cmd, final RedisKey key, final byte[]... args) {
+    return sendCmd(cmd, key.withArgs(args));
+  }
+
+  default <T> T sendCmd(final Cmd<?> cmd, final Cmd<T> subCmd, final RedisKey key) {
+    return sendCmd(cmd, subCmd, key.getBytes());
+  }
+
   <T> T sendCmd(final Cmd<T> cmd, final String... args);
 
   <T> T sendCmd(final Cmd<T> cmd, final Collection<String> args);
@@ -34,6 +34,18 @@ public interface DirectPrimCmds {
     return sendCmd(cmd, RESP.toBytes(arg1), RESP.toBytes(arg2));
   }
 
+  default long sendCmd(final PrimCmd cmd, final RedisKey key) {
+    return sendCmd(cmd, key.getBytes());
+  }
+
+  default long sendCmd(final PrimCmd cmd, final RedisKey key, final byte[]... args) {
+    return sendCmd(cmd, key.withArgs(args));
+  }
+
+  default long sendCmd(final Cmd<?> cmd, final PrimCmd subCmd, final RedisKey key) {
+    return sendCmd(cmd, subCmd, key.getBytes());
+  }
+
   long sendCmd(final PrimCmd cmd, final String... args);
 
   long sendCmd(final PrimCmd cmd, final Collection<String> args);
@@ -92,6 +104,18 @@ public interface DirectPrimCmds {
     return sendCmd(cmd, RESP.toBytes(arg1), RESP.toBytes(arg2));
   }
 
+  default long[] sendCmd(final PrimArrayCmd cmd, final RedisKey key) {
+    return sendCmd(cmd, key.getBytes());
+  }
+
+  default long[] sendCmd(final PrimArrayCmd cmd, final RedisKey key, final byte[]... args) {
+    return sendCmd(cmd, key.withArgs(args));
+  }
+
+  default long[] sendCmd(final Cmd<?> cmd, final PrimArrayCmd subCmd, final RedisKey key) {
+    return sendCmd(cmd, subCmd, key.getBytes());
+  }
+
   long[] sendCmd(final PrimArrayCmd cmd, final String... args);
 
   long[] sendCmd(final PrimArrayCmd cmd, final Collection<String> args);
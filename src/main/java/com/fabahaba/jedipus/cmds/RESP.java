@@ -39,6 +39,14 @@ public final class RESP {
     return string.getBytes(StandardCharsets.UTF_8);
   }
 
+  public static byte[][] toBytes(final String... strings) {
+    final byte[][] bytes = new byte[strings.length][];
+    for (int i = 0; i < strings.length; i++) {
+      bytes[i] = toBytes(strings[i]);
+    }
+    return bytes;
+  }
+
   public static String toString(final Object bytes) {
     return toString((byte[]) bytes);
   }
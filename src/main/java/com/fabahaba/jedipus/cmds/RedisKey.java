@@ -0,0 +1,118 @@
+package com.fabahaba.jedipus.cmds;
+
+import com.fabahaba.jedipus.cluster.CRC16;
+import com.fabahaba.jedipus.exceptions.RedisUnhandledException;
+
+import java.util.Arrays;
+
+/**
+ * A key whose encoded bytes, hash tag bounds and cluster slot are computed once at creation.
+ * Intended for long lived keys that are sent frequently, such as configuration or counters.
+ *
+ * <p>The byte[] backing a key is shared, not copied, and must not be modified.
+ */
+public final class RedisKey {
+
+  private final byte[] bytes;
+  private final int hashTagBegin;
+  private final int hashTagEnd;
+  private final int slot;
+  private final int hashCode;
+
+  private RedisKey(final byte[] bytes) {
+    this.bytes = bytes;
+
+    int begin = 0;
+    int end = bytes.length;
+    for (int s = 0; s < bytes.length; s++) {
+      if (bytes[s] == '{') {
+        for (int e = s + 1; e < bytes.length; e++) {
+          if (bytes[e] == '}') {
+            if (e > s + 1) {
+              begin = s + 1;
+              end = e;
+            }
+            break;
+          }
+        }
+        break;
+      }
+    }
+
+    this.hashTagBegin = begin;
+    this.hashTagEnd = end;
+    this.slot = CRC16.getCRC16(bytes, begin, end) & CRC16.MAX_SLOT;
+    this.hashCode = Arrays.hashCode(bytes);
+  }
+
+  public static RedisKey create(final String key) {
+    return new RedisKey(RESP.toBytes(key));
+  }
+
+  public static RedisKey create(final byte[] key) {
+    if (key == null) {
+      throw new RedisUnhandledException(null, "Values sent to redis cannot be null.");
+    }
+    return new RedisKey(key);
+  }
+
+  public byte[] getBytes() {
+    return bytes;
+  }
+
+  /**
+   * @return The index of the first byte hashed to compute the slot; 0 if the key has no hash tag.
+   */
+  public int getHashTagBegin() {
+    return hashTagBegin;
+  }
+
+  /**
+   * @return The exclusive end of the bytes hashed to compute the slot; the key length if the key
+   *         has no hash tag.
+   */
+  public int getHashTagEnd() {
+    return hashTagEnd;
+  }
+
+  public boolean hasHashTag() {
+    return hashTagEnd - hashTagBegin != bytes.length;
+  }
+
+  public int getSlot() {
+    return slot;
+  }
+
+  /**
+   * @param args Arguments following this key.
+   * @return This key's bytes followed by args.
+   */
+  public byte[][] withArgs(final byte[]... args) {
+    final byte[][] keyArgs = new byte[args.length + 1][];
+    keyArgs[0] = bytes;
+    System.arraycopy(args, 0, keyArgs, 1, args.length);
+    return keyArgs;
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (other == null || getClass() != other.getClass()) {
+      return false;
+    }
+    final RedisKey castOther = (RedisKey) other;
+    return hashCode == castOther.hashCode && Arrays.equals(bytes, castOther.bytes);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    return RESP.toString(bytes);
+  }
+}
@@ -0,0 +1,17 @@
+package com.fabahaba.jedipus.cmds;
+
+public interface SentinelCmds extends DirectCmds {
+
+  default Object[] sentinelGetMasterAddrByName(final String masterName) {
+    return sendCmd(SENTINEL, GET_MASTER_ADDR_BY_NAME, masterName);
+  }
+
+  default Object[] sentinelSlaves(final String masterName) {
+    return sendCmd(SENTINEL, SENTINEL_SLAVES, masterName);
+  }
+
+  // http://redis.io/topics/sentinel
+  Cmd<Object> SENTINEL = Cmd.create("SENTINEL");
+  Cmd<Object[]> GET_MASTER_ADDR_BY_NAME = Cmd.createCast("GET-MASTER-ADDR-BY-NAME");
+  Cmd<Object[]> SENTINEL_SLAVES = Cmd.createCast("SLAVES");
+}
@@ -6,6 +6,7 @@ import com.fabahaba.jedipus.client.FutureReply;
 import com.fabahaba.jedipus.cmds.Cmd;
 import com.fabahaba.jedipus.cmds.CmdByteArray;
 import com.fabahaba.jedipus.cmds.RESP;
+import com.fabahaba.jedipus.cmds.RedisKey;
 
 public interface PipelineDirectCmds extends PipelineDirectPrimCmds {
 
@@ -39,6 +40,18 @@ public interface PipelineDirectCmds extends PipelineDirectPrimCmds {
     return sendCmd(cmd, RESP.toBytes(arg1), RESP.toBytes(arg2));
   }
 
+  default <T> FutureReply<T> sendCmd(final Cmd<T> cmd, final RedisKey key) {
+    return sendCmd(cmd, key.getBytes());
+  }
+
+  default <T> FutureReply<T> sendCmd(final Cmd<T> cmd, final RedisKey key, final byte[]... args) {
+    return sendCmd(cmd, key.withArgs(args));
+  }
+
+  default <T> FutureReply<T> sendCmd(final Cmd<?> cmd, final Cmd<T> subCmd, final RedisKey key) {
+    return sendCmd(cmd, subCmd, key.getBytes());
+  }
+
   <T> FutureReply<T> sendCmd(final Cmd<T> cmd, final String... args);
 
   <T> FutureReply<T> sendCmd(final Cmd<T> cmd, final Collection<String> args);
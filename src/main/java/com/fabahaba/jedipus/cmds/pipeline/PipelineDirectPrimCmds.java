@@ -9,6 +9,7 @@ import com.fabahaba.jedipus.cmds.CmdByteArray;
 import com.fabahaba.jedipus.cmds.PrimArrayCmd;
 import com.fabahaba.jedipus.cmds.PrimCmd;
 import com.fabahaba.jedipus.cmds.RESP;
+import com.fabahaba.jedipus.cmds.RedisKey;
 
 public interface PipelineDirectPrimCmds {
 
@@ -42,6 +43,18 @@ public interface PipelineDirectPrimCmds {
     return sendCmd(cmd, RESP.toBytes(arg1), RESP.toBytes(arg2));
   }
 
+  default FutureLongReply sendCmd(final PrimCmd cmd, final RedisKey key) {
+    return sendCmd(cmd, key.getBytes());
+  }
+
+  default FutureLongReply sendCmd(final PrimCmd cmd, final RedisKey key, final byte[]... args) {
+    return sendCmd(cmd, key.withArgs(args));
+  }
+
+  default FutureLongReply sendCmd(final Cmd<?> cmd, final PrimCmd subCmd, final RedisKey key) {
+    return sendCmd(cmd, subCmd, key.getBytes());
+  }
+
   FutureLongReply sendCmd(final PrimCmd cmd, final String... args);
 
   FutureLongReply sendCmd(final PrimCmd cmd, final Collection<String> args);
@@ -79,6 +92,20 @@ public interface PipelineDirectPrimCmds {
     return sendCmd(cmd, RESP.toBytes(arg1), RESP.toBytes(arg2));
   }
 
+  default FutureReply<long[]> sendCmd(final PrimArrayCmd cmd, final RedisKey key) {
+    return sendCmd(cmd, key.getBytes());
+  }
+
+  default FutureReply<long[]> sendCmd(final PrimArrayCmd cmd, final RedisKey key,
+      final byte[]... args) {
+    return sendCmd(cmd, key.withArgs(args));
+  }
+
+  default FutureReply<long[]> sendCmd(final Cmd<?> cmd, final PrimArrayCmd subCmd,
+      final RedisKey key) {
+    return sendCmd(cmd, subCmd, key.getBytes());
+  }
+
   FutureReply<long[]> sendCmd(final PrimArrayCmd cmd, final String... args);
 
   FutureReply<long[]> sendCmd(final PrimArrayCmd cmd, final Collection<String> args);
@@ -0,0 +1,171 @@
+package com.fabahaba.jedipus.concurrent;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fabahaba.jedipus.client.SerializableFunction;
+import com.fabahaba.jedipus.cluster.Node;
+import com.fabahaba.jedipus.exceptions.RedisCircuitOpenException;
+
+/**
+ * Never sleeps. Each element's circuit opens after failureThreshold consecutive failures, after
+ * which requests are rejected with a {@link RedisCircuitOpenException} until openDuration has
+ * passed. A single probe request is then let through; its success closes the circuit and its
+ * failure re-opens it.
+ */
+final class CircuitBreakerRetryDelay<E> implements ElementRetryDelay<E>, Serializable {
+
+  private static final long serialVersionUID = -3357520512457713412L;
+
+  private final ConcurrentHashMap<E, Circuit> circuits;
+  private final int failureThreshold;
+  private final long openNanos;
+  private final SerializableFunction<E, Circuit> circuitFactory;
+
+  CircuitBreakerRetryDelay(final int failureThreshold, final Duration openDuration) {
+    this.circuits = new ConcurrentHashMap<>();
+    this.failureThreshold = failureThreshold;
+    this.openNanos = openDuration.toNanos();
+    this.circuitFactory = e -> new Circuit();
+  }
+
+  @Override
+  public void markAttempt(final E element) {
+    if (circuits.isEmpty()) {
+      return;
+    }
+
+    final Circuit circuit = circuits.get(element);
+    if (circuit != null && !circuit.tryAttempt(System.nanoTime(), openNanos)) {
+      throw new RedisCircuitOpenException(toNode(element), "Circuit open for " + element);
+    }
+  }
+
+  @Override
+  public long markFailure(final E element, final long maxRetries, final RuntimeException cause,
+      final long retry) {
+
+    if (element != null) {
+      final Circuit circuit = circuits.computeIfAbsent(element, circuitFactory);
+      if (circuit.failed(System.nanoTime(), failureThreshold)) {
+        throw new RedisCircuitOpenException(toNode(element), "Circuit open for " + element,
+            cause);
+      }
+    }
+
+    if (retry >= maxRetries) {
+      throw cause;
+    }
+
+    return retry + 1;
+  }
+
+  @Override
+  public long markFailureDelay(final E element, final long maxRetries,
+      final RuntimeException cause, final long retry) {
+    markFailure(element, maxRetries, cause, retry);
+    return 0;
+  }
+
+  @Override
+  public void markSuccess(final E element) {
+    if (!circuits.isEmpty()) {
+      circuits.remove(element);
+    }
+  }
+
+  @Override
+  public void clear(final E element) {
+    circuits.remove(element);
+  }
+
+  @Override
+  public long getNumFailures(final E element) {
+    final Circuit circuit = circuits.get(element);
+    return circuit == null ? 0 : circuit.getNumFailures();
+  }
+
+  boolean isOpen(final E element) {
+    final Circuit circuit = circuits.get(element);
+    return circuit != null && circuit.state != State.CLOSED;
+  }
+
+  private static Node toNode(final Object element) {
+    return element instanceof Node ? (Node) element : null;
+  }
+
+  private static enum State {
+    CLOSED, OPEN, HALF_OPEN
+  }
+
+  private static final class Circuit implements Serializable {
+
+    private static final long serialVersionUID = -1451389367051853493L;
+
+    private volatile State state = State.CLOSED;
+    private long numFailures = 0;
+    // Start of the open period, or of the probe while half open.
+    private long sinceNanos;
+
+    boolean tryAttempt(final long now, final long openNanos) {
+      if (state == State.CLOSED) {
+        return true;
+      }
+
+      synchronized (this) {
+        switch (state) {
+          case OPEN:
+          case HALF_OPEN:
+            // A probe that never reported back is replaced after another open period.
+            if (now - sinceNanos < openNanos) {
+              return false;
+            }
+            state = State.HALF_OPEN;
+            sinceNanos = now;
+            return true;
+          case CLOSED:
+          default:
+            return true;
+        }
+      }
+    }
+
+    synchronized boolean failed(final long now, final int failureThreshold) {
+      numFailures++;
+      switch (state) {
+        case CLOSED:
+          if (numFailures < failureThreshold) {
+            return false;
+          }
+          sinceNanos = now;
+          state = State.OPEN;
+          return true;
+        case HALF_OPEN:
+          sinceNanos = now;
+          state = State.OPEN;
+          return true;
+        case OPEN:
+        default:
+          return true;
+      }
+    }
+
+    synchronized long getNumFailures() {
+      return numFailures;
+    }
+
+    @Override
+    public synchronized String toString() {
+      return new StringBuilder("Circuit [state=").append(state).append(", numFailures=")
+          .append(numFailures).append("]").toString();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new StringBuilder("CircuitBreakerRetryDelay [failureThreshold=")
+        .append(failureThreshold).append(", openNanos=").append(openNanos)
+        .append(", circuits=").append(circuits).append("]").toString();
+  }
+}
@@ -41,6 +41,48 @@ public interface ElementRetryDelay<E> {
   long markFailure(final E element, final long maxRetries, final RuntimeException cause,
       long retry);
 
+  /**
+   * Like {@link #markFailure(Object, long, RuntimeException, long)}, but should not block past the
+   * given deadline. The caller is expected to check the deadline once this returns. The default
+   * implementation ignores the deadline.
+   * 
+   * @param element The element for the current failed request.
+   * @param maxRetries The maximum number of retries before the given exception is thrown.
+   * @param cause The current failure cause.
+   * @param retry The current requests' retry count, starting at zero, against this element.
+   * @param deadlineNanos The {@link System#nanoTime()} value after which this should not block.
+   * @return The retry value that should be used in the next execution loop.
+   */
+  default long markFailure(final E element, final long maxRetries, final RuntimeException cause,
+      final long retry, final long deadlineNanos) {
+    return markFailure(element, maxRetries, cause, retry);
+  }
+
+  /**
+   * A non-blocking {@link #markFailure(Object, long, RuntimeException, long)}. Rather than blocking,
+   * it returns how long the caller should wait before its next attempt. The default implementation
+   * delegates to the blocking markFailure and returns zero.
+   * 
+   * @param element The element for the current failed request.
+   * @param maxRetries The maximum number of retries before the given exception is thrown.
+   * @param cause The current failure cause.
+   * @param retry The current requests' retry count, starting at zero, against this element.
+   * @return The number of nanoseconds to wait before retrying.
+   */
+  default long markFailureDelay(final E element, final long maxRetries,
+      final RuntimeException cause, final long retry) {
+    markFailure(element, maxRetries, cause, retry);
+    return 0;
+  }
+
+  /**
+   * Called before each request against an element. Implementations may throw to reject the
+   * request without it being attempted. The default implementation accepts every request.
+   * 
+   * @param element The element the request is about to be sent to.
+   */
+  default void markAttempt(final E element) {}
+
   /**
    * Called after a successful request immediately following a failed request.
    * 
@@ -128,6 +170,8 @@ public interface ElementRetryDelay<E> {
     private SerializableLongFunction<Duration> delayFunction;
     private Duration maxDelay;
     private int numConurrentRetries = 1;
+    private int failureThreshold = 5;
+    private Duration openDuration;
 
     private Builder() {}
 
@@ -144,6 +188,19 @@ public interface ElementRetryDelay<E> {
       return new SemaphoredRetryDelay<>(numConurrentRetries, delayFunction);
     }
 
+    /**
+     * @return A retry delay that never blocks. Once an element has failureThreshold consecutive
+     *         failures its requests are rejected with a RedisCircuitOpenException for the open
+     *         duration, after which a single probe request is let through.
+     */
+    public ElementRetryDelay<Node> createCircuitBreaker() {
+      if (openDuration == null) {
+        openDuration = Duration.ofMillis(2000);
+      }
+
+      return new CircuitBreakerRetryDelay<>(failureThreshold, openDuration);
+    }
+
     public LongFunction<Duration> getDelayFunction() {
       return delayFunction;
     }
@@ -180,11 +237,30 @@ public interface ElementRetryDelay<E> {
       return this;
     }
 
+    public int getFailureThreshold() {
+      return failureThreshold;
+    }
+
+    public Builder withFailureThreshold(final int failureThreshold) {
+      this.failureThreshold = failureThreshold;
+      return this;
+    }
+
+    public Duration getOpenDuration() {
+      return openDuration;
+    }
+
+    public Builder withOpenDuration(final Duration openDuration) {
+      this.openDuration = openDuration;
+      return this;
+    }
+
     @Override
     public String toString() {
       return new StringBuilder("Builder [maxDelay=").append(maxDelay)
           .append(", numConurrentRetries=").append(numConurrentRetries).append(", baseDelayMillis=")
-          .append(baseDelayMillis).append("]").toString();
+          .append(baseDelayMillis).append(", failureThreshold=").append(failureThreshold)
+          .append(", openDuration=").append(openDuration).append("]").toString();
     }
   }
 }
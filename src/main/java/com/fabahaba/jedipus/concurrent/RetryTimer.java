@@ -0,0 +1,59 @@
+package com.fabahaba.jedipus.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A single shared timer thread used to delay asynchronous retries. The timer only hands tasks
+ * back to the caller's executor, so no thread is parked while backing off.
+ */
+public final class RetryTimer {
+
+  private RetryTimer() {}
+
+  private static final class TimerHolder {
+
+    private static final ScheduledExecutorService TIMER = createTimer();
+
+    private static ScheduledExecutorService createTimer() {
+      final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+        final Thread thread = new Thread(runnable, "jedipus-retry-timer");
+        thread.setDaemon(true);
+        return thread;
+      });
+      timer.setRemoveOnCancelPolicy(true);
+      return timer;
+    }
+  }
+
+  /**
+   * @param task The retry to run.
+   * @param delayNanos How long to wait before handing the task to the executor.
+   * @param executor Runs the task.
+   * @param future Completed exceptionally if the executor rejects the task.
+   */
+  public static void schedule(final Runnable task, final long delayNanos, final Executor executor,
+      final CompletableFuture<?> future) {
+
+    if (delayNanos <= 0) {
+      execute(task, executor, future);
+      return;
+    }
+
+    TimerHolder.TIMER.schedule(() -> execute(task, executor, future), delayNanos,
+        TimeUnit.NANOSECONDS);
+  }
+
+  private static void execute(final Runnable task, final Executor executor,
+      final CompletableFuture<?> future) {
+    try {
+      executor.execute(task);
+    } catch (final RejectedExecutionException rejected) {
+      future.completeExceptionally(rejected);
+    }
+  }
+}
@@ -4,6 +4,7 @@ import java.io.Serializable;
 import java.time.Duration;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.LongAdder;
 
 import com.fabahaba.jedipus.client.SerializableFunction;
@@ -27,6 +28,17 @@ final class SemaphoredRetryDelay<E> implements ElementRetryDelay<E>, Serializabl
   @Override
   public long markFailure(final E element, final long maxRetries, final RuntimeException cause,
       final long retry) {
+    return markFailure(element, maxRetries, cause, retry, false, 0);
+  }
+
+  @Override
+  public long markFailure(final E element, final long maxRetries, final RuntimeException cause,
+      final long retry, final long deadlineNanos) {
+    return markFailure(element, maxRetries, cause, retry, true, deadlineNanos);
+  }
+
+  private long markFailure(final E element, final long maxRetries, final RuntimeException cause,
+      final long retry, final boolean bounded, final long deadlineNanos) {
 
     if (element == null) {
       if (retry >= maxRetries) {
@@ -47,7 +59,33 @@ final class SemaphoredRetryDelay<E> implements ElementRetryDelay<E>, Serializabl
       throw cause;
     }
 
-    return delay(retrySemaphore);
+    return bounded ? delay(retrySemaphore, deadlineNanos) : delay(retrySemaphore);
+  }
+
+  @Override
+  public long markFailureDelay(final E element, final long maxRetries,
+      final RuntimeException cause, final long retry) {
+
+    if (element == null) {
+      if (retry >= maxRetries) {
+        throw cause;
+      }
+      return 0;
+    }
+
+    final RetrySemaphore retrySemaphore =
+        retrySemaphores.computeIfAbsent(element, retrySemaphoreFactory);
+
+    final long numFailures = retrySemaphore.incrAndGet();
+    if (numFailures == 1) {
+      return 0;
+    }
+
+    if (numFailures > maxRetries) {
+      throw cause;
+    }
+
+    return delayFunction.apply(numFailures).toNanos();
   }
 
   private long delay(final RetrySemaphore retrySemaphore) {
@@ -65,6 +103,34 @@ final class SemaphoredRetryDelay<E> implements ElementRetryDelay<E>, Serializabl
     }
   }
 
+  private long delay(final RetrySemaphore retrySemaphore, final long deadlineNanos) {
+    final long remainingNanos = deadlineNanos - System.nanoTime();
+    if (remainingNanos <= 0) {
+      return retrySemaphore.failureAdder.sum();
+    }
+
+    try {
+      if (!retrySemaphore.semaphore.tryAcquire(remainingNanos, TimeUnit.NANOSECONDS)) {
+        return retrySemaphore.failureAdder.sum();
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+
+    try {
+      final long numFailures = retrySemaphore.failureAdder.sum();
+      final long delayNanos = delayFunction.apply(numFailures).toNanos();
+      TimeUnit.NANOSECONDS.sleep(Math.min(delayNanos, deadlineNanos - System.nanoTime()));
+      return numFailures;
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } finally {
+      retrySemaphore.semaphore.release();
+    }
+  }
+
   @Override
   public void markSuccess(final E element) {
     if (!retrySemaphores.isEmpty()) {
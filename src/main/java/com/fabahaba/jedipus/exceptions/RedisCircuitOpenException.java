@@ -0,0 +1,16 @@
+package com.fabahaba.jedipus.exceptions;
+
+import com.fabahaba.jedipus.cluster.Node;
+
+@SuppressWarnings("serial")
+public class RedisCircuitOpenException extends RedisUnhandledException {
+
+  public RedisCircuitOpenException(final Node node, final String message) {
+    super(node, message);
+  }
+
+  public RedisCircuitOpenException(final Node node, final String message,
+      final Throwable cause) {
+    super(node, message, cause);
+  }
+}
@@ -0,0 +1,16 @@
+package com.fabahaba.jedipus.exceptions;
+
+import com.fabahaba.jedipus.cluster.Node;
+
+@SuppressWarnings("serial")
+public class RedisDeadlineExceededException extends RedisUnhandledException {
+
+  public RedisDeadlineExceededException(final Node node, final String message) {
+    super(node, message);
+  }
+
+  public RedisDeadlineExceededException(final Node node, final String message,
+      final Throwable cause) {
+    super(node, message, cause);
+  }
+}
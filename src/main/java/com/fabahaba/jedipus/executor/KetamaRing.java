@@ -0,0 +1,168 @@
+package com.fabahaba.jedipus.executor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Immutable ketama style consistent hash ring. Each shard name is hashed into numVirtualNodes
+ * points with MD5, so adding or removing a shard only moves the keys between its points and
+ * their predecessors. Lookups use a table indexed by the top bits of the key hash to jump close to
+ * the owning point instead of binary searching the ring.
+ */
+final class KetamaRing {
+
+  private static final int LOOKUP_BITS = 16;
+  private static final int LOOKUP_SHIFT = 32 - LOOKUP_BITS;
+
+  private final String[] shards;
+  // Unsigned 32 bit points in ascending order, with the index of the owning shard for each.
+  private final long[] points;
+  private final int[] owners;
+  // For each top LOOKUP_BITS prefix, the first point at or above that prefix.
+  private final int[] lookup;
+
+  KetamaRing(final String[] shards, final int numVirtualNodes) {
+    this.shards = shards;
+
+    final int pointsPerShard = (numVirtualNodes + 3) & ~3;
+    final long[] ordered = new long[shards.length * pointsPerShard];
+    final MessageDigest md5 = md5();
+
+    for (int shard = 0, point = 0; shard < shards.length; shard++) {
+      for (int vnode = 0; vnode < pointsPerShard / 4; vnode++) {
+        final byte[] digest =
+            md5.digest((shards[shard] + '-' + vnode).getBytes(StandardCharsets.UTF_8));
+        for (int h = 0; h < 4; h++) {
+          final long hash = (digest[3 + h * 4] & 0xFFL) << 24 | (digest[2 + h * 4] & 0xFFL) << 16
+              | (digest[1 + h * 4] & 0xFFL) << 8 | (digest[h * 4] & 0xFFL);
+          // Pack the shard index below the point so ties resolve the same way on every client.
+          ordered[point++] = hash << 31 | shard;
+        }
+      }
+    }
+    Arrays.sort(ordered);
+
+    this.points = new long[ordered.length];
+    this.owners = new int[ordered.length];
+    for (int i = 0; i < ordered.length; i++) {
+      points[i] = ordered[i] >>> 31;
+      owners[i] = (int) (ordered[i] & Integer.MAX_VALUE);
+    }
+
+    this.lookup = new int[1 << LOOKUP_BITS];
+    for (int prefix = 0, i = 0; prefix < lookup.length; prefix++) {
+      final long start = (long) prefix << LOOKUP_SHIFT;
+      while (i < points.length && points[i] < start) {
+        i++;
+      }
+      lookup[prefix] = i;
+    }
+  }
+
+  int getShardIndex(final byte[] key) {
+    return getShardIndex(hash(key) & 0xFFFFFFFFL);
+  }
+
+  int getShardIndex(final long hash) {
+    if (points.length == 0) {
+      throw new IllegalStateException("No shards available.");
+    }
+
+    int i = lookup[(int) (hash >>> LOOKUP_SHIFT)];
+    while (i < points.length && points[i] < hash) {
+      i++;
+    }
+    return owners[i == points.length ? 0 : i];
+  }
+
+  String getShard(final byte[] key) {
+    return shards[getShardIndex(key)];
+  }
+
+  String[] getShards() {
+    return shards;
+  }
+
+  int getNumShards() {
+    return shards.length;
+  }
+
+  private static MessageDigest md5() {
+    try {
+      return MessageDigest.getInstance("MD5");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  // Murmur3 x86 32 bit over the key's {hash tag} if it has one, so that related keys can be
+  // placed on the same shard just as with Redis Cluster slots.
+  @SuppressWarnings("fallthrough")
+  static int hash(final byte[] key) {
+    int from = 0;
+    int to = key.length;
+
+    for (int i = 0, end = key.length - 2; i < end;) {
+      if (key[i++] == '{') {
+        for (final int s = i; i < key.length; i++) {
+          if (key[i] == '}') {
+            if (i > s) {
+              from = s;
+              to = i;
+            }
+            break;
+          }
+        }
+        break;
+      }
+    }
+
+    int h = 0x9747b28c;
+    final int blocksEnd = from + ((to - from) & ~3);
+    for (int i = from; i < blocksEnd; i += 4) {
+      int k = (key[i] & 0xFF) | (key[i + 1] & 0xFF) << 8 | (key[i + 2] & 0xFF) << 16
+          | key[i + 3] << 24;
+      k *= 0xcc9e2d51;
+      k = Integer.rotateLeft(k, 15);
+      k *= 0x1b873593;
+      h ^= k;
+      h = Integer.rotateLeft(h, 13);
+      h = h * 5 + 0xe6546b64;
+    }
+
+    int k = 0;
+    switch ((to - from) & 3) {
+      case 3:
+        k ^= (key[blocksEnd + 2] & 0xFF) << 16;
+        // fall through
+      case 2:
+        k ^= (key[blocksEnd + 1] & 0xFF) << 8;
+        // fall through
+      case 1:
+        k ^= key[blocksEnd] & 0xFF;
+        k *= 0xcc9e2d51;
+        k = Integer.rotateLeft(k, 15);
+        k *= 0x1b873593;
+        h ^= k;
+        break;
+      default:
+        break;
+    }
+
+    h ^= to - from;
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    h ^= h >>> 16;
+    return h;
+  }
+
+  @Override
+  public String toString() {
+    return new StringBuilder("KetamaRing [shards=").append(Arrays.toString(shards))
+        .append(", numPoints=").append(points.length).append("]").toString();
+  }
+}
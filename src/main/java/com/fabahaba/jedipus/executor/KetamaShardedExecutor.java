@@ -0,0 +1,284 @@
+package com.fabahaba.jedipus.executor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import com.fabahaba.jedipus.client.FutureLongReply;
+import com.fabahaba.jedipus.client.FutureReply;
+import com.fabahaba.jedipus.client.RedisClient;
+import com.fabahaba.jedipus.client.RedisPipeline;
+import com.fabahaba.jedipus.cmds.Cmd;
+import com.fabahaba.jedipus.cmds.Cmds;
+
+final class KetamaShardedExecutor implements ShardedRedisExecutor {
+
+  private final int numVirtualNodes;
+  private final ExecutorService executor;
+
+  // Replaced as a whole on membership changes so that lookups never lock.
+  private volatile Shards shards;
+
+  KetamaShardedExecutor(final Map<String, RedisClientExecutor> shards, final int numVirtualNodes,
+      final ExecutorService executor) {
+
+    this.numVirtualNodes = numVirtualNodes;
+    this.executor = executor;
+    this.shards = new Shards(new TreeMap<>(shards), numVirtualNodes);
+  }
+
+  @Override
+  public String getShardName(final byte[] key) {
+    return shards.ring.getShard(key);
+  }
+
+  @Override
+  public RedisClientExecutor getShard(final byte[] key) {
+    final Shards shards = this.shards;
+    return shards.executors[shards.ring.getShardIndex(key)];
+  }
+
+  @Override
+  public Map<String, RedisClientExecutor> getShards() {
+    final Shards shards = this.shards;
+    final Map<String, RedisClientExecutor> shardMap = new LinkedHashMap<>(shards.executors.length);
+    for (int i = 0; i < shards.executors.length; i++) {
+      shardMap.put(shards.ring.getShards()[i], shards.executors[i]);
+    }
+    return shardMap;
+  }
+
+  @Override
+  public synchronized RedisClientExecutor addShard(final String name,
+      final RedisClientExecutor executor) {
+
+    final Map<String, RedisClientExecutor> shardMap = new TreeMap<>(getShards());
+    final RedisClientExecutor previous = shardMap.put(name, executor);
+    shards = new Shards(shardMap, numVirtualNodes);
+    return previous;
+  }
+
+  @Override
+  public synchronized RedisClientExecutor removeShard(final String name) {
+    final Map<String, RedisClientExecutor> shardMap = new TreeMap<>(getShards());
+    final RedisClientExecutor removed = shardMap.remove(name);
+    if (removed != null) {
+      shards = new Shards(shardMap, numVirtualNodes);
+    }
+    return removed;
+  }
+
+  @Override
+  public <R> Map<String, R> applyAll(final Function<RedisClient, R> clientConsumer) {
+    final Shards shards = this.shards;
+    final int[] all = new int[shards.executors.length];
+    Arrays.fill(all, 1);
+    return scatter(shards, all, index -> shards.executors[index].apply(clientConsumer));
+  }
+
+  @Override
+  public <R> Map<String, R> applyPipelines(final byte[][] keys, final int stride,
+      final BiFunction<RedisPipeline, int[], R> pipelineConsumer) {
+
+    final Shards shards = this.shards;
+    return applyPipelines(shards, shards.group(keys, stride), pipelineConsumer);
+  }
+
+  @Override
+  public Object[] mget(final byte[]... keys) {
+    final Object[] values = new Object[keys.length];
+    if (keys.length == 0) {
+      return values;
+    }
+
+    final Shards shards = this.shards;
+    final int[][] groups = shards.group(keys, 1);
+
+    final Map<String, Object[]> replies = applyPipelines(shards, groups, (pipeline, indexes) -> {
+      final byte[][] args = new byte[indexes.length][];
+      for (int i = 0; i < indexes.length; i++) {
+        args[i] = keys[indexes[i]];
+      }
+      final FutureReply<Object[]> reply = pipeline.sendCmd(Cmds.MGET, args);
+      pipeline.syncThrow();
+      return reply.get();
+    });
+
+    for (int shard = 0; shard < groups.length; shard++) {
+      final int[] indexes = groups[shard];
+      if (indexes.length == 0) {
+        continue;
+      }
+      final Object[] reply = replies.get(shards.ring.getShards()[shard]);
+      for (int i = 0; i < indexes.length; i++) {
+        values[indexes[i]] = reply[i];
+      }
+    }
+
+    return values;
+  }
+
+  @Override
+  public void mset(final byte[]... keyValues) {
+    if (keyValues.length == 0) {
+      return;
+    }
+
+    if ((keyValues.length & 1) != 0) {
+      throw new IllegalArgumentException("MSET requires an even number of keys and values.");
+    }
+
+    applyPipelines(keyValues, 2, (pipeline, indexes) -> {
+      final byte[][] args = new byte[indexes.length << 1][];
+      for (int i = 0, arg = 0; i < indexes.length; i++) {
+        args[arg++] = keyValues[indexes[i]];
+        args[arg++] = keyValues[indexes[i] + 1];
+      }
+      pipeline.sendCmd(Cmds.MSET, args);
+      pipeline.syncThrow();
+      return null;
+    });
+  }
+
+  @Override
+  public long sum(final Cmd<Long> cmd, final byte[]... keys) {
+    if (keys.length == 0) {
+      return 0;
+    }
+
+    final Map<String, Long> replies = applyPipelines(keys, 1, (pipeline, indexes) -> {
+      final byte[][] args = new byte[indexes.length][];
+      for (int i = 0; i < indexes.length; i++) {
+        args[i] = keys[indexes[i]];
+      }
+      final FutureLongReply reply = pipeline.sendCmd(cmd.prim(), args);
+      pipeline.syncThrow();
+      return Long.valueOf(reply.getAsLong());
+    });
+
+    long sum = 0;
+    for (final Long reply : replies.values()) {
+      sum += reply.longValue();
+    }
+    return sum;
+  }
+
+  private <R> Map<String, R> applyPipelines(final Shards shards, final int[][] groups,
+      final BiFunction<RedisPipeline, int[], R> pipelineConsumer) {
+
+    final int[] groupSizes = new int[groups.length];
+    for (int i = 0; i < groups.length; i++) {
+      groupSizes[i] = groups[i].length;
+    }
+
+    return scatter(shards, groupSizes, index -> shards.executors[index].apply(client -> {
+      try (final RedisPipeline pipeline = client.pipeline()) {
+        return pipelineConsumer.apply(pipeline, groups[index]);
+      }
+    }));
+  }
+
+  // Runs shardFn for each shard with a non zero size and gathers the results by shard name.
+  private <R> Map<String, R> scatter(final Shards shards, final int[] sizes,
+      final IntFunction<R> shardFn) {
+
+    final String[] names = shards.ring.getShards();
+    final Map<String, R> results = new HashMap<>();
+
+    if (executor == null) {
+      for (int i = 0; i < sizes.length; i++) {
+        if (sizes[i] > 0) {
+          results.put(names[i], shardFn.apply(i));
+        }
+      }
+      return results;
+    }
+
+    final List<CompletableFuture<R>> futures = new ArrayList<>(sizes.length);
+    final List<String> futureShards = new ArrayList<>(sizes.length);
+    for (int i = 0; i < sizes.length; i++) {
+      if (sizes[i] > 0) {
+        final int index = i;
+        futures.add(CompletableFuture.supplyAsync(() -> shardFn.apply(index), executor));
+        futureShards.add(names[i]);
+      }
+    }
+
+    try {
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).join();
+    } catch (final CompletionException ce) {
+      if (ce.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ce.getCause();
+      }
+      throw ce;
+    }
+
+    for (int i = 0; i < futures.size(); i++) {
+      results.put(futureShards.get(i), futures.get(i).join());
+    }
+    return results;
+  }
+
+  @Override
+  public void close() {
+    for (final RedisClientExecutor shard : shards.executors) {
+      shard.close();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new StringBuilder("KetamaShardedExecutor [ring=").append(shards.ring).append("]")
+        .toString();
+  }
+
+  private static final class Shards {
+
+    private final KetamaRing ring;
+    private final RedisClientExecutor[] executors;
+
+    Shards(final Map<String, RedisClientExecutor> sortedShards, final int numVirtualNodes) {
+      this.ring =
+          new KetamaRing(sortedShards.keySet().toArray(new String[sortedShards.size()]),
+              numVirtualNodes);
+      this.executors =
+          sortedShards.values().toArray(new RedisClientExecutor[sortedShards.size()]);
+    }
+
+    // Returns, for each shard, the indexes of the keys it owns in their original order.
+    int[][] group(final byte[][] keys, final int stride) {
+      final int numKeys = (keys.length + stride - 1) / stride;
+      final int[] owners = new int[numKeys];
+      final int[] counts = new int[executors.length];
+
+      for (int i = 0; i < numKeys; i++) {
+        final int owner = ring.getShardIndex(keys[i * stride]);
+        owners[i] = owner;
+        counts[owner]++;
+      }
+
+      final int[][] groups = new int[executors.length][];
+      for (int shard = 0; shard < groups.length; shard++) {
+        groups[shard] = new int[counts[shard]];
+        counts[shard] = 0;
+      }
+
+      for (int i = 0; i < numKeys; i++) {
+        final int owner = owners[i];
+        groups[owner][counts[owner]++] = i * stride;
+      }
+
+      return groups;
+    }
+  }
+}
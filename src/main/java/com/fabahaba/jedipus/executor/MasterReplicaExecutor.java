@@ -0,0 +1,63 @@
+package com.fabahaba.jedipus.executor;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.fabahaba.jedipus.client.RedisClient;
+import com.fabahaba.jedipus.cluster.Node;
+import com.fabahaba.jedipus.cluster.RedisClusterExecutor.ReadMode;
+
+/**
+ * Executes against a standalone master and the replicas it reports. Read modes behave as they do
+ * for a {@link com.fabahaba.jedipus.cluster.RedisClusterExecutor}: MASTER and SLAVES default read
+ * modes apply to every call, while MIXED and MIXED_SLAVES defaults allow each call to choose.
+ * Calls without a read mode use the default read mode.
+ */
+public interface MasterReplicaExecutor extends RedisClientExecutor {
+
+  ReadMode getDefaultReadMode();
+
+  List<Node> getReplicas();
+
+  default void accept(final ReadMode readMode, final Consumer<RedisClient> clientConsumer) {
+    accept(readMode, clientConsumer, getMaxRetries());
+  }
+
+  default void accept(final ReadMode readMode, final Consumer<RedisClient> clientConsumer,
+      final int maxRetries) {
+    apply(readMode, client -> {
+      clientConsumer.accept(client);
+      return null;
+    }, maxRetries);
+  }
+
+  @Override
+  default <R> R apply(final Function<RedisClient, R> clientConsumer, final int maxRetries) {
+    return apply(getDefaultReadMode(), clientConsumer, maxRetries);
+  }
+
+  default <R> R apply(final ReadMode readMode, final Function<RedisClient, R> clientConsumer) {
+    return apply(readMode, clientConsumer, getMaxRetries());
+  }
+
+  public <R> R apply(final ReadMode readMode, final Function<RedisClient, R> clientConsumer,
+      final int maxRetries);
+
+  @Override
+  default <R> CompletableFuture<R> applyAsync(final Function<RedisClient, R> clientConsumer,
+      final int maxRetries, final ExecutorService executor) {
+    return applyAsync(getDefaultReadMode(), clientConsumer, maxRetries, executor);
+  }
+
+  default <R> CompletableFuture<R> applyAsync(final ReadMode readMode,
+      final Function<RedisClient, R> clientConsumer, final ExecutorService executor) {
+    return applyAsync(readMode, clientConsumer, getMaxRetries(), executor);
+  }
+
+  public <R> CompletableFuture<R> applyAsync(final ReadMode readMode,
+      final Function<RedisClient, R> clientConsumer, final int maxRetries,
+      final ExecutorService executor);
+}
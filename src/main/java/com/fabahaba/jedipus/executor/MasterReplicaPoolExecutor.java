@@ -0,0 +1,371 @@
+package com.fabahaba.jedipus.executor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import com.fabahaba.jedipus.client.RedisClient;
+import com.fabahaba.jedipus.cluster.Node;
+import com.fabahaba.jedipus.cluster.RedisClusterExecutor.ReadMode;
+import com.fabahaba.jedipus.cmds.Cmds;
+import com.fabahaba.jedipus.cmds.RESP;
+import com.fabahaba.jedipus.concurrent.ElementRetryDelay;
+import com.fabahaba.jedipus.concurrent.RetryTimer;
+import com.fabahaba.jedipus.exceptions.RedisConnectionException;
+import com.fabahaba.jedipus.exceptions.RedisUnhandledException;
+import com.fabahaba.jedipus.pool.ClientPool;
+import com.fabahaba.jedipus.pool.RedisClientPool;
+import com.fabahaba.jedipus.primitive.RedisClientFactory;
+
+/**
+ * Writes and MASTER reads go through a {@link RedisClientPoolExecutor} to the master. Replicas are
+ * discovered with ROLE, or INFO replication for servers without ROLE, and rediscovered in the
+ * background. Replica pools are picked round robin, and requests fall back to the master once
+ * every replica has failed them.
+ */
+final class MasterReplicaPoolExecutor implements MasterReplicaExecutor {
+
+  private final RedisClientPoolExecutor master;
+  private final RedisClientFactory.Builder clientFactory;
+  private final ClientPool.Builder poolFactory;
+  private final ReadMode defaultReadMode;
+  private final ElementRetryDelay<Node> retryDelay;
+  private final int maxRetries;
+  private final AtomicInteger roundRobinIndex;
+  private final ScheduledExecutorService scheduler;
+
+  // Copied on write by the refresh thread only.
+  private volatile ClientPool<RedisClient>[] replicaPools;
+
+  MasterReplicaPoolExecutor(final Supplier<Node> masterSupplier,
+      final RedisClientFactory.Builder clientFactory, final ClientPool.Builder poolFactory,
+      final ElementRetryDelay<Node> retryDelay, final int maxRetries,
+      final ReadMode defaultReadMode, final Duration replicaRefreshInterval) {
+
+    this.master = new RedisClientPoolExecutor(masterSupplier, clientFactory, poolFactory,
+        retryDelay, maxRetries);
+    this.clientFactory = clientFactory;
+    this.poolFactory = poolFactory;
+    this.defaultReadMode = defaultReadMode;
+    this.retryDelay = retryDelay;
+    this.maxRetries = maxRetries;
+    this.roundRobinIndex = new AtomicInteger(0);
+    this.replicaPools = newPoolArray(0);
+
+    if (defaultReadMode == ReadMode.MASTER) {
+      this.scheduler = null;
+      return;
+    }
+
+    final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+      final Thread thread = new Thread(runnable, "jedipus-replica-refresh");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    this.scheduler = scheduler;
+
+    refreshReplicas();
+    final long intervalNanos = replicaRefreshInterval.toNanos();
+    scheduler.scheduleWithFixedDelay(this::refreshReplicas, intervalNanos, intervalNanos,
+        TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public ReadMode getDefaultReadMode() {
+    return defaultReadMode;
+  }
+
+  @Override
+  public List<Node> getReplicas() {
+    final ClientPool<RedisClient>[] pools = replicaPools;
+    final List<Node> replicas = new ArrayList<>(pools.length);
+    for (final ClientPool<RedisClient> pool : pools) {
+      replicas.add(pool.getNode());
+    }
+    return replicas;
+  }
+
+  @Override
+  public int getMaxRetries() {
+    return maxRetries;
+  }
+
+  @Override
+  public long applyPrim(final ToLongFunction<RedisClient> clientConsumer, final int maxRetries) {
+    if (getReadMode(defaultReadMode) == ReadMode.MASTER) {
+      return master.applyPrim(clientConsumer, maxRetries);
+    }
+    return apply(defaultReadMode, client -> Long.valueOf(clientConsumer.applyAsLong(client)),
+        maxRetries).longValue();
+  }
+
+  @Override
+  public <R> R apply(final ReadMode readMode, final Function<RedisClient, R> clientConsumer,
+      final int maxRetries) {
+
+    final ReadMode mode = getReadMode(readMode);
+    for (long retry = 0, numFailed = 0;;) {
+      final ClientPool<RedisClient> pool = nextReplicaPool(mode, numFailed);
+      if (pool == null) {
+        return master.apply(clientConsumer, maxRetries);
+      }
+
+      RedisClient client = null;
+      try {
+        retryDelay.markAttempt(pool.getNode());
+        client = RedisClientPool.borrowClient(pool);
+        final R result = clientConsumer.apply(client);
+        retryDelay.markSuccess(pool.getNode());
+        return result;
+      } catch (final RedisConnectionException rce) {
+        retry = retryDelay.markFailure(pool.getNode(), maxRetries, rce, retry);
+        numFailed++;
+      } finally {
+        RedisClientPool.returnClient(pool, client);
+      }
+    }
+  }
+
+  @Override
+  public <R> CompletableFuture<R> applyAsync(final ReadMode readMode,
+      final Function<RedisClient, R> clientConsumer, final int maxRetries,
+      final ExecutorService executor) {
+
+    final ReadMode mode = getReadMode(readMode);
+    if (mode == ReadMode.MASTER) {
+      return master.applyAsync(clientConsumer, maxRetries, executor);
+    }
+
+    final AsyncApply<R> asyncApply = new AsyncApply<>(mode, clientConsumer, maxRetries, executor);
+    RetryTimer.schedule(asyncApply, 0, executor, asyncApply.future);
+    return asyncApply.future;
+  }
+
+  private ReadMode getReadMode(final ReadMode readMode) {
+    switch (defaultReadMode) {
+      case MIXED:
+      case MIXED_SLAVES:
+        return readMode;
+      case MASTER:
+      case SLAVES:
+      default:
+        return defaultReadMode;
+    }
+  }
+
+  // Returns null when the master should serve the request, including once a full pass over the
+  // replicas has failed.
+  private ClientPool<RedisClient> nextReplicaPool(final ReadMode readMode, final long numFailed) {
+    final ClientPool<RedisClient>[] pools = replicaPools;
+    if (numFailed >= pools.length) {
+      return null;
+    }
+
+    switch (readMode) {
+      case MIXED:
+        final int index = Math.floorMod(roundRobinIndex.getAndIncrement(), pools.length + 1);
+        return index == pools.length ? null : pools[index];
+      case MIXED_SLAVES:
+      case SLAVES:
+        return pools[Math.floorMod(roundRobinIndex.getAndIncrement(), pools.length)];
+      case MASTER:
+      default:
+        return null;
+    }
+  }
+
+  private void refreshReplicas() {
+    final List<Node> replicas;
+    try {
+      replicas = master.apply(MasterReplicaPoolExecutor::discoverReplicas, 0);
+    } catch (final RuntimeException ex) {
+      // Keep serving from the known replicas until the master answers again.
+      return;
+    }
+
+    final ClientPool<RedisClient>[] previous = replicaPools;
+    final Map<Node, ClientPool<RedisClient>> previousPools = new HashMap<>(previous.length);
+    for (final ClientPool<RedisClient> pool : previous) {
+      previousPools.put(pool.getNode(), pool);
+    }
+
+    final ClientPool<RedisClient>[] pools = newPoolArray(replicas.size());
+    int numPools = 0;
+    for (final Node replica : replicas) {
+      final ClientPool<RedisClient> pool = previousPools.remove(replica);
+      pools[numPools++] = pool == null || pool.isClosed()
+          ? poolFactory.create(clientFactory.createPooled(replica)) : pool;
+    }
+
+    if (numPools == previous.length && previousPools.isEmpty()) {
+      return;
+    }
+
+    replicaPools = pools;
+    for (final ClientPool<RedisClient> removed : previousPools.values()) {
+      retryDelay.clear(removed.getNode());
+      RedisClientPoolExecutor.drainClose(scheduler, removed);
+    }
+  }
+
+  static List<Node> discoverReplicas(final RedisClient client) {
+    final Object[] role;
+    try {
+      role = client.sendCmd(Cmds.ROLE);
+    } catch (final RedisUnhandledException unknownCmd) {
+      // ROLE is only available from 2.8.12.
+      return parseInfoReplication(client.sendCmd(Cmds.INFO, "replication"));
+    }
+    return parseRole(role);
+  }
+
+  // ["master", <offset>, [[<ip>, <port>, <offset>], ...]]
+  static List<Node> parseRole(final Object[] role) {
+    if (role.length < 3 || !"master".equals(RESP.toString(role[0]))) {
+      return Collections.emptyList();
+    }
+
+    final Object[] replicas = (Object[]) role[2];
+    final List<Node> nodes = new ArrayList<>(replicas.length);
+    for (final Object replica : replicas) {
+      final Object[] hostPort = (Object[]) replica;
+      nodes.add(Node.create(RESP.toString(hostPort[0]), RESP.toString(hostPort[1])));
+    }
+    return nodes;
+  }
+
+  // slave0:ip=10.0.0.2,port=6379,state=online,offset=1234,lag=0
+  static List<Node> parseInfoReplication(final String info) {
+    final List<Node> nodes = new ArrayList<>();
+
+    for (final String line : info.split(RESP.CRLF_REGEX)) {
+      if (!line.startsWith("slave") || line.indexOf(':') < 0) {
+        continue;
+      }
+
+      String ip = null;
+      String port = null;
+      boolean online = true;
+      for (final String field : line.substring(line.indexOf(':') + 1).split(",")) {
+        final int eq = field.indexOf('=');
+        if (eq < 0) {
+          continue;
+        }
+        final String value = field.substring(eq + 1);
+        switch (field.substring(0, eq)) {
+          case "ip":
+            ip = value;
+            break;
+          case "port":
+            port = value;
+            break;
+          case "state":
+            online = value.equals("online");
+            break;
+          default:
+            break;
+        }
+      }
+
+      if (ip != null && port != null && online) {
+        nodes.add(Node.create(ip, port));
+      }
+    }
+
+    return nodes;
+  }
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private static ClientPool<RedisClient>[] newPoolArray(final int length) {
+    return new ClientPool[length];
+  }
+
+  private final class AsyncApply<R> implements Runnable {
+
+    private final ReadMode readMode;
+    private final Function<RedisClient, R> clientConsumer;
+    private final int maxRetries;
+    private final ExecutorService executor;
+    private final CompletableFuture<R> future;
+    private long retries = 0;
+    private long numFailed = 0;
+
+    AsyncApply(final ReadMode readMode, final Function<RedisClient, R> clientConsumer,
+        final int maxRetries, final ExecutorService executor) {
+      this.readMode = readMode;
+      this.clientConsumer = clientConsumer;
+      this.maxRetries = maxRetries;
+      this.executor = executor;
+      this.future = new CompletableFuture<>();
+    }
+
+    @Override
+    public void run() {
+      long delayNanos;
+      try {
+        final ClientPool<RedisClient> pool = nextReplicaPool(readMode, numFailed);
+        if (pool == null) {
+          master.applyAsync(clientConsumer, maxRetries, executor).whenComplete((result, ex) -> {
+            if (ex == null) {
+              future.complete(result);
+            } else {
+              future.completeExceptionally(ex);
+            }
+          });
+          return;
+        }
+
+        RedisClient client = null;
+        try {
+          retryDelay.markAttempt(pool.getNode());
+          client = RedisClientPool.borrowClient(pool);
+          final R result = clientConsumer.apply(client);
+          retryDelay.markSuccess(pool.getNode());
+          future.complete(result);
+          return;
+        } catch (final RedisConnectionException rce) {
+          delayNanos = retryDelay.markFailureDelay(pool.getNode(), maxRetries, rce, retries++);
+          numFailed++;
+        } finally {
+          RedisClientPool.returnClient(pool, client);
+        }
+      } catch (final RuntimeException | Error ex) {
+        future.completeExceptionally(ex);
+        return;
+      }
+
+      RetryTimer.schedule(this, delayNanos, executor, future);
+    }
+  }
+
+  @Override
+  public void close() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+    master.close();
+    for (final ClientPool<RedisClient> pool : replicaPools) {
+      pool.close();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new StringBuilder("MasterReplicaPoolExecutor [defaultReadMode=")
+        .append(defaultReadMode).append(", replicas=").append(getReplicas()).append("]")
+        .toString();
+  }
+}
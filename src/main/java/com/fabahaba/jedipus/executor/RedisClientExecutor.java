@@ -2,6 +2,9 @@ package com.fabahaba.jedipus.executor;
 
 import java.io.Serializable;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -9,6 +12,7 @@ import java.util.function.ToLongFunction;
 
 import com.fabahaba.jedipus.client.RedisClient;
 import com.fabahaba.jedipus.cluster.Node;
+import com.fabahaba.jedipus.cluster.RedisClusterExecutor.ReadMode;
 import com.fabahaba.jedipus.concurrent.ElementRetryDelay;
 import com.fabahaba.jedipus.pool.ClientPool;
 import com.fabahaba.jedipus.primitive.RedisClientFactory;
@@ -36,6 +40,36 @@ public interface RedisClientExecutor extends AutoCloseable {
 
   public <R> R apply(final Function<RedisClient, R> clientConsumer, final int maxRetries);
 
+  default CompletableFuture<Void> acceptAsync(final Consumer<RedisClient> clientConsumer,
+      final ExecutorService executor) {
+    return acceptAsync(clientConsumer, getMaxRetries(), executor);
+  }
+
+  default CompletableFuture<Void> acceptAsync(final Consumer<RedisClient> clientConsumer,
+      final int maxRetries, final ExecutorService executor) {
+    return applyAsync(client -> {
+      clientConsumer.accept(client);
+      return null;
+    }, maxRetries, executor);
+  }
+
+  default <R> CompletableFuture<R> applyAsync(final Function<RedisClient, R> clientConsumer,
+      final ExecutorService executor) {
+    return applyAsync(clientConsumer, getMaxRetries(), executor);
+  }
+
+  /**
+   * Runs each attempt on the given executor. Retry backoff is scheduled on a shared timer rather
+   * than sleeping, so no executor thread is held while waiting to retry.
+   *
+   * @param clientConsumer The function to apply.
+   * @param maxRetries The maximum number of retries on connection failures.
+   * @param executor Runs each attempt.
+   * @return A future completed with the result, or with the final failure.
+   */
+  public <R> CompletableFuture<R> applyAsync(final Function<RedisClient, R> clientConsumer,
+      final int maxRetries, final ExecutorService executor);
+
   @Override
   void close();
 
@@ -56,6 +90,11 @@ public interface RedisClientExecutor extends AutoCloseable {
     private ElementRetryDelay<Node> retryDelay;
     private int maxRetries = Integer.MAX_VALUE;
     private ClientPool.Builder poolFactory;
+    private RedisClientFactory.Builder sentinelClientFactory;
+    private Duration sentinelRefreshInterval = Duration.ofSeconds(10);
+    private boolean warmReplicaPools = false;
+    private ReadMode readMode = ReadMode.MASTER;
+    private Duration replicaRefreshInterval = Duration.ofSeconds(30);
 
     private Builder() {}
 
@@ -86,6 +125,49 @@ public interface RedisClientExecutor extends AutoCloseable {
           poolFactory == null ? DEFAULT_POOL_BUILDER : poolFactory, retryDelay, maxRetries);
     }
 
+    public MasterReplicaExecutor createMasterReplica(final Supplier<Node> masterSupplier) {
+
+      if (clientFactory == null) {
+        clientFactory = RedisClientFactory.startBuilding();
+      }
+
+      if (retryDelay == null) {
+        retryDelay = ElementRetryDelay.startBuilding().withMaxDelay(Duration.ofSeconds(3)).create();
+      }
+
+      return new MasterReplicaPoolExecutor(masterSupplier, clientFactory,
+          poolFactory == null ? DEFAULT_POOL_BUILDER : poolFactory, retryDelay, maxRetries,
+          readMode, replicaRefreshInterval);
+    }
+
+    /**
+     * Discovers the master of masterName from the given sentinels and follows it across
+     * failovers, subscribing to +switch-master to switch over before requests time out.
+     *
+     * @param masterName The name the sentinels monitor the master under.
+     * @param sentinels The sentinels to discover from, tried in order.
+     * @return A pooled executor that always targets the current master.
+     */
+    public RedisClientExecutor createSentinelPooled(final String masterName,
+        final Collection<Node> sentinels) {
+
+      if (clientFactory == null) {
+        clientFactory = RedisClientFactory.startBuilding();
+      }
+
+      if (sentinelClientFactory == null) {
+        sentinelClientFactory = RedisClientFactory.startBuilding();
+      }
+
+      if (retryDelay == null) {
+        retryDelay = ElementRetryDelay.startBuilding().withMaxDelay(Duration.ofSeconds(3)).create();
+      }
+
+      return new SentinelClientPoolExecutor(masterName, sentinels, sentinelClientFactory,
+          clientFactory, poolFactory == null ? DEFAULT_POOL_BUILDER : poolFactory, retryDelay,
+          maxRetries, sentinelRefreshInterval, warmReplicaPools);
+    }
+
     public RedisClientFactory.Builder getClientFactory() {
       return clientFactory;
     }
@@ -121,5 +203,51 @@ public interface RedisClientExecutor extends AutoCloseable {
       this.poolFactory = poolFactory;
       return this;
     }
+
+    public RedisClientFactory.Builder getSentinelClientFactory() {
+      return sentinelClientFactory;
+    }
+
+    public Builder withSentinelClientFactory(
+        final RedisClientFactory.Builder sentinelClientFactory) {
+      this.sentinelClientFactory = sentinelClientFactory;
+      return this;
+    }
+
+    public Duration getSentinelRefreshInterval() {
+      return sentinelRefreshInterval;
+    }
+
+    public Builder withSentinelRefreshInterval(final Duration sentinelRefreshInterval) {
+      this.sentinelRefreshInterval = sentinelRefreshInterval;
+      return this;
+    }
+
+    public boolean isWarmReplicaPools() {
+      return warmReplicaPools;
+    }
+
+    public Builder withWarmReplicaPools(final boolean warmReplicaPools) {
+      this.warmReplicaPools = warmReplicaPools;
+      return this;
+    }
+
+    public ReadMode getReadMode() {
+      return readMode;
+    }
+
+    public Builder withReadMode(final ReadMode readMode) {
+      this.readMode = readMode;
+      return this;
+    }
+
+    public Duration getReplicaRefreshInterval() {
+      return replicaRefreshInterval;
+    }
+
+    public Builder withReplicaRefreshInterval(final Duration replicaRefreshInterval) {
+      this.replicaRefreshInterval = replicaRefreshInterval;
+      return this;
+    }
   }
 }
@@ -1,5 +1,14 @@
 package com.fabahaba.jedipus.executor;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.function.ToLongFunction;
@@ -7,6 +16,7 @@ import java.util.function.ToLongFunction;
 import com.fabahaba.jedipus.client.RedisClient;
 import com.fabahaba.jedipus.cluster.Node;
 import com.fabahaba.jedipus.concurrent.ElementRetryDelay;
+import com.fabahaba.jedipus.concurrent.RetryTimer;
 import com.fabahaba.jedipus.exceptions.RedisConnectionException;
 import com.fabahaba.jedipus.pool.ClientPool;
 import com.fabahaba.jedipus.pool.RedisClientPool;
@@ -14,12 +24,36 @@ import com.fabahaba.jedipus.primitive.RedisClientFactory;
 
 final class RedisClientPoolExecutor implements RedisClientExecutor {
 
+  private static final long DRAIN_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+  private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+  private static final class SwapExecutorHolder {
+
+    // Swaps are rare and short lived, a couple of threads shared by every executor suffice.
+    private static final int MAX_SWAP_THREADS = 2;
+    private static final ExecutorService SWAP_EXECUTOR = createSwapExecutor();
+
+    private static ExecutorService createSwapExecutor() {
+      final ThreadPoolExecutor swapExecutor = new ThreadPoolExecutor(MAX_SWAP_THREADS,
+          MAX_SWAP_THREADS, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            final Thread thread = new Thread(runnable, "jedipus-pool-swap");
+            thread.setDaemon(true);
+            return thread;
+          });
+      swapExecutor.allowCoreThreadTimeOut(true);
+      return swapExecutor;
+    }
+  }
+
   private final Supplier<Node> nodeSupplier;
   private final RedisClientFactory.Builder clientFactory;
   private final ClientPool.Builder poolFactory;
   private volatile ClientPool<RedisClient> clientPool;
   private final ElementRetryDelay<Node> retryDelay;
   private final int maxRetries;
+  // Guarded by clientFactory.
+  private Node pendingNode;
+  private CompletableFuture<Void> pendingSwap;
 
   RedisClientPoolExecutor(final Supplier<Node> nodeSupplier,
       final RedisClientFactory.Builder clientFactory, final ClientPool.Builder poolFactory,
@@ -39,7 +73,11 @@ final class RedisClientPoolExecutor implements RedisClientExecutor {
       final ClientPool<RedisClient> clientPool = this.clientPool;
       RedisClient client = null;
       try {
-        client = RedisClientPool.borrowClient(clientPool);
+        retryDelay.markAttempt(clientPool.getNode());
+        client = borrowClient(clientPool);
+        if (client == null) {
+          continue;
+        }
         final long result = clientConsumer.applyAsLong(client);
         retryDelay.markSuccess(client.getNode());
         return result;
@@ -57,7 +95,11 @@ final class RedisClientPoolExecutor implements RedisClientExecutor {
       final ClientPool<RedisClient> clientPool = this.clientPool;
       RedisClient client = null;
       try {
-        client = RedisClientPool.borrowClient(clientPool);
+        retryDelay.markAttempt(clientPool.getNode());
+        client = borrowClient(clientPool);
+        if (client == null) {
+          continue;
+        }
         final R result = clientConsumer.apply(client);
         retryDelay.markSuccess(client.getNode());
         return result;
@@ -69,6 +111,14 @@ final class RedisClientPoolExecutor implements RedisClientExecutor {
     }
   }
 
+  @Override
+  public <R> CompletableFuture<R> applyAsync(final Function<RedisClient, R> clientConsumer,
+      final int maxRetries, final ExecutorService executor) {
+    final AsyncApply<R> asyncApply = new AsyncApply<>(clientConsumer, maxRetries, executor);
+    RetryTimer.schedule(asyncApply, 0, executor, asyncApply.future);
+    return asyncApply.future;
+  }
+
   private void handleRCE(final int maxRetries, final Node failedNode,
       final RedisConnectionException rce) {
 
@@ -78,14 +128,199 @@ final class RedisClientPoolExecutor implements RedisClientExecutor {
       return;
     }
 
+    try {
+      switchPool(node, failedNode).join();
+    } catch (final CompletionException ce) {
+      if (ce.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ce.getCause();
+      }
+      throw ce;
+    }
+  }
+
+  // A pool read just before it was swapped out may already be closed. Returns null in that case
+  // so that the caller retries on its replacement.
+  private RedisClient borrowClient(final ClientPool<RedisClient> clientPool) {
+    try {
+      return RedisClientPool.borrowClient(clientPool);
+    } catch (final IllegalStateException ise) {
+      if (clientPool == this.clientPool || !clientPool.isClosed()) {
+        throw ise;
+      }
+      return null;
+    }
+  }
+
+  // Warms a pool to the new node in the background and switches callers to it once it holds
+  // min-idle clients. Concurrent callers share the same pending switch.
+  private CompletableFuture<Void> switchPool(final Node node, final Node failedNode) {
     synchronized (clientFactory) {
       retryDelay.clear(failedNode);
 
       if (clientPool.isClosed() || node.equals(clientPool.getNode())) {
+        return CompletableFuture.completedFuture(null);
+      }
+
+      if (pendingSwap != null && node.equals(pendingNode)) {
+        return pendingSwap;
+      }
+
+      final CompletableFuture<Void> swap = new CompletableFuture<>();
+      pendingNode = node;
+      pendingSwap = swap;
+      try {
+        SwapExecutorHolder.SWAP_EXECUTOR.execute(() -> {
+          try {
+            warmAndSwap(node, swap);
+            swap.complete(null);
+          } catch (final RuntimeException | Error ex) {
+            swap.completeExceptionally(ex);
+          }
+        });
+      } catch (final RuntimeException rejected) {
+        pendingSwap = null;
+        throw rejected;
+      }
+      return swap;
+    }
+  }
+
+  private void warmAndSwap(final Node node, final CompletableFuture<Void> swap) {
+    final ClientPool<RedisClient> warmPool = createWarmPool(poolFactory, clientFactory, node);
+
+    final ClientPool<RedisClient> previous;
+    synchronized (clientFactory) {
+      if (pendingSwap == swap) {
+        pendingSwap = null;
+        pendingNode = null;
+        previous = swapPool(warmPool);
+      } else {
+        // Superseded by a switch to a newer node.
+        previous = null;
+      }
+    }
+
+    if (previous == null) {
+      warmPool.close();
+      return;
+    }
+
+    drainClose(SwapExecutorHolder.SWAP_EXECUTOR, previous);
+  }
+
+  // Switches callers over to an already warmed pool. Returns the replaced pool, or null if the
+  // given pool was not used because this executor is closed or already on that node.
+  ClientPool<RedisClient> swapPool(final ClientPool<RedisClient> warmPool) {
+    synchronized (clientFactory) {
+      final ClientPool<RedisClient> previous = clientPool;
+      if (previous.isClosed() || warmPool.getNode().equals(previous.getNode())) {
+        return null;
+      }
+
+      retryDelay.clear(previous.getNode());
+      clientPool = warmPool;
+      return previous;
+    }
+  }
+
+  static ClientPool<RedisClient> createWarmPool(final ClientPool.Builder poolFactory,
+      final RedisClientFactory.Builder clientFactory, final Node node) {
+
+    final ClientPool<RedisClient> pool = poolFactory.create(clientFactory.createPooled(node));
+    final List<RedisClient> clients = new ArrayList<>(poolFactory.getMinIdle());
+    try {
+      for (int i = 0; i < poolFactory.getMinIdle(); i++) {
+        final RedisClient client = pool.borrowIfCapacity();
+        if (client == null) {
+          break;
+        }
+        clients.add(client);
+      }
+    } catch (final RedisConnectionException rce) {
+      // The node may still be starting up, callers will connect on demand.
+    } finally {
+      for (final RedisClient client : clients) {
+        RedisClientPool.returnClient(pool, client);
+      }
+    }
+    return pool;
+  }
+
+  // Callers may still hold clients from a replaced pool, give them a chance to return those
+  // before closing it.
+  static void drainClose(final Executor executor, final ClientPool<RedisClient> pool) {
+    final CompletableFuture<Void> rejected = new CompletableFuture<>();
+    rejected.whenComplete((result, ex) -> pool.close());
+    drainClose(executor, pool, System.nanoTime() + DRAIN_TIMEOUT_NANOS, rejected);
+  }
+
+  private static void drainClose(final Executor executor, final ClientPool<RedisClient> pool,
+      final long deadlineNanos, final CompletableFuture<Void> rejected) {
+
+    RetryTimer.schedule(() -> {
+      if (pool.getNumActive() == 0 || System.nanoTime() - deadlineNanos >= 0) {
+        pool.close();
+        return;
+      }
+      drainClose(executor, pool, deadlineNanos, rejected);
+    }, DRAIN_POLL_NANOS, executor, rejected);
+  }
+
+  private final class AsyncApply<R> implements Runnable {
+
+    private final Function<RedisClient, R> clientConsumer;
+    private final int maxRetries;
+    private final ExecutorService executor;
+    private final CompletableFuture<R> future;
+
+    AsyncApply(final Function<RedisClient, R> clientConsumer, final int maxRetries,
+        final ExecutorService executor) {
+      this.clientConsumer = clientConsumer;
+      this.maxRetries = maxRetries;
+      this.executor = executor;
+      this.future = new CompletableFuture<>();
+    }
+
+    @Override
+    public void run() {
+      long delayNanos = 0;
+      CompletableFuture<Void> swap = null;
+      try {
+        final ClientPool<RedisClient> clientPool = RedisClientPoolExecutor.this.clientPool;
+        RedisClient client = null;
+        try {
+          retryDelay.markAttempt(clientPool.getNode());
+          client = borrowClient(clientPool);
+          if (client == null) {
+            RetryTimer.schedule(this, 0, executor, future);
+            return;
+          }
+          final R result = clientConsumer.apply(client);
+          retryDelay.markSuccess(client.getNode());
+          future.complete(result);
+          return;
+        } catch (final RedisConnectionException rce) {
+          final Node node = nodeSupplier.get();
+          if (node.equals(clientPool.getNode())) {
+            delayNanos = retryDelay.markFailureDelay(node, maxRetries, rce, 0);
+          } else {
+            swap = switchPool(node, clientPool.getNode());
+          }
+        } finally {
+          RedisClientPool.returnClient(clientPool, client);
+        }
+      } catch (final RuntimeException | Error ex) {
+        future.completeExceptionally(ex);
+        return;
+      }
+
+      if (swap != null && !swap.isDone()) {
+        // Retry once callers have been switched to the warmed pool.
+        swap.whenComplete((result, ex) -> RetryTimer.schedule(this, 0, executor, future));
         return;
       }
 
-      clientPool = poolFactory.create(clientFactory.createPooled(node));
+      RetryTimer.schedule(this, delayNanos, executor, future);
     }
   }
 
@@ -0,0 +1,137 @@
+package com.fabahaba.jedipus.executor;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import com.fabahaba.jedipus.client.RedisClient;
+import com.fabahaba.jedipus.cluster.Node;
+import com.fabahaba.jedipus.concurrent.ElementRetryDelay;
+import com.fabahaba.jedipus.pool.ClientPool;
+import com.fabahaba.jedipus.primitive.RedisClientFactory;
+
+/**
+ * Executes against the master of a Sentinel monitored group. When the Sentinels announce a new
+ * master, a warmed pool to it replaces the current pool before callers have to time out against
+ * the old master. If replica pools are kept warm, a promoted replica's pool is swapped in
+ * immediately.
+ */
+final class SentinelClientPoolExecutor implements RedisClientExecutor {
+
+  private final RedisClientFactory.Builder clientFactory;
+  private final ClientPool.Builder poolFactory;
+  private final Map<Node, ClientPool<RedisClient>> replicaPools;
+  private final SentinelMonitor monitor;
+  private final RedisClientPoolExecutor delegate;
+
+  private volatile Node master;
+
+  SentinelClientPoolExecutor(final String masterName, final Collection<Node> sentinels,
+      final RedisClientFactory.Builder sentinelClientFactory,
+      final RedisClientFactory.Builder clientFactory, final ClientPool.Builder poolFactory,
+      final ElementRetryDelay<Node> retryDelay, final int maxRetries,
+      final Duration refreshInterval, final boolean warmReplicaPools) {
+
+    this.clientFactory = clientFactory;
+    this.poolFactory = poolFactory;
+    this.replicaPools = new ConcurrentHashMap<>();
+    this.monitor = new SentinelMonitor(masterName, sentinels, sentinelClientFactory,
+        this::onMaster, warmReplicaPools ? this::onReplicas : null, refreshInterval);
+
+    try {
+      this.master = monitor.discoverMaster();
+      this.delegate = new RedisClientPoolExecutor(() -> master, clientFactory, poolFactory,
+          retryDelay, maxRetries);
+    } catch (final RuntimeException ex) {
+      monitor.close();
+      throw ex;
+    }
+
+    monitor.start();
+  }
+
+  private void onMaster(final Node node) {
+    if (node.equals(master)) {
+      return;
+    }
+
+    ClientPool<RedisClient> warmPool = replicaPools.remove(node);
+    if (warmPool == null || warmPool.isClosed()) {
+      warmPool = RedisClientPoolExecutor.createWarmPool(poolFactory, clientFactory, node);
+    }
+
+    master = node;
+    final ClientPool<RedisClient> previous = delegate.swapPool(warmPool);
+    if (previous == null) {
+      warmPool.close();
+      return;
+    }
+
+    RedisClientPoolExecutor.drainClose(monitor.getScheduler(), previous);
+  }
+
+  private void onReplicas(final List<Node> replicas) {
+    final Set<Node> current = new HashSet<>(replicas);
+    current.remove(master);
+
+    for (final Node replica : current) {
+      final ClientPool<RedisClient> pool = replicaPools.get(replica);
+      if (pool == null || pool.isClosed()) {
+        replicaPools.put(replica,
+            RedisClientPoolExecutor.createWarmPool(poolFactory, clientFactory, replica));
+      }
+    }
+
+    replicaPools.entrySet().removeIf(entry -> {
+      if (current.contains(entry.getKey())) {
+        return false;
+      }
+      entry.getValue().close();
+      return true;
+    });
+  }
+
+  @Override
+  public long applyPrim(final ToLongFunction<RedisClient> clientConsumer, final int maxRetries) {
+    return delegate.applyPrim(clientConsumer, maxRetries);
+  }
+
+  @Override
+  public <R> R apply(final Function<RedisClient, R> clientConsumer, final int maxRetries) {
+    return delegate.apply(clientConsumer, maxRetries);
+  }
+
+  @Override
+  public <R> CompletableFuture<R> applyAsync(final Function<RedisClient, R> clientConsumer,
+      final int maxRetries, final ExecutorService executor) {
+    return delegate.applyAsync(clientConsumer, maxRetries, executor);
+  }
+
+  @Override
+  public int getMaxRetries() {
+    return delegate.getMaxRetries();
+  }
+
+  @Override
+  public void close() {
+    monitor.close();
+    delegate.close();
+    replicaPools.values().forEach(ClientPool::close);
+    replicaPools.clear();
+  }
+
+  @Override
+  public String toString() {
+    return new StringBuilder("SentinelClientPoolExecutor [master=").append(master)
+        .append(", monitor=").append(monitor).append(", replicaPools=")
+        .append(replicaPools.keySet()).append("]").toString();
+  }
+}
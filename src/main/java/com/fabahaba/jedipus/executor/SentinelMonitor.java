@@ -0,0 +1,258 @@
+package com.fabahaba.jedipus.executor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import com.fabahaba.jedipus.client.RedisClient;
+import com.fabahaba.jedipus.cluster.Node;
+import com.fabahaba.jedipus.cmds.RESP;
+import com.fabahaba.jedipus.concurrent.ElementRetryDelay;
+import com.fabahaba.jedipus.exceptions.RedisConnectionException;
+import com.fabahaba.jedipus.primitive.RedisClientFactory;
+import com.fabahaba.jedipus.pubsub.MsgConsumer;
+import com.fabahaba.jedipus.pubsub.RedisSubscriber;
+
+/**
+ * Tracks the master of a Sentinel monitored group. Sentinels are polled periodically and a
+ * subscription to +switch-master reports failovers as soon as the Sentinels agree on them. All
+ * callbacks are made from a single monitor thread.
+ */
+final class SentinelMonitor implements AutoCloseable {
+
+  static final String SWITCH_MASTER_CHANNEL = "+switch-master";
+
+  private final String masterName;
+  private final List<Node> sentinels;
+  private final RedisClientFactory.Builder sentinelClientFactory;
+  private final Consumer<Node> onMaster;
+  private final Consumer<List<Node>> onReplicas;
+  private final AtomicInteger nextSentinel;
+  private final ScheduledExecutorService scheduler;
+  private final RedisSubscriber subscriber;
+  private final Thread subscriberThread;
+  private final long refreshIntervalNanos;
+
+  private volatile boolean closed = false;
+
+  SentinelMonitor(final String masterName, final Collection<Node> sentinels,
+      final RedisClientFactory.Builder sentinelClientFactory, final Consumer<Node> onMaster,
+      final Consumer<List<Node>> onReplicas, final Duration refreshInterval) {
+
+    if (sentinels.isEmpty()) {
+      throw new IllegalArgumentException("At least one sentinel is required.");
+    }
+
+    this.masterName = masterName;
+    this.sentinels = new ArrayList<>(sentinels);
+    this.sentinelClientFactory = sentinelClientFactory;
+    this.onMaster = onMaster;
+    this.onReplicas = onReplicas;
+    this.nextSentinel = new AtomicInteger(0);
+
+    final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+      final Thread thread = new Thread(runnable, "jedipus-sentinel-monitor");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    this.scheduler = scheduler;
+
+    final RedisClientExecutor sentinelExecutor =
+        RedisClientExecutor.startBuilding().withClientFactory(sentinelClientFactory)
+            .withRetryDelay(
+                ElementRetryDelay.startBuilding().withMaxDelay(Duration.ofSeconds(1)).create())
+            .create(this::nextSentinel);
+
+    this.subscriber =
+        RedisSubscriber.startBuilding().createSingleSubscriber(sentinelExecutor, new MsgConsumer() {
+
+          @Override
+          public void accept(final String channel, final String payload) {
+            final Node master = parseSwitchMaster(masterName, payload);
+            if (master != null) {
+              execute(() -> onMaster.accept(master));
+            }
+          }
+
+          @Override
+          public void onSubscribed(final String channel) {
+            // Catch up on any failover missed while (re)connecting.
+            execute(SentinelMonitor.this::refresh);
+          }
+        });
+
+    this.subscriberThread = new Thread(this::consumeSwitchMaster, "jedipus-sentinel-subscriber");
+    subscriberThread.setDaemon(true);
+    this.refreshIntervalNanos = refreshInterval.toNanos();
+  }
+
+  void start() {
+    scheduler.scheduleWithFixedDelay(this::refresh, refreshIntervalNanos, refreshIntervalNanos,
+        TimeUnit.NANOSECONDS);
+    subscriberThread.start();
+  }
+
+  ScheduledExecutorService getScheduler() {
+    return scheduler;
+  }
+
+  Node discoverMaster() {
+    RuntimeException failure = null;
+    for (int i = 0; i < sentinels.size(); i++) {
+      final Node sentinel = nextSentinel();
+      try (final RedisClient client = sentinelClientFactory.create(sentinel)) {
+        final Object[] hostPort = client.sentinelGetMasterAddrByName(masterName);
+        if (hostPort != null && hostPort.length == 2) {
+          // Stick with a Sentinel that knows the master.
+          nextSentinel.decrementAndGet();
+          return Node.create(RESP.toString(hostPort[0]), RESP.toString(hostPort[1]));
+        }
+      } catch (final RuntimeException ex) {
+        failure = ex;
+      }
+    }
+
+    throw new RedisConnectionException(null,
+        "No sentinel could provide the master address for " + masterName, failure);
+  }
+
+  List<Node> discoverReplicas() {
+    for (int i = 0; i < sentinels.size(); i++) {
+      final Node sentinel = nextSentinel();
+      try (final RedisClient client = sentinelClientFactory.create(sentinel)) {
+        final Object[] replicas = client.sentinelSlaves(masterName);
+        if (replicas != null) {
+          nextSentinel.decrementAndGet();
+          return parseReplicas(replicas);
+        }
+      } catch (final RuntimeException ex) {
+        continue;
+      }
+    }
+    return null;
+  }
+
+  private void refresh() {
+    try {
+      onMaster.accept(discoverMaster());
+    } catch (final RuntimeException ex) {
+      return;
+    }
+
+    if (onReplicas == null) {
+      return;
+    }
+
+    try {
+      final List<Node> replicas = discoverReplicas();
+      if (replicas != null) {
+        onReplicas.accept(replicas);
+      }
+    } catch (final RuntimeException ex) {
+      // Try again next refresh.
+    }
+  }
+
+  private void execute(final Runnable task) {
+    try {
+      scheduler.execute(task);
+    } catch (final RuntimeException rejected) {
+      // Closed.
+    }
+  }
+
+  private Node nextSentinel() {
+    if (closed) {
+      throw new IllegalStateException("Sentinel monitor for " + masterName + " is closed.");
+    }
+    return sentinels.get(Math.floorMod(nextSentinel.getAndIncrement(), sentinels.size()));
+  }
+
+  private void consumeSwitchMaster() {
+    boolean subscribed = false;
+    while (!closed) {
+      try {
+        if (!subscribed) {
+          subscriber.subscribe(SWITCH_MASTER_CHANNEL);
+          subscribed = true;
+        }
+        subscriber.run();
+      } catch (final RuntimeException ex) {
+        if (closed) {
+          return;
+        }
+      }
+    }
+  }
+
+  // <master name> <old ip> <old port> <new ip> <new port>
+  static Node parseSwitchMaster(final String masterName, final String payload) {
+    final String[] fields = payload.split(" ");
+    if (fields.length != 5 || !fields[0].equals(masterName)) {
+      return null;
+    }
+    return Node.create(fields[3], fields[4]);
+  }
+
+  // Each replica is a flat array of field names and values.
+  static List<Node> parseReplicas(final Object[] replicas) {
+    final List<Node> nodes = new ArrayList<>(replicas.length);
+
+    for (final Object replica : replicas) {
+      final Object[] fields = (Object[]) replica;
+      String ip = null;
+      String port = null;
+      Set<String> flags = Collections.emptySet();
+
+      for (int i = 0; i < fields.length - 1; i += 2) {
+        switch (RESP.toString(fields[i])) {
+          case "ip":
+            ip = RESP.toString(fields[i + 1]);
+            break;
+          case "port":
+            port = RESP.toString(fields[i + 1]);
+            break;
+          case "flags":
+            flags = new HashSet<>(Arrays.asList(RESP.toString(fields[i + 1]).split(",")));
+            break;
+          default:
+            break;
+        }
+      }
+
+      if (ip == null || port == null || flags.contains("s_down") || flags.contains("o_down")
+          || flags.contains("disconnected")) {
+        continue;
+      }
+
+      nodes.add(Node.create(ip, port));
+    }
+
+    return nodes;
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    scheduler.shutdownNow();
+    subscriber.close();
+    subscriberThread.interrupt();
+  }
+
+  @Override
+  public String toString() {
+    return new StringBuilder("SentinelMonitor [masterName=").append(masterName)
+        .append(", sentinels=").append(sentinels).append("]").toString();
+  }
+}
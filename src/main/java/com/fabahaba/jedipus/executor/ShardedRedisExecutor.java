@@ -0,0 +1,175 @@
+package com.fabahaba.jedipus.executor;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.fabahaba.jedipus.client.RedisClient;
+import com.fabahaba.jedipus.client.RedisPipeline;
+import com.fabahaba.jedipus.cmds.Cmd;
+import com.fabahaba.jedipus.cmds.Cmds;
+import com.fabahaba.jedipus.cmds.RESP;
+
+/**
+ * Spreads keys over independent Redis deployments, each reached through its own
+ * {@link RedisClientExecutor}, with ketama style consistent hashing on shard names. Keys with a
+ * {hash tag} are placed by their tag only, so keys sharing a tag always share a shard.
+ */
+public interface ShardedRedisExecutor extends AutoCloseable {
+
+  public static final int DEFAULT_NUM_VIRTUAL_NODES = 160;
+
+  public static ShardedRedisExecutor create(final Map<String, RedisClientExecutor> shards) {
+    return create(shards, DEFAULT_NUM_VIRTUAL_NODES, null);
+  }
+
+  /**
+   * @param shards Executors by shard name. Names, not executors, determine key placement, so an
+   *        executor can be replaced under the same name without moving keys.
+   * @param numVirtualNodes Ring points per shard.
+   * @param executor Runs the per shard requests of multi-shard operations in parallel. If null
+   *        they are run one shard after another on the calling thread.
+   * @return A new ShardedRedisExecutor.
+   */
+  public static ShardedRedisExecutor create(final Map<String, RedisClientExecutor> shards,
+      final int numVirtualNodes, final ExecutorService executor) {
+    return new KetamaShardedExecutor(shards, numVirtualNodes, executor);
+  }
+
+  public String getShardName(final byte[] key);
+
+  default String getShardName(final String key) {
+    return getShardName(RESP.toBytes(key));
+  }
+
+  public RedisClientExecutor getShard(final byte[] key);
+
+  default RedisClientExecutor getShard(final String key) {
+    return getShard(RESP.toBytes(key));
+  }
+
+  public Map<String, RedisClientExecutor> getShards();
+
+  /**
+   * Only the keys that hash to the new shard's ring points move to it.
+   *
+   * @param name The new shard's name.
+   * @param executor The new shard's executor.
+   * @return The executor previously registered under name, or null.
+   */
+  public RedisClientExecutor addShard(final String name, final RedisClientExecutor executor);
+
+  /**
+   * Only the keys of the removed shard move, each to the next shard on the ring. The removed
+   * executor is not closed.
+   *
+   * @param name The shard to remove.
+   * @return The removed executor, or null if there was no such shard.
+   */
+  public RedisClientExecutor removeShard(final String name);
+
+  default <R> R apply(final String key, final Function<RedisClient, R> clientConsumer) {
+    return getShard(key).apply(clientConsumer);
+  }
+
+  default <R> R apply(final byte[] key, final Function<RedisClient, R> clientConsumer) {
+    return getShard(key).apply(clientConsumer);
+  }
+
+  default void accept(final String key, final Consumer<RedisClient> clientConsumer) {
+    getShard(key).accept(clientConsumer);
+  }
+
+  default void accept(final byte[] key, final Consumer<RedisClient> clientConsumer) {
+    getShard(key).accept(clientConsumer);
+  }
+
+  default <R> R applyPipeline(final String key,
+      final Function<RedisPipeline, R> pipelineConsumer) {
+    return applyPipeline(RESP.toBytes(key), pipelineConsumer);
+  }
+
+  default <R> R applyPipeline(final byte[] key,
+      final Function<RedisPipeline, R> pipelineConsumer) {
+    return getShard(key).apply(client -> {
+      try (final RedisPipeline pipeline = client.pipeline()) {
+        return pipelineConsumer.apply(pipeline);
+      }
+    });
+  }
+
+  default void acceptPipeline(final String key, final Consumer<RedisPipeline> pipelineConsumer) {
+    acceptPipeline(RESP.toBytes(key), pipelineConsumer);
+  }
+
+  default void acceptPipeline(final byte[] key, final Consumer<RedisPipeline> pipelineConsumer) {
+    applyPipeline(key, pipeline -> {
+      pipelineConsumer.accept(pipeline);
+      return null;
+    });
+  }
+
+  /**
+   * Runs clientConsumer against every shard.
+   *
+   * @param clientConsumer The function to apply to each shard.
+   * @return The results by shard name.
+   */
+  public <R> Map<String, R> applyAll(final Function<RedisClient, R> clientConsumer);
+
+  /**
+   * Groups keys by shard and hands each shard's group to pipelineConsumer on a single pipeline
+   * to that shard.
+   *
+   * @param keys The keys to group. With a stride greater than one, only every stride'th entry is
+   *        hashed, e.g. 2 for alternating keys and values.
+   * @param stride The distance between keys.
+   * @param pipelineConsumer Given a shard's pipeline and the indexes into keys of its keys, in
+   *        their original order.
+   * @return The results by shard name.
+   */
+  public <R> Map<String, R> applyPipelines(final byte[][] keys, final int stride,
+      final BiFunction<RedisPipeline, int[], R> pipelineConsumer);
+
+  default Object[] mget(final String... keys) {
+    return mget(RESP.toBytes(keys));
+  }
+
+  public Object[] mget(final byte[]... keys);
+
+  default void mset(final String... keyValues) {
+    mset(RESP.toBytes(keyValues));
+  }
+
+  public void mset(final byte[]... keyValues);
+
+  default long del(final String... keys) {
+    return sum(Cmds.DEL, RESP.toBytes(keys));
+  }
+
+  default long del(final byte[]... keys) {
+    return sum(Cmds.DEL, keys);
+  }
+
+  default long exists(final String... keys) {
+    return sum(Cmds.EXISTS, RESP.toBytes(keys));
+  }
+
+  default long exists(final byte[]... keys) {
+    return sum(Cmds.EXISTS, keys);
+  }
+
+  /**
+   * Sends cmd to each shard with that shard's keys and sums the replies.
+   *
+   * @param cmd A multi-key command with an integer reply, such as DEL, EXISTS or UNLINK.
+   * @param keys The keys to send.
+   * @return The sum of every shard's reply.
+   */
+  public long sum(final Cmd<Long> cmd, final byte[]... keys);
+
+  @Override
+  public void close();
+}
@@ -1,5 +1,10 @@
 package com.fabahaba.jedipus.executor;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.function.ToLongFunction;
@@ -7,6 +12,7 @@ import java.util.function.ToLongFunction;
 import com.fabahaba.jedipus.client.RedisClient;
 import com.fabahaba.jedipus.cluster.Node;
 import com.fabahaba.jedipus.concurrent.ElementRetryDelay;
+import com.fabahaba.jedipus.concurrent.RetryTimer;
 import com.fabahaba.jedipus.exceptions.RedisConnectionException;
 import com.fabahaba.jedipus.primitive.RedisClientFactory;
 
@@ -15,8 +21,13 @@ final class SingleRedisClientExecutor implements RedisClientExecutor {
   private final Supplier<Node> nodeSupplier;
   private final RedisClientFactory.Builder clientFactory;
   private volatile RedisClient client;
+  private volatile boolean closed = false;
   private final ElementRetryDelay<Node> retryDelay;
   private final int maxRetries;
+  // The shared client is not thread safe. Every call holds clientLock while using it, and
+  // asynchronous attempts additionally take turns on a single thread rather than blocking callers.
+  private final Object clientLock = new Object();
+  private final ExecutorService clientExecutor = createClientExecutor();
 
   SingleRedisClientExecutor(final Supplier<Node> nodeSupplier,
       final RedisClientFactory.Builder clientFactory, final ElementRetryDelay<Node> retryDelay,
@@ -30,30 +41,74 @@ final class SingleRedisClientExecutor implements RedisClientExecutor {
 
   @Override
   public long applyPrim(final ToLongFunction<RedisClient> clientConsumer, final int maxRetries) {
-    for (RedisClient client = getClient(maxRetries);;) {
-      try {
-        final long result = clientConsumer.applyAsLong(client);
-        retryDelay.markSuccess(client.getNode());
-        return result;
-      } catch (final RedisConnectionException rce) {
-        client = getClient(maxRetries, client.getNode(), rce);
+    synchronized (clientLock) {
+      for (RedisClient client = getClient(maxRetries);;) {
+        try {
+          final long result = clientConsumer.applyAsLong(client);
+          retryDelay.markSuccess(client.getNode());
+          return result;
+        } catch (final RedisConnectionException rce) {
+          client = getClient(maxRetries, client.getNode(), rce);
+        }
       }
     }
   }
 
   @Override
   public <R> R apply(final Function<RedisClient, R> clientConsumer, final int maxRetries) {
-    for (RedisClient client = getClient(maxRetries);;) {
-      try {
-        final R result = clientConsumer.apply(client);
-        retryDelay.markSuccess(client.getNode());
-        return result;
-      } catch (final RedisConnectionException rce) {
-        client = getClient(maxRetries, client.getNode(), rce);
+    synchronized (clientLock) {
+      for (RedisClient client = getClient(maxRetries);;) {
+        try {
+          final R result = clientConsumer.apply(client);
+          retryDelay.markSuccess(client.getNode());
+          return result;
+        } catch (final RedisConnectionException rce) {
+          client = getClient(maxRetries, client.getNode(), rce);
+        }
       }
     }
   }
 
+  @Override
+  public <R> CompletableFuture<R> applyAsync(final Function<RedisClient, R> clientConsumer,
+      final int maxRetries, final ExecutorService executor) {
+    final AsyncApply<R> asyncApply = new AsyncApply<>(clientConsumer, maxRetries, executor);
+    RetryTimer.schedule(asyncApply, 0, clientExecutor, asyncApply.future);
+    return asyncApply.future;
+  }
+
+  private static ExecutorService createClientExecutor() {
+    final ThreadPoolExecutor clientExecutor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), runnable -> {
+          final Thread thread = new Thread(runnable, "jedipus-single-client");
+          thread.setDaemon(true);
+          return thread;
+        });
+    clientExecutor.allowCoreThreadTimeOut(true);
+    return clientExecutor;
+  }
+
+  // Makes a single connection attempt, leaving any backoff to the caller.
+  private RedisClient getOrConnectClient() {
+    final RedisClient redisClient = client;
+    if (redisClient != null && !redisClient.isBroken()) {
+      return redisClient;
+    }
+
+    synchronized (clientFactory) {
+      if (client != null && !client.isBroken()) {
+        return client;
+      }
+      checkOpen();
+
+      final Node node = nodeSupplier.get();
+      retryDelay.markAttempt(node);
+      client = clientFactory.create(node);
+      retryDelay.markSuccess(node);
+      return client;
+    }
+  }
+
   private RedisClient getClient(final int maxRetries) {
     return getClient(maxRetries, null, null);
   }
@@ -70,6 +125,7 @@ final class SingleRedisClientExecutor implements RedisClientExecutor {
       if (client != null && !client.isBroken()) {
         return client;
       }
+      checkOpen();
 
       for (Node node = nodeSupplier.get(), previousNode = failedNode;;) {
 
@@ -80,6 +136,7 @@ final class SingleRedisClientExecutor implements RedisClientExecutor {
           retryDelay.markFailure(node, maxRetries, rce);
         }
 
+        retryDelay.markAttempt(node);
         try {
           redisClient = clientFactory.create(node);
           retryDelay.markSuccess(redisClient.getNode());
@@ -92,18 +149,74 @@ final class SingleRedisClientExecutor implements RedisClientExecutor {
     }
   }
 
-  @Override
-  public void close() {
-    if (client == null) {
-      return;
+  // Guarded by clientFactory, a closed executor must not leave behind a client nobody closes.
+  private void checkOpen() {
+    if (closed) {
+      throw new IllegalStateException("Executor closed.");
     }
+  }
+
+  private final class AsyncApply<R> implements Runnable {
+
+    private final Function<RedisClient, R> clientConsumer;
+    private final int maxRetries;
+    private final ExecutorService executor;
+    private final CompletableFuture<R> future;
+    private long retries = 0;
 
+    AsyncApply(final Function<RedisClient, R> clientConsumer, final int maxRetries,
+        final ExecutorService executor) {
+      this.clientConsumer = clientConsumer;
+      this.maxRetries = maxRetries;
+      this.executor = executor;
+      this.future = new CompletableFuture<>();
+    }
+
+    @Override
+    public void run() {
+      long delayNanos;
+      try {
+        RedisClient client = null;
+        try {
+          final R result;
+          synchronized (clientLock) {
+            client = getOrConnectClient();
+            result = clientConsumer.apply(client);
+          }
+          retryDelay.markSuccess(client.getNode());
+          // Dependent stages run on the caller's executor rather than the client thread.
+          RetryTimer.schedule(() -> future.complete(result), 0, executor, future);
+          return;
+        } catch (final RedisConnectionException rce) {
+          final Node failedNode = client == null ? rce.getNode() : client.getNode();
+          delayNanos = retryDelay.markFailureDelay(failedNode, maxRetries, rce, retries++);
+        }
+      } catch (final RuntimeException | Error ex) {
+        RetryTimer.schedule(() -> future.completeExceptionally(ex), 0, executor, future);
+        return;
+      }
+
+      RetryTimer.schedule(this, delayNanos, clientExecutor, future);
+    }
+  }
+
+  @Override
+  public void close() {
     synchronized (clientFactory) {
+      closed = true;
       if (client != null) {
         client.close();
         client = null;
       }
     }
+
+    // Attempts still waiting on the retry timer are rejected once they come due.
+    for (final Runnable pending : clientExecutor.shutdownNow()) {
+      if (pending instanceof AsyncApply) {
+        ((AsyncApply<?>) pending).future
+            .completeExceptionally(new IllegalStateException("Executor closed."));
+      }
+    }
   }
 
   @Override
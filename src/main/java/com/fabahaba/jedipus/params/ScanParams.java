@@ -11,6 +11,40 @@ public final class ScanParams {
   public static final String SCAN_SENTINEL = "0";
   private static final byte[] SCAN_SENTINEL_BYTES = RESP.toBytes(SCAN_SENTINEL);
 
+  /**
+   * @param pattern MATCH pattern, or null.
+   * @param count COUNT hint, or a non-positive value for the server default.
+   * @param type TYPE filter, supported since Redis 6.0, or null.
+   * @return SCAN options to follow the cursor.
+   */
+  public static byte[][] createScanOptions(final String pattern, final int count,
+      final String type) {
+
+    return createScanOptions(pattern == null ? null : RESP.toBytes(pattern),
+        count > 0 ? RESP.toBytes(count) : null, type == null ? null : RESP.toBytes(type));
+  }
+
+  public static byte[][] createScanOptions(final byte[] pattern, final byte[] count,
+      final byte[] type) {
+
+    final byte[][] options =
+        new byte[(pattern == null ? 0 : 2) + (count == null ? 0 : 2) + (type == null ? 0 : 2)][];
+    int index = 0;
+    if (pattern != null) {
+      options[index++] = Cmds.MATCH.getCmdBytes();
+      options[index++] = pattern;
+    }
+    if (count != null) {
+      options[index++] = Cmds.COUNT.getCmdBytes();
+      options[index++] = count;
+    }
+    if (type != null) {
+      options[index++] = Cmds.TYPE.getCmdBytes();
+      options[index++] = type;
+    }
+    return options;
+  }
+
   public static byte[][] createPatternCount(final String cursor, final String pattern,
       final int count) {
 
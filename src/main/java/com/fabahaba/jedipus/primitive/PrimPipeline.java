@@ -16,6 +16,7 @@ import com.fabahaba.jedipus.cmds.PrimCmd;
 import com.fabahaba.jedipus.cmds.RESP;
 import com.fabahaba.jedipus.exceptions.AskNodeException;
 import com.fabahaba.jedipus.exceptions.RedisUnhandledException;
+import com.fabahaba.jedipus.exceptions.SlotRedirectException;
 import com.fabahaba.jedipus.exceptions.UnhandledAskNodeException;
 
 final class PrimPipeline implements RedisPipeline {
@@ -179,18 +180,21 @@ final class PrimPipeline implements RedisPipeline {
     }
 
     client.conn.flushOS();
+    SlotRedirectException redirectEx = null;
     for (;;) {
       final StatefulFutureReply<?> futureReply = pipelineReplies.poll();
       if (futureReply == null) {
-        return;
+        break;
       }
 
       try {
         futureReply.setReply(client.conn);
-      } catch (final AskNodeException askEx) {
-        client.conn.drainIS();
-        throw new UnhandledAskNodeException(client.getNode(),
-            "ASK redirects are not supported inside pipelines.", askEx);
+      } catch (final SlotRedirectException slotRedirectEx) {
+        // Keep reading so every reply reflects its own redirect and the connection stays usable.
+        futureReply.setException(slotRedirectEx);
+        if (redirectEx == null) {
+          redirectEx = slotRedirectEx;
+        }
       } catch (final RedisUnhandledException re) {
         if (throwUnchecked) {
           client.conn.drainIS();
@@ -199,6 +203,21 @@ final class PrimPipeline implements RedisPipeline {
         futureReply.setException(re);
       }
     }
+
+    throwRedirect(redirectEx);
+  }
+
+  private void throwRedirect(final SlotRedirectException redirectEx) {
+    if (redirectEx == null) {
+      return;
+    }
+
+    if (redirectEx instanceof AskNodeException) {
+      throw new UnhandledAskNodeException(client.getNode(),
+          "ASK redirects are not supported inside pipelines.", (AskNodeException) redirectEx);
+    }
+
+    throw redirectEx;
   }
 
   @Override
@@ -209,18 +228,21 @@ final class PrimPipeline implements RedisPipeline {
     }
 
     client.conn.flushOS();
+    SlotRedirectException redirectEx = null;
     for (;;) {
       final StatefulFutureReply<?> futureReply = pipelineReplies.poll();
       if (futureReply == null) {
-        return;
+        break;
       }
 
       try {
         futureReply.setMultiReply(client.conn.getLongArray());
-      } catch (final AskNodeException askEx) {
-        client.conn.drainIS();
-        throw new UnhandledAskNodeException(client.getNode(),
-            "ASK redirects are not supported inside pipelines.", askEx);
+      } catch (final SlotRedirectException slotRedirectEx) {
+        // Keep reading so every reply reflects its own redirect and the connection stays usable.
+        futureReply.setException(slotRedirectEx);
+        if (redirectEx == null) {
+          redirectEx = slotRedirectEx;
+        }
       } catch (final RedisUnhandledException re) {
         if (throwUnchecked) {
           client.conn.drainIS();
@@ -229,6 +251,8 @@ final class PrimPipeline implements RedisPipeline {
         futureReply.setException(re);
       }
     }
+
+    throwRedirect(redirectEx);
   }
 
   @Override
@@ -0,0 +1,88 @@
+package com.fabahaba.jedipus.cluster;
+
+import static org.junit.Assert.assertEquals;
+
+import com.fabahaba.jedipus.cmds.RESP;
+
+import org.junit.Test;
+
+public class CRC16Test {
+
+  private static final int[] REFERENCE_TABLE = new int[256];
+
+  static {
+    for (int b = 0; b < 256; b++) {
+      int crc = b << 8;
+      for (int bit = 0; bit < 8; bit++) {
+        crc = (crc & 0x8000) == 0 ? crc << 1 : (crc << 1) ^ 0x1021;
+      }
+      REFERENCE_TABLE[b] = crc & 0xFFFF;
+    }
+  }
+
+  private static int referenceCRC16(final byte[] bytes) {
+    int crc = 0;
+    for (final byte bite : bytes) {
+      crc = ((crc << 8) & 0xFFFF) ^ REFERENCE_TABLE[((crc >>> 8) ^ bite) & 0xFF];
+    }
+    return crc;
+  }
+
+  @Test
+  public void testKnownValues() {
+
+    assertEquals(0x31C3, CRC16.getCRC16("123456789"));
+    assertEquals(0x31C3, CRC16.getCRC16(RESP.toBytes("123456789")));
+    assertEquals(12182, CRC16.getSlot("foo"));
+    assertEquals(5061, CRC16.getSlot("bar"));
+    assertEquals(0, CRC16.getCRC16(""));
+  }
+
+  @Test
+  public void testSlicedMatchesBytewise() {
+
+    final StringBuilder key = new StringBuilder();
+    for (int length = 0; length <= 40; length++) {
+      final byte[] bytes = RESP.toBytes(key.toString());
+      final int expected = referenceCRC16(bytes);
+      assertEquals(key.toString(), expected, CRC16.getCRC16(bytes));
+      assertEquals(key.toString(), expected, CRC16.getCRC16(key.toString()));
+      assertEquals(key.toString(), expected, CRC16.getCRC16(key, 0, key.length()));
+      key.append((char) ('!' + length * 7 % 90));
+    }
+  }
+
+  @Test
+  public void testStringMatchesEncodedBytes() {
+
+    final String[] keys = {"\u00E9", "user:\u00F1and\u00FA:1000",
+        "\u65E5\u672C\u8A9E\u306E\u30AD\u30FC", "emoji:\uD83D\uDE00:key",
+        "unpaired:\uD83D:high", "unpaired:\uDE00:low", "trailing\uD83D",
+        "mixed-ascii-prefix-\u00E9", "{\u00FC}.tag", "x{\uD83D\uDE00}y",
+        "0123456789abcdef\u07FF\u0800\uFFFF"};
+
+    for (final String key : keys) {
+      final byte[] bytes = RESP.toBytes(key);
+      assertEquals(key, referenceCRC16(bytes), CRC16.getCRC16(key));
+      assertEquals(key, CRC16.getSlot(bytes), CRC16.getSlot(key));
+      assertEquals(key, CRC16.getSlot(bytes), CRC16.getSlot(new StringBuilder(key)));
+    }
+  }
+
+  @Test
+  public void testHashTagsMatchAcrossKeyTypes() {
+
+    final String[] keys = {"{bar", "foo{{bar}}zap", "{user1000}.following", "foo{}{bar}",
+        "foo{bar}{zap}", "{}", "}{", "{a}", "a{b", "a}b{c}"};
+
+    for (final String key : keys) {
+      final int slot = CRC16.getSlot(key);
+      assertEquals(key, slot, CRC16.getSlot(RESP.toBytes(key)));
+      assertEquals(key, slot, CRC16.getSlot(new StringBuilder(key)));
+    }
+
+    assertEquals(CRC16.getSlot("bar"), CRC16.getSlot(RESP.toBytes("foo{bar}{zap}")));
+    assertEquals(CRC16.getSlot("{bar"), CRC16.getSlot(RESP.toBytes("foo{{bar}}zap")));
+    assertEquals(CRC16.getSlot("c"), CRC16.getSlot("a}b{c}"));
+  }
+}
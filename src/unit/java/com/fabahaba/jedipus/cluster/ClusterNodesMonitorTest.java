@@ -0,0 +1,62 @@
+package com.fabahaba.jedipus.cluster;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class ClusterNodesMonitorTest {
+
+  private static final String NODES = "a 10.0.0.1:7000@17000 master - 0 0 1 connected 0-8191\n"
+      + "b 10.0.0.2:7000@17000 master - 0 0 2 connected 8192-16383\n";
+  private static final String FAILED_OVER =
+      "a 10.0.0.1:7000@17000 master,fail - 0 0 1 disconnected\n"
+          + "b 10.0.0.2:7000@17000 master - 0 0 2 connected 8192-16383\n"
+          + "c 10.0.0.3:7000@17000 master - 0 0 3 connected 0-8191\n";
+
+  @Test
+  public void testFailedRefreshIsRetried() {
+    final AtomicInteger refreshes = new AtomicInteger();
+    final Runnable refreshSlotCache = () -> {
+      if (refreshes.incrementAndGet() == 1) {
+        throw new IllegalStateException("Cluster partitioned.");
+      }
+    };
+
+    try (final ClusterNodesMonitor monitor = new ClusterNodesMonitor(Collections::emptyMap,
+        node -> null, refreshSlotCache, node -> node, Duration.ofHours(1))) {
+
+      monitor.sample(NODES);
+      assertEquals(0, refreshes.get());
+
+      try {
+        monitor.sample(FAILED_OVER);
+        fail("Expected the refresh to fail.");
+      } catch (final IllegalStateException partitioned) {
+        assertEquals(1, refreshes.get());
+      }
+
+      monitor.sample(FAILED_OVER);
+      assertEquals(2, refreshes.get());
+
+      monitor.sample(FAILED_OVER);
+      assertEquals(2, refreshes.get());
+    }
+  }
+
+  @Test
+  public void testSampleSurvivesFailures() {
+    try (final ClusterNodesMonitor monitor = new ClusterNodesMonitor(() -> {
+      throw new IllegalStateException("Slot cache closed.");
+    }, node -> null, () -> {
+    }, node -> node, Duration.ofHours(1))) {
+
+      monitor.sample();
+      assertEquals(Collections.emptySet(), monitor.getDownNodes());
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package com.fabahaba.jedipus.cluster;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import com.fabahaba.jedipus.cluster.data.ClusterSlotVotes;
+import com.fabahaba.jedipus.cmds.RESP;
+
+import org.junit.Test;
+
+public class ClusterSlotsFingerprintTest {
+
+  private static Object[] node(final String host, final long port, final String id) {
+    return new Object[] {RESP.toBytes(host), Long.valueOf(port), RESP.toBytes(id)};
+  }
+
+  private static Object[] range(final long begin, final long end, final Object[]... nodes) {
+    final Object[] range = new Object[2 + nodes.length];
+    range[0] = Long.valueOf(begin);
+    range[1] = Long.valueOf(end);
+    System.arraycopy(nodes, 0, range, 2, nodes.length);
+    return range;
+  }
+
+  @Test
+  public void testMatchesClusterSlotVotesEquality() {
+
+    final Object[] a = node("10.0.0.1", 7000, "a");
+    final Object[] b = node("10.0.0.2", 7000, "b");
+    final Object[] replica = node("10.0.0.3", 7000, "c");
+
+    final Object[] view = new Object[] {range(0, 8191, a, replica), range(8192, 16383, b)};
+    final Object[] reordered = new Object[] {range(8192, 16383, b), range(0, 8191, a)};
+
+    assertEquals(ClusterSlotVotes.create(view), ClusterSlotVotes.create(reordered));
+    assertEquals(ClusterSlotsFingerprint.hash(view), ClusterSlotsFingerprint.hash(reordered));
+  }
+
+  @Test
+  public void testDiffersOnMovedSlots() {
+
+    final Object[] a = node("10.0.0.1", 7000, "a");
+    final Object[] b = node("10.0.0.2", 7000, "b");
+
+    final long hash =
+        ClusterSlotsFingerprint.hash(new Object[] {range(0, 8191, a), range(8192, 16383, b)});
+
+    assertNotEquals(hash,
+        ClusterSlotsFingerprint.hash(new Object[] {range(0, 8192, a), range(8193, 16383, b)}));
+    assertNotEquals(hash,
+        ClusterSlotsFingerprint.hash(new Object[] {range(0, 8191, b), range(8192, 16383, a)}));
+    assertNotEquals(hash, ClusterSlotsFingerprint.hash(new Object[] {range(0, 8191, a),
+        range(8192, 16383, node("10.0.0.2", 7001, "b"))}));
+    assertNotEquals(hash, ClusterSlotsFingerprint.hash(new Object[] {range(0, 8191, a)}));
+  }
+}
@@ -0,0 +1,74 @@
+package com.fabahaba.jedipus.cluster;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.fabahaba.jedipus.cmds.RESP;
+
+import org.junit.Test;
+
+public class CommandTableTest {
+
+  private static Object[] command(final String name, final long firstKey, final long lastKey,
+      final long step, final String... flags) {
+    return new Object[] {RESP.toBytes(name), Long.valueOf(-1), RESP.toBytes(flags),
+        Long.valueOf(firstKey), Long.valueOf(lastKey), Long.valueOf(step)};
+  }
+
+  private static final CommandTable TABLE = CommandTable.create(new Object[] {
+      command("get", 1, 1, 1, "readonly", "fast"),
+      command("set", 1, 1, 1, "write", "denyoom"),
+      command("ping", 0, 0, 0, "stale", "fast"),
+      command("eval", 0, 0, 0, "noscript", "movablekeys"),
+      new Object[] {RESP.toBytes("object"), Long.valueOf(-2), new Object[0], Long.valueOf(0),
+          Long.valueOf(0), Long.valueOf(0), new Object[0], new Object[0], new Object[0],
+          new Object[] {command("object|encoding", 2, 2, 1, "readonly")}}});
+
+  @Test
+  public void testParsesFlags() {
+
+    assertEquals(6, TABLE.size());
+    assertTrue(TABLE.get("get").is(CommandTable.READONLY));
+    assertFalse(TABLE.get("GET").is(CommandTable.WRITE));
+    assertTrue(TABLE.get("set").is(CommandTable.WRITE));
+    assertTrue(TABLE.get("eval").is(CommandTable.MOVABLE_KEYS));
+    assertEquals(2, TABLE.get("object", "encoding").getFirstKey());
+    assertEquals(2, TABLE.get("OBJECT", "ENCODING").getFirstKey());
+    assertEquals(0, TABLE.get("object", "unknown").getFirstKey());
+    assertNull(TABLE.get("unknown"));
+  }
+
+  @Test
+  public void testClassifiesReadOnly() {
+
+    assertTrue(TABLE.isReadOnly("get", null));
+    assertTrue(TABLE.isReadOnly("GET", null));
+    assertFalse(TABLE.isReadOnly("set", null));
+    assertTrue(TABLE.isReadOnly("object", "encoding"));
+    assertFalse(TABLE.isReadOnly("eval", null));
+    assertFalse(TABLE.isReadOnly("unknown", null));
+
+    assertTrue(CommandTable.EMPTY.isReadOnly("zrangebyscore", null));
+    assertTrue(CommandTable.EMPTY.isReadOnly("HGETALL", null));
+    assertFalse(CommandTable.EMPTY.isReadOnly("zadd", null));
+  }
+
+  @Test
+  public void testRoutesToFirstKey() {
+
+    final byte[] key = RESP.toBytes("{user1000}.following");
+    final int slot = CRC16.getSlot(key);
+
+    assertEquals(slot, TABLE.getSlot("get", null, new byte[][] {key}));
+    assertEquals(slot, TABLE.getSlot("set", null, new byte[][] {key, RESP.toBytes("v")}));
+    assertEquals(slot, TABLE.getSlot("object", "encoding", new byte[][] {key}));
+    assertEquals(slot, TABLE.getSlot("eval", null,
+        new byte[][] {RESP.toBytes("return 1"), RESP.toBytes(1), key}));
+    assertEquals(slot, TABLE.getSlot("unknown", null, new byte[][] {key}));
+
+    final int keylessSlot = TABLE.getSlot("ping", null, new byte[][] {key});
+    assertTrue(keylessSlot >= 0 && keylessSlot < CRC16.NUM_SLOTS);
+  }
+}
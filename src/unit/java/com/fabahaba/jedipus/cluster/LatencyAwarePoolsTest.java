@@ -0,0 +1,71 @@
+package com.fabahaba.jedipus.cluster;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.fabahaba.jedipus.cluster.LatencyAwarePools.TrackedPool;
+import com.fabahaba.jedipus.cluster.RedisClusterExecutor.ReadMode;
+import com.fabahaba.jedipus.concurrent.LoadBalancedPools;
+import com.fabahaba.jedipus.pool.ClientPool;
+
+public class LatencyAwarePoolsTest {
+
+  @SuppressWarnings("unchecked")
+  private static ClientPool<Object> stubPool() {
+    return (ClientPool<Object>) Proxy.newProxyInstance(ClientPool.class.getClassLoader(),
+        new Class<?>[] {ClientPool.class}, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "borrowClient":
+              return new Object();
+            case "isClosed":
+              return Boolean.FALSE;
+            case "hashCode":
+              return System.identityHashCode(proxy);
+            case "equals":
+              return proxy == args[0];
+            default:
+              return null;
+          }
+        });
+  }
+
+  @Test
+  public void testPrefersFasterPool() {
+    final LatencyAwareLBFactory.PoolTracker<Object> tracker =
+        new LatencyAwareLBFactory.PoolTracker<>(Duration.ofSeconds(10).toNanos());
+
+    final TrackedPool<Object> slow = tracker.track(stubPool());
+    final TrackedPool<Object> fast = tracker.track(stubPool());
+    final long now = System.nanoTime();
+    slow.recordLatency(TimeUnit.MILLISECONDS.toNanos(50), now);
+    fast.recordLatency(TimeUnit.MILLISECONDS.toNanos(1), now);
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    final LoadBalancedPools<Object, ReadMode> lbPools =
+        new LatencyAwarePools<>(new TrackedPool[] {slow, fast}, tracker);
+
+    for (int i = 0; i < 100; i++) {
+      assertSame(fast, lbPools.next(ReadMode.SLAVES));
+    }
+  }
+
+  @Test
+  public void testTracksInFlight() {
+    final LatencyAwareLBFactory.PoolTracker<Object> tracker =
+        new LatencyAwareLBFactory.PoolTracker<>(Duration.ofSeconds(10).toNanos());
+    final ClientPool<Object> pool = stubPool();
+    final TrackedPool<Object> trackedPool = tracker.track(pool);
+    assertSame(trackedPool, tracker.track(pool));
+
+    final Object client = trackedPool.borrowClient();
+    assertEquals(1, trackedPool.getInFlight());
+    trackedPool.returnClient(client);
+    assertEquals(0, trackedPool.getInFlight());
+  }
+}
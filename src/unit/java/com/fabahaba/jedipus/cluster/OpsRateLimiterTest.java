@@ -0,0 +1,36 @@
+package com.fabahaba.jedipus.cluster;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class OpsRateLimiterTest {
+
+  @Test
+  public void testReservesAtRate() {
+
+    final OpsRateLimiter rateLimiter = new OpsRateLimiter(1000);
+    final long now = System.nanoTime() + 1_000_000_000L;
+
+    // A batch starts immediately and pushes back the next one by its own size.
+    assertEquals(now, rateLimiter.reserve(500, now));
+    assertEquals(now + 500_000_000L, rateLimiter.reserve(10, now));
+    assertEquals(now + 510_000_000L, rateLimiter.reserve(1, now + 100_000_000L));
+
+    // Idle time is not banked as a burst.
+    final long later = now + 5_000_000_000L;
+    assertEquals(later, rateLimiter.reserve(1, later));
+    assertEquals(later + 1_000_000L, rateLimiter.reserve(1, later));
+  }
+
+  @Test
+  public void testUnlimited() {
+
+    final OpsRateLimiter rateLimiter = new OpsRateLimiter(0);
+    final long start = System.nanoTime();
+    rateLimiter.acquire(Integer.MAX_VALUE);
+    rateLimiter.acquire(Integer.MAX_VALUE);
+    assertTrue(System.nanoTime() - start < 1_000_000_000L);
+  }
+}
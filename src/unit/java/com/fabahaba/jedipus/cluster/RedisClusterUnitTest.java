@@ -1,7 +1,17 @@
 package com.fabahaba.jedipus.cluster;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.fabahaba.jedipus.cmds.RESP;
+import com.fabahaba.jedipus.concurrent.ElementRetryDelay;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
@@ -15,4 +25,130 @@ public class RedisClusterUnitTest {
     assertNotEquals(CRC16.getSlot("foo{}{bar}"), CRC16.getSlot("bar"));
     assertEquals(CRC16.getSlot("foo{bar}{zap}"), CRC16.getSlot("bar"));
   }
+
+  @Test
+  public void testSlotRunsPreserveKeyOrder() {
+
+    final byte[][] keys = RESP.toBytes("{a}1", "b", "{a}2", "{b}1", "{a}3", "c", "b");
+    final long[] slotIndexes = MultiKeyCmds.sortBySlot(keys, 1);
+    final int[] runs = MultiKeyCmds.slotRuns(slotIndexes);
+
+    assertEquals(4, runs.length);
+    assertEquals(keys.length, runs[runs.length - 1]);
+
+    for (int run = 0; run < runs.length - 1; run++) {
+      int previousIndex = -1;
+      for (int i = runs[run]; i < runs[run + 1]; i++) {
+        final int keyIndex = (int) slotIndexes[i];
+        assertEquals(MultiKeyCmds.slot(slotIndexes[runs[run]]), CRC16.getSlot(keys[keyIndex]));
+        assertTrue(keyIndex > previousIndex);
+        previousIndex = keyIndex;
+      }
+    }
+  }
+
+  @Test
+  public void testReplicaLag() {
+
+    final Map<String, String> info = ReplicaLagMonitor.parseInfo("# Replication\r\nrole:slave\r\n"
+        + "master_link_status:up\r\nmaster_sync_in_progress:0\r\nslave_repl_offset:1000\r\n");
+
+    assertFalse(ReplicaLagMonitor.isLagging(info, 1500, 1024));
+    assertTrue(ReplicaLagMonitor.isLagging(info, 4000, 1024));
+    assertFalse(ReplicaLagMonitor.isLagging(info, -1, 1024));
+
+    info.put("master_sync_in_progress", "1");
+    assertTrue(ReplicaLagMonitor.isLagging(info, 1000, 1024));
+
+    info.put("master_sync_in_progress", "0");
+    info.put("master_link_status", "down");
+    assertTrue(ReplicaLagMonitor.isLagging(info, 1000, 1024));
+  }
+
+  @Test
+  public void testHedgeDelayAndRate() {
+
+    final HedgePolicy policy =
+        HedgePolicy.create(0.9, Duration.ofMillis(5), Duration.ofMillis(50), 0.1, 2);
+
+    try (final ReadHedger hedger = new ReadHedger(policy, null)) {
+      assertEquals(TimeUnit.MILLISECONDS.toNanos(50), hedger.getDelayNanos());
+
+      for (int i = 1; i <= 64; i++) {
+        hedger.recordLatency(TimeUnit.MILLISECONDS.toNanos(i % 32));
+      }
+      assertEquals(TimeUnit.MILLISECONDS.toNanos(28), hedger.getDelayNanos());
+
+      assertTrue(hedger.tryHedge());
+      assertTrue(hedger.tryHedge());
+      assertFalse(hedger.tryHedge());
+
+      for (int i = 0; i < 9; i++) {
+        hedger.addHedgeTokens();
+      }
+      assertFalse(hedger.tryHedge());
+      hedger.addHedgeTokens();
+      assertTrue(hedger.tryHedge());
+    }
+  }
+
+  @Test
+  public void testRetryDelayHonorsDeadline() {
+
+    final ElementRetryDelay<Node> retryDelay = ElementRetryDelay.startBuilding()
+        .withBaseDelayMillis(1000).withMaxDelay(Duration.ofSeconds(10)).create();
+    final Node node = Node.create("localhost", 6379);
+    final RuntimeException cause = new RuntimeException();
+
+    final long start = System.nanoTime();
+    final long deadline = start + TimeUnit.MILLISECONDS.toNanos(20);
+    long retries = retryDelay.markFailure(node, 5, cause, 0, deadline);
+    retries = retryDelay.markFailure(node, 5, cause, retries, deadline);
+
+    assertEquals(2, retries);
+    assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+  }
+
+  @Test
+  public void testAsyncRetryDelayDoesNotBlock() {
+
+    final ElementRetryDelay<Node> retryDelay = ElementRetryDelay.startBuilding()
+        .withBaseDelayMillis(1000).withMaxDelay(Duration.ofSeconds(10)).create();
+    final Node node = Node.create("localhost", 6379);
+    final RuntimeException cause = new RuntimeException();
+
+    final long start = System.nanoTime();
+    assertEquals(0, retryDelay.markFailureDelay(node, 5, cause, 0));
+    assertTrue(retryDelay.markFailureDelay(node, 5, cause, 1) >= TimeUnit.SECONDS.toNanos(1));
+    assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+  }
+
+  @Test
+  public void testParseClusterNodeFlags() {
+
+    final String clusterNodes = "07c37dfeb235213a872192d90877d0cd55635b91 127.0.0.1:30004@31004 "
+        + "slave e7d1eecce10fd6bb5eb35b9f99a514335d9ba9ca 0 1426238317239 4 connected\n"
+        + "67ed2db8d677e59ec4a4cefb06858cf2a1a89fa1 127.0.0.1:30002 master,fail - 1426238316232 "
+        + "1426238315228 2 disconnected 5461-10922\n"
+        + "292f8b365bb7edb5e285caf0b7e6ddc7265d2f4f 127.0.0.1:30003@31003 master,fail? - 0 "
+        + "1426238318243 3 connected 10923-16383\n"
+        + "e7d1eecce10fd6bb5eb35b9f99a514335d9ba9ca 127.0.0.1:30001@31001 myself,master - 0 0 1 "
+        + "connected 0-5460\n";
+
+    final List<ClusterNodesMonitor.NodeState> nodeStates =
+        ClusterNodesMonitor.parseClusterNodes(clusterNodes, Node.DEFAULT_NODE_MAPPER);
+
+    assertEquals(4, nodeStates.size());
+    assertEquals(Node.create("127.0.0.1", 30004), nodeStates.get(0).getNode());
+    assertFalse(nodeStates.get(0).isMaster());
+    assertFalse(nodeStates.get(0).isDown());
+    assertEquals(Node.create("127.0.0.1", 30002), nodeStates.get(1).getNode());
+    assertTrue(nodeStates.get(1).isDown());
+    assertFalse(nodeStates.get(1).isPFail());
+    assertFalse(nodeStates.get(2).isDown());
+    assertTrue(nodeStates.get(2).isPFail());
+    assertTrue(nodeStates.get(3).isMaster());
+    assertFalse(nodeStates.get(3).isDown());
+    assertEquals(1, nodeStates.get(3).getConfigEpoch());
+  }
 }
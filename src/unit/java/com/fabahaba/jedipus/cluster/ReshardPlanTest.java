@@ -0,0 +1,71 @@
+package com.fabahaba.jedipus.cluster;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.fabahaba.jedipus.cluster.ReshardPlan.SlotMove;
+import com.fabahaba.jedipus.cluster.data.SlotNodes;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class ReshardPlanTest {
+
+  private static final Node MASTER_A = Node.create("10.0.0.1", 7000, "a");
+  private static final Node MASTER_B = Node.create("10.0.0.2", 7000, "b");
+  private static final Node MASTER_C = Node.create("10.0.0.3", 7000, "c");
+
+  private static final SlotNodes[] TWO_MASTERS = new SlotNodes[] {
+      SlotNodes.create(0, 8192, MASTER_A), SlotNodes.create(8192, CRC16.NUM_SLOTS, MASTER_B)};
+
+  private static Map<Node, Integer> countSlots(final ReshardPlan plan) {
+    final Map<Node, Integer> counts = new HashMap<>();
+    counts.put(MASTER_A, 8192);
+    counts.put(MASTER_B, 8192);
+    for (final SlotMove move : plan.getMoves()) {
+      counts.merge(move.getSource(), -1, Integer::sum);
+      counts.merge(move.getTarget(), 1, Integer::sum);
+    }
+    return counts;
+  }
+
+  @Test
+  public void testBalancesNewMaster() {
+
+    final ReshardPlan plan =
+        ReshardPlan.createBalanced(TWO_MASTERS, Arrays.asList(MASTER_A, MASTER_B, MASTER_C));
+
+    assertEquals(5461, plan.size());
+    final Map<Node, Integer> counts = countSlots(plan);
+    assertEquals(5462, counts.get(MASTER_A).intValue());
+    assertEquals(5461, counts.get(MASTER_B).intValue());
+    assertEquals(5461, counts.get(MASTER_C).intValue());
+    assertEquals(2, plan.getMovesByNodePair().size());
+
+    for (final SlotMove move : plan.getMoves()) {
+      assertEquals(MASTER_C, move.getTarget());
+      assertTrue(move.getSource() == MASTER_A ? move.getSlot() >= 5462
+          : move.getSlot() >= 8192 + 5461);
+    }
+  }
+
+  @Test
+  public void testDrainsMaster() {
+
+    final ReshardPlan plan = ReshardPlan.createBalanced(TWO_MASTERS, Arrays.asList(MASTER_B));
+
+    assertEquals(8192, plan.size());
+    assertEquals(CRC16.NUM_SLOTS, countSlots(plan).get(MASTER_B).intValue());
+    assertEquals(0, plan.getMoves().get(0).getSlot());
+  }
+
+  @Test
+  public void testBalancedIsEmpty() {
+
+    assertEquals(0,
+        ReshardPlan.createBalanced(TWO_MASTERS, Arrays.asList(MASTER_A, MASTER_B)).size());
+  }
+}
@@ -0,0 +1,115 @@
+package com.fabahaba.jedipus.cluster;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.fabahaba.jedipus.cluster.data.ClusterSlotVotes;
+import com.fabahaba.jedipus.cluster.data.SlotNodes;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TopologySnapshotFileTest {
+
+  @Rule
+  public final TemporaryFolder tmp = new TemporaryFolder();
+
+  private static final Node MASTER_A = Node.create("10.0.0.1", 7000, "a");
+  private static final Node MASTER_B = Node.create("10.0.0.2", 7000, "b");
+  private static final Node REPLICA_A = Node.create("10.0.0.3", 7001);
+
+  private static ClusterSlotVotes topology(final Node... slot0Nodes) {
+    return ClusterSlotVotes.create(new SlotNodes[] {
+        SlotNodes.create(8192, CRC16.NUM_SLOTS, MASTER_B),
+        SlotNodes.create(0, 8192, slot0Nodes)});
+  }
+
+  @Test
+  public void testPersistAndLoad() throws IOException {
+
+    final Path file = tmp.getRoot().toPath().resolve("nested").resolve("topology.bin");
+    final ClusterSlotVotes clusterSlots = topology(MASTER_A, REPLICA_A);
+
+    assertTrue(new TopologySnapshotFile(file).persist(clusterSlots, () -> 7));
+
+    final TopologySnapshotFile.Snapshot snapshot = new TopologySnapshotFile(file).load();
+    assertEquals(7, snapshot.getEpoch());
+    assertEquals(clusterSlots, snapshot.getClusterSlots());
+
+    final SlotNodes[] slots = snapshot.getClusterSlots().getClusterSlots();
+    assertEquals(0, slots[0].getSlotBegin());
+    assertEquals(8192, slots[0].getSlotEndExclusive());
+    assertEquals(2, slots[0].getNumNodesServingSlots());
+    assertEquals("a", slots[0].getMaster().getId());
+    assertEquals(REPLICA_A, slots[0].getNode(1));
+    assertNull(slots[0].getNode(1).getId());
+    assertEquals(CRC16.NUM_SLOTS, slots[1].getSlotEndExclusive());
+  }
+
+  @Test
+  public void testSkipsUnchangedTopology() {
+
+    final Path file = tmp.getRoot().toPath().resolve("topology.bin");
+    final TopologySnapshotFile snapshotFile = new TopologySnapshotFile(file);
+
+    assertTrue(snapshotFile.persist(topology(MASTER_A), () -> 1));
+    assertFalse(snapshotFile.persist(topology(MASTER_A), () -> {
+      throw new AssertionError("Epoch should only be read for changed topologies.");
+    }));
+    // Replica changes are not part of SlotNodes equality but must still be persisted.
+    assertTrue(snapshotFile.persist(topology(MASTER_A, REPLICA_A), () -> 1));
+
+    final TopologySnapshotFile restarted = new TopologySnapshotFile(file);
+    restarted.load();
+    assertFalse(restarted.persist(topology(MASTER_A, REPLICA_A), () -> 1));
+  }
+
+  @Test
+  public void testSkipsOlderEpoch() {
+
+    final Path file = tmp.getRoot().toPath().resolve("topology.bin");
+    final TopologySnapshotFile snapshotFile = new TopologySnapshotFile(file);
+
+    assertTrue(snapshotFile.persist(topology(MASTER_A), () -> 5));
+    assertFalse(snapshotFile.persist(topology(MASTER_B), () -> 4));
+    assertTrue(snapshotFile.persist(topology(MASTER_B),
+        () -> TopologySnapshotFile.UNKNOWN_EPOCH));
+    assertEquals(topology(MASTER_B), snapshotFile.load().getClusterSlots());
+
+    assertTrue(snapshotFile.persist(topology(MASTER_A), () -> 6));
+    final TopologySnapshotFile restarted = new TopologySnapshotFile(file);
+    restarted.load();
+    assertFalse(restarted.persist(topology(MASTER_B), () -> 5));
+  }
+
+  @Test
+  public void testIgnoresMissingAndCorruptFiles() throws IOException {
+
+    final Path file = tmp.getRoot().toPath().resolve("topology.bin");
+    assertNull(new TopologySnapshotFile(file).load());
+
+    assertTrue(new TopologySnapshotFile(file).persist(topology(MASTER_A), () -> 1));
+    final byte[] bytes = Files.readAllBytes(file);
+
+    final byte[] flipped = bytes.clone();
+    flipped[flipped.length / 2] ^= 1;
+    Files.write(file, flipped);
+    assertNull(new TopologySnapshotFile(file).load());
+
+    Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+    assertNull(new TopologySnapshotFile(file).load());
+
+    Files.write(file, bytes);
+    assertArrayEquals(topology(MASTER_A).getClusterSlots(),
+        new TopologySnapshotFile(file).load().getClusterSlots().getClusterSlots());
+  }
+}
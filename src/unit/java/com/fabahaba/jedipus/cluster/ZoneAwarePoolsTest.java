@@ -0,0 +1,71 @@
+package com.fabahaba.jedipus.cluster;
+
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Proxy;
+
+import org.junit.Test;
+
+import com.fabahaba.jedipus.client.RedisClient;
+import com.fabahaba.jedipus.cluster.RedisClusterExecutor.ReadMode;
+import com.fabahaba.jedipus.concurrent.LoadBalancedPools;
+import com.fabahaba.jedipus.pool.ClientPool;
+
+public class ZoneAwarePoolsTest {
+
+  private static final ZoneAwareLBFactory ZONES =
+      ZoneAwareLBFactory.create("a", node -> node.getHost().substring(0, 1));
+
+  @SuppressWarnings("unchecked")
+  private static ClientPool<RedisClient> stubPool(final String host, final boolean closed) {
+    final Node node = Node.create(host, 6379);
+    return (ClientPool<RedisClient>) Proxy.newProxyInstance(ClientPool.class.getClassLoader(),
+        new Class<?>[] {ClientPool.class}, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "getNode":
+              return node;
+            case "isClosed":
+              return closed;
+            case "getNumIdle":
+            case "getNumActive":
+              return 0;
+            case "hashCode":
+              return System.identityHashCode(proxy);
+            case "equals":
+              return proxy == args[0];
+            default:
+              return null;
+          }
+        });
+  }
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  @Test
+  public void testPrefersLocalZone() {
+    final ClientPool<RedisClient> local = stubPool("a-replica", false);
+    final ClientPool<RedisClient> remote = stubPool("b-replica", false);
+    final ClientPool<RedisClient> remoteMaster = stubPool("b-master", false);
+
+    final LoadBalancedPools<RedisClient, ReadMode> lbPools =
+        ZONES.apply(ReadMode.MIXED, new ClientPool[] {remote, local});
+
+    for (int i = 0; i < 10; i++) {
+      assertSame(local, lbPools.next(ReadMode.SLAVES));
+      assertSame(local, lbPools.next(ReadMode.MIXED, remoteMaster));
+    }
+  }
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  @Test
+  public void testSpillsOverWhenLocalUnusable() {
+    final ClientPool<RedisClient> local = stubPool("a-replica", true);
+    final ClientPool<RedisClient> remote = stubPool("b-replica", false);
+    final ClientPool<RedisClient> localMaster = stubPool("a-master", false);
+
+    final LoadBalancedPools<RedisClient, ReadMode> lbPools =
+        ZONES.apply(ReadMode.MIXED_SLAVES, new ClientPool[] {remote, local});
+
+    assertSame(remote, lbPools.next(ReadMode.SLAVES));
+    assertSame(localMaster, lbPools.next(ReadMode.MIXED_SLAVES, localMaster));
+  }
+}
@@ -0,0 +1,54 @@
+package com.fabahaba.jedipus.cmds;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.fabahaba.jedipus.cluster.CRC16;
+
+import org.junit.Test;
+
+public class RedisKeyTest {
+
+  @Test
+  public void testMatchesCRC16() {
+
+    final String[] keys = {"foo", "{user1000}.following", "foo{}{bar}", "foo{{bar}}zap",
+        "foo{bar}{zap}", "{bar", "", "\u00FC{\u00E9}"};
+
+    for (final String key : keys) {
+      final RedisKey redisKey = RedisKey.create(key);
+      assertEquals(key, CRC16.getSlot(key), redisKey.getSlot());
+      assertEquals(key, redisKey, RedisKey.create(RESP.toBytes(key)));
+      assertEquals(key, key, redisKey.toString());
+    }
+  }
+
+  @Test
+  public void testHashTagBounds() {
+
+    final RedisKey tagged = RedisKey.create("{user1000}.following");
+    assertTrue(tagged.hasHashTag());
+    assertEquals(1, tagged.getHashTagBegin());
+    assertEquals(9, tagged.getHashTagEnd());
+    assertEquals(RedisKey.create("user1000").getSlot(), tagged.getSlot());
+
+    final RedisKey emptyTag = RedisKey.create("foo{}{bar}");
+    assertFalse(emptyTag.hasHashTag());
+    assertEquals(0, emptyTag.getHashTagBegin());
+    assertEquals(emptyTag.getBytes().length, emptyTag.getHashTagEnd());
+  }
+
+  @Test
+  public void testWithArgs() {
+
+    final RedisKey key = RedisKey.create("counter");
+    final byte[][] keyArgs = key.withArgs(RESP.toBytes(1), RESP.toBytes(2));
+    assertEquals(3, keyArgs.length);
+    assertArrayEquals(key.getBytes(), keyArgs[0]);
+    assertArrayEquals(RESP.toBytes(2), keyArgs[2]);
+    assertNotEquals(key, RedisKey.create("counter2"));
+  }
+}
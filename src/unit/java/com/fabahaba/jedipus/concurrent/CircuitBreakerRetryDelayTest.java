@@ -0,0 +1,75 @@
+package com.fabahaba.jedipus.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.fabahaba.jedipus.cluster.Node;
+import com.fabahaba.jedipus.exceptions.RedisCircuitOpenException;
+
+import java.time.Duration;
+
+import org.junit.Test;
+
+public class CircuitBreakerRetryDelayTest {
+
+  private final Node node = Node.create("localhost", 6379);
+  private final RuntimeException cause = new RuntimeException();
+
+  @Test
+  public void testOpensAfterThreshold() {
+
+    final CircuitBreakerRetryDelay<Node> breaker =
+        new CircuitBreakerRetryDelay<>(2, Duration.ofMinutes(1));
+
+    breaker.markAttempt(node);
+    assertEquals(1, breaker.markFailure(node, 5, cause, 0));
+    assertFalse(breaker.isOpen(node));
+
+    try {
+      breaker.markFailure(node, 5, cause, 1);
+      fail("Expected the circuit to open.");
+    } catch (final RedisCircuitOpenException openEx) {
+      assertSame(cause, openEx.getCause());
+      assertEquals(node, openEx.getNode());
+    }
+    assertTrue(breaker.isOpen(node));
+
+    try {
+      breaker.markAttempt(node);
+      fail("Expected the request to be rejected.");
+    } catch (final RedisCircuitOpenException openEx) {
+      assertEquals(node, openEx.getNode());
+    }
+  }
+
+  @Test
+  public void testSingleProbeWhenHalfOpen() throws InterruptedException {
+
+    final CircuitBreakerRetryDelay<Node> breaker =
+        new CircuitBreakerRetryDelay<>(1, Duration.ofMillis(20));
+
+    try {
+      breaker.markFailure(node, 5, cause, 0);
+      fail("Expected the circuit to open.");
+    } catch (final RedisCircuitOpenException openEx) {
+      // expected
+    }
+
+    Thread.sleep(40);
+    breaker.markAttempt(node);
+    try {
+      breaker.markAttempt(node);
+      fail("Only a single probe should be allowed through.");
+    } catch (final RedisCircuitOpenException openEx) {
+      // expected
+    }
+
+    breaker.markSuccess(node);
+    assertFalse(breaker.isOpen(node));
+    breaker.markAttempt(node);
+    breaker.markAttempt(node);
+  }
+}
@@ -0,0 +1,51 @@
+package com.fabahaba.jedipus.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.fabahaba.jedipus.cmds.RESP;
+
+import org.junit.Test;
+
+public class KetamaRingTest {
+
+  private static final int NUM_KEYS = 100_000;
+
+  @Test
+  public void testAddingShardOnlyMovesKeysToIt() {
+
+    final KetamaRing ring = new KetamaRing(new String[] {"a", "b", "c", "d"}, 160);
+    final KetamaRing grown = new KetamaRing(new String[] {"a", "b", "c", "d", "e"}, 160);
+
+    final int[] counts = new int[ring.getNumShards()];
+    int moved = 0;
+    for (int i = 0; i < NUM_KEYS; i++) {
+      final byte[] key = RESP.toBytes("key:" + i);
+      final String before = ring.getShard(key);
+      final String after = grown.getShard(key);
+      counts[ring.getShardIndex(key)]++;
+      if (!before.equals(after)) {
+        assertEquals("e", after);
+        moved++;
+      }
+    }
+
+    // Roughly a fifth of the keys should move to the new shard.
+    assertTrue(String.valueOf(moved), moved > NUM_KEYS / 7 && moved < NUM_KEYS / 4);
+    for (final int count : counts) {
+      assertTrue(String.valueOf(count), count > NUM_KEYS / 6 && count < NUM_KEYS / 3);
+    }
+  }
+
+  @Test
+  public void testHashTagsShareShard() {
+
+    final KetamaRing ring = new KetamaRing(new String[] {"a", "b", "c"}, 160);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(ring.getShard(RESP.toBytes("{user" + i + "}")),
+          ring.getShard(RESP.toBytes("{user" + i + "}:followers")));
+      assertEquals(KetamaRing.hash(RESP.toBytes("user" + i)),
+          KetamaRing.hash(RESP.toBytes("profile:{user" + i + "}")));
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package com.fabahaba.jedipus.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.fabahaba.jedipus.cluster.Node;
+import com.fabahaba.jedipus.cmds.RESP;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class MasterReplicaPoolExecutorTest {
+
+  @Test
+  public void testParseRole() {
+
+    final Object[] role = new Object[] {RESP.toBytes("master"), Long.valueOf(3129659),
+        new Object[] {
+            new Object[] {RESP.toBytes("10.0.0.2"), RESP.toBytes("6379"), RESP.toBytes("3129242")},
+            new Object[] {RESP.toBytes("10.0.0.3"), RESP.toBytes("6380"),
+                RESP.toBytes("3129543")}}};
+
+    assertEquals(Arrays.asList(Node.create("10.0.0.2", 6379), Node.create("10.0.0.3", 6380)),
+        MasterReplicaPoolExecutor.parseRole(role));
+
+    final Object[] replicaRole = new Object[] {RESP.toBytes("slave"), RESP.toBytes("10.0.0.1"),
+        Long.valueOf(6379), RESP.toBytes("connected"), Long.valueOf(3167038)};
+    assertTrue(MasterReplicaPoolExecutor.parseRole(replicaRole).isEmpty());
+  }
+
+  @Test
+  public void testParseInfoReplicationSkipsOffline() {
+
+    final String info = "# Replication\r\nrole:master\r\nconnected_slaves:2\r\n"
+        + "slave0:ip=10.0.0.2,port=6379,state=online,offset=1234,lag=0\r\n"
+        + "slave1:ip=10.0.0.3,port=6379,state=wait_bgsave,offset=0,lag=0\r\n"
+        + "slave2:ip=10.0.0.4,port=6380,state=online,offset=1234,lag=1\r\n"
+        + "master_repl_offset:1234\r\n";
+
+    assertEquals(Arrays.asList(Node.create("10.0.0.2", 6379), Node.create("10.0.0.4", 6380)),
+        MasterReplicaPoolExecutor.parseInfoReplication(info));
+  }
+}
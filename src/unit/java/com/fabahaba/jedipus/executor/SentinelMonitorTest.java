@@ -0,0 +1,44 @@
+package com.fabahaba.jedipus.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.fabahaba.jedipus.cluster.Node;
+import com.fabahaba.jedipus.cmds.RESP;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class SentinelMonitorTest {
+
+  @Test
+  public void testParseSwitchMaster() {
+
+    assertEquals(Node.create("10.0.0.2", 6380),
+        SentinelMonitor.parseSwitchMaster("cache", "cache 10.0.0.1 6379 10.0.0.2 6380"));
+    assertNull(SentinelMonitor.parseSwitchMaster("cache", "other 10.0.0.1 6379 10.0.0.2 6380"));
+    assertNull(SentinelMonitor.parseSwitchMaster("cache", "cache 10.0.0.1 6379"));
+  }
+
+  @Test
+  public void testParseReplicasSkipsDown() {
+
+    final Object[] replicas = new Object[] {
+        replica("10.0.0.2", "6379", "slave"),
+        replica("10.0.0.3", "6379", "s_down,slave"),
+        replica("10.0.0.4", "6379", "slave,disconnected"),
+        replica("10.0.0.5", "6380", "slave")};
+
+    final List<Node> nodes = SentinelMonitor.parseReplicas(replicas);
+    assertEquals(Arrays.asList(Node.create("10.0.0.2", 6379), Node.create("10.0.0.5", 6380)),
+        nodes);
+  }
+
+  private static Object[] replica(final String ip, final String port, final String flags) {
+    return new Object[] {RESP.toBytes("name"), RESP.toBytes(ip + ":" + port), RESP.toBytes("ip"),
+        RESP.toBytes(ip), RESP.toBytes("port"), RESP.toBytes(port), RESP.toBytes("flags"),
+        RESP.toBytes(flags)};
+  }
+}
@@ -0,0 +1,136 @@
+package com.fabahaba.jedipus.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.fabahaba.jedipus.client.ConnectedSocketFactory;
+import com.fabahaba.jedipus.client.RedisClient;
+import com.fabahaba.jedipus.cluster.Node;
+import com.fabahaba.jedipus.primitive.RedisClientFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+public class SingleRedisClientExecutorTest {
+
+  private static final class StubSocket extends Socket {
+
+    @Override
+    public InputStream getInputStream() {
+      return new ByteArrayInputStream(new byte[0]);
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+      return new ByteArrayOutputStream();
+    }
+
+    @Override
+    public int getSendBufferSize() {
+      return 1024;
+    }
+
+    @Override
+    public int getReceiveBufferSize() {
+      return 1024;
+    }
+  }
+
+  private static final class StubSocketFactory implements ConnectedSocketFactory<Socket> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Socket create(final String host, final int port, final int connTimeoutMillis) {
+      return new StubSocket();
+    }
+
+    @Override
+    public int getSoTimeoutMillis() {
+      return 0;
+    }
+  }
+
+  @Test
+  public void testConcurrentCallsAreSerialized() throws Exception {
+    final RedisClientFactory.Builder clientFactory =
+        RedisClientFactory.startBuilding().withConnectedSocketFactory(new StubSocketFactory());
+    final Node node = Node.create("localhost", 6379);
+
+    final AtomicInteger inFlight = new AtomicInteger();
+    final AtomicInteger maxInFlight = new AtomicInteger();
+    final Function<RedisClient, RedisClient> slowCall = client -> {
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      try {
+        TimeUnit.MILLISECONDS.sleep(1);
+      } catch (final InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException(ie);
+      }
+      inFlight.decrementAndGet();
+      return client;
+    };
+    final ExecutorService callers = Executors.newFixedThreadPool(8);
+
+    try (final RedisClientExecutor executor = RedisClientExecutor.startBuilding()
+        .withClientFactory(clientFactory).create(() -> node)) {
+
+      // Blocking calls from other threads are mixed in with the asynchronous ones.
+      final List<CompletableFuture<RedisClient>> futures = new ArrayList<>();
+      for (int i = 0; i < 64; i++) {
+        futures.add(i % 2 == 0 ? executor.applyAsync(slowCall, callers)
+            : CompletableFuture.supplyAsync(() -> executor.apply(slowCall), callers));
+      }
+
+      final RedisClient firstClient = futures.get(0).get(10, TimeUnit.SECONDS);
+      for (final CompletableFuture<RedisClient> future : futures) {
+        assertSame(firstClient, future.get(10, TimeUnit.SECONDS));
+      }
+    } finally {
+      callers.shutdownNow();
+    }
+
+    assertEquals(1, maxInFlight.get());
+  }
+
+  @Test
+  public void testCloseFailsLaterCalls() {
+    final RedisClientFactory.Builder clientFactory =
+        RedisClientFactory.startBuilding().withConnectedSocketFactory(new StubSocketFactory());
+    final Node node = Node.create("localhost", 6379);
+    final ExecutorService callers = Executors.newSingleThreadExecutor();
+
+    try {
+      final RedisClientExecutor executor = RedisClientExecutor.startBuilding()
+          .withClientFactory(clientFactory).create(() -> node);
+      executor.apply(client -> client);
+      executor.close();
+
+      try {
+        executor.apply(client -> client);
+        fail("Expected the closed executor to reject the call.");
+      } catch (final IllegalStateException closedEx) {
+        assertEquals("Executor closed.", closedEx.getMessage());
+      }
+
+      assertTrue(executor.applyAsync(client -> client, callers).isCompletedExceptionally());
+    } finally {
+      callers.shutdownNow();
+    }
+  }
+}